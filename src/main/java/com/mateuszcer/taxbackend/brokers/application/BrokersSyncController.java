@@ -0,0 +1,68 @@
+package com.mateuszcer.taxbackend.brokers.application;
+
+import com.mateuszcer.taxbackend.brokers.domain.ActionResult;
+import com.mateuszcer.taxbackend.brokers.domain.Broker;
+import com.mateuszcer.taxbackend.brokers.domain.BrokerFacade;
+import com.mateuszcer.taxbackend.brokers.domain.BrokerSyncSummary;
+import com.mateuszcer.taxbackend.brokers.domain.action.SyncAllBrokerOrdersAction;
+import com.mateuszcer.taxbackend.shared.authuserid.AuthUserId;
+import com.mateuszcer.taxbackend.shared.response.ApiResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/brokers")
+@Tag(name = "Brokers", description = "Generic broker integration endpoints")
+@SecurityRequirement(name = "bearerAuth")
+public class BrokersSyncController {
+
+    private final BrokerFacade brokerFacade;
+
+    public BrokersSyncController(BrokerFacade brokerFacade) {
+        this.brokerFacade = brokerFacade;
+    }
+
+    @PostMapping("/orders/sync")
+    @Operation(summary = "Sync all brokers", description = "Fetches orders from every connected broker concurrently and publishes one NewOrdersEvent")
+    @io.swagger.v3.oas.annotations.responses.ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Orders synced (brokers that failed or timed out are listed)",
+                    content = @Content(schema = @Schema(implementation = SyncAllOrdersResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "401",
+                    description = "Missing/invalid JWT or every connected broker failed",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            )
+    })
+    public ResponseEntity<ApiResponse<SyncAllOrdersResponse>> syncAll(@AuthUserId String authUserId) {
+        ActionResult<BrokerSyncSummary> result = brokerFacade.handle(new SyncAllBrokerOrdersAction(authUserId));
+        if (result.isSuccess()) {
+            return ResponseEntity.ok(ApiResponse.success(SyncAllOrdersResponse.from(result.getData()), "Orders synced successfully"));
+        }
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(ApiResponse.error(result.getMessage(), "BROKER_ORDERS_SYNC_FAILED"));
+    }
+
+    @Schema(name = "BrokerSyncAllOrdersResponse", description = "Orders synced across all connected brokers")
+    public record SyncAllOrdersResponse(
+            @Schema(description = "Number of orders published to the system", example = "42") Integer syncedOrders,
+            @Schema(description = "Orders fetched per broker") Map<Broker, Integer> ordersByBroker,
+            @Schema(description = "Failure reason per broker that did not sync") Map<Broker, String> failures
+    ) {
+        public static SyncAllOrdersResponse from(BrokerSyncSummary summary) {
+            return new SyncAllOrdersResponse(summary.syncedOrders(), summary.ordersByBroker(), summary.failures());
+        }
+    }
+}
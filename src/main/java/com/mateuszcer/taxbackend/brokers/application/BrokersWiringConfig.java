@@ -4,11 +4,14 @@ import com.mateuszcer.taxbackend.brokers.domain.BrokerFacade;
 import com.mateuszcer.taxbackend.brokers.domain.Broker;
 import com.mateuszcer.taxbackend.brokers.domain.port.BrokerAdapter;
 import com.mateuszcer.taxbackend.brokers.domain.port.NewOrdersPublisher;
+import com.mateuszcer.taxbackend.brokers.domain.usecase.SyncAllBrokerOrders;
 import com.mateuszcer.taxbackend.brokers.domain.usecase.SyncBrokerOrders;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.ApplicationEventPublisher;
 
+import java.time.Duration;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
@@ -27,11 +30,21 @@ public class BrokersWiringConfig {
     }
 
     @Bean
-    public BrokerFacade brokerFacade(List<BrokerAdapter> adapters, SyncBrokerOrders syncBrokerOrders) {
+    public SyncAllBrokerOrders syncAllBrokerOrders(
+            NewOrdersPublisher newOrdersPublisher,
+            @Value("${brokers.sync-all.deadline:20s}") Duration deadline) {
+        return new SyncAllBrokerOrders(newOrdersPublisher, deadline);
+    }
+
+    @Bean
+    public BrokerFacade brokerFacade(
+            List<BrokerAdapter> adapters,
+            SyncBrokerOrders syncBrokerOrders,
+            SyncAllBrokerOrders syncAllBrokerOrders) {
         Map<Broker, BrokerAdapter> map = new EnumMap<>(Broker.class);
         for (BrokerAdapter adapter : adapters) {
             map.put(adapter.broker(), adapter);
         }
-        return new BrokerFacade(map, syncBrokerOrders);
+        return new BrokerFacade(map, syncBrokerOrders, syncAllBrokerOrders);
     }
 }
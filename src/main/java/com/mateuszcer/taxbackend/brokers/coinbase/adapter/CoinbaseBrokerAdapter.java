@@ -35,6 +35,11 @@ public class CoinbaseBrokerAdapter implements BrokerAdapter {
         return oauthOrdersBroker.saveAccessToken(code, userId);
     }
 
+    @Override
+    public boolean isConnected(String userId) {
+        return oauthOrdersBroker.isConnected(userId);
+    }
+
     @Override
     public ActionResult<CoinbaseGetOrdersResponse> getOrders(String userId) {
         return oauthOrdersBroker.getOrders(userId);
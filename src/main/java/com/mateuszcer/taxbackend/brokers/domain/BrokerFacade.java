@@ -1,10 +1,12 @@
 package com.mateuszcer.taxbackend.brokers.domain;
 
 import com.mateuszcer.taxbackend.brokers.domain.action.SaveBrokerAccessTokenAction;
+import com.mateuszcer.taxbackend.brokers.domain.action.SyncAllBrokerOrdersAction;
 import com.mateuszcer.taxbackend.brokers.domain.action.SyncBrokerOrdersAction;
 import com.mateuszcer.taxbackend.brokers.domain.port.BrokerAdapter;
 import com.mateuszcer.taxbackend.brokers.domain.query.GetBrokerOAuthUrlQuery;
 import com.mateuszcer.taxbackend.brokers.domain.query.GetBrokerOrdersQuery;
+import com.mateuszcer.taxbackend.brokers.domain.usecase.SyncAllBrokerOrders;
 import com.mateuszcer.taxbackend.brokers.domain.usecase.SyncBrokerOrders;
 
 import java.util.Map;
@@ -13,10 +15,16 @@ public class BrokerFacade {
 
     private final Map<Broker, BrokerAdapter> adapters;
     private final SyncBrokerOrders syncBrokerOrders;
+    private final SyncAllBrokerOrders syncAllBrokerOrders;
 
-    public BrokerFacade(Map<Broker, BrokerAdapter> adapters, SyncBrokerOrders syncBrokerOrders) {
+    public BrokerFacade(
+            Map<Broker, BrokerAdapter> adapters,
+            SyncBrokerOrders syncBrokerOrders,
+            SyncAllBrokerOrders syncAllBrokerOrders
+    ) {
         this.adapters = adapters;
         this.syncBrokerOrders = syncBrokerOrders;
+        this.syncAllBrokerOrders = syncAllBrokerOrders;
     }
 
     public String handle(GetBrokerOAuthUrlQuery query) {
@@ -35,6 +43,10 @@ public class BrokerFacade {
         return syncBrokerOrders.execute(action, adapter(action.broker()));
     }
 
+    public ActionResult<BrokerSyncSummary> handle(SyncAllBrokerOrdersAction action) {
+        return syncAllBrokerOrders.execute(action, adapters.values());
+    }
+
     private BrokerAdapter adapter(Broker broker) {
         BrokerAdapter adapter = adapters.get(broker);
         if (adapter == null) {
@@ -0,0 +1,17 @@
+package com.mateuszcer.taxbackend.brokers.domain;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of syncing all connected brokers: orders fetched per broker and the reason for every broker that failed.
+ */
+public record BrokerSyncSummary(
+        int syncedOrders,
+        Map<Broker, Integer> ordersByBroker,
+        Map<Broker, String> failures
+) {
+    public List<Broker> syncedBrokers() {
+        return List.copyOf(ordersByBroker.keySet());
+    }
+}
@@ -0,0 +1,4 @@
+package com.mateuszcer.taxbackend.brokers.domain.action;
+
+public record SyncAllBrokerOrdersAction(String userId) {
+}
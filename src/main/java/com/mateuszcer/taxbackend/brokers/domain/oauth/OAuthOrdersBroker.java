@@ -25,6 +25,10 @@ public class OAuthOrdersBroker<TOrders> {
         return true;
     }
 
+    public boolean isConnected(String userId) {
+        return userId != null && tokenStore.findByUserId(userId).isPresent();
+    }
+
     public ActionResult<TOrders> getOrders(String userId) {
         var tokenOpt = tokenStore.findByUserId(userId);
         if (tokenOpt.isEmpty()) {
@@ -14,6 +14,8 @@ public interface BrokerAdapter {
 
     boolean saveAccessToken(String code, String userId);
 
+    boolean isConnected(String userId);
+
     ActionResult<?> getOrders(String userId);
 
     ActionResult<List<NewOrdersEvent.OrderPayload>> getOrdersPayload(String userId);
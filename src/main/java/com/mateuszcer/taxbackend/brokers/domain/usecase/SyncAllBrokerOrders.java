@@ -0,0 +1,110 @@
+package com.mateuszcer.taxbackend.brokers.domain.usecase;
+
+import com.mateuszcer.taxbackend.brokers.domain.ActionResult;
+import com.mateuszcer.taxbackend.brokers.domain.Broker;
+import com.mateuszcer.taxbackend.brokers.domain.BrokerSyncSummary;
+import com.mateuszcer.taxbackend.brokers.domain.action.SyncAllBrokerOrdersAction;
+import com.mateuszcer.taxbackend.brokers.domain.port.BrokerAdapter;
+import com.mateuszcer.taxbackend.brokers.domain.port.NewOrdersPublisher;
+import com.mateuszcer.taxbackend.shared.events.NewOrdersEvent;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Fetches orders from every connected broker concurrently, one virtual thread per adapter, under a shared deadline.
+ * Adapters still running at the deadline are cancelled; everything fetched in time is published as one batch,
+ * so sync latency follows the slowest broker instead of the sum of all of them.
+ */
+public class SyncAllBrokerOrders {
+
+    private final NewOrdersPublisher newOrdersPublisher;
+    private final Duration deadline;
+
+    public SyncAllBrokerOrders(NewOrdersPublisher newOrdersPublisher, Duration deadline) {
+        this.newOrdersPublisher = newOrdersPublisher;
+        this.deadline = deadline;
+    }
+
+    public ActionResult<BrokerSyncSummary> execute(SyncAllBrokerOrdersAction action, Collection<BrokerAdapter> adapters) {
+        if (action == null || action.userId() == null || adapters == null) {
+            return ActionResult.failure("Invalid sync request.");
+        }
+
+        String userId = action.userId();
+        List<Fetch> tasks = new ArrayList<>(adapters.size());
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            for (BrokerAdapter adapter : adapters) {
+                tasks.add(new Fetch(adapter.broker(), executor.submit(() -> adapter.isConnected(userId)
+                        ? adapter.getOrdersPayload(userId)
+                        : null)));
+            }
+
+            long deadlineAt = System.nanoTime() + deadline.toNanos();
+            List<NewOrdersEvent.OrderPayload> merged = new ArrayList<>();
+            Map<Broker, Integer> ordersByBroker = new EnumMap<>(Broker.class);
+            Map<Broker, String> failures = new EnumMap<>(Broker.class);
+
+            for (Fetch fetch : tasks) {
+                Broker broker = fetch.broker();
+                Future<ActionResult<List<NewOrdersEvent.OrderPayload>>> task = fetch.task();
+                try {
+                    ActionResult<List<NewOrdersEvent.OrderPayload>> result =
+                            task.get(Math.max(0, deadlineAt - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    if (result == null) {
+                        continue;
+                    }
+                    if (!result.isSuccess()) {
+                        failures.merge(broker, result.getMessage(), SyncAllBrokerOrders::joined);
+                        continue;
+                    }
+                    List<NewOrdersEvent.OrderPayload> orders = result.getData() == null ? List.of() : result.getData();
+                    merged.addAll(orders);
+                    ordersByBroker.merge(broker, orders.size(), Integer::sum);
+                } catch (TimeoutException e) {
+                    task.cancel(true);
+                    failures.merge(broker, "Sync deadline of " + deadline.toMillis() + " ms exceeded.", SyncAllBrokerOrders::joined);
+                } catch (ExecutionException e) {
+                    failures.merge(broker, "Sync failed: " + e.getCause().getMessage(), SyncAllBrokerOrders::joined);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    tasks.forEach(t -> t.task().cancel(true));
+                    return ActionResult.failure("Sync interrupted.");
+                }
+            }
+
+            if (ordersByBroker.isEmpty() && !failures.isEmpty()) {
+                return ActionResult.failure("All broker syncs failed: " + failures);
+            }
+
+            if (!merged.isEmpty()) {
+                newOrdersPublisher.publish(new NewOrdersEvent(userId, merged));
+            }
+            return ActionResult.success(new BrokerSyncSummary(merged.size(), ordersByBroker, failures));
+        } finally {
+            // Cancelled adapters may ignore interruption; do not wait for them.
+            executor.shutdownNow();
+        }
+    }
+
+    private static String joined(String first, String second) {
+        return first + " " + second;
+    }
+
+    /**
+     * One adapter's fetch; kept per adapter, not per broker, so two adapters of the same broker never drop each other.
+     */
+    private record Fetch(Broker broker, Future<ActionResult<List<NewOrdersEvent.OrderPayload>>> task) {
+    }
+}
@@ -3,7 +3,11 @@ package com.mateuszcer.taxbackend.capitalgains.application;
 import com.mateuszcer.taxbackend.capitalgains.domain.CapitalGainsFacade;
 import com.mateuszcer.taxbackend.capitalgains.domain.port.CapitalGainsReportStore;
 import com.mateuszcer.taxbackend.capitalgains.domain.port.UserOrdersProvider;
+import com.mateuszcer.taxbackend.capitalgains.domain.service.CapitalGainsLedger;
 import com.mateuszcer.taxbackend.capitalgains.domain.usecase.CalculateCapitalGainsPreview;
+import com.mateuszcer.taxbackend.capitalgains.domain.usecase.CalculateOpenLots;
+import com.mateuszcer.taxbackend.capitalgains.domain.usecase.CalculateTaxYearTotals;
+import com.mateuszcer.taxbackend.capitalgains.domain.usecase.CalculateTaxYearTotalsByMethod;
 import com.mateuszcer.taxbackend.capitalgains.domain.usecase.GenerateCapitalGainsReport;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -12,8 +16,37 @@ import org.springframework.context.annotation.Configuration;
 public class CapitalGainsWiringConfig {
 
     @Bean
-    public CalculateCapitalGainsPreview calculateCapitalGainsPreview(UserOrdersProvider userOrdersProvider) {
-        return new CalculateCapitalGainsPreview(userOrdersProvider);
+    public CapitalGainsLedger capitalGainsLedger() {
+        return new CapitalGainsLedger();
+    }
+
+    @Bean
+    public CalculateTaxYearTotals calculateTaxYearTotals(
+            UserOrdersProvider userOrdersProvider,
+            CapitalGainsLedger capitalGainsLedger
+    ) {
+        return new CalculateTaxYearTotals(userOrdersProvider, capitalGainsLedger);
+    }
+
+    @Bean
+    public CalculateOpenLots calculateOpenLots(
+            UserOrdersProvider userOrdersProvider,
+            CapitalGainsLedger capitalGainsLedger
+    ) {
+        return new CalculateOpenLots(userOrdersProvider, capitalGainsLedger);
+    }
+
+    @Bean
+    public CalculateTaxYearTotalsByMethod calculateTaxYearTotalsByMethod(
+            UserOrdersProvider userOrdersProvider,
+            CapitalGainsLedger capitalGainsLedger
+    ) {
+        return new CalculateTaxYearTotalsByMethod(userOrdersProvider, capitalGainsLedger);
+    }
+
+    @Bean
+    public CalculateCapitalGainsPreview calculateCapitalGainsPreview(CalculateTaxYearTotals calculateTaxYearTotals) {
+        return new CalculateCapitalGainsPreview(calculateTaxYearTotals);
     }
 
     @Bean
@@ -27,10 +60,17 @@ public class CapitalGainsWiringConfig {
     @Bean
     public CapitalGainsFacade capitalGainsFacade(
             CalculateCapitalGainsPreview calculateCapitalGainsPreview,
-            GenerateCapitalGainsReport generateCapitalGainsReport
+            GenerateCapitalGainsReport generateCapitalGainsReport,
+            CalculateTaxYearTotals calculateTaxYearTotals,
+            CalculateOpenLots calculateOpenLots,
+            CalculateTaxYearTotalsByMethod calculateTaxYearTotalsByMethod
     ) {
-        return new CapitalGainsFacade(calculateCapitalGainsPreview, generateCapitalGainsReport);
+        return new CapitalGainsFacade(
+                calculateCapitalGainsPreview,
+                generateCapitalGainsReport,
+                calculateTaxYearTotals,
+                calculateOpenLots,
+                calculateTaxYearTotalsByMethod
+        );
     }
 }
-
-
@@ -2,20 +2,38 @@ package com.mateuszcer.taxbackend.capitalgains.domain;
 
 import com.mateuszcer.taxbackend.capitalgains.domain.action.GenerateCapitalGainsReportAction;
 import com.mateuszcer.taxbackend.capitalgains.domain.query.CapitalGainsPreviewQuery;
+import com.mateuszcer.taxbackend.capitalgains.domain.query.OpenLotsQuery;
+import com.mateuszcer.taxbackend.capitalgains.domain.query.TaxYearTotalsByMethodQuery;
+import com.mateuszcer.taxbackend.capitalgains.domain.query.TaxYearTotalsQuery;
 import com.mateuszcer.taxbackend.capitalgains.domain.usecase.CalculateCapitalGainsPreview;
+import com.mateuszcer.taxbackend.capitalgains.domain.usecase.CalculateOpenLots;
+import com.mateuszcer.taxbackend.capitalgains.domain.usecase.CalculateTaxYearTotals;
+import com.mateuszcer.taxbackend.capitalgains.domain.usecase.CalculateTaxYearTotalsByMethod;
 import com.mateuszcer.taxbackend.capitalgains.domain.usecase.GenerateCapitalGainsReport;
 
+import java.util.List;
+import java.util.Map;
+
 public class CapitalGainsFacade {
 
     private final CalculateCapitalGainsPreview calculateCapitalGainsPreview;
     private final GenerateCapitalGainsReport generateCapitalGainsReport;
+    private final CalculateTaxYearTotals calculateTaxYearTotals;
+    private final CalculateOpenLots calculateOpenLots;
+    private final CalculateTaxYearTotalsByMethod calculateTaxYearTotalsByMethod;
 
     public CapitalGainsFacade(
             CalculateCapitalGainsPreview calculateCapitalGainsPreview,
-            GenerateCapitalGainsReport generateCapitalGainsReport
+            GenerateCapitalGainsReport generateCapitalGainsReport,
+            CalculateTaxYearTotals calculateTaxYearTotals,
+            CalculateOpenLots calculateOpenLots,
+            CalculateTaxYearTotalsByMethod calculateTaxYearTotalsByMethod
     ) {
         this.calculateCapitalGainsPreview = calculateCapitalGainsPreview;
         this.generateCapitalGainsReport = generateCapitalGainsReport;
+        this.calculateTaxYearTotals = calculateTaxYearTotals;
+        this.calculateOpenLots = calculateOpenLots;
+        this.calculateTaxYearTotalsByMethod = calculateTaxYearTotalsByMethod;
     }
 
     public CapitalGainsPreview handle(CapitalGainsPreviewQuery query) {
@@ -25,6 +43,16 @@ public class CapitalGainsFacade {
     public CapitalGainsReport handle(GenerateCapitalGainsReportAction action) {
         return generateCapitalGainsReport.execute(action);
     }
-}
 
+    public TaxYearTotals handle(TaxYearTotalsQuery query) {
+        return calculateTaxYearTotals.execute(query);
+    }
 
+    public List<OpenLot> handle(OpenLotsQuery query) {
+        return calculateOpenLots.execute(query);
+    }
+
+    public Map<CostBasisMethod, TaxYearTotals> handle(TaxYearTotalsByMethodQuery query) {
+        return calculateTaxYearTotalsByMethod.execute(query);
+    }
+}
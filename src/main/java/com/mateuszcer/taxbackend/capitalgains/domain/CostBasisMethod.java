@@ -0,0 +1,12 @@
+package com.mateuszcer.taxbackend.capitalgains.domain;
+
+/**
+ * Which open lot a sale is matched against. FIFO is what the reports use; the others are for comparison.
+ * HIFO ranks lots by reporting-currency unit cost, AVERAGE pools all lots of a product at their weighted cost.
+ */
+public enum CostBasisMethod {
+    FIFO,
+    LIFO,
+    HIFO,
+    AVERAGE
+}
@@ -0,0 +1,16 @@
+package com.mateuszcer.taxbackend.capitalgains.domain;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+/**
+ * Realized result of the sells of one product in one month, in the order currency.
+ */
+public record MonthlyRealizedGain(
+        YearMonth month,
+        String productId,
+        BigDecimal cost,
+        BigDecimal proceeds,
+        BigDecimal gain
+) {
+}
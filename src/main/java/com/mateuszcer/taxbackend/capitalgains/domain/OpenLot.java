@@ -0,0 +1,16 @@
+package com.mateuszcer.taxbackend.capitalgains.domain;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Unmatched remainder of a buy after FIFO matching; unit costs in the order currency and in the reporting currency.
+ */
+public record OpenLot(
+        String productId,
+        Instant acquiredAt,
+        BigDecimal quantity,
+        BigDecimal unitCost,
+        BigDecimal reportingUnitCost
+) {
+}
@@ -0,0 +1,24 @@
+package com.mateuszcer.taxbackend.capitalgains.domain;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Totals of a single tax year in the order currency and in the reporting currency,
+ * produced by one FIFO pass of {@link com.mateuszcer.taxbackend.capitalgains.domain.service.CapitalGainsLedger}.
+ */
+public record TaxYearTotals(
+        int taxYear,
+        BigDecimal cost,
+        BigDecimal proceeds,
+        BigDecimal gain,
+        BigDecimal reportingCost,
+        BigDecimal reportingProceeds,
+        BigDecimal reportingGain,
+        List<MonthlyRealizedGain> realizedGains,
+        List<String> warnings
+) {
+    public CapitalGainsPreview toCapitalGainsPreview() {
+        return new CapitalGainsPreview(taxYear, cost, proceeds, gain, warnings);
+    }
+}
@@ -2,12 +2,18 @@ package com.mateuszcer.taxbackend.capitalgains.domain.port;
 
 import com.mateuszcer.taxbackend.capitalgains.domain.CapitalGainsReport;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface CapitalGainsReportStore {
     Optional<CapitalGainsReport> findByUserIdAndTaxYear(String userId, int taxYear);
 
     CapitalGainsReport save(CapitalGainsReport report);
+
+    List<CapitalGainsReport> findByUserIdAndTaxYearIn(String userId, Collection<Integer> taxYears);
+
+    List<CapitalGainsReport> saveAll(List<CapitalGainsReport> reports);
 }
 
 
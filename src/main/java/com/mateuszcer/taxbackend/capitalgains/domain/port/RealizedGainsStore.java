@@ -0,0 +1,12 @@
+package com.mateuszcer.taxbackend.capitalgains.domain.port;
+
+import com.mateuszcer.taxbackend.capitalgains.domain.MonthlyRealizedGain;
+
+import java.util.List;
+
+public interface RealizedGainsStore {
+    /**
+     * Replaces the realized gains of every month of the tax year with the given ones.
+     */
+    void replaceForYear(String userId, int taxYear, List<MonthlyRealizedGain> gains);
+}
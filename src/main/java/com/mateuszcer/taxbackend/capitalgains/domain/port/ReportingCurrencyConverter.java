@@ -0,0 +1,18 @@
+package com.mateuszcer.taxbackend.capitalgains.domain.port;
+
+import com.mateuszcer.taxbackend.capitalgains.domain.OrderSnapshot;
+
+import java.math.BigDecimal;
+
+/**
+ * Converts an amount quoted in the order's own currency into the reporting currency
+ * (e.g. PLN for PIT) using the order's transaction date.
+ */
+public interface ReportingCurrencyConverter {
+
+    BigDecimal convert(BigDecimal amount, OrderSnapshot order);
+
+    static ReportingCurrencyConverter identity() {
+        return (amount, order) -> amount;
+    }
+}
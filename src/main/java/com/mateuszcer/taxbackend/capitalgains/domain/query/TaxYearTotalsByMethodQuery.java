@@ -0,0 +1,14 @@
+package com.mateuszcer.taxbackend.capitalgains.domain.query;
+
+import com.mateuszcer.taxbackend.capitalgains.domain.CostBasisMethod;
+import com.mateuszcer.taxbackend.capitalgains.domain.port.ReportingCurrencyConverter;
+
+import java.util.Set;
+
+public record TaxYearTotalsByMethodQuery(
+        String userId,
+        int taxYear,
+        ReportingCurrencyConverter converter,
+        Set<CostBasisMethod> methods
+) {
+}
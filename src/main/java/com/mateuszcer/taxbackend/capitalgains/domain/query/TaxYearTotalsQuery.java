@@ -0,0 +1,6 @@
+package com.mateuszcer.taxbackend.capitalgains.domain.query;
+
+import com.mateuszcer.taxbackend.capitalgains.domain.port.ReportingCurrencyConverter;
+
+public record TaxYearTotalsQuery(String userId, int taxYear, ReportingCurrencyConverter converter) {
+}
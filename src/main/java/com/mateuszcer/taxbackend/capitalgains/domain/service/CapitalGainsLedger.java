@@ -0,0 +1,280 @@
+package com.mateuszcer.taxbackend.capitalgains.domain.service;
+
+import com.mateuszcer.taxbackend.capitalgains.domain.CostBasisMethod;
+import com.mateuszcer.taxbackend.capitalgains.domain.MonthlyRealizedGain;
+import com.mateuszcer.taxbackend.capitalgains.domain.OpenLot;
+import com.mateuszcer.taxbackend.capitalgains.domain.OrderSnapshot;
+import com.mateuszcer.taxbackend.capitalgains.domain.TaxYearTotals;
+import com.mateuszcer.taxbackend.capitalgains.domain.port.ReportingCurrencyConverter;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Domain service running the lot matching for any number of tax years in a single pass
+ * over the user's order history. Every lot carries both the original-currency and the
+ * reporting-currency unit cost, so capital gains and PIT totals come out of the same walk.
+ * Lots are matched within a tax year, exactly like the single-year previews. Reports use FIFO;
+ * the other {@link CostBasisMethod}s only differ in the {@link LotPool} a sale is matched against.
+ */
+public class CapitalGainsLedger {
+
+    private static final ZoneId ZONE = ZoneId.of("Europe/Warsaw");
+
+    public Map<Integer, TaxYearTotals> calculate(
+            Collection<OrderSnapshot> orders,
+            Collection<Integer> taxYears,
+            ReportingCurrencyConverter converter
+    ) {
+        Set<Integer> years = taxYears.stream().filter(y -> y != null).collect(Collectors.toSet());
+        Map<Integer, YearAccumulator> accumulators = new TreeMap<>();
+        for (Integer year : years) {
+            accumulators.put(year, new YearAccumulator(year, CostBasisMethod.FIFO, false));
+        }
+
+        for (DatedOrder d : filledInYears(orders, years)) {
+            accumulators.get(d.year()).apply(d.order(), converter);
+        }
+
+        Map<Integer, TaxYearTotals> result = new TreeMap<>();
+        accumulators.forEach((year, acc) -> result.put(year, acc.toTotals()));
+        return result;
+    }
+
+    public TaxYearTotals calculate(Collection<OrderSnapshot> orders, int taxYear, ReportingCurrencyConverter converter) {
+        return calculate(orders, List.of(taxYear), converter).get(taxYear);
+    }
+
+    /**
+     * Totals of one tax year under each of the given cost basis methods. The orders are filtered and sorted once
+     * and every order is applied to all methods in the same pass, so comparing four methods costs one walk.
+     */
+    public Map<CostBasisMethod, TaxYearTotals> calculate(
+            Collection<OrderSnapshot> orders,
+            int taxYear,
+            ReportingCurrencyConverter converter,
+            Collection<CostBasisMethod> methods
+    ) {
+        Map<CostBasisMethod, YearAccumulator> accumulators = new EnumMap<>(CostBasisMethod.class);
+        for (CostBasisMethod method : methods) {
+            accumulators.put(method, new YearAccumulator(taxYear, method, false));
+        }
+        for (DatedOrder d : filledInYears(orders, Set.of(taxYear))) {
+            accumulators.values().forEach(acc -> acc.apply(d.order(), converter));
+        }
+
+        Map<CostBasisMethod, TaxYearTotals> result = new EnumMap<>(CostBasisMethod.class);
+        accumulators.forEach((method, acc) -> result.put(method, acc.toTotals()));
+        return result;
+    }
+
+    /**
+     * Lots still held after FIFO matching of the whole history. Unlike the per-year totals, lots carry over
+     * year boundaries here: this is what the user holds today, not what a single tax year matched.
+     * Sells are matched against every product of the same base asset (BTC sold on BTC-EUR consumes BTC bought on
+     * BTC-USD), since the holding is the asset; each open lot keeps the product it was bought on.
+     */
+    public List<OpenLot> openLots(Collection<OrderSnapshot> orders, ReportingCurrencyConverter converter) {
+        YearAccumulator book = new YearAccumulator(0, CostBasisMethod.FIFO, true);
+        orders.stream()
+                .filter(o -> o != null)
+                .filter(o -> o.occurredAt() != null)
+                .filter(o -> o.status() != null && o.status().equalsIgnoreCase("FILLED"))
+                .sorted(Comparator.comparing(OrderSnapshot::occurredAt))
+                .forEach(o -> book.apply(o, converter));
+        return book.openLots();
+    }
+
+    private static List<DatedOrder> filledInYears(Collection<OrderSnapshot> orders, Set<Integer> years) {
+        return orders.stream()
+                .filter(o -> o != null)
+                .filter(o -> o.occurredAt() != null)
+                .filter(o -> o.status() != null && o.status().equalsIgnoreCase("FILLED"))
+                .map(o -> new DatedOrder(o.occurredAt().atZone(ZONE).getYear(), o))
+                .filter(d -> years.contains(d.year()))
+                .sorted(Comparator.comparing(d -> d.order().occurredAt()))
+                .toList();
+    }
+
+    private static BigDecimal computeBuyUnitCost(OrderSnapshot o) {
+        BigDecimal qty = nz(o.quantity());
+        BigDecimal total = nz(o.total());
+        BigDecimal fee = nz(o.fee());
+        if (qty.signum() > 0 && (total.signum() > 0 || fee.signum() > 0)) {
+            return total.add(fee).divide(qty, 18, RoundingMode.HALF_UP);
+        }
+        BigDecimal price = nz(o.price());
+        if (price.signum() > 0) {
+            return price;
+        }
+        return BigDecimal.ZERO;
+    }
+
+    private static BigDecimal computeSellProceeds(OrderSnapshot o) {
+        BigDecimal total = nz(o.total());
+        BigDecimal fee = nz(o.fee());
+        if (total.signum() > 0) {
+            return total.subtract(fee);
+        }
+        BigDecimal qty = nz(o.quantity());
+        BigDecimal price = nz(o.price());
+        if (qty.signum() > 0 && price.signum() > 0) {
+            return qty.multiply(price).subtract(fee);
+        }
+        return BigDecimal.ZERO;
+    }
+
+    /**
+     * "BTC-USD" -> "BTC"
+     */
+    private static String baseAsset(String productId) {
+        int dash = productId.indexOf('-');
+        return (dash < 0 ? productId : productId.substring(0, dash)).toUpperCase(Locale.ROOT);
+    }
+
+    private static BigDecimal nz(BigDecimal v) {
+        return v == null ? BigDecimal.ZERO : v;
+    }
+
+    private static String nzStr(String s) {
+        return s == null ? "" : s;
+    }
+
+    private static BigDecimal scale(BigDecimal v) {
+        return v.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private record DatedOrder(int year, OrderSnapshot order) {
+    }
+
+    private static final class YearAccumulator {
+        private final int taxYear;
+        private final CostBasisMethod method;
+        private final boolean poolByAsset;
+        private final Map<String, LotPool> lotsByProduct = new HashMap<>();
+        private final Map<RealizedKey, BigDecimal[]> realized = new TreeMap<>();
+        private final List<String> warnings = new ArrayList<>();
+        private BigDecimal cost = BigDecimal.ZERO;
+        private BigDecimal proceeds = BigDecimal.ZERO;
+        private BigDecimal reportingCost = BigDecimal.ZERO;
+        private BigDecimal reportingProceeds = BigDecimal.ZERO;
+
+        private YearAccumulator(int taxYear, CostBasisMethod method, boolean poolByAsset) {
+            this.taxYear = taxYear;
+            this.method = method;
+            this.poolByAsset = poolByAsset;
+        }
+
+        private LotPool pool(String productId) {
+            return lotsByProduct.computeIfAbsent(poolByAsset ? baseAsset(productId) : productId, k -> LotPool.of(method));
+        }
+
+        private void apply(OrderSnapshot o, ReportingCurrencyConverter converter) {
+            String side = o.side() == null ? "" : o.side().toUpperCase(Locale.ROOT);
+            if (side.equals("BUY")) {
+                BigDecimal qty = nz(o.quantity());
+                if (qty.signum() <= 0) {
+                    return;
+                }
+                BigDecimal unitCost = computeBuyUnitCost(o);
+                String productId = nzStr(o.productId());
+                pool(productId).add(new Lot(productId, o.occurredAt(), qty, unitCost, converter.convert(unitCost, o)));
+            } else if (side.equals("SELL")) {
+                BigDecimal qtyToSell = nz(o.quantity());
+                if (qtyToSell.signum() <= 0) {
+                    return;
+                }
+
+                BigDecimal sellProceeds = computeSellProceeds(o);
+                proceeds = proceeds.add(sellProceeds);
+                reportingProceeds = reportingProceeds.add(converter.convert(sellProceeds, o));
+
+                String productId = nzStr(o.productId());
+                LotPool lots = pool(productId);
+
+                BigDecimal sellCost = BigDecimal.ZERO;
+                BigDecimal remaining = qtyToSell;
+                while (remaining.signum() > 0 && !lots.isEmpty()) {
+                    Lot lot = lots.peek();
+                    BigDecimal take = remaining.min(lot.qtyRemaining);
+                    sellCost = sellCost.add(take.multiply(lot.unitCost));
+                    reportingCost = reportingCost.add(take.multiply(lot.reportingUnitCost));
+                    lot.qtyRemaining = lot.qtyRemaining.subtract(take);
+                    remaining = remaining.subtract(take);
+                    if (lot.qtyRemaining.signum() == 0) {
+                        lots.poll();
+                    }
+                }
+
+                cost = cost.add(sellCost);
+                BigDecimal[] monthly = realized.computeIfAbsent(
+                        new RealizedKey(YearMonth.from(o.occurredAt().atZone(ZONE)), productId),
+                        k -> new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO}
+                );
+                monthly[0] = monthly[0].add(sellCost);
+                monthly[1] = monthly[1].add(sellProceeds);
+
+                if (remaining.signum() > 0) {
+                    warnings.add("Missing buy lots for product " + productId + " (remaining " + remaining + ")");
+                }
+            }
+        }
+
+        private List<OpenLot> openLots() {
+            List<OpenLot> open = new ArrayList<>();
+            lotsByProduct.values().forEach(lots -> lots.lots().forEach(lot -> open.add(new OpenLot(
+                    lot.productId, lot.acquiredAt, lot.qtyRemaining, lot.unitCost, lot.reportingUnitCost
+            ))));
+            open.sort(Comparator.comparing(OpenLot::productId).thenComparing(OpenLot::acquiredAt));
+            return open;
+        }
+
+        private TaxYearTotals toTotals() {
+            BigDecimal totalCost = cost.max(BigDecimal.ZERO);
+            BigDecimal totalProceeds = proceeds.max(BigDecimal.ZERO);
+            BigDecimal totalReportingCost = reportingCost.max(BigDecimal.ZERO);
+            BigDecimal totalReportingProceeds = reportingProceeds.max(BigDecimal.ZERO);
+
+            return new TaxYearTotals(
+                    taxYear,
+                    scale(totalCost),
+                    scale(totalProceeds),
+                    scale(totalProceeds.subtract(totalCost)),
+                    scale(totalReportingCost),
+                    scale(totalReportingProceeds),
+                    scale(totalReportingProceeds.subtract(totalReportingCost)),
+                    realized.entrySet().stream()
+                            .map(e -> new MonthlyRealizedGain(
+                                    e.getKey().month(),
+                                    e.getKey().productId(),
+                                    scale(e.getValue()[0]),
+                                    scale(e.getValue()[1]),
+                                    scale(e.getValue()[1].subtract(e.getValue()[0]))
+                            ))
+                            .toList(),
+                    List.copyOf(warnings)
+            );
+        }
+    }
+
+    private record RealizedKey(YearMonth month, String productId) implements Comparable<RealizedKey> {
+        @Override
+        public int compareTo(RealizedKey other) {
+            int byMonth = month.compareTo(other.month);
+            return byMonth != 0 ? byMonth : productId.compareTo(other.productId);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.mateuszcer.taxbackend.capitalgains.domain.service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+final class Lot {
+    final String productId;
+    final Instant acquiredAt;
+    BigDecimal qtyRemaining;
+    final BigDecimal unitCost;
+    final BigDecimal reportingUnitCost;
+
+    Lot(String productId, Instant acquiredAt, BigDecimal qtyRemaining, BigDecimal unitCost, BigDecimal reportingUnitCost) {
+        this.productId = productId;
+        this.acquiredAt = acquiredAt;
+        this.qtyRemaining = qtyRemaining;
+        this.unitCost = unitCost;
+        this.reportingUnitCost = reportingUnitCost;
+    }
+}
@@ -0,0 +1,153 @@
+package com.mateuszcer.taxbackend.capitalgains.domain.service;
+
+import com.mateuszcer.taxbackend.capitalgains.domain.CostBasisMethod;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Open lots of one product, ordered by the cost basis method. The ledger matches a sale against {@link #peek()}
+ * and calls {@link #poll()} once that lot is used up; buys and matches are O(1), or O(log n) for HIFO.
+ */
+interface LotPool {
+
+    void add(Lot lot);
+
+    Lot peek();
+
+    void poll();
+
+    boolean isEmpty();
+
+    Collection<Lot> lots();
+
+    static LotPool of(CostBasisMethod method) {
+        return switch (method) {
+            case FIFO -> new Ordered(false);
+            case LIFO -> new Ordered(true);
+            case HIFO -> new HighestCost();
+            case AVERAGE -> new Average();
+        };
+    }
+
+    final class Ordered implements LotPool {
+        private final Deque<Lot> lots = new ArrayDeque<>();
+        private final boolean fromTail;
+
+        private Ordered(boolean fromTail) {
+            this.fromTail = fromTail;
+        }
+
+        @Override
+        public void add(Lot lot) {
+            lots.addLast(lot);
+        }
+
+        @Override
+        public Lot peek() {
+            return fromTail ? lots.peekLast() : lots.peekFirst();
+        }
+
+        @Override
+        public void poll() {
+            if (fromTail) {
+                lots.pollLast();
+            } else {
+                lots.pollFirst();
+            }
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return lots.isEmpty();
+        }
+
+        @Override
+        public Collection<Lot> lots() {
+            return lots;
+        }
+    }
+
+    final class HighestCost implements LotPool {
+        // Partial matches only lower a lot's quantity, never its cost, so a plain heap never needs re-keying.
+        private final PriorityQueue<Lot> lots = new PriorityQueue<>(
+                Comparator.comparing((Lot lot) -> lot.reportingUnitCost).reversed()
+                        .thenComparing(lot -> lot.acquiredAt)
+        );
+
+        @Override
+        public void add(Lot lot) {
+            lots.add(lot);
+        }
+
+        @Override
+        public Lot peek() {
+            return lots.peek();
+        }
+
+        @Override
+        public void poll() {
+            lots.poll();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return lots.isEmpty();
+        }
+
+        @Override
+        public Collection<Lot> lots() {
+            return lots;
+        }
+    }
+
+    final class Average implements LotPool {
+        private Lot pooled;
+
+        @Override
+        public void add(Lot lot) {
+            if (pooled == null) {
+                pooled = lot;
+                return;
+            }
+            BigDecimal qty = pooled.qtyRemaining.add(lot.qtyRemaining);
+            pooled = new Lot(
+                    pooled.productId,
+                    pooled.acquiredAt,
+                    qty,
+                    weighted(pooled.unitCost, lot.unitCost, lot.qtyRemaining, qty),
+                    weighted(pooled.reportingUnitCost, lot.reportingUnitCost, lot.qtyRemaining, qty)
+            );
+        }
+
+        private BigDecimal weighted(BigDecimal pooledCost, BigDecimal addedCost, BigDecimal addedQty, BigDecimal qty) {
+            return pooledCost.multiply(pooled.qtyRemaining).add(addedCost.multiply(addedQty)).divide(qty, 18, RoundingMode.HALF_UP);
+        }
+
+        @Override
+        public Lot peek() {
+            return pooled;
+        }
+
+        @Override
+        public void poll() {
+            pooled = null;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return pooled == null;
+        }
+
+        @Override
+        public Collection<Lot> lots() {
+            return pooled == null ? List.of() : List.of(pooled);
+        }
+    }
+}
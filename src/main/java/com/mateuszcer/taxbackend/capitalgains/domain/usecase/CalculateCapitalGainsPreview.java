@@ -1,156 +1,21 @@
 package com.mateuszcer.taxbackend.capitalgains.domain.usecase;
 
 import com.mateuszcer.taxbackend.capitalgains.domain.CapitalGainsPreview;
-import com.mateuszcer.taxbackend.capitalgains.domain.OrderSnapshot;
-import com.mateuszcer.taxbackend.capitalgains.domain.port.UserOrdersProvider;
+import com.mateuszcer.taxbackend.capitalgains.domain.port.ReportingCurrencyConverter;
 import com.mateuszcer.taxbackend.capitalgains.domain.query.CapitalGainsPreviewQuery;
-
-import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.time.ZoneId;
-import java.time.ZonedDateTime;
-import java.util.ArrayDeque;
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.Deque;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Locale;
-import java.util.Map;
+import com.mateuszcer.taxbackend.capitalgains.domain.query.TaxYearTotalsQuery;
 
 public class CalculateCapitalGainsPreview {
 
-    private static final ZoneId ZONE = ZoneId.of("Europe/Warsaw");
-
-    private final UserOrdersProvider ordersProvider;
+    private final CalculateTaxYearTotals calculateTaxYearTotals;
 
-    public CalculateCapitalGainsPreview(UserOrdersProvider ordersProvider) {
-        this.ordersProvider = ordersProvider;
+    public CalculateCapitalGainsPreview(CalculateTaxYearTotals calculateTaxYearTotals) {
+        this.calculateTaxYearTotals = calculateTaxYearTotals;
     }
 
     public CapitalGainsPreview execute(CapitalGainsPreviewQuery query) {
-        List<String> warnings = new ArrayList<>();
-        List<OrderSnapshot> all = ordersProvider.getForUser(query.userId());
-        List<OrderSnapshot> orders = all.stream()
-                .filter(o -> o != null)
-                .filter(o -> o.occurredAt() != null)
-                .filter(o -> ZonedDateTime.ofInstant(o.occurredAt(), ZONE).getYear() == query.taxYear())
-                .filter(o -> o.status() != null && o.status().equalsIgnoreCase("FILLED"))
-                .sorted(Comparator.comparing(OrderSnapshot::occurredAt))
-                .toList();
-
-        Map<String, Deque<Lot>> lotsByProduct = new HashMap<>();
-
-        BigDecimal totalCost = BigDecimal.ZERO;
-        BigDecimal totalProceeds = BigDecimal.ZERO;
-
-        for (OrderSnapshot o : orders) {
-            String side = o.side() == null ? "" : o.side().toUpperCase(Locale.ROOT);
-            if (side.equals("BUY")) {
-                BigDecimal qty = nz(o.quantity());
-                if (qty.signum() <= 0) {
-                    continue;
-                }
-                BigDecimal unitCost = computeBuyUnitCost(o);
-                lotsByProduct.computeIfAbsent(nzStr(o.productId()), k -> new ArrayDeque<>())
-                        .addLast(new Lot(qty, unitCost));
-            } else if (side.equals("SELL")) {
-                BigDecimal qtyToSell = nz(o.quantity());
-                if (qtyToSell.signum() <= 0) {
-                    continue;
-                }
-
-                BigDecimal proceeds = computeSellProceeds(o);
-                totalProceeds = totalProceeds.add(proceeds);
-
-                String productId = nzStr(o.productId());
-                Deque<Lot> lots = lotsByProduct.computeIfAbsent(productId, k -> new ArrayDeque<>());
-
-                BigDecimal cost = BigDecimal.ZERO;
-                BigDecimal remaining = qtyToSell;
-
-                while (remaining.signum() > 0 && !lots.isEmpty()) {
-                    Lot lot = lots.peekFirst();
-                    BigDecimal take = remaining.min(lot.qtyRemaining);
-                    cost = cost.add(take.multiply(lot.unitCost));
-                    lot.qtyRemaining = lot.qtyRemaining.subtract(take);
-                    remaining = remaining.subtract(take);
-                    if (lot.qtyRemaining.signum() == 0) {
-                        lots.removeFirst();
-                    }
-                }
-
-                if (remaining.signum() > 0) {
-                    warnings.add("Missing buy lots for product " + productId + " (remaining " + remaining + ")");
-                }
-
-                totalCost = totalCost.add(cost);
-            }
-        }
-
-        totalCost = totalCost.max(BigDecimal.ZERO);
-        totalProceeds = totalProceeds.max(BigDecimal.ZERO);
-
-        BigDecimal gain = totalProceeds.subtract(totalCost);
-
-        return new CapitalGainsPreview(
-                query.taxYear(),
-                scale(totalCost),
-                scale(totalProceeds),
-                scale(gain),
-                warnings
-        );
-    }
-
-    private static BigDecimal computeBuyUnitCost(OrderSnapshot o) {
-        BigDecimal qty = nz(o.quantity());
-        BigDecimal total = nz(o.total());
-        BigDecimal fee = nz(o.fee());
-        if (qty.signum() > 0 && (total.signum() > 0 || fee.signum() > 0)) {
-            return total.add(fee).divide(qty, 18, RoundingMode.HALF_UP);
-        }
-        BigDecimal price = nz(o.price());
-        if (price.signum() > 0) {
-            return price;
-        }
-        return BigDecimal.ZERO;
-    }
-
-    private static BigDecimal computeSellProceeds(OrderSnapshot o) {
-        BigDecimal total = nz(o.total());
-        BigDecimal fee = nz(o.fee());
-        if (total.signum() > 0) {
-            return total.subtract(fee);
-        }
-        BigDecimal qty = nz(o.quantity());
-        BigDecimal price = nz(o.price());
-        if (qty.signum() > 0 && price.signum() > 0) {
-            return qty.multiply(price).subtract(fee);
-        }
-        return BigDecimal.ZERO;
-    }
-
-    private static BigDecimal nz(BigDecimal v) {
-        return v == null ? BigDecimal.ZERO : v;
-    }
-
-    private static String nzStr(String s) {
-        return s == null ? "" : s;
-    }
-
-    private static BigDecimal scale(BigDecimal v) {
-        return v.setScale(2, RoundingMode.HALF_UP);
-    }
-
-    private static final class Lot {
-        private BigDecimal qtyRemaining;
-        private final BigDecimal unitCost;
-
-        private Lot(BigDecimal qtyRemaining, BigDecimal unitCost) {
-            this.qtyRemaining = qtyRemaining;
-            this.unitCost = unitCost;
-        }
+        return calculateTaxYearTotals.execute(
+                new TaxYearTotalsQuery(query.userId(), query.taxYear(), ReportingCurrencyConverter.identity())
+        ).toCapitalGainsPreview();
     }
 }
-
-
@@ -0,0 +1,30 @@
+package com.mateuszcer.taxbackend.capitalgains.domain.usecase;
+
+import com.mateuszcer.taxbackend.capitalgains.domain.OpenLot;
+import com.mateuszcer.taxbackend.capitalgains.domain.port.ReportingCurrencyConverter;
+import com.mateuszcer.taxbackend.capitalgains.domain.port.UserOrdersProvider;
+import com.mateuszcer.taxbackend.capitalgains.domain.query.OpenLotsQuery;
+import com.mateuszcer.taxbackend.capitalgains.domain.service.CapitalGainsLedger;
+
+import java.util.List;
+
+/**
+ * Lots left open by FIFO matching of the user's whole order history.
+ */
+public class CalculateOpenLots {
+
+    private final UserOrdersProvider ordersProvider;
+    private final CapitalGainsLedger ledger;
+
+    public CalculateOpenLots(UserOrdersProvider ordersProvider, CapitalGainsLedger ledger) {
+        this.ordersProvider = ordersProvider;
+        this.ledger = ledger;
+    }
+
+    public List<OpenLot> execute(OpenLotsQuery query) {
+        ReportingCurrencyConverter converter = query.converter() == null
+                ? ReportingCurrencyConverter.identity()
+                : query.converter();
+        return ledger.openLots(ordersProvider.getForUser(query.userId()), converter);
+    }
+}
@@ -0,0 +1,29 @@
+package com.mateuszcer.taxbackend.capitalgains.domain.usecase;
+
+import com.mateuszcer.taxbackend.capitalgains.domain.TaxYearTotals;
+import com.mateuszcer.taxbackend.capitalgains.domain.port.ReportingCurrencyConverter;
+import com.mateuszcer.taxbackend.capitalgains.domain.port.UserOrdersProvider;
+import com.mateuszcer.taxbackend.capitalgains.domain.query.TaxYearTotalsQuery;
+import com.mateuszcer.taxbackend.capitalgains.domain.service.CapitalGainsLedger;
+
+/**
+ * Single load + single FIFO pass producing both the original-currency and the reporting-currency totals.
+ * Capital gains and PIT previews are both served from this computation.
+ */
+public class CalculateTaxYearTotals {
+
+    private final UserOrdersProvider ordersProvider;
+    private final CapitalGainsLedger ledger;
+
+    public CalculateTaxYearTotals(UserOrdersProvider ordersProvider, CapitalGainsLedger ledger) {
+        this.ordersProvider = ordersProvider;
+        this.ledger = ledger;
+    }
+
+    public TaxYearTotals execute(TaxYearTotalsQuery query) {
+        ReportingCurrencyConverter converter = query.converter() == null
+                ? ReportingCurrencyConverter.identity()
+                : query.converter();
+        return ledger.calculate(ordersProvider.getForUser(query.userId()), query.taxYear(), converter);
+    }
+}
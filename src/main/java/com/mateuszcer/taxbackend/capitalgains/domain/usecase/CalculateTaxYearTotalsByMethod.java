@@ -0,0 +1,36 @@
+package com.mateuszcer.taxbackend.capitalgains.domain.usecase;
+
+import com.mateuszcer.taxbackend.capitalgains.domain.CostBasisMethod;
+import com.mateuszcer.taxbackend.capitalgains.domain.TaxYearTotals;
+import com.mateuszcer.taxbackend.capitalgains.domain.port.ReportingCurrencyConverter;
+import com.mateuszcer.taxbackend.capitalgains.domain.port.UserOrdersProvider;
+import com.mateuszcer.taxbackend.capitalgains.domain.query.TaxYearTotalsByMethodQuery;
+import com.mateuszcer.taxbackend.capitalgains.domain.service.CapitalGainsLedger;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Totals of one tax year under several cost basis methods, from one load and one pass over the orders.
+ */
+public class CalculateTaxYearTotalsByMethod {
+
+    private final UserOrdersProvider ordersProvider;
+    private final CapitalGainsLedger ledger;
+
+    public CalculateTaxYearTotalsByMethod(UserOrdersProvider ordersProvider, CapitalGainsLedger ledger) {
+        this.ordersProvider = ordersProvider;
+        this.ledger = ledger;
+    }
+
+    public Map<CostBasisMethod, TaxYearTotals> execute(TaxYearTotalsByMethodQuery query) {
+        ReportingCurrencyConverter converter = query.converter() == null
+                ? ReportingCurrencyConverter.identity()
+                : query.converter();
+        Set<CostBasisMethod> methods = query.methods() == null || query.methods().isEmpty()
+                ? EnumSet.allOf(CostBasisMethod.class)
+                : query.methods();
+        return ledger.calculate(ordersProvider.getForUser(query.userId()), query.taxYear(), converter, methods);
+    }
+}
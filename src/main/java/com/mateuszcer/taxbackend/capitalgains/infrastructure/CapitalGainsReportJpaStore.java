@@ -4,6 +4,8 @@ import com.mateuszcer.taxbackend.capitalgains.domain.CapitalGainsReport;
 import com.mateuszcer.taxbackend.capitalgains.domain.port.CapitalGainsReportStore;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Component
@@ -24,6 +26,14 @@ public class CapitalGainsReportJpaStore implements CapitalGainsReportStore {
     public CapitalGainsReport save(CapitalGainsReport report) {
         return repository.save(report);
     }
-}
 
+    @Override
+    public List<CapitalGainsReport> findByUserIdAndTaxYearIn(String userId, Collection<Integer> taxYears) {
+        return repository.findByUserIdAndTaxYearIn(userId, taxYears);
+    }
 
+    @Override
+    public List<CapitalGainsReport> saveAll(List<CapitalGainsReport> reports) {
+        return repository.saveAll(reports);
+    }
+}
@@ -3,10 +3,14 @@ package com.mateuszcer.taxbackend.capitalgains.infrastructure;
 import com.mateuszcer.taxbackend.capitalgains.domain.CapitalGainsReport;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface CapitalGainsReportRepository extends JpaRepository<CapitalGainsReport, Long> {
     Optional<CapitalGainsReport> findByUserIdAndTaxYear(String userId, int taxYear);
+
+    List<CapitalGainsReport> findByUserIdAndTaxYearIn(String userId, Collection<Integer> taxYears);
 }
 
 
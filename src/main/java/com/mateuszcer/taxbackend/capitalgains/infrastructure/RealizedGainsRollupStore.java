@@ -0,0 +1,64 @@
+package com.mateuszcer.taxbackend.capitalgains.infrastructure;
+
+import com.mateuszcer.taxbackend.capitalgains.domain.MonthlyRealizedGain;
+import com.mateuszcer.taxbackend.capitalgains.domain.port.RealizedGainsStore;
+import com.mateuszcer.taxbackend.orders.domain.OrderMonthlyRollup;
+import com.mateuszcer.taxbackend.orders.infrastructure.OrderMonthlyRollupRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Writes realized gains onto the SELL rows of the orders monthly rollup (adapter of the port).
+ */
+@Component
+public class RealizedGainsRollupStore implements RealizedGainsStore {
+
+    private static final String SELL = "SELL";
+
+    private final OrderMonthlyRollupRepository rollupRepository;
+    private final TransactionTemplate transaction;
+
+    public RealizedGainsRollupStore(OrderMonthlyRollupRepository rollupRepository, PlatformTransactionManager transactionManager) {
+        this.rollupRepository = rollupRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void replaceForYear(String userId, int taxYear, List<MonthlyRealizedGain> gains) {
+        LocalDate from = LocalDate.of(taxYear, 1, 1);
+        LocalDate to = LocalDate.of(taxYear, 12, 1);
+        transaction.executeWithoutResult(status -> {
+            rollupRepository.clearRealizedGain(userId, from, to);
+            Map<String, OrderMonthlyRollup> sells = rollupRepository.findByUserIdAndMonthBetween(userId, from, to).stream()
+                    .filter(r -> SELL.equals(r.getSide()))
+                    .collect(Collectors.toMap(r -> key(r.getMonth(), r.getProductId()), Function.identity(), (a, b) -> a));
+
+            for (MonthlyRealizedGain gain : gains) {
+                LocalDate month = gain.month().atDay(1);
+                // Rows exist for every filled sell; a missing one means the rollup predates the sell, so create it empty.
+                OrderMonthlyRollup row = sells.computeIfAbsent(key(month, gain.productId()), k -> {
+                    OrderMonthlyRollup created = new OrderMonthlyRollup();
+                    created.setUserId(userId);
+                    created.setMonth(month);
+                    created.setProductId(gain.productId());
+                    created.setSide(SELL);
+                    return created;
+                });
+                row.setRealizedGain(gain.gain() == null ? BigDecimal.ZERO : gain.gain());
+            }
+            rollupRepository.saveAll(sells.values());
+        });
+    }
+
+    private static String key(LocalDate month, String productId) {
+        return month + "|" + productId;
+    }
+}
@@ -0,0 +1,103 @@
+package com.mateuszcer.taxbackend.marketdata;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.mateuszcer.taxbackend.shared.exception.BusinessException;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Whitelist of the market fields a client can request; names match the CoinGecko response.
+ */
+public enum CoinField {
+    ID("id", (g, c) -> g.writeStringField("id", c.id())),
+    SYMBOL("symbol", (g, c) -> g.writeStringField("symbol", c.symbol())),
+    NAME("name", (g, c) -> g.writeStringField("name", c.name())),
+    IMAGE("image", (g, c) -> g.writeStringField("image", c.image())),
+    CURRENT_PRICE("current_price", (g, c) -> number(g, "current_price", c.currentPrice())),
+    MARKET_CAP("market_cap", (g, c) -> number(g, "market_cap", c.marketCap())),
+    MARKET_CAP_RANK("market_cap_rank", (g, c) -> g.writeNumberField("market_cap_rank", c.marketCapRank())),
+    TOTAL_VOLUME("total_volume", (g, c) -> number(g, "total_volume", c.totalVolume())),
+    HIGH_24H("high_24h", (g, c) -> number(g, "high_24h", c.high24h())),
+    LOW_24H("low_24h", (g, c) -> number(g, "low_24h", c.low24h())),
+    PRICE_CHANGE_24H("price_change_24h", (g, c) -> number(g, "price_change_24h", c.priceChange24h())),
+    PRICE_CHANGE_PERCENTAGE_24H("price_change_percentage_24h", (g, c) -> {
+        number(g, "price_change_percentage_24h", c.priceChangePercentage24h());
+        number(g, "price_change_percentage_24h_in_currency", c.priceChangePercentage24h());
+    }),
+    CIRCULATING_SUPPLY("circulating_supply", (g, c) -> number(g, "circulating_supply", c.circulatingSupply())),
+    LAST_UPDATED("last_updated", (g, c) -> g.writeStringField("last_updated", c.lastUpdated())),
+    SPARKLINE_IN_7D("sparkline_in_7d", (g, c) -> {
+        g.writeObjectFieldStart("sparkline_in_7d");
+        g.writeArrayFieldStart("price");
+        if (c.sparkline7d() != null) {
+            for (float price : c.sparkline7d()) {
+                g.writeNumber(price);
+            }
+        }
+        g.writeEndArray();
+        g.writeEndObject();
+    });
+
+    public static final Set<CoinField> FULL = Collections.unmodifiableSet(EnumSet.allOf(CoinField.class));
+    public static final Set<CoinField> COMPACT = Collections.unmodifiableSet(EnumSet.complementOf(EnumSet.of(SPARKLINE_IN_7D)));
+
+    private final String jsonName;
+    private final Writer writer;
+
+    CoinField(String jsonName, Writer writer) {
+        this.jsonName = jsonName;
+        this.writer = writer;
+    }
+
+    void write(JsonGenerator generator, CoinMarket coin) throws IOException {
+        writer.write(generator, coin);
+    }
+
+    /**
+     * {@code full} (default), {@code compact} (everything but the sparkline) or a comma separated list of field names.
+     */
+    public static Set<CoinField> parse(String fields) {
+        if (fields == null || fields.isBlank() || fields.equalsIgnoreCase("full")) {
+            return FULL;
+        }
+        if (fields.equalsIgnoreCase("compact")) {
+            return COMPACT;
+        }
+        Set<CoinField> selected = EnumSet.noneOf(CoinField.class);
+        for (String name : fields.split(",")) {
+            String wanted = name.trim().toLowerCase(Locale.ROOT);
+            if (wanted.isEmpty()) {
+                continue;
+            }
+            CoinField field = null;
+            for (CoinField candidate : values()) {
+                if (candidate.jsonName.equals(wanted)) {
+                    field = candidate;
+                    break;
+                }
+            }
+            if (field == null) {
+                throw new BusinessException("Unsupported market field: " + name.trim(), "INVALID_FIELDS");
+            }
+            selected.add(field);
+        }
+        return selected.isEmpty() ? FULL : selected;
+    }
+
+    private static void number(JsonGenerator generator, String name, double value) throws IOException {
+        if (Double.isNaN(value)) {
+            generator.writeNullField(name);
+        } else {
+            generator.writeNumberField(name, value);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Writer {
+        void write(JsonGenerator generator, CoinMarket coin) throws IOException;
+    }
+}
@@ -1,60 +1,115 @@
 package com.mateuszcer.taxbackend.marketdata;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClient;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+
 /**
  * Service for fetching cryptocurrency market data from CoinGecko API.
- * Heavily cached to avoid rate limiting.
+ * The top-N coins are fetched once per currency per refresh interval ({@link MarketDataCache}),
+ * parsed once into {@link CoinMarket}, and every page / size / field set is sliced locally.
+ * Rendered slices are memoized per fetch, so repeated requests reuse the same bytes and ETag.
  */
 @Service
 @Slf4j
 public class CoinGeckoService {
     
     private static final String COINGECKO_API_URL = "https://api.coingecko.com/api/v3";
+    // CoinGecko caps per_page at 250.
+    private static final int UPSTREAM_PAGE_SIZE = 250;
+    private static final int MAX_RENDERED_SLICES = 500;
     
     private final RestClient restClient;
+    private final MarketDataCache marketDataCache;
+    private final ObjectMapper objectMapper;
+    private final int topN;
+    private final Cache<SliceKey, MarketSnapshot> slices = Caffeine.newBuilder()
+            .maximumSize(MAX_RENDERED_SLICES)
+            .build();
     
-    public CoinGeckoService(RestClient.Builder restClientBuilder) {
+    public CoinGeckoService(
+            RestClient.Builder restClientBuilder,
+            MarketDataCache marketDataCache,
+            ObjectMapper objectMapper,
+            @Value("${marketdata.top-n:250}") int topN
+    ) {
         this.restClient = restClientBuilder.build();
+        this.marketDataCache = marketDataCache;
+        this.objectMapper = objectMapper;
+        this.topN = Math.max(1, topN);
     }
     
     /**
      * Get cryptocurrency market data from CoinGecko.
-     * Cached for 10 minutes to reduce API calls and avoid rate limiting.
      * 
      * @param vsCurrency Base currency (e.g., "usd")
      * @param perPage Number of results per page
      * @param page Page number
-     * @return JSON response from CoinGecko
+     * @param fields fields to render, see {@link CoinField#parse(String)}
+     * @return rendered page of the last good list (possibly stale), empty if none could be fetched yet
      */
-    @Cacheable(value = "marketData", key = "#vsCurrency + '_' + #perPage + '_' + #page")
-    public String getMarketData(String vsCurrency, int perPage, int page) {
-        String url = String.format(
-                "%s/coins/markets?vs_currency=%s&order=market_cap_desc&per_page=%d&page=%d&sparkline=true&price_change_percentage=24h",
-                COINGECKO_API_URL,
-                vsCurrency,
-                perPage,
-                page
-        );
-        
-        log.info("Fetching fresh market data from CoinGecko (will be cached for 10 minutes)");
-        
-        try {
-            String response = restClient.get()
+    public Optional<MarketSnapshot> getMarketData(String vsCurrency, int perPage, int page, Set<CoinField> fields) {
+        return getMarkets(vsCurrency).map(markets -> slices.get(
+                new SliceKey(markets.vsCurrency(), markets.fetchedAt(), perPage, page, fields),
+                key -> MarketSnapshot.of(
+                        CoinMarketsJson.write(objectMapper.getFactory(), markets.page(page, perPage), fields),
+                        markets.fetchedAt()
+                )
+        ));
+    }
+
+    /**
+     * Parsed top-N coins for the currency, as cached.
+     */
+    public Optional<CoinMarkets> getMarkets(String vsCurrency) {
+        String currency = vsCurrency.toLowerCase(Locale.ROOT);
+        return marketDataCache.get(currency, () -> fetch(currency));
+    }
+
+    public int topN() {
+        return topN;
+    }
+
+    private List<CoinMarket> fetch(String vsCurrency) {
+        List<CoinMarket> coins = new ArrayList<>(topN);
+        int upstreamPages = (topN + UPSTREAM_PAGE_SIZE - 1) / UPSTREAM_PAGE_SIZE;
+        for (int page = 1; page <= upstreamPages && coins.size() < topN; page++) {
+            int perPage = Math.min(UPSTREAM_PAGE_SIZE, topN);
+            String url = String.format(
+                    "%s/coins/markets?vs_currency=%s&order=market_cap_desc&per_page=%d&page=%d&sparkline=true&price_change_percentage=24h",
+                    COINGECKO_API_URL,
+                    vsCurrency,
+                    perPage,
+                    page
+            );
+
+            log.info("Fetching fresh market data from CoinGecko: {}", url);
+
+            // Failures propagate: the cache keeps the previous list instead of caching an error.
+            String body = restClient.get()
                     .uri(url)
                     .retrieve()
                     .body(String.class);
-            
-            log.debug("Successfully fetched market data from CoinGecko");
-            return response;
-            
-        } catch (Exception e) {
-            log.error("Failed to fetch market data from CoinGecko: {}", e.getMessage());
-            // Return empty array as fallback
-            return "[]";
+            List<CoinMarket> batch = CoinMarketsJson.parse(objectMapper, body);
+            coins.addAll(batch);
+            if (batch.size() < perPage) {
+                break;
+            }
         }
+        return coins.size() > topN ? coins.subList(0, topN) : coins;
+    }
+
+    private record SliceKey(String vsCurrency, Instant fetchedAt, int perPage, int page, Set<CoinField> fields) {
     }
 }
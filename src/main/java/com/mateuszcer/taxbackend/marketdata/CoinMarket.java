@@ -0,0 +1,24 @@
+package com.mateuszcer.taxbackend.marketdata;
+
+/**
+ * Compact in-memory form of one CoinGecko {@code /coins/markets} row. Missing numbers are {@code NaN},
+ * the 7-day sparkline is kept as a float array.
+ */
+public record CoinMarket(
+        String id,
+        String symbol,
+        String name,
+        String image,
+        double currentPrice,
+        double marketCap,
+        int marketCapRank,
+        double totalVolume,
+        double high24h,
+        double low24h,
+        double priceChange24h,
+        double priceChangePercentage24h,
+        double circulatingSupply,
+        String lastUpdated,
+        float[] sparkline7d
+) {
+}
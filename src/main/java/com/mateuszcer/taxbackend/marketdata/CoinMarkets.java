@@ -0,0 +1,18 @@
+package com.mateuszcer.taxbackend.marketdata;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Top coins by market cap for one quote currency, as of one upstream fetch.
+ */
+public record CoinMarkets(String vsCurrency, List<CoinMarket> coins, Instant fetchedAt) {
+
+    public List<CoinMarket> page(int page, int perPage) {
+        long from = (long) (page - 1) * perPage;
+        if (page < 1 || perPage < 1 || from >= coins.size()) {
+            return List.of();
+        }
+        return coins.subList((int) from, (int) Math.min(coins.size(), from + perPage));
+    }
+}
@@ -0,0 +1,95 @@
+package com.mateuszcer.taxbackend.marketdata;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Parses upstream market rows once into {@link CoinMarket} and writes projections of them back out.
+ */
+final class CoinMarketsJson {
+
+    private CoinMarketsJson() {
+    }
+
+    static List<CoinMarket> parse(ObjectMapper objectMapper, String json) {
+        JsonNode root;
+        try {
+            root = objectMapper.readTree(json);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unreadable market data payload", e);
+        }
+        if (root == null || !root.isArray()) {
+            throw new IllegalStateException("Unexpected market data payload");
+        }
+        List<CoinMarket> coins = new ArrayList<>(root.size());
+        for (JsonNode row : root) {
+            coins.add(new CoinMarket(
+                    text(row, "id"),
+                    text(row, "symbol"),
+                    text(row, "name"),
+                    text(row, "image"),
+                    number(row, "current_price"),
+                    number(row, "market_cap"),
+                    row.path("market_cap_rank").asInt(0),
+                    number(row, "total_volume"),
+                    number(row, "high_24h"),
+                    number(row, "low_24h"),
+                    number(row, "price_change_24h"),
+                    number(row, "price_change_percentage_24h"),
+                    number(row, "circulating_supply"),
+                    text(row, "last_updated"),
+                    sparkline(row.path("sparkline_in_7d").path("price"))
+            ));
+        }
+        return coins;
+    }
+
+    static String write(JsonFactory jsonFactory, Collection<CoinMarket> coins, Set<CoinField> fields) {
+        StringWriter out = new StringWriter(coins.size() * (fields.contains(CoinField.SPARKLINE_IN_7D) ? 2048 : 320));
+        try (JsonGenerator generator = jsonFactory.createGenerator(out)) {
+            generator.writeStartArray();
+            for (CoinMarket coin : coins) {
+                generator.writeStartObject();
+                for (CoinField field : fields) {
+                    field.write(generator, coin);
+                }
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    private static String text(JsonNode row, String field) {
+        JsonNode node = row.get(field);
+        return node == null || node.isNull() ? null : node.asText();
+    }
+
+    private static double number(JsonNode row, String field) {
+        JsonNode node = row.get(field);
+        return node == null || !node.isNumber() ? Double.NaN : node.asDouble();
+    }
+
+    private static float[] sparkline(JsonNode prices) {
+        if (!prices.isArray()) {
+            return new float[0];
+        }
+        float[] values = new float[prices.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (float) prices.get(i).asDouble();
+        }
+        return values;
+    }
+}
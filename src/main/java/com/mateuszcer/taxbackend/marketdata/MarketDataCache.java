@@ -0,0 +1,122 @@
+package com.mateuszcer.taxbackend.marketdata;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Stale-while-revalidate cache of the parsed top coins, one entry per quote currency.
+ * <ul>
+ *   <li>a fresh entry is served as is;</li>
+ *   <li>a stale entry is still served while exactly one background refresh per key runs;</li>
+ *   <li>a cold key waits for that single load instead of every caller hitting upstream;</li>
+ *   <li>failed or empty loads are never cached, the last good list stays, and a key that just failed
+ *       is not retried before the backoff passes.</li>
+ * </ul>
+ */
+@Slf4j
+public class MarketDataCache {
+
+    private final Duration ttl;
+    private final Duration failureBackoff;
+    private final Clock clock;
+    private final Cache<String, CoinMarkets> entries;
+    private final Map<String, CompletableFuture<CoinMarkets>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Instant> lastFailure = new ConcurrentHashMap<>();
+    private final ExecutorService refresher = Executors.newVirtualThreadPerTaskExecutor();
+
+    public MarketDataCache(Duration ttl, Duration failureBackoff, int maxEntries, Clock clock) {
+        this.ttl = ttl;
+        this.failureBackoff = failureBackoff;
+        this.clock = clock;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .build();
+    }
+
+    /**
+     * Returns the cached coins (possibly stale), loading them once if the currency is cold.
+     * Empty only when there is no good list yet and the load failed or is backing off.
+     */
+    public Optional<CoinMarkets> get(String key, Supplier<List<CoinMarket>> loader) {
+        CoinMarkets current = entries.getIfPresent(key);
+        if (current == null) {
+            if (backingOff(key)) {
+                return Optional.empty();
+            }
+            return Optional.ofNullable(refresh(key, loader).join());
+        }
+        if (isStale(current) && !backingOff(key)) {
+            refresh(key, loader);
+        }
+        return Optional.of(current);
+    }
+
+    /**
+     * Starts a load unless one is already running for the key; the returned future completes
+     * with the new coins or {@code null} when the load failed.
+     */
+    public CompletableFuture<CoinMarkets> refresh(String key, Supplier<List<CoinMarket>> loader) {
+        CompletableFuture<CoinMarkets> running = inFlight.get(key);
+        if (running != null) {
+            return running;
+        }
+        CompletableFuture<CoinMarkets> load = new CompletableFuture<>();
+        running = inFlight.putIfAbsent(key, load);
+        if (running != null) {
+            return running;
+        }
+        refresher.execute(() -> {
+            try {
+                List<CoinMarket> coins = loader.get();
+                if (coins == null || coins.isEmpty()) {
+                    throw new IllegalStateException("Empty market data payload");
+                }
+                CoinMarkets markets = new CoinMarkets(key, List.copyOf(coins), clock.instant());
+                entries.put(key, markets);
+                lastFailure.remove(key);
+                load.complete(markets);
+            } catch (Exception e) {
+                lastFailure.put(key, clock.instant());
+                log.warn("Market data refresh failed for {}, keeping last good list: {}", key, e.getMessage());
+                load.complete(null);
+            } finally {
+                inFlight.remove(key, load);
+            }
+        });
+        return load;
+    }
+
+    public Optional<CoinMarkets> peek(String key) {
+        return Optional.ofNullable(entries.getIfPresent(key));
+    }
+
+    public Duration ttl() {
+        return ttl;
+    }
+
+    private boolean isStale(CoinMarkets markets) {
+        return markets.fetchedAt().plus(ttl).isBefore(clock.instant());
+    }
+
+    private boolean backingOff(String key) {
+        Instant failedAt = lastFailure.get(key);
+        return failedAt != null && failedAt.plus(failureBackoff).isAfter(clock.instant());
+    }
+
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+}
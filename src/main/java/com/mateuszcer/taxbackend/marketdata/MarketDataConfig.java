@@ -0,0 +1,50 @@
+package com.mateuszcer.taxbackend.marketdata;
+
+import com.mateuszcer.taxbackend.shared.sse.SseEmitterRegistry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+public class MarketDataConfig {
+
+    public static final String MARKET_STREAM_REGISTRY = "marketStreamRegistry";
+
+    @Bean(destroyMethod = "shutdown")
+    public MarketDataCache marketDataCache(
+            @Value("${marketdata.cache.ttl:10m}") Duration ttl,
+            @Value("${marketdata.cache.failure-backoff:30s}") Duration failureBackoff,
+            @Value("${marketdata.cache.max-entries:200}") int maxEntries
+    ) {
+        return new MarketDataCache(ttl, failureBackoff, maxEntries, Clock.systemUTC());
+    }
+
+    @Bean
+    public MarketQueryWhitelist marketQueryWhitelist(
+            @Value("${marketdata.allowed-currencies:usd,eur,pln,gbp,chf,btc,eth}") List<String> currencies,
+            @Value("${marketdata.allowed-page-sizes:10,25,50,100,250}") List<Integer> pageSizes,
+            @Value("${marketdata.top-n:250}") int topN
+    ) {
+        return new MarketQueryWhitelist(currencies, pageSizes, topN);
+    }
+
+    @Bean(name = MARKET_STREAM_REGISTRY, destroyMethod = "shutdown")
+    @Qualifier(MARKET_STREAM_REGISTRY)
+    public SseEmitterRegistry marketStreamRegistry(
+            @Value("${marketdata.stream.timeout:30m}") Duration timeout,
+            MeterRegistry meterRegistry
+    ) {
+        SseEmitterRegistry registry = new SseEmitterRegistry(timeout.toMillis());
+        Gauge.builder("marketdata.stream.connections", registry, SseEmitterRegistry::connectionCount)
+                .description("Open market ticker SSE connections")
+                .register(meterRegistry);
+        return registry;
+    }
+}
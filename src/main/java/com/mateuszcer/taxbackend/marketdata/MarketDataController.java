@@ -3,15 +3,23 @@ package com.mateuszcer.taxbackend.marketdata;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Optional;
 
 /**
  * Simple market data proxy endpoint - caches CoinGecko data to avoid rate limiting.
- * No authentication required (public data).
+ * No authentication required (public data). Responses come from memory, pre-gzipped, with an ETag.
  */
 @RestController
 @RequestMapping("/api/market")
@@ -20,27 +28,77 @@ import org.springframework.web.bind.annotation.RestController;
 public class MarketDataController {
     
     private final CoinGeckoService coinGeckoService;
+    private final MarketTicker marketTicker;
+    private final MarketQueryWhitelist whitelist;
+    private final CacheControl cacheControl;
     
-    public MarketDataController(CoinGeckoService coinGeckoService) {
+    public MarketDataController(
+            CoinGeckoService coinGeckoService,
+            MarketTicker marketTicker,
+            MarketQueryWhitelist whitelist,
+            MarketDataCache marketDataCache
+    ) {
         this.coinGeckoService = coinGeckoService;
+        this.marketTicker = marketTicker;
+        this.whitelist = whitelist;
+        this.cacheControl = CacheControl.maxAge(marketDataCache.ttl()).cachePublic();
     }
     
     @GetMapping("/coins")
     @Operation(
         summary = "Get cryptocurrency market data", 
-        description = "Returns top cryptocurrencies by market cap. Cached for 10 minutes to avoid rate limiting."
+        description = "Returns top cryptocurrencies by market cap, sliced from one cached upstream list. "
+                + "fields: full (default), compact (no sparkline) or a comma separated list of CoinGecko field names. "
+                + "Served from cache (stale while refreshing), gzip and ETag aware. "
+                + "vsCurrency and perPage are whitelisted; rate limited per client IP (429 + Retry-After)."
     )
-    public ResponseEntity<String> getCoins(
+    public ResponseEntity<byte[]> getCoins(
             @RequestParam(defaultValue = "usd") String vsCurrency,
             @RequestParam(defaultValue = "100") int perPage,
-            @RequestParam(defaultValue = "1") int page
+            @RequestParam(defaultValue = "1") int page,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
     ) {
-        log.debug("Fetching market data: vsCurrency={}, perPage={}, page={}", vsCurrency, perPage, page);
-        
-        String data = coinGeckoService.getMarketData(vsCurrency, perPage, page);
+        log.debug("Fetching market data: vsCurrency={}, perPage={}, page={}, fields={}", vsCurrency, perPage, page, fields);
+        String currency = whitelist.currency(vsCurrency);
+        whitelist.page(perPage, page);
         
-        return ResponseEntity.ok()
-                .header("Cache-Control", "public, max-age=600") // 10 minutes
-                .body(data);
+        Optional<MarketSnapshot> data = coinGeckoService.getMarketData(currency, perPage, page, CoinField.parse(fields));
+        if (data.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .build();
+        }
+
+        MarketSnapshot snapshot = data.get();
+        if (ifNoneMatch != null && ifNoneMatch.contains(snapshot.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(snapshot.etag())
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(snapshot.etag())
+                .cacheControl(cacheControl)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.gzipped());
+        }
+        return response.body(snapshot.json());
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+        summary = "Live market ticker",
+        description = "Server-Sent Events: one 'snapshot' with the top coins (id, symbol, price, 24h change), "
+                + "then 'prices' events carrying only the coins whose price changed since the previous refresh. "
+                + "Replaces polling /coins."
+    )
+    public SseEmitter stream(@RequestParam(defaultValue = "usd") String vsCurrency) {
+        return marketTicker.subscribe(whitelist.currency(vsCurrency));
     }
 }
@@ -0,0 +1,52 @@
+package com.mateuszcer.taxbackend.marketdata;
+
+import com.mateuszcer.taxbackend.shared.exception.BusinessException;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Allowed values of the public market parameters. Keeps the number of cached currencies, rendered slices
+ * and upstream calls bounded no matter what clients send.
+ */
+public class MarketQueryWhitelist {
+
+    private final Set<String> currencies;
+    private final Set<Integer> pageSizes;
+    private final int topN;
+
+    public MarketQueryWhitelist(Collection<String> currencies, Collection<Integer> pageSizes, int topN) {
+        this.currencies = currencies.stream()
+                .map(c -> c.trim().toLowerCase(Locale.ROOT))
+                .filter(c -> !c.isEmpty())
+                .collect(Collectors.toCollection(TreeSet::new));
+        this.pageSizes = pageSizes.stream()
+                .filter(size -> size > 0 && size <= topN)
+                .collect(Collectors.toCollection(TreeSet::new));
+        this.topN = topN;
+    }
+
+    /**
+     * @return the currency normalized to the cache key form
+     */
+    public String currency(String vsCurrency) {
+        String currency = vsCurrency == null ? "" : vsCurrency.trim().toLowerCase(Locale.ROOT);
+        if (!currencies.contains(currency)) {
+            throw new BusinessException("vsCurrency must be one of " + currencies, "INVALID_CURRENCY");
+        }
+        return currency;
+    }
+
+    public void page(int perPage, int page) {
+        if (!pageSizes.contains(perPage)) {
+            throw new BusinessException("perPage must be one of " + pageSizes, "INVALID_PAGE");
+        }
+        int lastPage = (topN + perPage - 1) / perPage;
+        if (page < 1 || page > lastPage) {
+            throw new BusinessException("page must be 1.." + lastPage + " for perPage " + perPage, "INVALID_PAGE");
+        }
+    }
+}
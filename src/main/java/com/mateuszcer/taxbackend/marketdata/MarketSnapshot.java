@@ -0,0 +1,41 @@
+package com.mateuszcer.taxbackend.marketdata;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * One rendered page of market data, kept both plain and pre-gzipped so requests never compress on the fly.
+ */
+public record MarketSnapshot(byte[] json, byte[] gzipped, String etag, Instant fetchedAt) {
+
+    public static MarketSnapshot of(String json, Instant fetchedAt) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        return new MarketSnapshot(bytes, gzip(bytes), etag(bytes), fetchedAt);
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, bytes.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String etag(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return "\"market-" + HexFormat.of().formatHex(digest, 0, 8) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.mateuszcer.taxbackend.marketdata;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mateuszcer.taxbackend.shared.sse.SseEmitterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Live market stream on top of the periodic CoinGecko refresh. A new subscriber gets one "snapshot" event,
+ * afterwards every tick that sees a newer fetch broadcasts a "prices" event with only the coins whose price moved.
+ * The delta is serialized once per currency per tick and the same bytes go to every connection.
+ */
+@Component
+@Slf4j
+public class MarketTicker {
+
+    static final String SNAPSHOT_EVENT = "snapshot";
+    static final String DELTA_EVENT = "prices";
+    static final Set<CoinField> TICKER_FIELDS = Collections.unmodifiableSet(EnumSet.of(
+            CoinField.ID,
+            CoinField.SYMBOL,
+            CoinField.CURRENT_PRICE,
+            CoinField.PRICE_CHANGE_PERCENTAGE_24H,
+            CoinField.LAST_UPDATED
+    ));
+
+    private final CoinGeckoService coinGeckoService;
+    private final SseEmitterRegistry marketStreamRegistry;
+    private final ObjectMapper objectMapper;
+    private final Map<String, Broadcast> lastBroadcast = new ConcurrentHashMap<>();
+
+    public MarketTicker(
+            CoinGeckoService coinGeckoService,
+            @Qualifier(MarketDataConfig.MARKET_STREAM_REGISTRY) SseEmitterRegistry marketStreamRegistry,
+            ObjectMapper objectMapper
+    ) {
+        this.coinGeckoService = coinGeckoService;
+        this.marketStreamRegistry = marketStreamRegistry;
+        this.objectMapper = objectMapper;
+    }
+
+    public SseEmitter subscribe(String vsCurrency) {
+        String currency = vsCurrency.toLowerCase(Locale.ROOT);
+        SseEmitter emitter = marketStreamRegistry.register(currency);
+        // Rendered once per fetch by CoinGeckoService, shared by every new subscriber.
+        coinGeckoService.getMarketData(currency, coinGeckoService.topN(), 1, TICKER_FIELDS).ifPresent(snapshot -> {
+            try {
+                emitter.send(SseEmitter.event()
+                        .name(SNAPSHOT_EVENT)
+                        .data(new String(snapshot.json(), StandardCharsets.UTF_8), MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+            }
+        });
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${marketdata.stream.tick:15s}")
+    public void tick() {
+        Set<String> currencies = marketStreamRegistry.keys();
+        for (String currency : currencies) {
+            // Also what keeps the cache warm: a stale entry triggers the single background refresh here.
+            coinGeckoService.getMarkets(currency).ifPresent(this::publish);
+        }
+        lastBroadcast.keySet().retainAll(currencies);
+    }
+
+    @Scheduled(fixedDelayString = "${marketdata.stream.heartbeat:25s}")
+    public void heartbeat() {
+        marketStreamRegistry.heartbeat();
+    }
+
+    void publish(CoinMarkets markets) {
+        Broadcast previous = lastBroadcast.get(markets.vsCurrency());
+        if (previous != null && previous.fetchedAt().equals(markets.fetchedAt())) {
+            return;
+        }
+
+        Map<String, Double> prices = new HashMap<>(markets.coins().size() * 2);
+        List<CoinMarket> changed = new ArrayList<>();
+        for (CoinMarket coin : markets.coins()) {
+            prices.put(coin.id(), coin.currentPrice());
+            if (previous != null) {
+                Double before = previous.prices().get(coin.id());
+                if (before == null || Double.compare(before, coin.currentPrice()) != 0) {
+                    changed.add(coin);
+                }
+            }
+        }
+        lastBroadcast.put(markets.vsCurrency(), new Broadcast(markets.fetchedAt(), prices));
+
+        // The first fetch seen for a currency is only a baseline: subscribers already got it as their snapshot.
+        if (!changed.isEmpty()) {
+            log.debug("Broadcasting {} price changes for {}", changed.size(), markets.vsCurrency());
+            marketStreamRegistry.broadcast(
+                    markets.vsCurrency(),
+                    DELTA_EVENT,
+                    CoinMarketsJson.write(objectMapper.getFactory(), changed, TICKER_FIELDS)
+            );
+        }
+    }
+
+    private record Broadcast(Instant fetchedAt, Map<String, Double> prices) {
+    }
+}
@@ -2,6 +2,7 @@ package com.mateuszcer.taxbackend.orders.application;
 
 import com.mateuszcer.taxbackend.orders.domain.OrderFacade;
 import com.mateuszcer.taxbackend.orders.domain.action.SaveNewOrdersAction;
+import com.mateuszcer.taxbackend.shared.concurrency.UserShardedExecutor;
 import com.mateuszcer.taxbackend.shared.events.NewOrdersEvent;
 import com.mateuszcer.taxbackend.shared.events.UserOrdersChangedEvent;
 import org.springframework.context.event.EventListener;
@@ -20,10 +21,16 @@ public class NewOrdersEventConsumer {
 
     private final OrderFacade orderFacade;
     private final ApplicationEventPublisher publisher;
+    private final UserShardedExecutor userShardedExecutor;
 
-    public NewOrdersEventConsumer(OrderFacade orderFacade, ApplicationEventPublisher publisher) {
+    public NewOrdersEventConsumer(
+            OrderFacade orderFacade,
+            ApplicationEventPublisher publisher,
+            UserShardedExecutor userShardedExecutor
+    ) {
         this.orderFacade = orderFacade;
         this.publisher = publisher;
+        this.userShardedExecutor = userShardedExecutor;
     }
 
     @EventListener
@@ -32,6 +39,11 @@ public class NewOrdersEventConsumer {
             return;
         }
 
+        // Ingestion and the report regeneration it triggers run on the user's shard.
+        userShardedExecutor.run(event.userId(), () -> ingest(event));
+    }
+
+    private void ingest(NewOrdersEvent event) {
         List<SaveNewOrdersAction.OrderInput> orders = event.orders().stream()
                 .filter(o -> o != null)
                 .map(o -> new SaveNewOrdersAction.OrderInput(
@@ -1,24 +1,53 @@
 package com.mateuszcer.taxbackend.orders.application;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mateuszcer.taxbackend.orders.domain.AggregationDimension;
 import com.mateuszcer.taxbackend.orders.domain.Order;
+import com.mateuszcer.taxbackend.orders.domain.OrderAggregate;
+import com.mateuszcer.taxbackend.orders.domain.OrderChanges;
+import com.mateuszcer.taxbackend.orders.domain.OrderCursor;
 import com.mateuszcer.taxbackend.orders.domain.OrderFacade;
-import com.mateuszcer.taxbackend.orders.domain.query.GetUserOrdersQuery;
+import com.mateuszcer.taxbackend.orders.domain.OrderPage;
+import com.mateuszcer.taxbackend.orders.domain.query.AggregateOrdersQuery;
+import com.mateuszcer.taxbackend.orders.domain.query.ExportUserOrdersQuery;
+import com.mateuszcer.taxbackend.orders.domain.query.GetOrderChangesQuery;
+import com.mateuszcer.taxbackend.orders.domain.query.GetOrderSetVersionQuery;
+import com.mateuszcer.taxbackend.orders.domain.query.GetOrdersPageQuery;
 import com.mateuszcer.taxbackend.shared.authuserid.AuthUserId;
+import com.mateuszcer.taxbackend.shared.etag.ETags;
 import com.mateuszcer.taxbackend.shared.response.ApiResponse;
+import com.mateuszcer.taxbackend.shared.response.ResponseFormat;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -26,29 +55,268 @@ import java.util.List;
 @SecurityRequirement(name = "bearerAuth")
 public class OrderController {
 
+    private static final int EXPORT_FLUSH_EVERY = 500;
+
     private final OrderFacade orderFacade;
+    private final Map<ResponseFormat, ObjectMapper> exportMappers = new EnumMap<>(ResponseFormat.class);
 
-    public OrderController(OrderFacade orderFacade) {
+    public OrderController(OrderFacade orderFacade, ObjectMapper objectMapper) {
         this.orderFacade = orderFacade;
+        for (ResponseFormat format : ResponseFormat.values()) {
+            exportMappers.put(format, format == ResponseFormat.JSON ? objectMapper : objectMapper.copyWith(format.newFactory()));
+        }
     }
 
     @GetMapping
-    @Operation(summary = "Get user orders", description = "Returns all orders for authenticated user")
+    @Operation(summary = "Get user orders", description = "Returns a page of orders for authenticated user, newest first (keyset pagination)")
     @io.swagger.v3.oas.annotations.responses.ApiResponses({
             @io.swagger.v3.oas.annotations.responses.ApiResponse(
                     responseCode = "200",
                     description = "Orders retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = OrderPageResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid cursor",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "304",
+                    description = "Not modified since the ETag in If-None-Match",
+                    content = @Content
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "401",
+                    description = "Missing/invalid JWT",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            )
+    })
+    public ResponseEntity<ApiResponse<OrderPageResponse>> getOrders(
+            @AuthUserId String authUserId,
+            @Parameter(description = "nextCursor from the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (max 500)") @RequestParam(required = false, defaultValue = "50") int limit,
+            @RequestParam(required = false) String productId,
+            @Parameter(example = "SELL") @RequestParam(required = false) String side,
+            @Parameter(example = "FILLED") @RequestParam(required = false) String status,
+            @Parameter(description = "Inclusive lower bound of occurredAt")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @Parameter(description = "Exclusive upper bound of occurredAt")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            WebRequest webRequest
+    ) {
+        GetOrdersPageQuery query = new GetOrdersPageQuery(
+                authUserId,
+                OrderCursor.decode(cursor),
+                limit,
+                blankToNull(productId),
+                upper(side),
+                upper(status),
+                from,
+                to
+        );
+        String etag = ETags.of("orders", authUserId, version(authUserId), query);
+        return ETags.conditional(webRequest, etag, () -> {
+            OrderPage page = orderFacade.handle(query);
+            return ResponseEntity.ok(ApiResponse.success(OrderPageResponse.from(page), "Orders retrieved successfully"));
+        });
+    }
+
+    @GetMapping("/changes")
+    @Operation(summary = "Get order changes", description = "Returns orders inserted or updated after the given change sequence, oldest change first")
+    @io.swagger.v3.oas.annotations.responses.ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Changes retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = OrderChangesResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "304",
+                    description = "Not modified since the ETag in If-None-Match",
+                    content = @Content
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "401",
+                    description = "Missing/invalid JWT",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            )
+    })
+    public ResponseEntity<ApiResponse<OrderChangesResponse>> getChanges(
+            @AuthUserId String authUserId,
+            @Parameter(description = "highWaterMark from the previous call, 0 for a full load") @RequestParam(defaultValue = "0") long since,
+            @Parameter(description = "Max changes per call (max 5000)") @RequestParam(required = false, defaultValue = "500") int limit,
+            WebRequest webRequest
+    ) {
+        String etag = ETags.of("order-changes", authUserId, version(authUserId), since, limit);
+        return ETags.conditional(webRequest, etag, () -> {
+            OrderChanges changes = orderFacade.handle(new GetOrderChangesQuery(authUserId, since, limit));
+            return ResponseEntity.ok(ApiResponse.success(OrderChangesResponse.from(changes), "Order changes retrieved successfully"));
+        });
+    }
+
+    @GetMapping("/aggregates")
+    @Operation(
+            summary = "Aggregate user orders",
+            description = "Sums filled orders (count, quantity, volume, fees, realized gain) from the monthly rollup, grouped by any of month, product, side"
+    )
+    @io.swagger.v3.oas.annotations.responses.ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Aggregates retrieved successfully",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = OrderAggregateResponse.class)))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "Unsupported groupBy dimension or invalid month range",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "401",
+                    description = "Missing/invalid JWT",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            )
+    })
+    public ResponseEntity<ApiResponse<List<OrderAggregateResponse>>> getAggregates(
+            @AuthUserId String authUserId,
+            @Parameter(description = "Comma separated subset of month, product, side; empty for a grand total", example = "month,product")
+            @RequestParam(required = false) String groupBy,
+            @Parameter(description = "Inclusive first month", example = "2024-01") @RequestParam(required = false) YearMonth from,
+            @Parameter(description = "Inclusive last month", example = "2024-12") @RequestParam(required = false) YearMonth to
+    ) {
+        Set<AggregationDimension> dimensions = EnumSet.noneOf(AggregationDimension.class);
+        if (groupBy != null) {
+            Arrays.stream(groupBy.split(","))
+                    .filter(d -> !d.isBlank())
+                    .map(AggregationDimension::parse)
+                    .forEach(dimensions::add);
+        }
+        // Realized gains land in the rollup after report regeneration, so the order-set version is not a valid ETag here.
+        List<OrderAggregate> aggregates = orderFacade.handle(new AggregateOrdersQuery(authUserId, dimensions, from, to));
+        return ResponseEntity.ok(ApiResponse.success(
+                aggregates.stream().map(OrderAggregateResponse::from).toList(),
+                "Order aggregates retrieved successfully"
+        ));
+    }
+
+    @GetMapping(value = "/export", produces = {
+            MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE,
+            ResponseFormat.SMILE_VALUE
+    })
+    @Operation(summary = "Export user orders", description = "Streams the full order history (newest first) as an array in JSON, CBOR or Smile (Accept header)")
+    @io.swagger.v3.oas.annotations.responses.ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Orders streamed",
                     content = @Content(array = @ArraySchema(schema = @Schema(implementation = OrderResponse.class)))
             ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "304",
+                    description = "Not modified since the ETag in If-None-Match",
+                    content = @Content
+            ),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(
                     responseCode = "401",
                     description = "Missing/invalid JWT",
                     content = @Content(schema = @Schema(implementation = ApiResponse.class))
             )
     })
-    public ResponseEntity<ApiResponse<List<OrderResponse>>> getOrders(@AuthUserId String authUserId) {
-        List<OrderResponse> data = orderFacade.handle(new GetUserOrdersQuery(authUserId)).stream().map(OrderResponse::from).toList();
-        return ResponseEntity.ok(ApiResponse.success(data, "Orders retrieved successfully"));
+    public ResponseEntity<StreamingResponseBody> exportOrders(@AuthUserId String authUserId, WebRequest webRequest) {
+        String etag = ETags.of("orders-export", authUserId, version(authUserId));
+        ResponseFormat format = ResponseFormat.negotiate(webRequest.getHeader(HttpHeaders.ACCEPT));
+        return ETags.conditional(webRequest, etag, () -> exportResponse(authUserId, format));
+    }
+
+    private ResponseEntity<StreamingResponseBody> exportResponse(String authUserId, ResponseFormat format) {
+        ObjectMapper mapper = exportMappers.get(format);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = mapper.getFactory().createGenerator(out)) {
+                generator.writeStartArray();
+                long[] written = {0};
+                orderFacade.handle(new ExportUserOrdersQuery(authUserId), order -> {
+                    try {
+                        generator.writeObject(OrderResponse.from(order));
+                        if (++written[0] % EXPORT_FLUSH_EVERY == 0) {
+                            generator.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(format.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders." + format.extension() + "\"")
+                .body(body);
+    }
+
+    private long version(String userId) {
+        return orderFacade.handle(new GetOrderSetVersionQuery(userId));
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static String upper(String value) {
+        String v = blankToNull(value);
+        return v == null ? null : v.toUpperCase(Locale.ROOT);
+    }
+
+    @Schema(name = "OrderPage")
+    public record OrderPageResponse(
+            List<OrderResponse> items,
+            @Schema(description = "Opaque cursor of the next page, null on the last page") String nextCursor
+    ) {
+        public static OrderPageResponse from(OrderPage page) {
+            return new OrderPageResponse(
+                    page.orders().stream().map(OrderResponse::from).toList(),
+                    page.nextCursor() == null ? null : page.nextCursor().encode()
+            );
+        }
+    }
+
+    @Schema(name = "OrderChanges")
+    public record OrderChangesResponse(
+            List<OrderResponse> items,
+            @Schema(description = "Pass as 'since' on the next call") long highWaterMark,
+            @Schema(description = "More changes are pending beyond the limit") boolean hasMore
+    ) {
+        public static OrderChangesResponse from(OrderChanges changes) {
+            return new OrderChangesResponse(
+                    changes.orders().stream().map(OrderResponse::from).toList(),
+                    changes.highWaterMark(),
+                    changes.hasMore()
+            );
+        }
+    }
+
+    @Schema(name = "OrderAggregate")
+    public record OrderAggregateResponse(
+            @Schema(description = "Null unless grouped by month", example = "2024-03") String month,
+            @Schema(description = "Null unless grouped by product", example = "BTC-USD") String productId,
+            @Schema(description = "Null unless grouped by side", example = "SELL") String side,
+            @Schema(description = "Currency of volume, fees and realizedGain; groups never mix currencies", example = "USD") String quoteCurrency,
+            @Schema(example = "12") long orders,
+            BigDecimal quantity,
+            BigDecimal volume,
+            BigDecimal fees,
+            @Schema(description = "FIFO realized gain of the sells, in the quote currency of the product") BigDecimal realizedGain
+    ) {
+        public static OrderAggregateResponse from(OrderAggregate aggregate) {
+            return new OrderAggregateResponse(
+                    aggregate.month() == null ? null : aggregate.month().toString(),
+                    aggregate.productId(),
+                    aggregate.side(),
+                    aggregate.quoteCurrency(),
+                    aggregate.orders(),
+                    aggregate.quantity(),
+                    aggregate.volume(),
+                    aggregate.fees(),
+                    aggregate.realizedGain()
+            );
+        }
     }
 
     @Schema(name = "Order")
@@ -62,7 +330,8 @@ public class OrderController {
             BigDecimal quantity,
             BigDecimal price,
             BigDecimal fee,
-            BigDecimal total
+            BigDecimal total,
+            @Schema(description = "Change sequence of this row", example = "17") long changeSeq
     ) {
         public static OrderResponse from(Order order) {
             return new OrderResponse(
@@ -75,7 +344,8 @@ public class OrderController {
                     order.getQuantity(),
                     order.getPrice(),
                     order.getFee(),
-                    order.getTotal()
+                    order.getTotal(),
+                    order.getChangeSeq()
             );
         }
     }
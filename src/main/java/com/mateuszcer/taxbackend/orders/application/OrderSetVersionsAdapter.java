@@ -0,0 +1,21 @@
+package com.mateuszcer.taxbackend.orders.application;
+
+import com.mateuszcer.taxbackend.orders.domain.OrderFacade;
+import com.mateuszcer.taxbackend.orders.domain.query.GetOrderSetVersionQuery;
+import com.mateuszcer.taxbackend.shared.etag.OrderSetVersions;
+import org.springframework.stereotype.Component;
+
+@Component
+public class OrderSetVersionsAdapter implements OrderSetVersions {
+
+    private final OrderFacade orderFacade;
+
+    public OrderSetVersionsAdapter(OrderFacade orderFacade) {
+        this.orderFacade = orderFacade;
+    }
+
+    @Override
+    public long current(String userId) {
+        return orderFacade.handle(new GetOrderSetVersionQuery(userId));
+    }
+}
@@ -2,6 +2,11 @@ package com.mateuszcer.taxbackend.orders.application;
 
 import com.mateuszcer.taxbackend.orders.domain.OrderFacade;
 import com.mateuszcer.taxbackend.orders.domain.port.OrderStore;
+import com.mateuszcer.taxbackend.orders.domain.usecase.AggregateOrders;
+import com.mateuszcer.taxbackend.orders.domain.usecase.ExportUserOrders;
+import com.mateuszcer.taxbackend.orders.domain.usecase.GetOrderChanges;
+import com.mateuszcer.taxbackend.orders.domain.usecase.GetOrderSetVersion;
+import com.mateuszcer.taxbackend.orders.domain.usecase.GetOrdersPage;
 import com.mateuszcer.taxbackend.orders.domain.usecase.GetUserOrders;
 import com.mateuszcer.taxbackend.orders.domain.usecase.SaveNewOrders;
 import org.springframework.context.annotation.Bean;
@@ -15,14 +20,55 @@ public class OrdersWiringConfig {
         return new GetUserOrders(orderStore);
     }
 
+    @Bean
+    public GetOrdersPage getOrdersPage(OrderStore orderStore) {
+        return new GetOrdersPage(orderStore);
+    }
+
+    @Bean
+    public ExportUserOrders exportUserOrders(OrderStore orderStore) {
+        return new ExportUserOrders(orderStore);
+    }
+
+    @Bean
+    public GetOrderChanges getOrderChanges(OrderStore orderStore) {
+        return new GetOrderChanges(orderStore);
+    }
+
+    @Bean
+    public GetOrderSetVersion getOrderSetVersion(OrderStore orderStore) {
+        return new GetOrderSetVersion(orderStore);
+    }
+
+    @Bean
+    public AggregateOrders aggregateOrders(OrderStore orderStore) {
+        return new AggregateOrders(orderStore);
+    }
+
     @Bean
     public SaveNewOrders saveNewOrders(OrderStore orderStore) {
         return new SaveNewOrders(orderStore);
     }
 
     @Bean
-    public OrderFacade orderFacade(GetUserOrders getUserOrders, SaveNewOrders saveNewOrders) {
-        return new OrderFacade(getUserOrders, saveNewOrders);
+    public OrderFacade orderFacade(
+            GetUserOrders getUserOrders,
+            GetOrdersPage getOrdersPage,
+            ExportUserOrders exportUserOrders,
+            GetOrderChanges getOrderChanges,
+            GetOrderSetVersion getOrderSetVersion,
+            AggregateOrders aggregateOrders,
+            SaveNewOrders saveNewOrders
+    ) {
+        return new OrderFacade(
+                getUserOrders,
+                getOrdersPage,
+                exportUserOrders,
+                getOrderChanges,
+                getOrderSetVersion,
+                aggregateOrders,
+                saveNewOrders
+        );
     }
 }
 
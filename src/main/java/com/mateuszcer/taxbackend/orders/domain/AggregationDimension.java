@@ -0,0 +1,22 @@
+package com.mateuszcer.taxbackend.orders.domain;
+
+import com.mateuszcer.taxbackend.shared.exception.BusinessException;
+
+import java.util.Locale;
+
+/**
+ * Whitelist of the columns order aggregates can be grouped by.
+ */
+public enum AggregationDimension {
+    MONTH,
+    PRODUCT,
+    SIDE;
+
+    public static AggregationDimension parse(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Unsupported groupBy dimension: " + value, "INVALID_GROUP_BY");
+        }
+    }
+}
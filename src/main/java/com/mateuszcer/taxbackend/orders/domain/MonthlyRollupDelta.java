@@ -0,0 +1,56 @@
+package com.mateuszcer.taxbackend.orders.domain;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Signed contribution of one order to its monthly rollup row. Only filled orders contribute.
+ */
+public record MonthlyRollupDelta(
+        YearMonth month,
+        String productId,
+        String side,
+        long orders,
+        BigDecimal quantity,
+        BigDecimal volume,
+        BigDecimal fees
+) {
+
+    public static final ZoneId ZONE = ZoneId.of("Europe/Warsaw");
+
+    public static Optional<MonthlyRollupDelta> added(Order order) {
+        return contribution(order, 1);
+    }
+
+    public static Optional<MonthlyRollupDelta> removed(Order order) {
+        return contribution(order, -1);
+    }
+
+    private static Optional<MonthlyRollupDelta> contribution(Order order, int sign) {
+        if (order.getStatus() == null || !order.getStatus().equalsIgnoreCase("FILLED")
+                || order.getOccurredAt() == null || order.getProductId() == null || order.getSide() == null) {
+            return Optional.empty();
+        }
+        BigDecimal quantity = nz(order.getQuantity());
+        BigDecimal volume = nz(order.getTotal()).signum() > 0
+                ? order.getTotal()
+                : quantity.multiply(nz(order.getPrice()));
+        BigDecimal signum = BigDecimal.valueOf(sign);
+        return Optional.of(new MonthlyRollupDelta(
+                YearMonth.from(order.getOccurredAt().atZone(ZONE)),
+                order.getProductId(),
+                order.getSide().toUpperCase(Locale.ROOT),
+                sign,
+                quantity.multiply(signum),
+                volume.multiply(signum),
+                nz(order.getFee()).multiply(signum)
+        ));
+    }
+
+    private static BigDecimal nz(BigDecimal v) {
+        return v == null ? BigDecimal.ZERO : v;
+    }
+}
@@ -24,7 +24,11 @@ import java.time.LocalDateTime;
         name = "orders",
         indexes = {
                 @Index(name = "idx_orders_user_id", columnList = "user_id"),
-                @Index(name = "idx_orders_user_id_occurred_at", columnList = "user_id, occurred_at")
+                @Index(name = "idx_orders_user_occurred_id", columnList = "user_id, occurred_at, id"),
+                @Index(name = "idx_orders_user_product_occurred_id", columnList = "user_id, product_id, occurred_at, id"),
+                @Index(name = "idx_orders_user_side_occurred_id", columnList = "user_id, side, occurred_at, id"),
+                @Index(name = "idx_orders_user_status_occurred_id", columnList = "user_id, status, occurred_at, id"),
+                @Index(name = "idx_orders_user_change_seq", columnList = "user_id, change_seq")
         }
 )
 public class Order {
@@ -63,6 +67,12 @@ public class Order {
     @Column(name = "total", precision = 38, scale = 18)
     private BigDecimal total;
 
+    /**
+     * Per-user change sequence number, bumped whenever the row is inserted or updated.
+     */
+    @Column(name = "change_seq", nullable = false)
+    private long changeSeq;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
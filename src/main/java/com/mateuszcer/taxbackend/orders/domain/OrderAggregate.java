@@ -0,0 +1,22 @@
+package com.mateuszcer.taxbackend.orders.domain;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+/**
+ * One group of filled orders; dimensions that were not grouped by are null.
+ * Groups are always split by quote currency, in which volume, fees and realized gain are expressed; it is empty for
+ * products whose id has no {@code BASE-QUOTE} form.
+ */
+public record OrderAggregate(
+        YearMonth month,
+        String productId,
+        String side,
+        String quoteCurrency,
+        long orders,
+        BigDecimal quantity,
+        BigDecimal volume,
+        BigDecimal fees,
+        BigDecimal realizedGain
+) {
+}
@@ -0,0 +1,27 @@
+package com.mateuszcer.taxbackend.orders.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Last change sequence number handed out for a user's orders. Row-locked while reserving numbers.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "order_change_sequence")
+public class OrderChangeSequence {
+
+    @Id
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    @Column(name = "last_seq", nullable = false)
+    private long lastSeq;
+}
@@ -0,0 +1,10 @@
+package com.mateuszcer.taxbackend.orders.domain;
+
+import java.util.List;
+
+/**
+ * Orders changed after the client's version, ordered by change sequence. {@code highWaterMark} is the version
+ * to ask from next time; {@code hasMore} means the limit cut the batch and the client should ask again right away.
+ */
+public record OrderChanges(List<Order> orders, long highWaterMark, boolean hasMore) {
+}
@@ -0,0 +1,41 @@
+package com.mateuszcer.taxbackend.orders.domain;
+
+import com.mateuszcer.taxbackend.shared.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Keyset position in the (occurred_at, id) descending order: the last row of the previous page.
+ * Exposed to clients as an opaque, URL-safe token.
+ */
+public record OrderCursor(Instant occurredAt, long id) {
+
+    public static OrderCursor of(Order order) {
+        return new OrderCursor(order.getOccurredAt(), order.getId());
+    }
+
+    public String encode() {
+        String raw = occurredAt.getEpochSecond() + ":" + occurredAt.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static OrderCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException(raw);
+            }
+            Instant occurredAt = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            return new OrderCursor(occurredAt, Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeException | ArithmeticException e) {
+            throw new BusinessException("Invalid cursor: " + token, "INVALID_CURSOR");
+        }
+    }
+}
@@ -1,19 +1,48 @@
 package com.mateuszcer.taxbackend.orders.domain;
 
 import com.mateuszcer.taxbackend.orders.domain.action.SaveNewOrdersAction;
+import com.mateuszcer.taxbackend.orders.domain.query.AggregateOrdersQuery;
+import com.mateuszcer.taxbackend.orders.domain.query.ExportUserOrdersQuery;
+import com.mateuszcer.taxbackend.orders.domain.query.GetOrderChangesQuery;
+import com.mateuszcer.taxbackend.orders.domain.query.GetOrderSetVersionQuery;
+import com.mateuszcer.taxbackend.orders.domain.query.GetOrdersPageQuery;
 import com.mateuszcer.taxbackend.orders.domain.query.GetUserOrdersQuery;
+import com.mateuszcer.taxbackend.orders.domain.usecase.AggregateOrders;
+import com.mateuszcer.taxbackend.orders.domain.usecase.ExportUserOrders;
+import com.mateuszcer.taxbackend.orders.domain.usecase.GetOrderChanges;
+import com.mateuszcer.taxbackend.orders.domain.usecase.GetOrderSetVersion;
+import com.mateuszcer.taxbackend.orders.domain.usecase.GetOrdersPage;
 import com.mateuszcer.taxbackend.orders.domain.usecase.GetUserOrders;
 import com.mateuszcer.taxbackend.orders.domain.usecase.SaveNewOrders;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public class OrderFacade {
 
     private final GetUserOrders getUserOrders;
+    private final GetOrdersPage getOrdersPage;
+    private final ExportUserOrders exportUserOrders;
+    private final GetOrderChanges getOrderChanges;
+    private final GetOrderSetVersion getOrderSetVersion;
+    private final AggregateOrders aggregateOrders;
     private final SaveNewOrders saveNewOrders;
 
-    public OrderFacade(GetUserOrders getUserOrders, SaveNewOrders saveNewOrders) {
+    public OrderFacade(
+            GetUserOrders getUserOrders,
+            GetOrdersPage getOrdersPage,
+            ExportUserOrders exportUserOrders,
+            GetOrderChanges getOrderChanges,
+            GetOrderSetVersion getOrderSetVersion,
+            AggregateOrders aggregateOrders,
+            SaveNewOrders saveNewOrders
+    ) {
         this.getUserOrders = getUserOrders;
+        this.getOrdersPage = getOrdersPage;
+        this.exportUserOrders = exportUserOrders;
+        this.getOrderChanges = getOrderChanges;
+        this.getOrderSetVersion = getOrderSetVersion;
+        this.aggregateOrders = aggregateOrders;
         this.saveNewOrders = saveNewOrders;
     }
 
@@ -21,6 +50,26 @@ public class OrderFacade {
         return getUserOrders.execute(query);
     }
 
+    public OrderPage handle(GetOrdersPageQuery query) {
+        return getOrdersPage.execute(query);
+    }
+
+    public long handle(ExportUserOrdersQuery query, Consumer<Order> sink) {
+        return exportUserOrders.execute(query, sink);
+    }
+
+    public OrderChanges handle(GetOrderChangesQuery query) {
+        return getOrderChanges.execute(query);
+    }
+
+    public long handle(GetOrderSetVersionQuery query) {
+        return getOrderSetVersion.execute(query);
+    }
+
+    public List<OrderAggregate> handle(AggregateOrdersQuery query) {
+        return aggregateOrders.execute(query);
+    }
+
     public void handle(SaveNewOrdersAction action) {
         saveNewOrders.execute(action);
     }
@@ -0,0 +1,69 @@
+package com.mateuszcer.taxbackend.orders.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Pre-aggregated filled orders of one user per (month, product, side), maintained on ingestion.
+ * {@code realizedGain} is written by the tax report regeneration and is only set on SELL rows.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(
+        name = "order_monthly_rollup",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_order_monthly_rollup_key",
+                columnNames = {"user_id", "month_start", "product_id", "side"}
+        ),
+        indexes = @Index(name = "idx_order_monthly_rollup_user_month", columnList = "user_id, month_start")
+)
+public class OrderMonthlyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    /**
+     * First day of the month (Europe/Warsaw).
+     */
+    @Column(name = "month_start", nullable = false)
+    private LocalDate month;
+
+    @Column(name = "product_id", nullable = false)
+    private String productId;
+
+    @Column(name = "side", nullable = false)
+    private String side;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    @Column(name = "quantity", nullable = false, precision = 38, scale = 18)
+    private BigDecimal quantity = BigDecimal.ZERO;
+
+    @Column(name = "volume", nullable = false, precision = 38, scale = 18)
+    private BigDecimal volume = BigDecimal.ZERO;
+
+    @Column(name = "fees", nullable = false, precision = 38, scale = 18)
+    private BigDecimal fees = BigDecimal.ZERO;
+
+    @Column(name = "realized_gain", nullable = false, precision = 38, scale = 18)
+    private BigDecimal realizedGain = BigDecimal.ZERO;
+}
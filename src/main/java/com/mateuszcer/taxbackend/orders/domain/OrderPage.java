@@ -0,0 +1,6 @@
+package com.mateuszcer.taxbackend.orders.domain;
+
+import java.util.List;
+
+public record OrderPage(List<Order> orders, OrderCursor nextCursor) {
+}
@@ -1,16 +1,43 @@
 package com.mateuszcer.taxbackend.orders.domain.port;
 
+import com.mateuszcer.taxbackend.orders.domain.MonthlyRollupDelta;
 import com.mateuszcer.taxbackend.orders.domain.Order;
+import com.mateuszcer.taxbackend.orders.domain.OrderAggregate;
+import com.mateuszcer.taxbackend.orders.domain.query.AggregateOrdersQuery;
+import com.mateuszcer.taxbackend.orders.domain.query.GetOrdersPageQuery;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface OrderStore {
     Optional<Order> findByUserIdAndExternalId(String userId, String externalId);
 
     List<Order> findByUserIdOrderByOccurredAtDesc(String userId);
 
+    List<Order> findPage(GetOrdersPageQuery query, int limit);
+
+    /**
+     * Streams all orders of the user (newest first) from a database cursor; rows are detached after the consumer returns.
+     */
+    void forEachByUserId(String userId, Consumer<Order> consumer);
+
+    List<Order> findChangedSince(String userId, long since, int limit);
+
+    /**
+     * Last change sequence number of the user (0 when none), served from memory where possible.
+     */
+    long currentChangeSequence(String userId);
+
     Order save(Order order);
+
+    /**
+     * In one transaction: stamps the orders (all of one user) with consecutive change sequence numbers, saves them
+     * and applies the rollup deltas. {@link #currentChangeSequence} reports the new version only once this commits.
+     */
+    List<Order> saveChanges(List<Order> orders, List<MonthlyRollupDelta> rollupDeltas);
+
+    List<OrderAggregate> aggregate(AggregateOrdersQuery query);
 }
 
 
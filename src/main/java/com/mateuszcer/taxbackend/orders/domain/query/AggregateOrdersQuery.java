@@ -0,0 +1,9 @@
+package com.mateuszcer.taxbackend.orders.domain.query;
+
+import com.mateuszcer.taxbackend.orders.domain.AggregationDimension;
+
+import java.time.YearMonth;
+import java.util.Set;
+
+public record AggregateOrdersQuery(String userId, Set<AggregationDimension> groupBy, YearMonth from, YearMonth to) {
+}
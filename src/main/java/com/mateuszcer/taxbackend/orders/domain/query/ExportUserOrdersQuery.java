@@ -0,0 +1,4 @@
+package com.mateuszcer.taxbackend.orders.domain.query;
+
+public record ExportUserOrdersQuery(String userId) {
+}
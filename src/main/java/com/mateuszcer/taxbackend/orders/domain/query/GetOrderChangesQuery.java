@@ -0,0 +1,4 @@
+package com.mateuszcer.taxbackend.orders.domain.query;
+
+public record GetOrderChangesQuery(String userId, long since, int limit) {
+}
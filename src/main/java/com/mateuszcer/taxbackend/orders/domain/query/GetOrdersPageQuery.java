@@ -0,0 +1,20 @@
+package com.mateuszcer.taxbackend.orders.domain.query;
+
+import com.mateuszcer.taxbackend.orders.domain.OrderCursor;
+
+import java.time.Instant;
+
+/**
+ * One page of the user's orders, newest first. Filters are optional; {@code from} is inclusive, {@code to} exclusive.
+ */
+public record GetOrdersPageQuery(
+        String userId,
+        OrderCursor after,
+        int limit,
+        String productId,
+        String side,
+        String status,
+        Instant from,
+        Instant to
+) {
+}
@@ -0,0 +1,24 @@
+package com.mateuszcer.taxbackend.orders.domain.usecase;
+
+import com.mateuszcer.taxbackend.orders.domain.OrderAggregate;
+import com.mateuszcer.taxbackend.orders.domain.port.OrderStore;
+import com.mateuszcer.taxbackend.orders.domain.query.AggregateOrdersQuery;
+import com.mateuszcer.taxbackend.shared.exception.BusinessException;
+
+import java.util.List;
+
+public class AggregateOrders {
+
+    private final OrderStore orderStore;
+
+    public AggregateOrders(OrderStore orderStore) {
+        this.orderStore = orderStore;
+    }
+
+    public List<OrderAggregate> execute(AggregateOrdersQuery query) {
+        if (query.from() != null && query.to() != null && query.from().isAfter(query.to())) {
+            throw new BusinessException("'from' must not be after 'to'", "INVALID_RANGE");
+        }
+        return orderStore.aggregate(query);
+    }
+}
@@ -0,0 +1,32 @@
+package com.mateuszcer.taxbackend.orders.domain.usecase;
+
+import com.mateuszcer.taxbackend.orders.domain.Order;
+import com.mateuszcer.taxbackend.orders.domain.port.OrderStore;
+import com.mateuszcer.taxbackend.orders.domain.query.ExportUserOrdersQuery;
+
+import java.util.function.Consumer;
+
+/**
+ * Pushes the user's full order history, newest first, to the sink one row at a time
+ * so the caller never holds the whole history in memory.
+ */
+public class ExportUserOrders {
+
+    private final OrderStore orderStore;
+
+    public ExportUserOrders(OrderStore orderStore) {
+        this.orderStore = orderStore;
+    }
+
+    public long execute(ExportUserOrdersQuery query, Consumer<Order> sink) {
+        if (query == null || query.userId() == null) {
+            return 0;
+        }
+        long[] count = {0};
+        orderStore.forEachByUserId(query.userId(), order -> {
+            sink.accept(order);
+            count[0]++;
+        });
+        return count[0];
+    }
+}
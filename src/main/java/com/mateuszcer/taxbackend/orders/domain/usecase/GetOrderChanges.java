@@ -0,0 +1,32 @@
+package com.mateuszcer.taxbackend.orders.domain.usecase;
+
+import com.mateuszcer.taxbackend.orders.domain.Order;
+import com.mateuszcer.taxbackend.orders.domain.OrderChanges;
+import com.mateuszcer.taxbackend.orders.domain.port.OrderStore;
+import com.mateuszcer.taxbackend.orders.domain.query.GetOrderChangesQuery;
+
+import java.util.List;
+
+public class GetOrderChanges {
+
+    public static final int DEFAULT_LIMIT = 500;
+    public static final int MAX_LIMIT = 5000;
+
+    private final OrderStore orderStore;
+
+    public GetOrderChanges(OrderStore orderStore) {
+        this.orderStore = orderStore;
+    }
+
+    public OrderChanges execute(GetOrderChangesQuery query) {
+        int limit = query.limit() <= 0 ? DEFAULT_LIMIT : Math.min(query.limit(), MAX_LIMIT);
+        long since = Math.max(0, query.since());
+
+        List<Order> rows = orderStore.findChangedSince(query.userId(), since, limit + 1);
+        boolean hasMore = rows.size() > limit;
+        List<Order> changes = hasMore ? List.copyOf(rows.subList(0, limit)) : rows;
+
+        long highWaterMark = changes.isEmpty() ? since : changes.getLast().getChangeSeq();
+        return new OrderChanges(changes, highWaterMark, hasMore);
+    }
+}
@@ -0,0 +1,23 @@
+package com.mateuszcer.taxbackend.orders.domain.usecase;
+
+import com.mateuszcer.taxbackend.orders.domain.port.OrderStore;
+import com.mateuszcer.taxbackend.orders.domain.query.GetOrderSetVersionQuery;
+
+/**
+ * The user's order-set version is the last change sequence number handed out for that user.
+ */
+public class GetOrderSetVersion {
+
+    private final OrderStore orderStore;
+
+    public GetOrderSetVersion(OrderStore orderStore) {
+        this.orderStore = orderStore;
+    }
+
+    public long execute(GetOrderSetVersionQuery query) {
+        if (query == null || query.userId() == null) {
+            return 0;
+        }
+        return orderStore.currentChangeSequence(query.userId());
+    }
+}
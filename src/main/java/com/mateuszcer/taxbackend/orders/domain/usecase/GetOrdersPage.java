@@ -0,0 +1,38 @@
+package com.mateuszcer.taxbackend.orders.domain.usecase;
+
+import com.mateuszcer.taxbackend.orders.domain.Order;
+import com.mateuszcer.taxbackend.orders.domain.OrderCursor;
+import com.mateuszcer.taxbackend.orders.domain.OrderPage;
+import com.mateuszcer.taxbackend.orders.domain.port.OrderStore;
+import com.mateuszcer.taxbackend.orders.domain.query.GetOrdersPageQuery;
+
+import java.util.List;
+
+/**
+ * Seek pagination over (occurred_at, id): every page is an index range scan starting right after the cursor,
+ * so its cost does not depend on how deep the client has paged or how many orders the user has.
+ */
+public class GetOrdersPage {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+
+    private final OrderStore orderStore;
+
+    public GetOrdersPage(OrderStore orderStore) {
+        this.orderStore = orderStore;
+    }
+
+    public OrderPage execute(GetOrdersPageQuery query) {
+        int limit = query.limit() <= 0 ? DEFAULT_LIMIT : Math.min(query.limit(), MAX_LIMIT);
+
+        // One extra row tells whether a next page exists without a count query.
+        List<Order> rows = orderStore.findPage(query, limit + 1);
+        if (rows.size() <= limit) {
+            return new OrderPage(rows, null);
+        }
+
+        List<Order> page = rows.subList(0, limit);
+        return new OrderPage(List.copyOf(page), OrderCursor.of(page.getLast()));
+    }
+}
@@ -1,9 +1,18 @@
 package com.mateuszcer.taxbackend.orders.domain.usecase;
 
+import com.mateuszcer.taxbackend.orders.domain.MonthlyRollupDelta;
 import com.mateuszcer.taxbackend.orders.domain.Order;
 import com.mateuszcer.taxbackend.orders.domain.action.SaveNewOrdersAction;
 import com.mateuszcer.taxbackend.orders.domain.port.OrderStore;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
 public class SaveNewOrders {
 
     private final OrderStore orderStore;
@@ -17,29 +26,69 @@ public class SaveNewOrders {
             return;
         }
 
+        List<Order> changed = new ArrayList<>();
+        List<MonthlyRollupDelta> rollupDeltas = new ArrayList<>();
         for (SaveNewOrdersAction.OrderInput o : action.orders()) {
             if (o == null || o.externalId() == null || o.productId() == null || o.side() == null || o.status() == null || o.occurredAt() == null) {
                 continue;
             }
 
-            if (orderStore.findByUserIdAndExternalId(action.userId(), o.externalId()).isPresent()) {
+            Optional<Order> existing = orderStore.findByUserIdAndExternalId(action.userId(), o.externalId());
+            if (existing.isPresent()) {
+                // Re-synced orders only count as a change when the broker reports something different.
+                Optional<MonthlyRollupDelta> before = MonthlyRollupDelta.removed(existing.get());
+                if (apply(existing.get(), o)) {
+                    changed.add(existing.get());
+                    before.ifPresent(rollupDeltas::add);
+                    MonthlyRollupDelta.added(existing.get()).ifPresent(rollupDeltas::add);
+                }
                 continue;
             }
 
             Order order = new Order();
             order.setUserId(action.userId());
             order.setExternalId(o.externalId());
-            order.setProductId(o.productId());
-            order.setSide(o.side());
-            order.setStatus(o.status());
-            order.setOccurredAt(o.occurredAt());
-            order.setQuantity(o.quantity());
-            order.setPrice(o.price());
-            order.setFee(o.fee());
-            order.setTotal(o.total());
-            orderStore.save(order);
+            apply(order, o);
+            changed.add(order);
+            MonthlyRollupDelta.added(order).ifPresent(rollupDeltas::add);
+        }
+
+        if (changed.isEmpty()) {
+            return;
         }
+
+        orderStore.saveChanges(changed, rollupDeltas);
     }
-}
 
+    private static boolean apply(Order order, SaveNewOrdersAction.OrderInput o) {
+        boolean changed = !Objects.equals(order.getProductId(), o.productId())
+                || !Objects.equals(order.getSide(), o.side())
+                || !Objects.equals(order.getStatus(), o.status())
+                || !sameInstant(order.getOccurredAt(), o.occurredAt())
+                || !sameAmount(order.getQuantity(), o.quantity())
+                || !sameAmount(order.getPrice(), o.price())
+                || !sameAmount(order.getFee(), o.fee())
+                || !sameAmount(order.getTotal(), o.total());
+        if (!changed) {
+            return false;
+        }
+        order.setProductId(o.productId());
+        order.setSide(o.side());
+        order.setStatus(o.status());
+        order.setOccurredAt(o.occurredAt());
+        order.setQuantity(o.quantity());
+        order.setPrice(o.price());
+        order.setFee(o.fee());
+        order.setTotal(o.total());
+        return true;
+    }
+
+    private static boolean sameAmount(BigDecimal a, BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
+    }
 
+    // Stored timestamps keep microseconds.
+    private static boolean sameInstant(Instant a, Instant b) {
+        return a == null ? b == null : b != null && a.truncatedTo(ChronoUnit.MICROS).equals(b.truncatedTo(ChronoUnit.MICROS));
+    }
+}
@@ -0,0 +1,17 @@
+package com.mateuszcer.taxbackend.orders.infrastructure;
+
+import com.mateuszcer.taxbackend.orders.domain.OrderChangeSequence;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface OrderChangeSequenceRepository extends JpaRepository<OrderChangeSequence, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from OrderChangeSequence s where s.userId = :userId")
+    Optional<OrderChangeSequence> findForUpdate(@Param("userId") String userId);
+}
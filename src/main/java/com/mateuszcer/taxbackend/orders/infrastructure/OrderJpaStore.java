@@ -1,19 +1,84 @@
 package com.mateuszcer.taxbackend.orders.infrastructure;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mateuszcer.taxbackend.orders.domain.AggregationDimension;
+import com.mateuszcer.taxbackend.orders.domain.MonthlyRollupDelta;
 import com.mateuszcer.taxbackend.orders.domain.Order;
+import com.mateuszcer.taxbackend.orders.domain.OrderAggregate;
+import com.mateuszcer.taxbackend.orders.domain.OrderChangeSequence;
+import com.mateuszcer.taxbackend.orders.domain.OrderMonthlyRollup;
 import com.mateuszcer.taxbackend.orders.domain.port.OrderStore;
+import com.mateuszcer.taxbackend.orders.domain.query.AggregateOrdersQuery;
+import com.mateuszcer.taxbackend.orders.domain.query.GetOrdersPageQuery;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Component
 public class OrderJpaStore implements OrderStore {
 
     private final OrderRepository orderRepository;
+    private final OrderChangeSequenceRepository changeSequenceRepository;
+    private final OrderMonthlyRollupRepository rollupRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transaction;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int exportFetchSize;
+    private final Cache<String, Long> versions;
 
-    public OrderJpaStore(OrderRepository orderRepository) {
+    public OrderJpaStore(
+            OrderRepository orderRepository,
+            OrderChangeSequenceRepository changeSequenceRepository,
+            OrderMonthlyRollupRepository rollupRepository,
+            EntityManager entityManager,
+            PlatformTransactionManager transactionManager,
+            @Value("${orders.export.fetch-size:500}") int exportFetchSize,
+            @Value("${orders.version-cache.ttl:30s}") Duration versionCacheTtl
+    ) {
         this.orderRepository = orderRepository;
+        this.changeSequenceRepository = changeSequenceRepository;
+        this.rollupRepository = rollupRepository;
+        this.entityManager = entityManager;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.exportFetchSize = exportFetchSize;
+        // Written through on every local change; the TTL bounds staleness for changes made by other nodes.
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(versionCacheTtl)
+                .build();
     }
 
     @Override
@@ -26,10 +91,187 @@ public class OrderJpaStore implements OrderStore {
         return orderRepository.findByUserIdOrderByOccurredAtDesc(userId);
     }
 
+    @Override
+    public List<Order> findPage(GetOrdersPageQuery query, int limit) {
+        return orderRepository.findBy(
+                OrderSpecifications.page(query),
+                q -> q.sortBy(OrderSpecifications.KEYSET_SORT).limit(limit).all()
+        );
+    }
+
+    @Override
+    public void forEachByUserId(String userId, Consumer<Order> consumer) {
+        // The transaction keeps the connection (and the server-side cursor behind the fetch size) open while streaming.
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<Order> orders = entityManager
+                    .createQuery("select o from Order o where o.userId = :userId order by o.occurredAt desc, o.id desc", Order.class)
+                    .setParameter("userId", userId)
+                    .setHint(HibernateHints.HINT_FETCH_SIZE, exportFetchSize)
+                    .setHint(HibernateHints.HINT_READ_ONLY, true)
+                    .getResultStream()) {
+                orders.forEach(order -> {
+                    consumer.accept(order);
+                    entityManager.detach(order);
+                });
+            }
+        });
+    }
+
+    @Override
+    public List<Order> findChangedSince(String userId, long since, int limit) {
+        return orderRepository.findByUserIdAndChangeSeqGreaterThanOrderByChangeSeqAsc(userId, since, Limit.of(limit));
+    }
+
+    @Override
+    public long currentChangeSequence(String userId) {
+        return versions.get(userId, id -> changeSequenceRepository.findById(id)
+                .map(OrderChangeSequence::getLastSeq)
+                .orElse(0L));
+    }
+
     @Override
     public Order save(Order order) {
         return orderRepository.save(order);
     }
-}
 
+    @Override
+    public List<Order> saveChanges(List<Order> orders, List<MonthlyRollupDelta> rollupDeltas) {
+        if (orders.isEmpty()) {
+            return List.of();
+        }
+        String userId = orders.getFirst().getUserId();
+        return transaction.execute(status -> {
+            long last = reserveChangeSequence(userId, orders.size());
+            long seq = last - orders.size() + 1;
+            for (Order order : orders) {
+                order.setChangeSeq(seq++);
+            }
+            List<Order> saved = orderRepository.saveAll(orders);
+            applyRollupDeltas(userId, rollupDeltas);
+            // Readers must not see the new version before the rows it stands for; a rollback publishes nothing.
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    versions.asMap().merge(userId, last, Math::max);
+                }
+            });
+            return saved;
+        });
+    }
 
+    /**
+     * Reserves {@code count} consecutive sequence numbers in the caller's transaction and returns the last one.
+     * The row lock serializes concurrent writers of the same user. The very first insert for a user is not locked,
+     * but ingestion of one user already runs on a single shard thread.
+     */
+    private long reserveChangeSequence(String userId, int count) {
+        OrderChangeSequence sequence = changeSequenceRepository.findForUpdate(userId).orElseGet(() -> {
+            OrderChangeSequence created = new OrderChangeSequence();
+            created.setUserId(userId);
+            return created;
+        });
+        sequence.setLastSeq(sequence.getLastSeq() + count);
+        changeSequenceRepository.save(sequence);
+        return sequence.getLastSeq();
+    }
+
+    private void applyRollupDeltas(String userId, List<MonthlyRollupDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        Set<LocalDate> months = deltas.stream().map(d -> d.month().atDay(1)).collect(Collectors.toSet());
+        Map<RollupKey, OrderMonthlyRollup> rows = rollupRepository.findByUserIdAndMonthIn(userId, months).stream()
+                .collect(Collectors.toMap(
+                        r -> new RollupKey(r.getMonth(), r.getProductId(), r.getSide()),
+                        Function.identity(),
+                        (a, b) -> a,
+                        LinkedHashMap::new
+                ));
+
+        for (MonthlyRollupDelta d : deltas) {
+            OrderMonthlyRollup row = rows.computeIfAbsent(new RollupKey(d.month().atDay(1), d.productId(), d.side()), key -> {
+                OrderMonthlyRollup created = new OrderMonthlyRollup();
+                created.setUserId(userId);
+                created.setMonth(key.month());
+                created.setProductId(key.productId());
+                created.setSide(key.side());
+                return created;
+            });
+            row.setOrderCount(row.getOrderCount() + d.orders());
+            row.setQuantity(row.getQuantity().add(d.quantity()));
+            row.setVolume(row.getVolume().add(d.volume()));
+            row.setFees(row.getFees().add(d.fees()));
+        }
+        rollupRepository.saveAll(rows.values());
+    }
+
+    @Override
+    public List<OrderAggregate> aggregate(AggregateOrdersQuery query) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        Root<OrderMonthlyRollup> rollup = cq.from(OrderMonthlyRollup.class);
+
+        // Dimensions come from the enum whitelist only, so the grouped columns are never caller-controlled.
+        Map<AggregationDimension, Path<?>> dimensions = new EnumMap<>(AggregationDimension.class);
+        for (AggregationDimension dimension : query.groupBy()) {
+            dimensions.put(dimension, rollup.get(switch (dimension) {
+                case MONTH -> "month";
+                case PRODUCT -> "productId";
+                case SIDE -> "side";
+            }));
+        }
+
+        // Money columns are in the quote currency of each product, so groups never mix quote currencies.
+        // A product without '-' has an unknown quote (empty) rather than the whole product id.
+        Expression<String> productId = rollup.get("productId");
+        Expression<Integer> dash = cb.locate(productId, "-");
+        Expression<String> quoteCurrency = cb.<String>selectCase()
+                .when(cb.equal(dash, 0), "")
+                .otherwise(cb.substring(productId, cb.sum(dash, 1)));
+
+        List<Selection<?>> selections = new ArrayList<>();
+        dimensions.forEach((dimension, path) -> selections.add(path.alias(dimension.name())));
+        selections.add(quoteCurrency.alias("quoteCurrency"));
+        selections.add(cb.sum(rollup.<Long>get("orderCount")).alias("orders"));
+        selections.add(cb.sum(rollup.<BigDecimal>get("quantity")).alias("quantity"));
+        selections.add(cb.sum(rollup.<BigDecimal>get("volume")).alias("volume"));
+        selections.add(cb.sum(rollup.<BigDecimal>get("fees")).alias("fees"));
+        selections.add(cb.sum(rollup.<BigDecimal>get("realizedGain")).alias("realizedGain"));
+
+        List<Predicate> where = new ArrayList<>();
+        where.add(cb.equal(rollup.get("userId"), query.userId()));
+        if (query.from() != null) {
+            where.add(cb.greaterThanOrEqualTo(rollup.<LocalDate>get("month"), query.from().atDay(1)));
+        }
+        if (query.to() != null) {
+            where.add(cb.lessThanOrEqualTo(rollup.<LocalDate>get("month"), query.to().atDay(1)));
+        }
+
+        List<Expression<?>> groupBy = new ArrayList<>(dimensions.values());
+        groupBy.add(quoteCurrency);
+        cq.multiselect(selections)
+                .where(where.toArray(Predicate[]::new))
+                .groupBy(groupBy)
+                .orderBy(groupBy.stream().map(cb::asc).toList());
+
+        return entityManager.createQuery(cq).getResultList().stream()
+                .filter(t -> t.get("orders") != null)
+                .map(t -> new OrderAggregate(
+                        dimensions.containsKey(AggregationDimension.MONTH)
+                                ? YearMonth.from(t.get(AggregationDimension.MONTH.name(), LocalDate.class))
+                                : null,
+                        dimensions.containsKey(AggregationDimension.PRODUCT) ? t.get(AggregationDimension.PRODUCT.name(), String.class) : null,
+                        dimensions.containsKey(AggregationDimension.SIDE) ? t.get(AggregationDimension.SIDE.name(), String.class) : null,
+                        t.get("quoteCurrency", String.class),
+                        t.get("orders", Long.class),
+                        t.get("quantity", BigDecimal.class),
+                        t.get("volume", BigDecimal.class),
+                        t.get("fees", BigDecimal.class),
+                        t.get("realizedGain", BigDecimal.class)
+                ))
+                .toList();
+    }
+
+    private record RollupKey(LocalDate month, String productId, String side) {
+    }
+}
@@ -0,0 +1,22 @@
+package com.mateuszcer.taxbackend.orders.infrastructure;
+
+import com.mateuszcer.taxbackend.orders.domain.OrderMonthlyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface OrderMonthlyRollupRepository extends JpaRepository<OrderMonthlyRollup, Long> {
+
+    List<OrderMonthlyRollup> findByUserIdAndMonthIn(String userId, Collection<LocalDate> months);
+
+    List<OrderMonthlyRollup> findByUserIdAndMonthBetween(String userId, LocalDate from, LocalDate to);
+
+    @Modifying
+    @Query("update OrderMonthlyRollup r set r.realizedGain = 0 where r.userId = :userId and r.month between :from and :to")
+    int clearRealizedGain(@Param("userId") String userId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+}
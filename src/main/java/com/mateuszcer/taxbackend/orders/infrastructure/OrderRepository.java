@@ -1,15 +1,19 @@
 package com.mateuszcer.taxbackend.orders.infrastructure;
 
 import com.mateuszcer.taxbackend.orders.domain.Order;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
 import java.util.List;
 import java.util.Optional;
 
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecificationExecutor<Order> {
     Optional<Order> findByUserIdAndExternalId(String userId, String externalId);
 
     List<Order> findByUserIdOrderByOccurredAtDesc(String userId);
+
+    List<Order> findByUserIdAndChangeSeqGreaterThanOrderByChangeSeqAsc(String userId, long changeSeq, Limit limit);
 }
 
 
@@ -0,0 +1,56 @@
+package com.mateuszcer.taxbackend.orders.infrastructure;
+
+import com.mateuszcer.taxbackend.orders.domain.Order;
+import com.mateuszcer.taxbackend.orders.domain.OrderCursor;
+import com.mateuszcer.taxbackend.orders.domain.query.GetOrdersPageQuery;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+final class OrderSpecifications {
+
+    static final Sort KEYSET_SORT = Sort.by(Sort.Order.desc("occurredAt"), Sort.Order.desc("id"));
+
+    private OrderSpecifications() {
+    }
+
+    /**
+     * Filters plus the seek predicate {@code (occurred_at, id) < (cursor.occurredAt, cursor.id)},
+     * spelled out so it works on every database and still matches the composite indexes.
+     */
+    static Specification<Order> page(GetOrdersPageQuery query) {
+        return (root, cq, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(root.get("userId"), query.userId()));
+            if (query.productId() != null) {
+                predicates.add(cb.equal(root.get("productId"), query.productId()));
+            }
+            if (query.side() != null) {
+                predicates.add(cb.equal(root.get("side"), query.side()));
+            }
+            if (query.status() != null) {
+                predicates.add(cb.equal(root.get("status"), query.status()));
+            }
+            if (query.from() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("occurredAt"), query.from()));
+            }
+            if (query.to() != null) {
+                predicates.add(cb.lessThan(root.get("occurredAt"), query.to()));
+            }
+            OrderCursor after = query.after();
+            if (after != null) {
+                predicates.add(cb.or(
+                        cb.lessThan(root.get("occurredAt"), after.occurredAt()),
+                        cb.and(
+                                cb.equal(root.get("occurredAt"), after.occurredAt()),
+                                cb.lessThan(root.get("id"), after.id())
+                        )
+                ));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+}
@@ -1,11 +1,22 @@
 package com.mateuszcer.taxbackend.pit.application;
 
+import com.mateuszcer.taxbackend.capitalgains.domain.CapitalGainsPreview;
+import com.mateuszcer.taxbackend.capitalgains.domain.CostBasisMethod;
+import com.mateuszcer.taxbackend.pit.domain.CostBasisComparison;
 import com.mateuszcer.taxbackend.pit.domain.PitFacade;
 import com.mateuszcer.taxbackend.pit.domain.PitPreview;
 import com.mateuszcer.taxbackend.pit.domain.PitReport;
+import com.mateuszcer.taxbackend.pit.domain.TaxYearSummary;
 import com.mateuszcer.taxbackend.pit.domain.action.GeneratePitReportAction;
+import com.mateuszcer.taxbackend.pit.domain.port.ReferencePriceProvider;
+import com.mateuszcer.taxbackend.pit.domain.query.CostBasisComparisonQuery;
 import com.mateuszcer.taxbackend.pit.domain.query.PitPreviewQuery;
+import com.mateuszcer.taxbackend.pit.domain.query.TaxYearSummaryQuery;
 import com.mateuszcer.taxbackend.shared.authuserid.AuthUserId;
+import com.mateuszcer.taxbackend.shared.concurrency.WorkPriority;
+import com.mateuszcer.taxbackend.shared.concurrency.WorkScheduler;
+import com.mateuszcer.taxbackend.shared.etag.ETags;
+import com.mateuszcer.taxbackend.shared.etag.OrderSetVersions;
 import com.mateuszcer.taxbackend.shared.response.ApiResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -18,6 +29,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -29,9 +41,20 @@ import java.util.List;
 public class PitController {
 
     private final PitFacade pitFacade;
+    private final WorkScheduler workScheduler;
+    private final OrderSetVersions orderSetVersions;
+    private final ReferencePriceProvider referencePriceProvider;
 
-    public PitController(PitFacade pitFacade) {
+    public PitController(
+            PitFacade pitFacade,
+            WorkScheduler workScheduler,
+            OrderSetVersions orderSetVersions,
+            ReferencePriceProvider referencePriceProvider
+    ) {
         this.pitFacade = pitFacade;
+        this.workScheduler = workScheduler;
+        this.orderSetVersions = orderSetVersions;
+        this.referencePriceProvider = referencePriceProvider;
     }
 
     @GetMapping("/preview")
@@ -42,15 +65,99 @@ public class PitController {
                     description = "Preview calculated",
                     content = @Content(schema = @Schema(implementation = PitPreviewResponse.class))
             ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "304",
+                    description = "Not modified since the ETag in If-None-Match",
+                    content = @Content
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "401",
+                    description = "Missing/invalid JWT",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            )
+    })
+    public ResponseEntity<ApiResponse<PitPreviewResponse>> preview(
+            @AuthUserId String authUserId,
+            @PathVariable int taxYear,
+            WebRequest webRequest
+    ) {
+        String etag = ETags.of("pit-preview", authUserId, orderSetVersions.current(authUserId), taxYear, referencePriceProvider.generation());
+        return ETags.conditional(webRequest, etag, () -> {
+            PitPreview preview = workScheduler.call(
+                    WorkPriority.INTERACTIVE,
+                    () -> pitFacade.handle(new PitPreviewQuery(authUserId, taxYear))
+            );
+            return ResponseEntity.ok(ApiResponse.success(PitPreviewResponse.from(preview), "PIT preview calculated"));
+        });
+    }
+
+    @GetMapping("/summary")
+    @Operation(summary = "Tax year summary", description = "Calculates capital gains (order currency) and PIT (PLN) totals in a single pass")
+    @io.swagger.v3.oas.annotations.responses.ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Summary calculated",
+                    content = @Content(schema = @Schema(implementation = TaxYearSummaryResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "304",
+                    description = "Not modified since the ETag in If-None-Match",
+                    content = @Content
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "401",
+                    description = "Missing/invalid JWT",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            )
+    })
+    public ResponseEntity<ApiResponse<TaxYearSummaryResponse>> summary(
+            @AuthUserId String authUserId,
+            @PathVariable int taxYear,
+            WebRequest webRequest
+    ) {
+        String etag = ETags.of("tax-year-summary", authUserId, orderSetVersions.current(authUserId), taxYear, referencePriceProvider.generation());
+        return ETags.conditional(webRequest, etag, () -> {
+            TaxYearSummary summary = workScheduler.call(
+                    WorkPriority.INTERACTIVE,
+                    () -> pitFacade.handle(new TaxYearSummaryQuery(authUserId, taxYear))
+            );
+            return ResponseEntity.ok(ApiResponse.success(TaxYearSummaryResponse.from(summary), "Tax year summary calculated"));
+        });
+    }
+
+    @GetMapping("/methods")
+    @Operation(summary = "Compare cost basis methods", description = "PIT totals (PLN) of the tax year under FIFO, LIFO, HIFO and weighted average, "
+            + "computed in one pass over the orders. Reports and previews always use FIFO.")
+    @io.swagger.v3.oas.annotations.responses.ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Comparison calculated",
+                    content = @Content(schema = @Schema(implementation = CostBasisComparisonResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "304",
+                    description = "Not modified since the ETag in If-None-Match",
+                    content = @Content
+            ),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(
                     responseCode = "401",
                     description = "Missing/invalid JWT",
                     content = @Content(schema = @Schema(implementation = ApiResponse.class))
             )
     })
-    public ResponseEntity<ApiResponse<PitPreviewResponse>> preview(@AuthUserId String authUserId, @PathVariable int taxYear) {
-        PitPreview preview = pitFacade.handle(new PitPreviewQuery(authUserId, taxYear));
-        return ResponseEntity.ok(ApiResponse.success(PitPreviewResponse.from(preview), "PIT preview calculated"));
+    public ResponseEntity<ApiResponse<CostBasisComparisonResponse>> methods(
+            @AuthUserId String authUserId,
+            @PathVariable int taxYear,
+            WebRequest webRequest
+    ) {
+        String etag = ETags.of("cost-basis-methods", authUserId, orderSetVersions.current(authUserId), taxYear, referencePriceProvider.generation());
+        return ETags.conditional(webRequest, etag, () -> {
+            CostBasisComparison comparison = workScheduler.call(
+                    WorkPriority.INTERACTIVE,
+                    () -> pitFacade.handle(new CostBasisComparisonQuery(authUserId, taxYear))
+            );
+            return ResponseEntity.ok(ApiResponse.success(CostBasisComparisonResponse.from(comparison), "Cost basis methods compared"));
+        });
     }
 
     @PostMapping("/generate")
@@ -85,6 +192,60 @@ public class PitController {
         }
     }
 
+    @Schema(name = "CapitalGainsPreview")
+    public record CapitalGainsPreviewResponse(
+            int taxYear,
+            BigDecimal cost,
+            BigDecimal proceeds,
+            BigDecimal gain,
+            List<String> warnings
+    ) {
+        public static CapitalGainsPreviewResponse from(CapitalGainsPreview preview) {
+            return new CapitalGainsPreviewResponse(preview.taxYear(), preview.cost(), preview.proceeds(), preview.gain(), preview.warnings());
+        }
+    }
+
+    @Schema(name = "TaxYearSummary")
+    public record TaxYearSummaryResponse(
+            CapitalGainsPreviewResponse capitalGains,
+            PitPreviewResponse pit
+    ) {
+        public static TaxYearSummaryResponse from(TaxYearSummary summary) {
+            return new TaxYearSummaryResponse(
+                    CapitalGainsPreviewResponse.from(summary.capitalGains()),
+                    PitPreviewResponse.from(summary.pit())
+            );
+        }
+    }
+
+    @Schema(name = "CostBasisMethodResult")
+    public record CostBasisMethodResponse(
+            CostBasisMethod method,
+            BigDecimal cost,
+            BigDecimal proceeds,
+            BigDecimal gain,
+            List<String> warnings
+    ) {
+        public static CostBasisMethodResponse from(CostBasisMethod method, PitPreview preview) {
+            return new CostBasisMethodResponse(method, preview.cost(), preview.proceeds(), preview.gain(), preview.warnings());
+        }
+    }
+
+    @Schema(name = "CostBasisComparison")
+    public record CostBasisComparisonResponse(
+            int taxYear,
+            List<CostBasisMethodResponse> methods
+    ) {
+        public static CostBasisComparisonResponse from(CostBasisComparison comparison) {
+            return new CostBasisComparisonResponse(
+                    comparison.taxYear(),
+                    comparison.byMethod().entrySet().stream()
+                            .map(e -> CostBasisMethodResponse.from(e.getKey(), e.getValue()))
+                            .toList()
+            );
+        }
+    }
+
     @Schema(name = "PitReport")
     public record PitReportResponse(
             Long id,
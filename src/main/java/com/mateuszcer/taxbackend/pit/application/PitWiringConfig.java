@@ -1,12 +1,24 @@
 package com.mateuszcer.taxbackend.pit.application;
 
+import com.mateuszcer.taxbackend.capitalgains.domain.CapitalGainsFacade;
+import com.mateuszcer.taxbackend.capitalgains.domain.port.CapitalGainsReportStore;
+import com.mateuszcer.taxbackend.capitalgains.domain.port.RealizedGainsStore;
 import com.mateuszcer.taxbackend.capitalgains.domain.port.UserOrdersProvider;
+import com.mateuszcer.taxbackend.capitalgains.domain.service.CapitalGainsLedger;
 import com.mateuszcer.taxbackend.pit.domain.PitFacade;
 import com.mateuszcer.taxbackend.pit.domain.port.ExchangeRateProvider;
+import com.mateuszcer.taxbackend.pit.domain.port.PitReportPublisher;
 import com.mateuszcer.taxbackend.pit.domain.port.PitReportStore;
+import com.mateuszcer.taxbackend.pit.domain.port.TransactionRunner;
+import com.mateuszcer.taxbackend.pit.domain.port.ReferencePriceProvider;
 import com.mateuszcer.taxbackend.pit.domain.service.CurrencyConversionService;
+import com.mateuszcer.taxbackend.pit.domain.service.PlnReportingCurrencyConverter;
 import com.mateuszcer.taxbackend.pit.domain.usecase.CalculatePitPreview;
+import com.mateuszcer.taxbackend.pit.domain.usecase.CalculateTaxYearSummary;
+import com.mateuszcer.taxbackend.pit.domain.usecase.CompareCostBasisMethods;
 import com.mateuszcer.taxbackend.pit.domain.usecase.GeneratePitReport;
+import com.mateuszcer.taxbackend.pit.domain.usecase.GenerateTaxReports;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -14,26 +26,86 @@ import org.springframework.context.annotation.Configuration;
 public class PitWiringConfig {
 
     @Bean
-    public CurrencyConversionService currencyConversionService(ExchangeRateProvider exchangeRateProvider) {
-        return new CurrencyConversionService(exchangeRateProvider);
+    public CurrencyConversionService currencyConversionService(
+            ExchangeRateProvider exchangeRateProvider,
+            ReferencePriceProvider referencePriceProvider) {
+        return new CurrencyConversionService(exchangeRateProvider, referencePriceProvider);
+    }
+
+    @Bean
+    public PlnReportingCurrencyConverter plnReportingCurrencyConverter(CurrencyConversionService currencyConversionService) {
+        return new PlnReportingCurrencyConverter(currencyConversionService);
     }
 
     @Bean
     public CalculatePitPreview calculatePitPreview(
-            UserOrdersProvider ordersProvider,
-            CurrencyConversionService currencyConversionService) {
-        return new CalculatePitPreview(ordersProvider, currencyConversionService);
+            CapitalGainsFacade capitalGainsFacade,
+            PlnReportingCurrencyConverter plnReportingCurrencyConverter) {
+        return new CalculatePitPreview(capitalGainsFacade, plnReportingCurrencyConverter);
     }
 
     @Bean
-    public GeneratePitReport generatePitReport(CalculatePitPreview calculatePitPreview, PitReportStore pitReportStore) {
-        return new GeneratePitReport(calculatePitPreview, pitReportStore);
+    public CalculateTaxYearSummary calculateTaxYearSummary(
+            CapitalGainsFacade capitalGainsFacade,
+            PlnReportingCurrencyConverter plnReportingCurrencyConverter) {
+        return new CalculateTaxYearSummary(capitalGainsFacade, plnReportingCurrencyConverter);
     }
 
     @Bean
-    public PitFacade pitFacade(CalculatePitPreview calculatePitPreview, GeneratePitReport generatePitReport) {
-        return new PitFacade(calculatePitPreview, generatePitReport);
+    public CompareCostBasisMethods compareCostBasisMethods(
+            CapitalGainsFacade capitalGainsFacade,
+            PlnReportingCurrencyConverter plnReportingCurrencyConverter) {
+        return new CompareCostBasisMethods(capitalGainsFacade, plnReportingCurrencyConverter);
     }
-}
 
+    @Bean
+    public PitReportPublisher pitReportPublisher(ApplicationEventPublisher publisher) {
+        return publisher::publishEvent;
+    }
 
+    @Bean
+    public GeneratePitReport generatePitReport(
+            CalculatePitPreview calculatePitPreview,
+            PitReportStore pitReportStore,
+            PitReportPublisher pitReportPublisher) {
+        return new GeneratePitReport(calculatePitPreview, pitReportStore, pitReportPublisher);
+    }
+
+    @Bean
+    public GenerateTaxReports generateTaxReports(
+            UserOrdersProvider ordersProvider,
+            CapitalGainsLedger capitalGainsLedger,
+            PlnReportingCurrencyConverter plnReportingCurrencyConverter,
+            CapitalGainsReportStore capitalGainsReportStore,
+            PitReportStore pitReportStore,
+            RealizedGainsStore realizedGainsStore,
+            TransactionRunner transactionRunner
+    ) {
+        return new GenerateTaxReports(
+                ordersProvider,
+                capitalGainsLedger,
+                plnReportingCurrencyConverter,
+                capitalGainsReportStore,
+                pitReportStore,
+                realizedGainsStore,
+                transactionRunner
+        );
+    }
+
+    @Bean
+    public PitFacade pitFacade(
+            CalculatePitPreview calculatePitPreview,
+            GeneratePitReport generatePitReport,
+            GenerateTaxReports generateTaxReports,
+            CalculateTaxYearSummary calculateTaxYearSummary,
+            CompareCostBasisMethods compareCostBasisMethods
+    ) {
+        return new PitFacade(
+                calculatePitPreview,
+                generatePitReport,
+                generateTaxReports,
+                calculateTaxYearSummary,
+                compareCostBasisMethods
+        );
+    }
+}
@@ -0,0 +1,30 @@
+package com.mateuszcer.taxbackend.pit.application;
+
+import com.mateuszcer.taxbackend.shared.sse.SseEmitterRegistry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class ReportEventsConfig {
+
+    public static final String REPORT_EVENTS_REGISTRY = "reportEventsRegistry";
+
+    @Bean(name = REPORT_EVENTS_REGISTRY, destroyMethod = "shutdown")
+    @Qualifier(REPORT_EVENTS_REGISTRY)
+    public SseEmitterRegistry reportEventsRegistry(
+            @Value("${reports.events.timeout:30m}") Duration timeout,
+            MeterRegistry meterRegistry
+    ) {
+        SseEmitterRegistry registry = new SseEmitterRegistry(timeout.toMillis());
+        Gauge.builder("reports.events.connections", registry, SseEmitterRegistry::connectionCount)
+                .description("Open report readiness SSE connections")
+                .register(meterRegistry);
+        return registry;
+    }
+}
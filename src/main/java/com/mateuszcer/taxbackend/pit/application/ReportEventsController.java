@@ -0,0 +1,48 @@
+package com.mateuszcer.taxbackend.pit.application;
+
+import com.mateuszcer.taxbackend.shared.authuserid.AuthUserId;
+import com.mateuszcer.taxbackend.shared.response.ApiResponse;
+import com.mateuszcer.taxbackend.shared.sse.SseEmitterRegistry;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/reports")
+@Tag(name = "PIT", description = "PIT calculation")
+@SecurityRequirement(name = "bearerAuth")
+public class ReportEventsController {
+
+    private final SseEmitterRegistry reportEventsRegistry;
+
+    public ReportEventsController(@Qualifier(ReportEventsConfig.REPORT_EVENTS_REGISTRY) SseEmitterRegistry reportEventsRegistry) {
+        this.reportEventsRegistry = reportEventsRegistry;
+    }
+
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Report readiness stream", description = "Server-Sent Events: 'report-ready' with report type and tax year whenever reports of the user are stored")
+    @io.swagger.v3.oas.annotations.responses.ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Event stream opened",
+                    content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                            schema = @Schema(implementation = ReportReadinessEventListener.ReportReady.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "401",
+                    description = "Missing/invalid JWT",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            )
+    })
+    public SseEmitter events(@AuthUserId String authUserId) {
+        return reportEventsRegistry.register(authUserId);
+    }
+}
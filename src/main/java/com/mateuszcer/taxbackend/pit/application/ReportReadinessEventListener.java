@@ -0,0 +1,49 @@
+package com.mateuszcer.taxbackend.pit.application;
+
+import com.mateuszcer.taxbackend.shared.events.CapitalGainsReportUpdatedEvent;
+import com.mateuszcer.taxbackend.shared.events.PitReportGeneratedEvent;
+import com.mateuszcer.taxbackend.shared.sse.SseEmitterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pushes a "report-ready" SSE event to the user's open connections once reports of a tax year are stored,
+ * so clients fetch the results once instead of polling the preview.
+ */
+@Component
+public class ReportReadinessEventListener {
+
+    static final String EVENT_NAME = "report-ready";
+
+    private final SseEmitterRegistry reportEventsRegistry;
+
+    public ReportReadinessEventListener(@Qualifier(ReportEventsConfig.REPORT_EVENTS_REGISTRY) SseEmitterRegistry reportEventsRegistry) {
+        this.reportEventsRegistry = reportEventsRegistry;
+    }
+
+    @EventListener
+    public void on(CapitalGainsReportUpdatedEvent event) {
+        if (event == null || event.userId() == null) {
+            return;
+        }
+        reportEventsRegistry.send(event.userId(), EVENT_NAME, new ReportReady("CAPITAL_GAINS_AND_PIT", event.taxYear()));
+    }
+
+    @EventListener
+    public void on(PitReportGeneratedEvent event) {
+        if (event == null || event.userId() == null) {
+            return;
+        }
+        reportEventsRegistry.send(event.userId(), EVENT_NAME, new ReportReady("PIT", event.taxYear()));
+    }
+
+    @Scheduled(fixedDelayString = "${reports.events.heartbeat:25s}")
+    public void heartbeat() {
+        reportEventsRegistry.heartbeat();
+    }
+
+    public record ReportReady(String report, int taxYear) {
+    }
+}
@@ -0,0 +1,61 @@
+package com.mateuszcer.taxbackend.pit.application;
+
+import com.mateuszcer.taxbackend.pit.domain.PitFacade;
+import com.mateuszcer.taxbackend.pit.domain.action.GenerateTaxReportsAction;
+import com.mateuszcer.taxbackend.shared.concurrency.WorkPriority;
+import com.mateuszcer.taxbackend.shared.concurrency.WorkScheduler;
+import com.mateuszcer.taxbackend.shared.events.CapitalGainsReportUpdatedEvent;
+import com.mateuszcer.taxbackend.shared.events.UserOrdersChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Regenerates capital gains and PIT reports of every affected year in a single pass over the user's orders.
+ */
+@Slf4j
+@Component
+public class UserOrdersChangedEventConsumer {
+
+    private final PitFacade pitFacade;
+    private final ApplicationEventPublisher publisher;
+    private final WorkScheduler workScheduler;
+
+    public UserOrdersChangedEventConsumer(
+            PitFacade pitFacade,
+            ApplicationEventPublisher publisher,
+            WorkScheduler workScheduler
+    ) {
+        this.pitFacade = pitFacade;
+        this.publisher = publisher;
+        this.workScheduler = workScheduler;
+    }
+
+    @EventListener
+    public void on(UserOrdersChangedEvent event) {
+        if (event == null || event.userId() == null || event.taxYears() == null) {
+            return;
+        }
+
+        List<Integer> years = event.taxYears().stream().filter(y -> y != null).distinct().sorted().toList();
+        if (years.isEmpty()) {
+            return;
+        }
+
+        // Queued behind the user's earlier background work, so regenerations stay ordered per user,
+        // without holding the shard (or the sync request waiting on it) for the whole run.
+        String userId = event.userId();
+        workScheduler.submitAfter(userId, WorkPriority.BACKGROUND, () -> {
+                    pitFacade.handle(new GenerateTaxReportsAction(userId, years));
+                    return null;
+                })
+                .thenRun(() -> years.forEach(year -> publisher.publishEvent(new CapitalGainsReportUpdatedEvent(userId, year))))
+                .exceptionally(e -> {
+                    log.warn("Report regeneration failed for user {} years {}", userId, years, e);
+                    return null;
+                });
+    }
+}
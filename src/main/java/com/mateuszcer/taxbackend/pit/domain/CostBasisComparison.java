@@ -0,0 +1,14 @@
+package com.mateuszcer.taxbackend.pit.domain;
+
+import com.mateuszcer.taxbackend.capitalgains.domain.CostBasisMethod;
+
+import java.util.Map;
+
+/**
+ * PIT totals (PLN) of one tax year under each cost basis method; FIFO is the one the reports use.
+ */
+public record CostBasisComparison(
+        int taxYear,
+        Map<CostBasisMethod, PitPreview> byMethod
+) {
+}
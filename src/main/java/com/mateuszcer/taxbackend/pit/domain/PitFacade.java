@@ -1,18 +1,36 @@
 package com.mateuszcer.taxbackend.pit.domain;
 
 import com.mateuszcer.taxbackend.pit.domain.action.GeneratePitReportAction;
+import com.mateuszcer.taxbackend.pit.domain.action.GenerateTaxReportsAction;
+import com.mateuszcer.taxbackend.pit.domain.query.CostBasisComparisonQuery;
 import com.mateuszcer.taxbackend.pit.domain.query.PitPreviewQuery;
+import com.mateuszcer.taxbackend.pit.domain.query.TaxYearSummaryQuery;
 import com.mateuszcer.taxbackend.pit.domain.usecase.CalculatePitPreview;
+import com.mateuszcer.taxbackend.pit.domain.usecase.CalculateTaxYearSummary;
+import com.mateuszcer.taxbackend.pit.domain.usecase.CompareCostBasisMethods;
 import com.mateuszcer.taxbackend.pit.domain.usecase.GeneratePitReport;
+import com.mateuszcer.taxbackend.pit.domain.usecase.GenerateTaxReports;
 
 public class PitFacade {
 
     private final CalculatePitPreview calculatePitPreview;
     private final GeneratePitReport generatePitReport;
-
-    public PitFacade(CalculatePitPreview calculatePitPreview, GeneratePitReport generatePitReport) {
+    private final GenerateTaxReports generateTaxReports;
+    private final CalculateTaxYearSummary calculateTaxYearSummary;
+    private final CompareCostBasisMethods compareCostBasisMethods;
+
+    public PitFacade(
+            CalculatePitPreview calculatePitPreview,
+            GeneratePitReport generatePitReport,
+            GenerateTaxReports generateTaxReports,
+            CalculateTaxYearSummary calculateTaxYearSummary,
+            CompareCostBasisMethods compareCostBasisMethods
+    ) {
         this.calculatePitPreview = calculatePitPreview;
         this.generatePitReport = generatePitReport;
+        this.generateTaxReports = generateTaxReports;
+        this.calculateTaxYearSummary = calculateTaxYearSummary;
+        this.compareCostBasisMethods = compareCostBasisMethods;
     }
 
     public PitPreview handle(PitPreviewQuery query) {
@@ -22,6 +40,16 @@ public class PitFacade {
     public PitReport handle(GeneratePitReportAction action) {
         return generatePitReport.execute(action);
     }
-}
 
+    public void handle(GenerateTaxReportsAction action) {
+        generateTaxReports.execute(action);
+    }
 
+    public TaxYearSummary handle(TaxYearSummaryQuery query) {
+        return calculateTaxYearSummary.execute(query);
+    }
+
+    public CostBasisComparison handle(CostBasisComparisonQuery query) {
+        return compareCostBasisMethods.execute(query);
+    }
+}
@@ -0,0 +1,11 @@
+package com.mateuszcer.taxbackend.pit.domain;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Daily reference price of a crypto asset in a fiat currency, e.g. 1 BTC = 42250.55 USD on 2024-01-02.
+ * {@code date} is the day the price was quoted for, which may precede the requested day.
+ */
+public record ReferencePrice(String asset, String fiatCurrency, LocalDate date, BigDecimal price) {
+}
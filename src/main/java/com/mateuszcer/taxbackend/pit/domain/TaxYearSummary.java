@@ -0,0 +1,12 @@
+package com.mateuszcer.taxbackend.pit.domain;
+
+import com.mateuszcer.taxbackend.capitalgains.domain.CapitalGainsPreview;
+
+/**
+ * Capital gains (order currency) and PIT (PLN) results of one tax year, computed together.
+ */
+public record TaxYearSummary(
+        CapitalGainsPreview capitalGains,
+        PitPreview pit
+) {
+}
@@ -0,0 +1,6 @@
+package com.mateuszcer.taxbackend.pit.domain.action;
+
+import java.util.List;
+
+public record GenerateTaxReportsAction(String userId, List<Integer> taxYears) {
+}
@@ -0,0 +1,7 @@
+package com.mateuszcer.taxbackend.pit.domain.port;
+
+import com.mateuszcer.taxbackend.shared.events.PitReportGeneratedEvent;
+
+public interface PitReportPublisher {
+    void publish(PitReportGeneratedEvent event);
+}
@@ -2,12 +2,18 @@ package com.mateuszcer.taxbackend.pit.domain.port;
 
 import com.mateuszcer.taxbackend.pit.domain.PitReport;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface PitReportStore {
     Optional<PitReport> findByUserIdAndTaxYear(String userId, int taxYear);
 
     PitReport save(PitReport report);
+
+    List<PitReport> findByUserIdAndTaxYearIn(String userId, Collection<Integer> taxYears);
+
+    List<PitReport> saveAll(List<PitReport> reports);
 }
 
 
@@ -0,0 +1,30 @@
+package com.mateuszcer.taxbackend.pit.domain.port;
+
+import com.mateuszcer.taxbackend.pit.domain.ReferencePrice;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Port for historical daily prices of crypto assets in a fiat currency, used to value crypto-quoted
+ * amounts (e.g. the BTC side of ETH-BTC) before the NBP conversion to PLN.
+ */
+public interface ReferencePriceProvider {
+
+    /**
+     * Price of the asset on the date, or on the closest earlier day with a quote (up to a week back).
+     *
+     * @param asset asset symbol (e.g. "BTC")
+     * @param date transaction date
+     * @return price in one of the fiat currencies the store holds for the asset, or empty if unknown
+     */
+    Optional<ReferencePrice> findPrice(String asset, LocalDate date);
+
+    /**
+     * Changes whenever the held prices change and stays the same otherwise. Anything computed from the prices
+     * and cached or tagged (ETags, open lots, portfolio history) carries it to notice reloads.
+     */
+    default long generation() {
+        return 0;
+    }
+}
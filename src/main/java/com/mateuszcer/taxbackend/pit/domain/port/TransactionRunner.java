@@ -0,0 +1,8 @@
+package com.mateuszcer.taxbackend.pit.domain.port;
+
+/**
+ * Runs store writes in one transaction, joining the caller's transaction when there is one.
+ */
+public interface TransactionRunner {
+    void inTransaction(Runnable work);
+}
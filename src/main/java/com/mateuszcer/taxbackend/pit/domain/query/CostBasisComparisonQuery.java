@@ -0,0 +1,4 @@
+package com.mateuszcer.taxbackend.pit.domain.query;
+
+public record CostBasisComparisonQuery(String userId, int taxYear) {
+}
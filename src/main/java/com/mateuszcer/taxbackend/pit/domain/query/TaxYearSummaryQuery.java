@@ -0,0 +1,4 @@
+package com.mateuszcer.taxbackend.pit.domain.query;
+
+public record TaxYearSummaryQuery(String userId, int taxYear) {
+}
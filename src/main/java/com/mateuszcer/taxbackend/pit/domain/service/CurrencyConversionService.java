@@ -1,6 +1,8 @@
 package com.mateuszcer.taxbackend.pit.domain.service;
 
+import com.mateuszcer.taxbackend.pit.domain.ReferencePrice;
 import com.mateuszcer.taxbackend.pit.domain.port.ExchangeRateProvider;
+import com.mateuszcer.taxbackend.pit.domain.port.ReferencePriceProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -12,6 +14,8 @@ import java.util.Optional;
 /**
  * Domain service responsible for currency conversions.
  * Encapsulates the business logic of converting amounts to PLN for tax calculations.
+ * Crypto-quoted amounts (e.g. the BTC side of ETH-BTC) are first valued in fiat with the local
+ * daily reference prices, then converted with NBP like any fiat amount.
  */
 public class CurrencyConversionService {
     
@@ -19,9 +23,11 @@ public class CurrencyConversionService {
     private static final String PLN = "PLN";
     
     private final ExchangeRateProvider exchangeRateProvider;
+    private final ReferencePriceProvider referencePriceProvider;
     
-    public CurrencyConversionService(ExchangeRateProvider exchangeRateProvider) {
+    public CurrencyConversionService(ExchangeRateProvider exchangeRateProvider, ReferencePriceProvider referencePriceProvider) {
         this.exchangeRateProvider = exchangeRateProvider;
+        this.referencePriceProvider = referencePriceProvider;
     }
     
     /**
@@ -43,10 +49,18 @@ public class CurrencyConversionService {
             return amount;
         }
         
-        // Check if provider supports this currency
+        // Not an NBP currency: value it in fiat first (crypto quote -> reference price -> NBP)
         if (!exchangeRateProvider.supports(sourceCurrency)) {
-            log.warn("Currency {} not supported by exchange rate provider, returning original amount", sourceCurrency);
-            return amount;
+            Optional<ReferencePrice> reference = referencePriceProvider.findPrice(sourceCurrency, transactionDate)
+                    .filter(p -> PLN.equalsIgnoreCase(p.fiatCurrency()) || exchangeRateProvider.supports(p.fiatCurrency()));
+            if (reference.isEmpty()) {
+                log.warn("Currency {} not supported by exchange rate provider and no reference price on {}, returning original amount",
+                        sourceCurrency, transactionDate);
+                return amount;
+            }
+            log.debug("Valuing {} {} at {} {} (reference price of {})",
+                    amount, sourceCurrency, reference.get().price(), reference.get().fiatCurrency(), reference.get().date());
+            return convertToPln(amount.multiply(reference.get().price()), reference.get().fiatCurrency(), transactionDate);
         }
         
         // Get exchange rate for transaction date
@@ -0,0 +1,49 @@
+package com.mateuszcer.taxbackend.pit.domain.service;
+
+import com.mateuszcer.taxbackend.capitalgains.domain.OrderSnapshot;
+import com.mateuszcer.taxbackend.capitalgains.domain.port.ReportingCurrencyConverter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * Converts order amounts to PLN on the transaction date, using the quote currency of the product.
+ */
+public class PlnReportingCurrencyConverter implements ReportingCurrencyConverter {
+
+    private static final ZoneId ZONE = ZoneId.of("Europe/Warsaw");
+
+    private final CurrencyConversionService currencyConversionService;
+
+    public PlnReportingCurrencyConverter(CurrencyConversionService currencyConversionService) {
+        this.currencyConversionService = currencyConversionService;
+    }
+
+    @Override
+    public BigDecimal convert(BigDecimal amount, OrderSnapshot order) {
+        LocalDate transactionDate = LocalDate.ofInstant(order.occurredAt(), ZONE);
+        return currencyConversionService.convertToPln(amount, extractCurrency(order.productId()), transactionDate);
+    }
+
+    /**
+     * Extract currency from product ID (e.g., "BTC-USD" -> "USD", "ETH-EUR" -> "EUR")
+     */
+    static String extractCurrency(String productId) {
+        if (productId == null || productId.isEmpty()) {
+            return "USD"; // Default to USD
+        }
+
+        String[] parts = productId.split("-");
+        if (parts.length >= 2) {
+            String currency = parts[1];
+            // Handle USDC/USDT as USD for exchange rate purposes
+            if ("USDC".equals(currency) || "USDT".equals(currency)) {
+                return "USD";
+            }
+            return currency;
+        }
+
+        return "USD"; // Default
+    }
+}
@@ -0,0 +1,29 @@
+package com.mateuszcer.taxbackend.pit.domain.usecase;
+
+import com.mateuszcer.taxbackend.capitalgains.domain.CapitalGainsFacade;
+import com.mateuszcer.taxbackend.capitalgains.domain.TaxYearTotals;
+import com.mateuszcer.taxbackend.capitalgains.domain.port.ReportingCurrencyConverter;
+import com.mateuszcer.taxbackend.capitalgains.domain.query.TaxYearTotalsQuery;
+import com.mateuszcer.taxbackend.pit.domain.TaxYearSummary;
+import com.mateuszcer.taxbackend.pit.domain.query.TaxYearSummaryQuery;
+
+/**
+ * Capital gains and PIT previews from a single load, sort and FIFO pass (for dashboards needing both).
+ */
+public class CalculateTaxYearSummary {
+
+    private final CapitalGainsFacade capitalGainsFacade;
+    private final ReportingCurrencyConverter plnConverter;
+
+    public CalculateTaxYearSummary(CapitalGainsFacade capitalGainsFacade, ReportingCurrencyConverter plnConverter) {
+        this.capitalGainsFacade = capitalGainsFacade;
+        this.plnConverter = plnConverter;
+    }
+
+    public TaxYearSummary execute(TaxYearSummaryQuery query) {
+        TaxYearTotals totals = capitalGainsFacade.handle(
+                new TaxYearTotalsQuery(query.userId(), query.taxYear(), plnConverter)
+        );
+        return new TaxYearSummary(totals.toCapitalGainsPreview(), CalculatePitPreview.toPitPreview(totals));
+    }
+}
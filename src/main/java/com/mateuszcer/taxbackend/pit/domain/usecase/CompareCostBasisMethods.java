@@ -0,0 +1,37 @@
+package com.mateuszcer.taxbackend.pit.domain.usecase;
+
+import com.mateuszcer.taxbackend.capitalgains.domain.CapitalGainsFacade;
+import com.mateuszcer.taxbackend.capitalgains.domain.CostBasisMethod;
+import com.mateuszcer.taxbackend.capitalgains.domain.TaxYearTotals;
+import com.mateuszcer.taxbackend.capitalgains.domain.port.ReportingCurrencyConverter;
+import com.mateuszcer.taxbackend.capitalgains.domain.query.TaxYearTotalsByMethodQuery;
+import com.mateuszcer.taxbackend.pit.domain.CostBasisComparison;
+import com.mateuszcer.taxbackend.pit.domain.PitPreview;
+import com.mateuszcer.taxbackend.pit.domain.query.CostBasisComparisonQuery;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+
+/**
+ * PIT previews under every cost basis method side by side, from one pass of the ledger in PLN.
+ */
+public class CompareCostBasisMethods {
+
+    private final CapitalGainsFacade capitalGainsFacade;
+    private final ReportingCurrencyConverter plnConverter;
+
+    public CompareCostBasisMethods(CapitalGainsFacade capitalGainsFacade, ReportingCurrencyConverter plnConverter) {
+        this.capitalGainsFacade = capitalGainsFacade;
+        this.plnConverter = plnConverter;
+    }
+
+    public CostBasisComparison execute(CostBasisComparisonQuery query) {
+        Map<CostBasisMethod, TaxYearTotals> totals = capitalGainsFacade.handle(new TaxYearTotalsByMethodQuery(
+                query.userId(), query.taxYear(), plnConverter, EnumSet.allOf(CostBasisMethod.class)
+        ));
+        Map<CostBasisMethod, PitPreview> byMethod = new EnumMap<>(CostBasisMethod.class);
+        totals.forEach((method, t) -> byMethod.put(method, CalculatePitPreview.toPitPreview(t)));
+        return new CostBasisComparison(query.taxYear(), byMethod);
+    }
+}
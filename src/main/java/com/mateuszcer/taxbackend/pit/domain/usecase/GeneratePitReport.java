@@ -3,8 +3,10 @@ package com.mateuszcer.taxbackend.pit.domain.usecase;
 import com.mateuszcer.taxbackend.pit.domain.PitPreview;
 import com.mateuszcer.taxbackend.pit.domain.PitReport;
 import com.mateuszcer.taxbackend.pit.domain.action.GeneratePitReportAction;
+import com.mateuszcer.taxbackend.pit.domain.port.PitReportPublisher;
 import com.mateuszcer.taxbackend.pit.domain.port.PitReportStore;
 import com.mateuszcer.taxbackend.pit.domain.query.PitPreviewQuery;
+import com.mateuszcer.taxbackend.shared.events.PitReportGeneratedEvent;
 
 import java.math.BigDecimal;
 
@@ -12,10 +14,16 @@ public class GeneratePitReport {
 
     private final CalculatePitPreview calculatePitPreview;
     private final PitReportStore pitReportStore;
+    private final PitReportPublisher pitReportPublisher;
 
-    public GeneratePitReport(CalculatePitPreview calculatePitPreview, PitReportStore pitReportStore) {
+    public GeneratePitReport(
+            CalculatePitPreview calculatePitPreview,
+            PitReportStore pitReportStore,
+            PitReportPublisher pitReportPublisher
+    ) {
         this.calculatePitPreview = calculatePitPreview;
         this.pitReportStore = pitReportStore;
+        this.pitReportPublisher = pitReportPublisher;
     }
 
     public PitReport execute(GeneratePitReportAction action) {
@@ -30,7 +38,9 @@ public class GeneratePitReport {
         report.setProceeds(nz(preview.proceeds()));
         report.setGain(nz(preview.gain()));
 
-        return pitReportStore.save(report);
+        PitReport saved = pitReportStore.save(report);
+        pitReportPublisher.publish(new PitReportGeneratedEvent(action.userId(), action.taxYear()));
+        return saved;
     }
 
     private static BigDecimal nz(BigDecimal v) {
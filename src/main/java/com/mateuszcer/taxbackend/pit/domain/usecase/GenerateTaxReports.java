@@ -0,0 +1,105 @@
+package com.mateuszcer.taxbackend.pit.domain.usecase;
+
+import com.mateuszcer.taxbackend.capitalgains.domain.CapitalGainsReport;
+import com.mateuszcer.taxbackend.capitalgains.domain.TaxYearTotals;
+import com.mateuszcer.taxbackend.capitalgains.domain.port.CapitalGainsReportStore;
+import com.mateuszcer.taxbackend.capitalgains.domain.port.RealizedGainsStore;
+import com.mateuszcer.taxbackend.capitalgains.domain.port.ReportingCurrencyConverter;
+import com.mateuszcer.taxbackend.capitalgains.domain.port.UserOrdersProvider;
+import com.mateuszcer.taxbackend.capitalgains.domain.service.CapitalGainsLedger;
+import com.mateuszcer.taxbackend.pit.domain.PitReport;
+import com.mateuszcer.taxbackend.pit.domain.action.GenerateTaxReportsAction;
+import com.mateuszcer.taxbackend.pit.domain.port.PitReportStore;
+import com.mateuszcer.taxbackend.pit.domain.port.TransactionRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Regenerates capital gains and PIT reports for several tax years at once:
+ * orders are loaded once, walked once, and all report rows are upserted in one batch per table.
+ * Monthly realized gains of the same walk are pushed into the orders rollup for aggregates, in the same transaction
+ * as the reports, so aggregates never disagree with a committed report.
+ */
+public class GenerateTaxReports {
+
+    private final UserOrdersProvider ordersProvider;
+    private final CapitalGainsLedger ledger;
+    private final ReportingCurrencyConverter plnConverter;
+    private final CapitalGainsReportStore capitalGainsReportStore;
+    private final PitReportStore pitReportStore;
+    private final RealizedGainsStore realizedGainsStore;
+    private final TransactionRunner transactionRunner;
+
+    public GenerateTaxReports(
+            UserOrdersProvider ordersProvider,
+            CapitalGainsLedger ledger,
+            ReportingCurrencyConverter plnConverter,
+            CapitalGainsReportStore capitalGainsReportStore,
+            PitReportStore pitReportStore,
+            RealizedGainsStore realizedGainsStore,
+            TransactionRunner transactionRunner
+    ) {
+        this.ordersProvider = ordersProvider;
+        this.ledger = ledger;
+        this.plnConverter = plnConverter;
+        this.capitalGainsReportStore = capitalGainsReportStore;
+        this.pitReportStore = pitReportStore;
+        this.realizedGainsStore = realizedGainsStore;
+        this.transactionRunner = transactionRunner;
+    }
+
+    public void execute(GenerateTaxReportsAction action) {
+        if (action == null || action.userId() == null || action.taxYears() == null) {
+            return;
+        }
+
+        List<Integer> years = action.taxYears().stream().filter(y -> y != null).distinct().sorted().toList();
+        if (years.isEmpty()) {
+            return;
+        }
+
+        Map<Integer, TaxYearTotals> totals = ledger.calculate(ordersProvider.getForUser(action.userId()), years, plnConverter);
+
+        Map<Integer, CapitalGainsReport> capitalGainsReports = capitalGainsReportStore
+                .findByUserIdAndTaxYearIn(action.userId(), years).stream()
+                .collect(Collectors.toMap(CapitalGainsReport::getTaxYear, Function.identity(), (a, b) -> a));
+        Map<Integer, PitReport> pitReports = pitReportStore
+                .findByUserIdAndTaxYearIn(action.userId(), years).stream()
+                .collect(Collectors.toMap(PitReport::getTaxYear, Function.identity(), (a, b) -> a));
+
+        List<CapitalGainsReport> capitalGainsBatch = new ArrayList<>(years.size());
+        List<PitReport> pitBatch = new ArrayList<>(years.size());
+
+        for (Integer year : years) {
+            TaxYearTotals t = totals.get(year);
+
+            CapitalGainsReport cg = capitalGainsReports.getOrDefault(year, new CapitalGainsReport());
+            cg.setUserId(action.userId());
+            cg.setTaxYear(year);
+            cg.setCost(t.cost());
+            cg.setProceeds(t.proceeds());
+            cg.setGain(t.gain());
+            capitalGainsBatch.add(cg);
+
+            PitReport pit = pitReports.getOrDefault(year, new PitReport());
+            pit.setUserId(action.userId());
+            pit.setTaxYear(year);
+            pit.setCost(t.reportingCost());
+            pit.setProceeds(t.reportingProceeds());
+            pit.setGain(t.reportingGain());
+            pitBatch.add(pit);
+        }
+
+        transactionRunner.inTransaction(() -> {
+            capitalGainsReportStore.saveAll(capitalGainsBatch);
+            pitReportStore.saveAll(pitBatch);
+            for (Integer year : years) {
+                realizedGainsStore.replaceForYear(action.userId(), year, totals.get(year).realizedGains());
+            }
+        });
+    }
+}
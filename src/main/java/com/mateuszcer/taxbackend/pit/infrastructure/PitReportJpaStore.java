@@ -4,6 +4,8 @@ import com.mateuszcer.taxbackend.pit.domain.PitReport;
 import com.mateuszcer.taxbackend.pit.domain.port.PitReportStore;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Component
@@ -24,6 +26,14 @@ public class PitReportJpaStore implements PitReportStore {
     public PitReport save(PitReport report) {
         return repository.save(report);
     }
-}
 
+    @Override
+    public List<PitReport> findByUserIdAndTaxYearIn(String userId, Collection<Integer> taxYears) {
+        return repository.findByUserIdAndTaxYearIn(userId, taxYears);
+    }
 
+    @Override
+    public List<PitReport> saveAll(List<PitReport> reports) {
+        return repository.saveAll(reports);
+    }
+}
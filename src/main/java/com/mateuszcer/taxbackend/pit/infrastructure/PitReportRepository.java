@@ -3,10 +3,14 @@ package com.mateuszcer.taxbackend.pit.infrastructure;
 import com.mateuszcer.taxbackend.pit.domain.PitReport;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface PitReportRepository extends JpaRepository<PitReport, Long> {
     Optional<PitReport> findByUserIdAndTaxYear(String userId, int taxYear);
+
+    List<PitReport> findByUserIdAndTaxYearIn(String userId, Collection<Integer> taxYears);
 }
 
 
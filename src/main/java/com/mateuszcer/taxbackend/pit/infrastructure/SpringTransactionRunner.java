@@ -0,0 +1,21 @@
+package com.mateuszcer.taxbackend.pit.infrastructure;
+
+import com.mateuszcer.taxbackend.pit.domain.port.TransactionRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Component
+public class SpringTransactionRunner implements TransactionRunner {
+
+    private final TransactionTemplate transaction;
+
+    public SpringTransactionRunner(PlatformTransactionManager transactionManager) {
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void inTransaction(Runnable work) {
+        transaction.executeWithoutResult(status -> work.run());
+    }
+}
@@ -2,25 +2,48 @@ package com.mateuszcer.taxbackend.pit.infrastructure.nbp;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.mateuszcer.taxbackend.pit.domain.port.ExchangeRateProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClient;
 
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
 
+/**
+ * NBP table A mid rates. Rates are fetched with the date-range endpoint in fixed 93-day windows (the API maximum),
+ * so valuing a long history costs one call per window and currency instead of one call per day.
+ * Past windows never change and are kept for a day; the window that reaches today is refetched after ten minutes,
+ * as today's table may not be published yet.
+ */
 @Service
 public class NbpExchangeRateClient implements ExchangeRateProvider {
     
     private static final Logger log = LoggerFactory.getLogger(NbpExchangeRateClient.class);
     private static final String NBP_API_URL = "https://api.nbp.pl/api/exchangerates/rates/a";
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE;
+    private static final ZoneId ZONE = ZoneId.of("Europe/Warsaw");
+    private static final int WINDOW_DAYS = 93;
+    private static final int MAX_DAYS_BACK = 7;
+    private static final Duration PAST_WINDOW_TTL = Duration.ofDays(1);
+    private static final Duration CURRENT_WINDOW_TTL = Duration.ofMinutes(10);
     
     private static final Set<String> SUPPORTED_CURRENCIES = Set.of(
             "USD", "EUR", "GBP", "CHF", "JPY", "CAD", "AUD", 
@@ -29,76 +52,49 @@ public class NbpExchangeRateClient implements ExchangeRateProvider {
     
     private final RestClient restClient;
     private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final Cache<Window, NavigableMap<LocalDate, BigDecimal>> windows;
     
     public NbpExchangeRateClient(RestClient.Builder restClientBuilder, ObjectMapper objectMapper) {
+        this(restClientBuilder, objectMapper, Clock.systemUTC());
+    }
+
+    NbpExchangeRateClient(RestClient.Builder restClientBuilder, ObjectMapper objectMapper, Clock clock) {
         this.restClient = restClientBuilder.build();
         this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.windows = Caffeine.newBuilder()
+                .maximumSize(5_000)
+                .expireAfter(Expiry.<Window, NavigableMap<LocalDate, BigDecimal>>creating((window, rates) ->
+                        window.end().isBefore(today()) ? PAST_WINDOW_TTL : CURRENT_WINDOW_TTL))
+                .build();
     }
     
     @Override
     @Cacheable(value = "exchangeRates", key = "#currencyCode + '_' + #date")
     public Optional<BigDecimal> getRate(String currencyCode, LocalDate date) {
-        // Try the requested date first, then fallback to previous days (up to 7 days)
-        // This handles weekends and Polish holidays when NBP doesn't publish rates
-        for (int daysBack = 0; daysBack <= 7; daysBack++) {
-            LocalDate tryDate = date.minusDays(daysBack);
-            
-            try {
-                String url = String.format("%s/%s/%s/?format=json", 
-                        NBP_API_URL, 
-                        currencyCode.toLowerCase(), 
-                        tryDate.format(DATE_FORMATTER));
-                
-                if (daysBack == 0) {
-                    log.debug("Fetching NBP exchange rate for {} on {}", currencyCode, tryDate);
-                } else {
-                    log.debug("Trying fallback date {} for {} (original date: {})", 
-                            tryDate, currencyCode, date);
-                }
-                
-                String response = restClient.get()
-                        .uri(url)
-                        .retrieve()
-                        .body(String.class);
-                
-                if (response == null) {
-                    continue; // Try previous day
-                }
-                
-                // Parse JSON response
-                JsonNode root = objectMapper.readTree(response);
-                JsonNode rates = root.path("rates");
-                
-                if (!rates.isArray() || rates.size() == 0) {
-                    continue; // Try previous day
-                }
-                
-                JsonNode firstRate = rates.get(0);
-                BigDecimal mid = firstRate.path("mid").decimalValue();
-                
-                if (mid != null && mid.signum() > 0) {
-                    if (daysBack > 0) {
-                        log.info("NBP rate for {} on {} not available (weekend/holiday), using rate from {}: {} PLN", 
-                                currencyCode, date, tryDate, mid);
-                    } else {
-                        log.info("NBP rate for {} on {}: {} PLN", currencyCode, date, mid);
-                    }
-                    return Optional.of(mid);
-                }
-                
-            } catch (Exception e) {
-                // If it's a 404, it's likely a weekend/holiday, try previous day
-                if (daysBack == 7) {
-                    // Only log error on the last attempt
-                    log.error("Failed to fetch NBP exchange rate for {} on {} (tried {} days back): {}", 
-                            currencyCode, date, daysBack, e.getMessage());
+        // Weekends and Polish holidays have no table: take the closest earlier rate, up to 7 days back.
+        String code = currencyCode.toUpperCase(Locale.ROOT);
+        LocalDate earliest = date.minusDays(MAX_DAYS_BACK);
+        for (LocalDate windowDay = date; !windowDay.isBefore(earliest); ) {
+            Window window = Window.containing(code, windowDay);
+            NavigableMap<LocalDate, BigDecimal> rates = windows.get(window, this::fetch);
+            if (rates == null) {
+                return Optional.empty();
+            }
+            Map.Entry<LocalDate, BigDecimal> rate = rates.floorEntry(date);
+            if (rate != null && !rate.getKey().isBefore(earliest)) {
+                if (!rate.getKey().equals(date)) {
+                    log.debug("NBP rate for {} on {} not available (weekend/holiday), using rate from {}: {} PLN",
+                            code, date, rate.getKey(), rate.getValue());
                 }
-                // Continue to next day
+                return Optional.of(rate.getValue());
             }
+            windowDay = window.start().minusDays(1);
         }
         
-        log.warn("Could not find NBP exchange rate for {} around date {} (tried 7 days back)", 
-                currencyCode, date);
+        log.warn("Could not find NBP exchange rate for {} around date {} (tried {} days back)", 
+                code, date, MAX_DAYS_BACK);
         return Optional.empty();
     }
     
@@ -106,4 +102,67 @@ public class NbpExchangeRateClient implements ExchangeRateProvider {
     public boolean supports(String currencyCode) {
         return SUPPORTED_CURRENCIES.contains(currencyCode.toUpperCase());
     }
+
+    /**
+     * All rates of the window; empty when NBP has none in it, null (not cached) when the call failed.
+     */
+    private NavigableMap<LocalDate, BigDecimal> fetch(Window window) {
+        LocalDate end = window.end().isAfter(today()) ? today() : window.end();
+        NavigableMap<LocalDate, BigDecimal> rates = new TreeMap<>();
+        if (end.isBefore(window.start())) {
+            return rates;
+        }
+        String url = String.format("%s/%s/%s/%s/?format=json",
+                NBP_API_URL,
+                window.currency().toLowerCase(Locale.ROOT),
+                window.start().format(DATE_FORMATTER),
+                end.format(DATE_FORMATTER));
+        try {
+            log.debug("Fetching NBP exchange rates for {} from {} to {}", window.currency(), window.start(), end);
+            String response = restClient.get()
+                    .uri(url)
+                    .retrieve()
+                    .body(String.class);
+            if (response == null) {
+                return rates;
+            }
+            for (JsonNode rate : objectMapper.readTree(response).path("rates")) {
+                BigDecimal mid = rate.path("mid").decimalValue();
+                if (mid != null && mid.signum() > 0) {
+                    rates.put(LocalDate.parse(rate.path("effectiveDate").asText()), mid);
+                }
+            }
+            log.info("Fetched {} NBP rates for {} from {} to {}", rates.size(), window.currency(), window.start(), end);
+            return rates;
+        } catch (HttpClientErrorException e) {
+            if (e.getStatusCode() == HttpStatus.NOT_FOUND) {
+                // No table published in the whole range.
+                return rates;
+            }
+            log.error("Failed to fetch NBP exchange rates for {} from {} to {}: {}", window.currency(), window.start(), end, e.getMessage());
+            return null;
+        } catch (Exception e) {
+            log.error("Failed to fetch NBP exchange rates for {} from {} to {}: {}", window.currency(), window.start(), end, e.getMessage());
+            return null;
+        }
+    }
+
+    private LocalDate today() {
+        return LocalDate.now(clock.withZone(ZONE));
+    }
+
+    /**
+     * Fixed 93-day slice of the calendar for one currency; windows never overlap, so each day has exactly one.
+     */
+    private record Window(String currency, LocalDate start) {
+
+        static Window containing(String currency, LocalDate day) {
+            long index = Math.floorDiv(day.toEpochDay(), WINDOW_DAYS);
+            return new Window(currency, LocalDate.ofEpochDay(index * WINDOW_DAYS));
+        }
+
+        LocalDate end() {
+            return start.plusDays(WINDOW_DAYS - 1);
+        }
+    }
 }
@@ -0,0 +1,60 @@
+package com.mateuszcer.taxbackend.pit.infrastructure.prices;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.TreeMap;
+
+/**
+ * Converts a daily price CSV into a {@link DailyPriceSeries} column file.
+ * Accepts {@code date,price[,...]} rows where the first 10 characters of the date column are an ISO date,
+ * which covers plain {@code 2024-01-02,42250.55} files and CoinGecko exports
+ * ({@code snapped_at,price,market_cap,total_volume}). Header and unparsable rows are skipped;
+ * a later row for the same day wins.
+ */
+final class DailyPriceCsvImporter {
+
+    private DailyPriceCsvImporter() {
+    }
+
+    /**
+     * @return number of days with a price written
+     */
+    static int importCsv(Path csv, Path target) throws IOException {
+        TreeMap<LocalDate, Double> prices = new TreeMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] columns = line.split("[,;]");
+                if (columns.length < 2 || columns[0].length() < 10) {
+                    continue;
+                }
+                try {
+                    LocalDate day = LocalDate.parse(columns[0].trim().substring(0, 10));
+                    double price = new BigDecimal(columns[1].trim()).doubleValue();
+                    if (price > 0) {
+                        prices.put(day, price);
+                    }
+                } catch (DateTimeParseException | NumberFormatException e) {
+                    // header or malformed row
+                }
+            }
+        }
+        if (prices.isEmpty()) {
+            throw new IOException("No prices in " + csv);
+        }
+
+        LocalDate first = prices.firstKey();
+        double[] column = new double[(int) (prices.lastKey().toEpochDay() - first.toEpochDay() + 1)];
+        Arrays.fill(column, Double.NaN);
+        prices.forEach((day, price) -> column[(int) (day.toEpochDay() - first.toEpochDay())] = price);
+        DailyPriceSeries.write(target, first, column);
+        return prices.size();
+    }
+}
@@ -0,0 +1,97 @@
+package com.mateuszcer.taxbackend.pit.infrastructure.prices;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.OptionalDouble;
+
+/**
+ * One asset/fiat daily price column, memory-mapped read-only.
+ * <p>
+ * File layout (little endian): {@code int magic, int version, long firstEpochDay, int days, int reserved},
+ * followed by {@code days} doubles, one per calendar day from {@code firstEpochDay}; {@code NaN} marks a day
+ * without a quote. A lookup is an index computation and one absolute read, independent of the series length,
+ * and absolute reads on the shared buffer are safe from any thread.
+ */
+final class DailyPriceSeries {
+
+    static final String EXTENSION = ".px";
+
+    private static final int MAGIC = 0x50584431; // "PXD1"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 24;
+
+    private final MappedByteBuffer column;
+    private final long firstEpochDay;
+    private final int days;
+
+    private DailyPriceSeries(MappedByteBuffer column, long firstEpochDay, int days) {
+        this.column = column;
+        this.firstEpochDay = firstEpochDay;
+        this.days = days;
+    }
+
+    static DailyPriceSeries open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException("Truncated price series " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Not a price series file: " + file);
+            }
+            long firstEpochDay = buffer.getLong(8);
+            int days = buffer.getInt(16);
+            if (channel.size() < HEADER_BYTES + (long) days * Double.BYTES) {
+                throw new IOException("Truncated price series " + file);
+            }
+            return new DailyPriceSeries(buffer, firstEpochDay, days);
+        }
+    }
+
+    /**
+     * Writes the column to a temporary file and moves it into place, so readers mapping the old file
+     * keep a consistent view.
+     */
+    static void write(Path file, LocalDate firstDay, double[] prices) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + prices.length * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(firstDay.toEpochDay()).putInt(prices.length).putInt(0);
+        for (double price : prices) {
+            buffer.putDouble(price);
+        }
+        buffer.flip();
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    OptionalDouble price(LocalDate date) {
+        long index = date.toEpochDay() - firstEpochDay;
+        if (index < 0 || index >= days) {
+            return OptionalDouble.empty();
+        }
+        double price = column.getDouble(HEADER_BYTES + (int) index * Double.BYTES);
+        return Double.isNaN(price) || price <= 0 ? OptionalDouble.empty() : OptionalDouble.of(price);
+    }
+
+    LocalDate firstDay() {
+        return LocalDate.ofEpochDay(firstEpochDay);
+    }
+
+    LocalDate lastDay() {
+        return LocalDate.ofEpochDay(firstEpochDay + days - 1);
+    }
+}
@@ -0,0 +1,172 @@
+package com.mateuszcer.taxbackend.pit.infrastructure.prices;
+
+import com.mateuszcer.taxbackend.pit.domain.ReferencePrice;
+import com.mateuszcer.taxbackend.pit.domain.port.ReferencePriceProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.TreeMap;
+
+/**
+ * Local daily crypto/fiat reference prices, read from memory-mapped column files in {@code app.prices.dir}.
+ * Files are named {@code <ASSET>-<FIAT>}: a {@code BTC-USD.csv} dropped into the directory is converted to
+ * {@code BTC-USD.px} on the next rescan (and again whenever the CSV is newer than its column file).
+ * When an asset has several fiat series, PLN is preferred (no NBP step), then USD, then EUR.
+ * The {@link #generation()} is a digest of the mapped files (name, size, modification time), so it changes whenever a
+ * reload maps different files and is the same for the same files, also across restarts. It is not ordered.
+ */
+@Component
+public class MappedReferencePriceStore implements ReferencePriceProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(MappedReferencePriceStore.class);
+    private static final int MAX_DAYS_BACK = 7;
+    private static final List<String> FIAT_PREFERENCE = List.of("PLN", "USD", "EUR");
+
+    private final Path directory;
+    private volatile Map<String, List<FiatSeries>> seriesByAsset = Map.of();
+    private volatile long generation;
+
+    public MappedReferencePriceStore(@Value("${app.prices.dir:data/prices}") String directory) {
+        this.directory = Path.of(directory);
+        reload();
+    }
+
+    @Override
+    public Optional<ReferencePrice> findPrice(String asset, LocalDate date) {
+        if (asset == null || date == null) {
+            return Optional.empty();
+        }
+        List<FiatSeries> series = seriesByAsset.get(asset.toUpperCase(Locale.ROOT));
+        if (series == null) {
+            return Optional.empty();
+        }
+        // Same fallback as NBP: a missing day takes the closest earlier quote within a week.
+        for (int daysBack = 0; daysBack <= MAX_DAYS_BACK; daysBack++) {
+            LocalDate day = date.minusDays(daysBack);
+            for (FiatSeries candidate : series) {
+                OptionalDouble price = candidate.series().price(day);
+                if (price.isPresent()) {
+                    return Optional.of(new ReferencePrice(
+                            asset.toUpperCase(Locale.ROOT),
+                            candidate.fiat(),
+                            day,
+                            BigDecimal.valueOf(price.getAsDouble())
+                    ));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public long generation() {
+        return generation;
+    }
+
+    /**
+     * Imports new or changed CSV files and remaps every column file. The map is swapped at once,
+     * lookups never see a half-loaded store.
+     */
+    @Scheduled(fixedDelayString = "${app.prices.rescan:1h}", initialDelayString = "${app.prices.rescan:1h}")
+    public synchronized void reload() {
+        if (!Files.isDirectory(directory)) {
+            log.info("Reference price directory {} not found, crypto-quoted amounts stay unconverted", directory.toAbsolutePath());
+            return;
+        }
+        importCsvFiles();
+
+        Map<String, List<FiatSeries>> loaded = new HashMap<>();
+        Map<String, String> stamps = new TreeMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + DailyPriceSeries.EXTENSION)) {
+            for (Path file : files) {
+                String[] pair = pair(file, DailyPriceSeries.EXTENSION);
+                if (pair == null) {
+                    continue;
+                }
+                try {
+                    stamps.put(file.getFileName().toString(), Files.size(file) + ":" + Files.getLastModifiedTime(file).toMillis());
+                    DailyPriceSeries series = DailyPriceSeries.open(file);
+                    loaded.computeIfAbsent(pair[0], k -> new ArrayList<>()).add(new FiatSeries(pair[1], series));
+                    log.debug("Mapped reference prices {}-{} {}..{}", pair[0], pair[1], series.firstDay(), series.lastDay());
+                } catch (IOException e) {
+                    log.warn("Skipping reference price file {}: {}", file, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not list reference price directory {}: {}", directory, e.getMessage());
+            return;
+        }
+        loaded.values().forEach(list -> list.sort(Comparator.comparingInt(s -> fiatRank(s.fiat()))));
+        seriesByAsset = Map.copyOf(loaded);
+        generation = digest(stamps);
+        log.info("Loaded reference prices for {} assets from {}", loaded.size(), directory.toAbsolutePath());
+    }
+
+    private void importCsvFiles() {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.csv")) {
+            for (Path csv : files) {
+                String[] pair = pair(csv, ".csv");
+                if (pair == null) {
+                    continue;
+                }
+                Path target = directory.resolve(pair[0] + "-" + pair[1] + DailyPriceSeries.EXTENSION);
+                try {
+                    if (Files.exists(target) && !Files.getLastModifiedTime(csv).toInstant().isAfter(Files.getLastModifiedTime(target).toInstant())) {
+                        continue;
+                    }
+                    int days = DailyPriceCsvImporter.importCsv(csv, target);
+                    log.info("Imported {} daily prices from {}", days, csv.getFileName());
+                } catch (IOException e) {
+                    log.warn("Could not import reference prices from {}: {}", csv, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not list reference price CSV files in {}: {}", directory, e.getMessage());
+        }
+    }
+
+    private static String[] pair(Path file, String extension) {
+        String name = file.getFileName().toString();
+        String[] pair = name.substring(0, name.length() - extension.length()).toUpperCase(Locale.ROOT).split("-");
+        return pair.length == 2 && !pair[0].isEmpty() && !pair[1].isEmpty() ? pair : null;
+    }
+
+    private static long digest(Map<String, String> stamps) {
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            stamps.forEach((name, stamp) -> sha.update((name + "|" + stamp + "\n").getBytes(StandardCharsets.UTF_8)));
+            return ByteBuffer.wrap(sha.digest()).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static int fiatRank(String fiat) {
+        int rank = FIAT_PREFERENCE.indexOf(fiat);
+        return rank < 0 ? FIAT_PREFERENCE.size() : rank;
+    }
+
+    private record FiatSeries(String fiat, DailyPriceSeries series) {
+    }
+}
@@ -0,0 +1,307 @@
+package com.mateuszcer.taxbackend.portfolio.application;
+
+import com.mateuszcer.taxbackend.portfolio.domain.HarvestPlan;
+import com.mateuszcer.taxbackend.portfolio.domain.HarvestSale;
+import com.mateuszcer.taxbackend.portfolio.domain.Portfolio;
+import com.mateuszcer.taxbackend.portfolio.domain.PortfolioDailyValue;
+import com.mateuszcer.taxbackend.portfolio.domain.PortfolioFacade;
+import com.mateuszcer.taxbackend.portfolio.domain.PortfolioPosition;
+import com.mateuszcer.taxbackend.portfolio.domain.SaleSimulation;
+import com.mateuszcer.taxbackend.portfolio.domain.query.PortfolioHistoryQuery;
+import com.mateuszcer.taxbackend.portfolio.domain.query.PortfolioQuery;
+import com.mateuszcer.taxbackend.portfolio.domain.query.SimulateSaleQuery;
+import com.mateuszcer.taxbackend.portfolio.domain.query.TaxLossHarvestQuery;
+import com.mateuszcer.taxbackend.shared.authuserid.AuthUserId;
+import com.mateuszcer.taxbackend.shared.concurrency.WorkPriority;
+import com.mateuszcer.taxbackend.shared.concurrency.WorkScheduler;
+import com.mateuszcer.taxbackend.shared.response.ApiResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/portfolio")
+@Tag(name = "Portfolio", description = "Current holdings and unrealized gains")
+@SecurityRequirement(name = "bearerAuth")
+public class PortfolioController {
+
+    private static final ZoneId ZONE = ZoneId.of("Europe/Warsaw");
+
+    private final PortfolioFacade portfolioFacade;
+    private final WorkScheduler workScheduler;
+    private final PortfolioHistoryExtender historyExtender;
+
+    public PortfolioController(PortfolioFacade portfolioFacade, WorkScheduler workScheduler, PortfolioHistoryExtender historyExtender) {
+        this.portfolioFacade = portfolioFacade;
+        this.workScheduler = workScheduler;
+        this.historyExtender = historyExtender;
+    }
+
+    @GetMapping
+    @Operation(summary = "Portfolio valuation", description = "Open FIFO lots per product valued in PLN at cached market prices: quantity, cost basis, market value, unrealized gain")
+    @io.swagger.v3.oas.annotations.responses.ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Portfolio valued",
+                    content = @Content(schema = @Schema(implementation = PortfolioResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "401",
+                    description = "Missing/invalid JWT",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            )
+    })
+    public ResponseEntity<ApiResponse<PortfolioResponse>> portfolio(@AuthUserId String authUserId) {
+        Portfolio portfolio = workScheduler.call(
+                WorkPriority.INTERACTIVE,
+                () -> portfolioFacade.handle(new PortfolioQuery(authUserId))
+        );
+        return ResponseEntity.ok(ApiResponse.success(PortfolioResponse.from(portfolio), "Portfolio valued"));
+    }
+
+    @GetMapping("/history")
+    @Operation(summary = "Daily portfolio value", description = "PLN value of the holdings at the end of each day in [from, to] (default: last 365 days). "
+            + "Read from the persisted series; days not built yet are computed in the background and show up on a later request.")
+    @io.swagger.v3.oas.annotations.responses.ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Series returned",
+                    content = @Content(schema = @Schema(implementation = PortfolioHistoryResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid range",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "401",
+                    description = "Missing/invalid JWT",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            )
+    })
+    public ResponseEntity<ApiResponse<PortfolioHistoryResponse>> history(
+            @AuthUserId String authUserId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        LocalDate end = to == null ? LocalDate.now(ZONE) : to;
+        LocalDate start = from == null ? end.minusDays(365) : from;
+        // Read-only: days not built yet are queued in the background (a no-op run when the series is current).
+        historyExtender.request(authUserId);
+        List<PortfolioDailyValue> values = portfolioFacade.handle(new PortfolioHistoryQuery(authUserId, start, end));
+        return ResponseEntity.ok(ApiResponse.success(PortfolioHistoryResponse.from(values), "Portfolio history returned"));
+    }
+
+    @GetMapping("/simulate-sale")
+    @Operation(summary = "What-if sale", description = "PIT effect of selling `quantity` of `productId` now, matched FIFO against the current open lots: "
+            + "cost basis, proceeds, gain and 19% tax delta in PLN. `price` (PLN per unit) defaults to the current market price. Nothing is stored.")
+    @io.swagger.v3.oas.annotations.responses.ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Sale simulated",
+                    content = @Content(schema = @Schema(implementation = SaleSimulationResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid quantity, not enough holdings or no price available",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "401",
+                    description = "Missing/invalid JWT",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            )
+    })
+    public ResponseEntity<ApiResponse<SaleSimulationResponse>> simulateSale(
+            @AuthUserId String authUserId,
+            @RequestParam String productId,
+            @RequestParam BigDecimal quantity,
+            @RequestParam(required = false) BigDecimal price
+    ) {
+        SaleSimulation simulation = workScheduler.call(
+                WorkPriority.INTERACTIVE,
+                () -> portfolioFacade.handle(new SimulateSaleQuery(authUserId, productId, quantity, price))
+        );
+        return ResponseEntity.ok(ApiResponse.success(SaleSimulationResponse.from(simulation), "Sale simulated"));
+    }
+
+    @GetMapping("/harvest")
+    @Operation(summary = "Tax-loss harvesting", description = "Sales of lots currently at a loss that realize `targetLoss` (PLN) with the least proceeds, "
+            + "respecting FIFO matching per product. Without `targetLoss` every lot at a loss is listed. Uses the cached open lots and market prices.")
+    @io.swagger.v3.oas.annotations.responses.ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Harvest plan computed",
+                    content = @Content(schema = @Schema(implementation = HarvestPlanResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid target",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "401",
+                    description = "Missing/invalid JWT",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            )
+    })
+    public ResponseEntity<ApiResponse<HarvestPlanResponse>> harvest(
+            @AuthUserId String authUserId,
+            @RequestParam(required = false) BigDecimal targetLoss
+    ) {
+        HarvestPlan plan = workScheduler.call(
+                WorkPriority.INTERACTIVE,
+                () -> portfolioFacade.handle(new TaxLossHarvestQuery(authUserId, targetLoss))
+        );
+        return ResponseEntity.ok(ApiResponse.success(HarvestPlanResponse.from(plan), "Harvest plan computed"));
+    }
+
+    @Schema(name = "HarvestSale")
+    public record HarvestSaleResponse(
+            String productId,
+            String asset,
+            BigDecimal quantity,
+            BigDecimal unitPrice,
+            BigDecimal costBasis,
+            BigDecimal proceeds,
+            BigDecimal loss
+    ) {
+        public static HarvestSaleResponse from(HarvestSale sale) {
+            return new HarvestSaleResponse(
+                    sale.productId(),
+                    sale.asset(),
+                    sale.quantity(),
+                    sale.unitPrice(),
+                    sale.costBasis(),
+                    sale.proceeds(),
+                    sale.loss()
+            );
+        }
+    }
+
+    @Schema(name = "HarvestPlan")
+    public record HarvestPlanResponse(
+            String currency,
+            List<HarvestSaleResponse> sales,
+            BigDecimal targetLoss,
+            BigDecimal loss,
+            BigDecimal taxSaving,
+            boolean targetReached,
+            Instant pricesAsOf,
+            List<String> warnings
+    ) {
+        public static HarvestPlanResponse from(HarvestPlan plan) {
+            return new HarvestPlanResponse(
+                    "PLN",
+                    plan.sales().stream().map(HarvestSaleResponse::from).toList(),
+                    plan.targetLoss(),
+                    plan.loss(),
+                    plan.taxSaving(),
+                    plan.targetReached(),
+                    plan.pricesAsOf(),
+                    plan.warnings()
+            );
+        }
+    }
+
+    @Schema(name = "SaleSimulation")
+    public record SaleSimulationResponse(
+            String productId,
+            BigDecimal quantity,
+            BigDecimal unitPrice,
+            BigDecimal costBasis,
+            BigDecimal proceeds,
+            BigDecimal gain,
+            BigDecimal taxDelta,
+            BigDecimal remainingQuantity,
+            String currency
+    ) {
+        public static SaleSimulationResponse from(SaleSimulation simulation) {
+            return new SaleSimulationResponse(
+                    simulation.productId(),
+                    simulation.quantity(),
+                    simulation.unitPrice(),
+                    simulation.costBasis(),
+                    simulation.proceeds(),
+                    simulation.gain(),
+                    simulation.taxDelta(),
+                    simulation.remainingQuantity(),
+                    "PLN"
+            );
+        }
+    }
+
+    @Schema(name = "PortfolioHistoryPoint")
+    public record PortfolioHistoryPointResponse(LocalDate date, BigDecimal marketValue, int unpricedAssets) {
+        public static PortfolioHistoryPointResponse from(PortfolioDailyValue value) {
+            return new PortfolioHistoryPointResponse(value.getDate(), value.getMarketValue(), value.getUnpricedAssets());
+        }
+    }
+
+    @Schema(name = "PortfolioHistory")
+    public record PortfolioHistoryResponse(String currency, List<PortfolioHistoryPointResponse> points) {
+        public static PortfolioHistoryResponse from(List<PortfolioDailyValue> values) {
+            return new PortfolioHistoryResponse("PLN", values.stream().map(PortfolioHistoryPointResponse::from).toList());
+        }
+    }
+
+    @Schema(name = "PortfolioPosition")
+    public record PortfolioPositionResponse(
+            String productId,
+            String asset,
+            BigDecimal quantity,
+            BigDecimal costBasis,
+            BigDecimal price,
+            BigDecimal marketValue,
+            BigDecimal unrealizedGain
+    ) {
+        public static PortfolioPositionResponse from(PortfolioPosition position) {
+            return new PortfolioPositionResponse(
+                    position.productId(),
+                    position.asset(),
+                    position.quantity(),
+                    position.costBasis(),
+                    position.price(),
+                    position.marketValue(),
+                    position.unrealizedGain()
+            );
+        }
+    }
+
+    @Schema(name = "Portfolio")
+    public record PortfolioResponse(
+            String currency,
+            List<PortfolioPositionResponse> positions,
+            BigDecimal costBasis,
+            BigDecimal marketValue,
+            BigDecimal unrealizedGain,
+            Instant pricesAsOf,
+            List<String> warnings
+    ) {
+        public static PortfolioResponse from(Portfolio portfolio) {
+            return new PortfolioResponse(
+                    "PLN",
+                    portfolio.positions().stream().map(PortfolioPositionResponse::from).toList(),
+                    portfolio.costBasis(),
+                    portfolio.marketValue(),
+                    portfolio.unrealizedGain(),
+                    portfolio.pricesAsOf(),
+                    portfolio.warnings()
+            );
+        }
+    }
+}
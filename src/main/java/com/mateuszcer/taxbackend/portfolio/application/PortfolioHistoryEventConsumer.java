@@ -0,0 +1,27 @@
+package com.mateuszcer.taxbackend.portfolio.application;
+
+import com.mateuszcer.taxbackend.shared.events.UserOrdersChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rewrites the daily value series from the first day touched by new or changed orders, in the background,
+ * so the next chart request is a plain range read.
+ */
+@Component
+public class PortfolioHistoryEventConsumer {
+
+    private final PortfolioHistoryExtender historyExtender;
+
+    public PortfolioHistoryEventConsumer(PortfolioHistoryExtender historyExtender) {
+        this.historyExtender = historyExtender;
+    }
+
+    @EventListener
+    public void on(UserOrdersChangedEvent event) {
+        if (event == null || event.userId() == null) {
+            return;
+        }
+        historyExtender.request(event.userId());
+    }
+}
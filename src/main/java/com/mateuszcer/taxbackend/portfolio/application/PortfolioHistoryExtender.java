@@ -0,0 +1,47 @@
+package com.mateuszcer.taxbackend.portfolio.application;
+
+import com.mateuszcer.taxbackend.portfolio.domain.PortfolioFacade;
+import com.mateuszcer.taxbackend.portfolio.domain.action.ExtendPortfolioHistoryAction;
+import com.mateuszcer.taxbackend.shared.concurrency.WorkPriority;
+import com.mateuszcer.taxbackend.shared.concurrency.WorkScheduler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Extends a user's daily value series in the background, one run at a time per user and never on the caller's thread.
+ * Requests arriving while a run is queued fold into it; a request arriving while one runs queues exactly one more,
+ * so changes made during a run are still picked up.
+ */
+@Slf4j
+@Component
+public class PortfolioHistoryExtender {
+
+    private static final String KEY_PREFIX = "portfolio-history:";
+
+    private final PortfolioFacade portfolioFacade;
+    private final WorkScheduler workScheduler;
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+
+    public PortfolioHistoryExtender(PortfolioFacade portfolioFacade, WorkScheduler workScheduler) {
+        this.portfolioFacade = portfolioFacade;
+        this.workScheduler = workScheduler;
+    }
+
+    public void request(String userId) {
+        if (userId == null || !queued.add(userId)) {
+            return;
+        }
+        workScheduler.submitAfter(KEY_PREFIX + userId, WorkPriority.BACKGROUND, () -> {
+                    queued.remove(userId);
+                    portfolioFacade.handle(new ExtendPortfolioHistoryAction(userId));
+                    return null;
+                })
+                .exceptionally(e -> {
+                    log.warn("Portfolio history extension failed for user {}", userId, e);
+                    return null;
+                });
+    }
+}
@@ -0,0 +1,61 @@
+package com.mateuszcer.taxbackend.portfolio.application;
+
+import com.mateuszcer.taxbackend.portfolio.domain.PortfolioFacade;
+import com.mateuszcer.taxbackend.portfolio.domain.port.DailyPriceProvider;
+import com.mateuszcer.taxbackend.portfolio.domain.port.MarketPriceProvider;
+import com.mateuszcer.taxbackend.portfolio.domain.port.OpenLotsProvider;
+import com.mateuszcer.taxbackend.portfolio.domain.port.PortfolioHistoryStore;
+import com.mateuszcer.taxbackend.portfolio.domain.port.PortfolioOrdersProvider;
+import com.mateuszcer.taxbackend.portfolio.domain.usecase.ExtendPortfolioHistory;
+import com.mateuszcer.taxbackend.portfolio.domain.usecase.GetPortfolioHistory;
+import com.mateuszcer.taxbackend.portfolio.domain.usecase.ScanTaxLossHarvest;
+import com.mateuszcer.taxbackend.portfolio.domain.usecase.SimulateSale;
+import com.mateuszcer.taxbackend.portfolio.domain.usecase.ValuePortfolio;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+@Configuration
+public class PortfolioWiringConfig {
+
+    @Bean
+    public ValuePortfolio valuePortfolio(OpenLotsProvider openLotsProvider, MarketPriceProvider marketPriceProvider) {
+        return new ValuePortfolio(openLotsProvider, marketPriceProvider);
+    }
+
+    @Bean
+    public ExtendPortfolioHistory extendPortfolioHistory(
+            PortfolioOrdersProvider portfolioOrdersProvider,
+            DailyPriceProvider dailyPriceProvider,
+            PortfolioHistoryStore portfolioHistoryStore
+    ) {
+        return new ExtendPortfolioHistory(portfolioOrdersProvider, dailyPriceProvider, portfolioHistoryStore, Clock.systemUTC());
+    }
+
+    @Bean
+    public GetPortfolioHistory getPortfolioHistory(PortfolioHistoryStore portfolioHistoryStore) {
+        return new GetPortfolioHistory(portfolioHistoryStore);
+    }
+
+    @Bean
+    public SimulateSale simulateSale(OpenLotsProvider openLotsProvider, MarketPriceProvider marketPriceProvider) {
+        return new SimulateSale(openLotsProvider, marketPriceProvider);
+    }
+
+    @Bean
+    public ScanTaxLossHarvest scanTaxLossHarvest(OpenLotsProvider openLotsProvider, MarketPriceProvider marketPriceProvider) {
+        return new ScanTaxLossHarvest(openLotsProvider, marketPriceProvider);
+    }
+
+    @Bean
+    public PortfolioFacade portfolioFacade(
+            ValuePortfolio valuePortfolio,
+            ExtendPortfolioHistory extendPortfolioHistory,
+            GetPortfolioHistory getPortfolioHistory,
+            SimulateSale simulateSale,
+            ScanTaxLossHarvest scanTaxLossHarvest
+    ) {
+        return new PortfolioFacade(valuePortfolio, extendPortfolioHistory, getPortfolioHistory, simulateSale, scanTaxLossHarvest);
+    }
+}
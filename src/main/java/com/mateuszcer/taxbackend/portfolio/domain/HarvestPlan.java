@@ -0,0 +1,20 @@
+package com.mateuszcer.taxbackend.portfolio.domain;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Sales realizing {@code loss} (PLN) towards {@code targetLoss}; a null target means every open loss.
+ * {@code taxSaving} is the 19% PIT on the loss, i.e. what it saves when offset against gains of the year.
+ */
+public record HarvestPlan(
+        List<HarvestSale> sales,
+        BigDecimal targetLoss,
+        BigDecimal loss,
+        BigDecimal taxSaving,
+        boolean targetReached,
+        Instant pricesAsOf,
+        List<String> warnings
+) {
+}
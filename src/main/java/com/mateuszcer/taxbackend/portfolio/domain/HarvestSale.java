@@ -0,0 +1,17 @@
+package com.mateuszcer.taxbackend.portfolio.domain;
+
+import java.math.BigDecimal;
+
+/**
+ * One proposed sale of a product at the current price; {@code loss} is positive for a realized loss (PLN).
+ */
+public record HarvestSale(
+        String productId,
+        String asset,
+        BigDecimal quantity,
+        BigDecimal unitPrice,
+        BigDecimal costBasis,
+        BigDecimal proceeds,
+        BigDecimal loss
+) {
+}
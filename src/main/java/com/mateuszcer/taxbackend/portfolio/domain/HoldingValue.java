@@ -0,0 +1,10 @@
+package com.mateuszcer.taxbackend.portfolio.domain;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * PLN value of a holding on a day; {@code priceDate} precedes that day when the closest earlier price was used.
+ */
+public record HoldingValue(BigDecimal valuePln, LocalDate priceDate) {
+}
@@ -0,0 +1,129 @@
+package com.mateuszcer.taxbackend.portfolio.domain;
+
+import com.mateuszcer.taxbackend.capitalgains.domain.OpenLot;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * The user's open lots grouped per product in matching order (oldest first). The book itself is never
+ * modified: hypothetical sales run against a {@link View}, which keeps only a cursor per product it touched
+ * (copy-on-write), so simulations share one book and cost nothing for products they do not sell.
+ */
+public final class LotBook {
+
+    private final Map<String, List<OpenLot>> byProduct;
+    private final Map<String, BigDecimal> quantities;
+
+    private LotBook(Map<String, List<OpenLot>> byProduct) {
+        this.byProduct = byProduct;
+        this.quantities = new HashMap<>();
+        byProduct.forEach((productId, lots) -> quantities.put(
+                productId,
+                lots.stream().map(OpenLot::quantity).reduce(BigDecimal.ZERO, BigDecimal::add)
+        ));
+    }
+
+    public static LotBook of(Collection<OpenLot> lots) {
+        Map<String, List<OpenLot>> byProduct = new LinkedHashMap<>();
+        lots.stream()
+                .filter(lot -> lot != null && lot.quantity() != null && lot.quantity().signum() > 0)
+                .sorted(Comparator.comparing(OpenLot::productId).thenComparing(OpenLot::acquiredAt))
+                .forEach(lot -> byProduct.computeIfAbsent(lot.productId(), k -> new ArrayList<>()).add(lot));
+        byProduct.replaceAll((productId, productLots) -> List.copyOf(productLots));
+        return new LotBook(byProduct);
+    }
+
+    public Set<String> products() {
+        return byProduct.keySet();
+    }
+
+    public List<OpenLot> lots(String productId) {
+        return byProduct.getOrDefault(productId, List.of());
+    }
+
+    public BigDecimal quantity(String productId) {
+        return quantities.getOrDefault(productId, BigDecimal.ZERO);
+    }
+
+    public View view() {
+        return new View();
+    }
+
+    /**
+     * Reporting-currency cost of the matched quantity; {@code unmatched} is what the open lots could not cover.
+     */
+    public record Match(BigDecimal quantity, BigDecimal reportingCost, BigDecimal unmatched) {
+    }
+
+    public final class View {
+
+        private final Map<String, Cursor> cursors = new HashMap<>();
+
+        private View() {
+        }
+
+        public Match sell(String productId, BigDecimal quantity) {
+            List<OpenLot> lots = lots(productId);
+            Cursor cursor = cursors.computeIfAbsent(productId, k -> new Cursor());
+            BigDecimal cost = BigDecimal.ZERO;
+            BigDecimal remaining = quantity;
+            while (remaining.signum() > 0 && cursor.index < lots.size()) {
+                OpenLot lot = lots.get(cursor.index);
+                BigDecimal available = lot.quantity().subtract(cursor.consumed);
+                BigDecimal take = remaining.min(available);
+                cost = cost.add(take.multiply(nz(lot.reportingUnitCost())));
+                remaining = remaining.subtract(take);
+                if (take.compareTo(available) == 0) {
+                    cursor.index++;
+                    cursor.consumed = BigDecimal.ZERO;
+                } else {
+                    cursor.consumed = cursor.consumed.add(take);
+                }
+            }
+            cursor.sold = cursor.sold.add(quantity.subtract(remaining));
+            return new Match(quantity.subtract(remaining), cost, remaining);
+        }
+
+        /**
+         * The lot the next sale of the product would match, with its not yet matched quantity.
+         */
+        public Optional<OpenLot> next(String productId) {
+            List<OpenLot> lots = lots(productId);
+            Cursor cursor = cursors.get(productId);
+            if (cursor == null) {
+                return lots.isEmpty() ? Optional.empty() : Optional.of(lots.getFirst());
+            }
+            if (cursor.index >= lots.size()) {
+                return Optional.empty();
+            }
+            OpenLot lot = lots.get(cursor.index);
+            return Optional.of(new OpenLot(
+                    lot.productId(), lot.acquiredAt(), lot.quantity().subtract(cursor.consumed), lot.unitCost(), lot.reportingUnitCost()
+            ));
+        }
+
+        public BigDecimal remaining(String productId) {
+            Cursor cursor = cursors.get(productId);
+            return cursor == null ? quantity(productId) : quantity(productId).subtract(cursor.sold);
+        }
+    }
+
+    private static final class Cursor {
+        private int index;
+        private BigDecimal consumed = BigDecimal.ZERO;
+        private BigDecimal sold = BigDecimal.ZERO;
+    }
+
+    private static BigDecimal nz(BigDecimal v) {
+        return v == null ? BigDecimal.ZERO : v;
+    }
+}
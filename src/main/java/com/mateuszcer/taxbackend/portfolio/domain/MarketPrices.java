@@ -0,0 +1,21 @@
+package com.mateuszcer.taxbackend.portfolio.domain;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Current PLN prices by asset symbol (upper case), as of one market data fetch.
+ */
+public record MarketPrices(Instant asOf, Map<String, BigDecimal> byAsset) {
+
+    public static MarketPrices unavailable() {
+        return new MarketPrices(null, Map.of());
+    }
+
+    public Optional<BigDecimal> price(String asset) {
+        return asset == null ? Optional.empty() : Optional.ofNullable(byAsset.get(asset.toUpperCase(Locale.ROOT)));
+    }
+}
@@ -0,0 +1,18 @@
+package com.mateuszcer.taxbackend.portfolio.domain;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Holdings valued in PLN. Totals of value and unrealized gain only cover positions with a price.
+ */
+public record Portfolio(
+        List<PortfolioPosition> positions,
+        BigDecimal costBasis,
+        BigDecimal marketValue,
+        BigDecimal unrealizedGain,
+        Instant pricesAsOf,
+        List<String> warnings
+) {
+}
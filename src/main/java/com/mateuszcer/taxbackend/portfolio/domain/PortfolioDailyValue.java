@@ -0,0 +1,58 @@
+package com.mateuszcer.taxbackend.portfolio.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * PLN value of a user's crypto holdings at the end of one day (Europe/Warsaw).
+ * {@code unpricedAssets} counts held assets without a reference price that day, which the value leaves out;
+ * {@code fallbackAssets} counts those valued at the closest earlier price. Both mark days a price reload can improve.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(
+        name = "portfolio_daily_value",
+        uniqueConstraints = @UniqueConstraint(name = "uk_portfolio_daily_value_user_date", columnNames = {"user_id", "value_date"})
+)
+public class PortfolioDailyValue {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    @Column(name = "value_date", nullable = false)
+    private LocalDate date;
+
+    @Column(name = "market_value", precision = 38, scale = 18, nullable = false)
+    private BigDecimal marketValue;
+
+    @Column(name = "unpriced_assets", nullable = false)
+    private int unpricedAssets;
+
+    @Column(name = "fallback_assets", nullable = false)
+    private int fallbackAssets;
+
+    public PortfolioDailyValue(String userId, LocalDate date, BigDecimal marketValue, int unpricedAssets, int fallbackAssets) {
+        this.userId = userId;
+        this.date = date;
+        this.marketValue = marketValue;
+        this.unpricedAssets = unpricedAssets;
+        this.fallbackAssets = fallbackAssets;
+    }
+}
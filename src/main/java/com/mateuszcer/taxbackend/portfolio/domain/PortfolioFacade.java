@@ -0,0 +1,57 @@
+package com.mateuszcer.taxbackend.portfolio.domain;
+
+import com.mateuszcer.taxbackend.portfolio.domain.action.ExtendPortfolioHistoryAction;
+import com.mateuszcer.taxbackend.portfolio.domain.query.PortfolioHistoryQuery;
+import com.mateuszcer.taxbackend.portfolio.domain.query.PortfolioQuery;
+import com.mateuszcer.taxbackend.portfolio.domain.query.SimulateSaleQuery;
+import com.mateuszcer.taxbackend.portfolio.domain.query.TaxLossHarvestQuery;
+import com.mateuszcer.taxbackend.portfolio.domain.usecase.ExtendPortfolioHistory;
+import com.mateuszcer.taxbackend.portfolio.domain.usecase.GetPortfolioHistory;
+import com.mateuszcer.taxbackend.portfolio.domain.usecase.ScanTaxLossHarvest;
+import com.mateuszcer.taxbackend.portfolio.domain.usecase.SimulateSale;
+import com.mateuszcer.taxbackend.portfolio.domain.usecase.ValuePortfolio;
+
+import java.util.List;
+
+public class PortfolioFacade {
+
+    private final ValuePortfolio valuePortfolio;
+    private final ExtendPortfolioHistory extendPortfolioHistory;
+    private final GetPortfolioHistory getPortfolioHistory;
+    private final SimulateSale simulateSale;
+    private final ScanTaxLossHarvest scanTaxLossHarvest;
+
+    public PortfolioFacade(
+            ValuePortfolio valuePortfolio,
+            ExtendPortfolioHistory extendPortfolioHistory,
+            GetPortfolioHistory getPortfolioHistory,
+            SimulateSale simulateSale,
+            ScanTaxLossHarvest scanTaxLossHarvest
+    ) {
+        this.valuePortfolio = valuePortfolio;
+        this.extendPortfolioHistory = extendPortfolioHistory;
+        this.getPortfolioHistory = getPortfolioHistory;
+        this.simulateSale = simulateSale;
+        this.scanTaxLossHarvest = scanTaxLossHarvest;
+    }
+
+    public Portfolio handle(PortfolioQuery query) {
+        return valuePortfolio.execute(query);
+    }
+
+    public void handle(ExtendPortfolioHistoryAction action) {
+        extendPortfolioHistory.execute(action);
+    }
+
+    public List<PortfolioDailyValue> handle(PortfolioHistoryQuery query) {
+        return getPortfolioHistory.execute(query);
+    }
+
+    public SaleSimulation handle(SimulateSaleQuery query) {
+        return simulateSale.execute(query);
+    }
+
+    public HarvestPlan handle(TaxLossHarvestQuery query) {
+        return scanTaxLossHarvest.execute(query);
+    }
+}
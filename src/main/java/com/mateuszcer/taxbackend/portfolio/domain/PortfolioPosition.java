@@ -0,0 +1,18 @@
+package com.mateuszcer.taxbackend.portfolio.domain;
+
+import java.math.BigDecimal;
+
+/**
+ * Open quantity of one product with its PLN cost basis; price, value and unrealized gain are null
+ * when there is no current price for the asset.
+ */
+public record PortfolioPosition(
+        String productId,
+        String asset,
+        BigDecimal quantity,
+        BigDecimal costBasis,
+        BigDecimal price,
+        BigDecimal marketValue,
+        BigDecimal unrealizedGain
+) {
+}
@@ -0,0 +1,43 @@
+package com.mateuszcer.taxbackend.portfolio.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * How far a user's daily value series is built: through {@code lastDate}, from orders up to {@code orderVersion},
+ * with the prices of {@code priceGeneration}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "portfolio_series_state")
+public class PortfolioSeriesState {
+
+    @Id
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    @Column(name = "order_version", nullable = false)
+    private long orderVersion;
+
+    @Column(name = "price_generation", nullable = false)
+    private long priceGeneration;
+
+    @Column(name = "last_date")
+    private LocalDate lastDate;
+
+    public PortfolioSeriesState(String userId, long orderVersion, long priceGeneration, LocalDate lastDate) {
+        this.userId = userId;
+        this.orderVersion = orderVersion;
+        this.priceGeneration = priceGeneration;
+        this.lastDate = lastDate;
+    }
+}
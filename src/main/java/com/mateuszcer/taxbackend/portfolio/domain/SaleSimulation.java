@@ -0,0 +1,19 @@
+package com.mateuszcer.taxbackend.portfolio.domain;
+
+import java.math.BigDecimal;
+
+/**
+ * Incremental effect of one hypothetical sale, all amounts in PLN. {@code taxDelta} is the PIT-38 rate
+ * applied to the sale's own gain; negative when the sale is a loss that would offset other gains.
+ */
+public record SaleSimulation(
+        String productId,
+        BigDecimal quantity,
+        BigDecimal unitPrice,
+        BigDecimal costBasis,
+        BigDecimal proceeds,
+        BigDecimal gain,
+        BigDecimal taxDelta,
+        BigDecimal remainingQuantity
+) {
+}
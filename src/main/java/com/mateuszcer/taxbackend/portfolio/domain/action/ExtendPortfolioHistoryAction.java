@@ -0,0 +1,4 @@
+package com.mateuszcer.taxbackend.portfolio.domain.action;
+
+public record ExtendPortfolioHistoryAction(String userId) {
+}
@@ -0,0 +1,21 @@
+package com.mateuszcer.taxbackend.portfolio.domain.port;
+
+import com.mateuszcer.taxbackend.portfolio.domain.HoldingValue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Historical daily valuation of a holding in PLN.
+ */
+public interface DailyPriceProvider {
+
+    Optional<HoldingValue> valuePln(String asset, BigDecimal quantity, LocalDate date);
+
+    /**
+     * Changes whenever the underlying prices are reloaded; a stored series built under another generation may have
+     * days that can now be priced (or priced on the day itself).
+     */
+    long generation();
+}
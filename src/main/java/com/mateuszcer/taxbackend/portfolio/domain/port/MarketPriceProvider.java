@@ -0,0 +1,10 @@
+package com.mateuszcer.taxbackend.portfolio.domain.port;
+
+import com.mateuszcer.taxbackend.portfolio.domain.MarketPrices;
+
+/**
+ * Current PLN prices from the cached market data (one shared upstream fetch per refresh interval).
+ */
+public interface MarketPriceProvider {
+    MarketPrices current();
+}
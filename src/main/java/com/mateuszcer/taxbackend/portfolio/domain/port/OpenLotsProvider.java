@@ -0,0 +1,12 @@
+package com.mateuszcer.taxbackend.portfolio.domain.port;
+
+import com.mateuszcer.taxbackend.capitalgains.domain.OpenLot;
+
+import java.util.List;
+
+/**
+ * Lots the user still holds after FIFO matching, with PLN unit costs.
+ */
+public interface OpenLotsProvider {
+    List<OpenLot> openLots(String userId);
+}
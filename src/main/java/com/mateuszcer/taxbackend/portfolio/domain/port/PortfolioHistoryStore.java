@@ -0,0 +1,25 @@
+package com.mateuszcer.taxbackend.portfolio.domain.port;
+
+import com.mateuszcer.taxbackend.portfolio.domain.PortfolioDailyValue;
+import com.mateuszcer.taxbackend.portfolio.domain.PortfolioSeriesState;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface PortfolioHistoryStore {
+
+    Optional<PortfolioSeriesState> findState(String userId);
+
+    /**
+     * First stored day with an unpriced asset or one valued at an earlier day's price.
+     */
+    Optional<LocalDate> earliestIncompleteDay(String userId);
+
+    /**
+     * Atomically drops the user's days from {@code from} on, stores {@code values} and the new state.
+     */
+    void replaceFrom(String userId, LocalDate from, List<PortfolioDailyValue> values, PortfolioSeriesState state);
+
+    List<PortfolioDailyValue> findRange(String userId, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,19 @@
+package com.mateuszcer.taxbackend.portfolio.domain.port;
+
+import com.mateuszcer.taxbackend.capitalgains.domain.OrderSnapshot;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface PortfolioOrdersProvider {
+
+    long currentVersion(String userId);
+
+    List<OrderSnapshot> orders(String userId);
+
+    /**
+     * Earliest {@code occurredAt} among orders changed after the version, empty if none changed.
+     */
+    Optional<Instant> earliestChangedSince(String userId, long version);
+}
@@ -0,0 +1,6 @@
+package com.mateuszcer.taxbackend.portfolio.domain.query;
+
+import java.time.LocalDate;
+
+public record PortfolioHistoryQuery(String userId, LocalDate from, LocalDate to) {
+}
@@ -0,0 +1,4 @@
+package com.mateuszcer.taxbackend.portfolio.domain.query;
+
+public record PortfolioQuery(String userId) {
+}
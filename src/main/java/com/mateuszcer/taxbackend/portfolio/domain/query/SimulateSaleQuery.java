@@ -0,0 +1,9 @@
+package com.mateuszcer.taxbackend.portfolio.domain.query;
+
+import java.math.BigDecimal;
+
+/**
+ * {@code unitPrice} in PLN; null means the current market price.
+ */
+public record SimulateSaleQuery(String userId, String productId, BigDecimal quantity, BigDecimal unitPrice) {
+}
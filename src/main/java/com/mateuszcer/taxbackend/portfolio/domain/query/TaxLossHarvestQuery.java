@@ -0,0 +1,9 @@
+package com.mateuszcer.taxbackend.portfolio.domain.query;
+
+import java.math.BigDecimal;
+
+/**
+ * {@code targetLoss} in PLN; null lists every lot currently at a loss.
+ */
+public record TaxLossHarvestQuery(String userId, BigDecimal targetLoss) {
+}
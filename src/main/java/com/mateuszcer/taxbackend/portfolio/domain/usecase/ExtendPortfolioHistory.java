@@ -0,0 +1,165 @@
+package com.mateuszcer.taxbackend.portfolio.domain.usecase;
+
+import com.mateuszcer.taxbackend.capitalgains.domain.OrderSnapshot;
+import com.mateuszcer.taxbackend.portfolio.domain.HoldingValue;
+import com.mateuszcer.taxbackend.portfolio.domain.PortfolioDailyValue;
+import com.mateuszcer.taxbackend.portfolio.domain.PortfolioSeriesState;
+import com.mateuszcer.taxbackend.portfolio.domain.action.ExtendPortfolioHistoryAction;
+import com.mateuszcer.taxbackend.portfolio.domain.port.DailyPriceProvider;
+import com.mateuszcer.taxbackend.portfolio.domain.port.PortfolioHistoryStore;
+import com.mateuszcer.taxbackend.portfolio.domain.port.PortfolioOrdersProvider;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Brings the user's daily portfolio value series up to yesterday. One pass over the time-sorted orders
+ * rebuilds the holdings day by day; only days from the first one that is new, affected by changed orders or, after
+ * a price reload, stored without a same-day price are priced and rewritten, everything before stays as stored.
+ * Nothing runs when the series is current.
+ */
+public class ExtendPortfolioHistory {
+
+    private static final ZoneId ZONE = ZoneId.of("Europe/Warsaw");
+    private static final LocalDate FLOOR = LocalDate.of(1970, 1, 1);
+    private static final Set<String> CASH_QUOTES = Set.of(
+            "PLN", "USD", "EUR", "GBP", "CHF", "JPY", "CAD", "AUD", "NOK", "SEK", "DKK", "CZK", "HUF", "RON", "BGN",
+            "USDC", "USDT"
+    );
+
+    private final PortfolioOrdersProvider ordersProvider;
+    private final DailyPriceProvider priceProvider;
+    private final PortfolioHistoryStore historyStore;
+    private final Clock clock;
+
+    public ExtendPortfolioHistory(
+            PortfolioOrdersProvider ordersProvider,
+            DailyPriceProvider priceProvider,
+            PortfolioHistoryStore historyStore,
+            Clock clock
+    ) {
+        this.ordersProvider = ordersProvider;
+        this.priceProvider = priceProvider;
+        this.historyStore = historyStore;
+        this.clock = clock;
+    }
+
+    public void execute(ExtendPortfolioHistoryAction action) {
+        if (action == null || action.userId() == null) {
+            return;
+        }
+        String userId = action.userId();
+        LocalDate lastDate = LocalDate.now(clock.withZone(ZONE)).minusDays(1);
+        // Read before the orders and prices: a change racing with this run moves them again and is picked up next time.
+        long version = ordersProvider.currentVersion(userId);
+        long priceGeneration = priceProvider.generation();
+
+        LocalDate from = FLOOR;
+        Optional<PortfolioSeriesState> state = historyStore.findState(userId);
+        if (state.isPresent()) {
+            PortfolioSeriesState current = state.get();
+            from = current.getLastDate() == null ? FLOOR : current.getLastDate().plusDays(1);
+            boolean ordersChanged = current.getOrderVersion() != version;
+            boolean pricesChanged = current.getPriceGeneration() != priceGeneration;
+            if (ordersChanged) {
+                from = earlier(from, ordersProvider.earliestChangedSince(userId, current.getOrderVersion())
+                        .map(at -> LocalDate.ofInstant(at, ZONE)));
+            }
+            if (pricesChanged) {
+                // Fully priced days keep their value; only days that lacked a price (or took an earlier one) may improve.
+                from = earlier(from, historyStore.earliestIncompleteDay(userId));
+            }
+            if (!ordersChanged && !pricesChanged && from.isAfter(lastDate)) {
+                return;
+            }
+        }
+
+        List<OrderSnapshot> filled = ordersProvider.orders(userId).stream()
+                .filter(o -> o != null && o.occurredAt() != null)
+                .filter(o -> o.status() != null && o.status().equalsIgnoreCase("FILLED"))
+                .sorted(Comparator.comparing(OrderSnapshot::occurredAt))
+                .toList();
+
+        List<PortfolioDailyValue> values = new ArrayList<>();
+        Map<String, BigDecimal> holdings = new TreeMap<>();
+        int next = 0;
+        LocalDate day = filled.isEmpty() ? lastDate.plusDays(1) : LocalDate.ofInstant(filled.getFirst().occurredAt(), ZONE);
+        for (; !day.isAfter(lastDate); day = day.plusDays(1)) {
+            while (next < filled.size() && !LocalDate.ofInstant(filled.get(next).occurredAt(), ZONE).isAfter(day)) {
+                apply(holdings, filled.get(next++));
+            }
+            if (day.isBefore(from)) {
+                continue;
+            }
+            values.add(value(userId, day, holdings));
+        }
+
+        historyStore.replaceFrom(userId, from, values, new PortfolioSeriesState(userId, version, priceGeneration, lastDate));
+    }
+
+    private PortfolioDailyValue value(String userId, LocalDate day, Map<String, BigDecimal> holdings) {
+        BigDecimal total = BigDecimal.ZERO;
+        int unpriced = 0;
+        int fallback = 0;
+        for (Map.Entry<String, BigDecimal> holding : holdings.entrySet()) {
+            Optional<HoldingValue> value = priceProvider.valuePln(holding.getKey(), holding.getValue(), day);
+            if (value.isPresent()) {
+                total = total.add(value.get().valuePln());
+                if (value.get().priceDate().isBefore(day)) {
+                    fallback++;
+                }
+            } else {
+                unpriced++;
+            }
+        }
+        return new PortfolioDailyValue(userId, day, total.setScale(2, RoundingMode.HALF_UP), unpriced, fallback);
+    }
+
+    private static LocalDate earlier(LocalDate from, Optional<LocalDate> candidate) {
+        return candidate.filter(day -> day.isBefore(from)).orElse(from);
+    }
+
+    private static void apply(Map<String, BigDecimal> holdings, OrderSnapshot order) {
+        BigDecimal quantity = order.quantity() == null ? BigDecimal.ZERO : order.quantity();
+        String side = order.side() == null ? "" : order.side().toUpperCase(Locale.ROOT);
+        if (quantity.signum() <= 0 || !(side.equals("BUY") || side.equals("SELL"))) {
+            return;
+        }
+        boolean buy = side.equals("BUY");
+        add(holdings, ValuePortfolio.baseAsset(order.productId()), buy ? quantity : quantity.negate());
+
+        // Crypto-quoted pairs (ETH-BTC) also move the quote asset; fiat and USD stablecoin quotes are cash, not held.
+        String quote = quoteAsset(order.productId());
+        if (!quote.isEmpty() && !CASH_QUOTES.contains(quote)) {
+            BigDecimal total = order.total() != null && order.total().signum() > 0
+                    ? order.total()
+                    : quantity.multiply(order.price() == null ? BigDecimal.ZERO : order.price());
+            add(holdings, quote, buy ? total.negate() : total);
+        }
+    }
+
+    private static void add(Map<String, BigDecimal> holdings, String asset, BigDecimal delta) {
+        BigDecimal held = holdings.getOrDefault(asset, BigDecimal.ZERO).add(delta);
+        if (held.signum() > 0) {
+            holdings.put(asset, held);
+        } else {
+            holdings.remove(asset);
+        }
+    }
+
+    private static String quoteAsset(String productId) {
+        int dash = productId == null ? -1 : productId.indexOf('-');
+        return dash < 0 ? "" : productId.substring(dash + 1).toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,27 @@
+package com.mateuszcer.taxbackend.portfolio.domain.usecase;
+
+import com.mateuszcer.taxbackend.portfolio.domain.PortfolioDailyValue;
+import com.mateuszcer.taxbackend.portfolio.domain.port.PortfolioHistoryStore;
+import com.mateuszcer.taxbackend.portfolio.domain.query.PortfolioHistoryQuery;
+import com.mateuszcer.taxbackend.shared.exception.BusinessException;
+
+import java.util.List;
+
+/**
+ * Range read of the persisted daily value series.
+ */
+public class GetPortfolioHistory {
+
+    private final PortfolioHistoryStore historyStore;
+
+    public GetPortfolioHistory(PortfolioHistoryStore historyStore) {
+        this.historyStore = historyStore;
+    }
+
+    public List<PortfolioDailyValue> execute(PortfolioHistoryQuery query) {
+        if (query.from().isAfter(query.to())) {
+            throw new BusinessException("'from' must not be after 'to'", "INVALID_RANGE");
+        }
+        return historyStore.findRange(query.userId(), query.from(), query.to());
+    }
+}
@@ -0,0 +1,139 @@
+package com.mateuszcer.taxbackend.portfolio.domain.usecase;
+
+import com.mateuszcer.taxbackend.capitalgains.domain.OpenLot;
+import com.mateuszcer.taxbackend.portfolio.domain.HarvestPlan;
+import com.mateuszcer.taxbackend.portfolio.domain.HarvestSale;
+import com.mateuszcer.taxbackend.portfolio.domain.LotBook;
+import com.mateuszcer.taxbackend.portfolio.domain.MarketPrices;
+import com.mateuszcer.taxbackend.portfolio.domain.port.MarketPriceProvider;
+import com.mateuszcer.taxbackend.portfolio.domain.port.OpenLotsProvider;
+import com.mateuszcer.taxbackend.portfolio.domain.query.TaxLossHarvestQuery;
+import com.mateuszcer.taxbackend.shared.exception.BusinessException;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+
+/**
+ * Proposes sales that realize a target loss. A sale always matches the product's oldest open lot first (FIFO,
+ * as in the ledger), so each product is a candidate only through the lot it would sell next. Candidates sit in
+ * a priority queue ordered by loss per PLN of proceeds; the best one is sold (partially, if that reaches the
+ * target), then the product re-enters with its next lot. A product stops once its next lot is not at a loss.
+ * Each step is O(log products), nothing beyond the cached open lots is loaded.
+ */
+public class ScanTaxLossHarvest {
+
+    private static final MathContext RATIO = MathContext.DECIMAL64;
+    private static final int QUANTITY_SCALE = 8;
+
+    private final OpenLotsProvider openLotsProvider;
+    private final MarketPriceProvider marketPriceProvider;
+
+    public ScanTaxLossHarvest(OpenLotsProvider openLotsProvider, MarketPriceProvider marketPriceProvider) {
+        this.openLotsProvider = openLotsProvider;
+        this.marketPriceProvider = marketPriceProvider;
+    }
+
+    public HarvestPlan execute(TaxLossHarvestQuery query) {
+        BigDecimal target = query.targetLoss();
+        if (target != null && target.signum() <= 0) {
+            throw new BusinessException("targetLoss must be positive", "INVALID_TARGET");
+        }
+
+        LotBook book = LotBook.of(openLotsProvider.openLots(query.userId()));
+        LotBook.View view = book.view();
+        MarketPrices prices = marketPriceProvider.current();
+        List<String> warnings = new ArrayList<>();
+
+        PriorityQueue<Candidate> queue = new PriorityQueue<>(Comparator.comparing(Candidate::lossPerPln).reversed());
+        for (String productId : book.products()) {
+            Optional<BigDecimal> price = prices.price(ValuePortfolio.baseAsset(productId));
+            if (price.isEmpty()) {
+                warnings.add("No current price for " + productId + ", not scanned");
+                continue;
+            }
+            offer(queue, view, productId, price.get());
+        }
+
+        Map<String, BigDecimal[]> byProduct = new LinkedHashMap<>();
+        BigDecimal realized = BigDecimal.ZERO;
+        while (!queue.isEmpty() && (target == null || realized.compareTo(target) < 0)) {
+            Candidate best = queue.poll();
+            BigDecimal unitLoss = nz(best.lot().reportingUnitCost()).subtract(best.price());
+            BigDecimal quantity = best.lot().quantity();
+            if (target != null) {
+                BigDecimal needed = target.subtract(realized).divide(unitLoss, QUANTITY_SCALE, RoundingMode.UP);
+                quantity = quantity.min(needed);
+            }
+
+            LotBook.Match match = view.sell(best.productId(), quantity);
+            BigDecimal proceeds = quantity.multiply(best.price());
+            realized = realized.add(match.reportingCost().subtract(proceeds));
+            BigDecimal[] sale = byProduct.computeIfAbsent(best.productId(), k -> new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO});
+            sale[0] = sale[0].add(quantity);
+            sale[1] = sale[1].add(match.reportingCost());
+            sale[2] = sale[2].add(proceeds);
+
+            offer(queue, view, best.productId(), best.price());
+        }
+
+        List<HarvestSale> sales = new ArrayList<>(byProduct.size());
+        BigDecimal totalLoss = BigDecimal.ZERO;
+        for (Map.Entry<String, BigDecimal[]> entry : byProduct.entrySet()) {
+            BigDecimal[] sale = entry.getValue();
+            BigDecimal cost = scale(sale[1]);
+            BigDecimal proceeds = scale(sale[2]);
+            BigDecimal loss = cost.subtract(proceeds);
+            totalLoss = totalLoss.add(loss);
+            sales.add(new HarvestSale(
+                    entry.getKey(),
+                    ValuePortfolio.baseAsset(entry.getKey()),
+                    sale[0],
+                    prices.price(ValuePortfolio.baseAsset(entry.getKey())).orElseThrow(),
+                    cost,
+                    proceeds,
+                    loss
+            ));
+        }
+
+        return new HarvestPlan(
+                List.copyOf(sales),
+                target,
+                totalLoss,
+                scale(totalLoss.multiply(SimulateSale.TAX_RATE)),
+                target == null || realized.compareTo(target) >= 0,
+                prices.asOf(),
+                List.copyOf(warnings)
+        );
+    }
+
+    private static void offer(PriorityQueue<Candidate> queue, LotBook.View view, String productId, BigDecimal price) {
+        Optional<OpenLot> next = view.next(productId);
+        if (next.isEmpty() || price.signum() <= 0) {
+            return;
+        }
+        BigDecimal unitLoss = nz(next.get().reportingUnitCost()).subtract(price);
+        if (unitLoss.signum() <= 0) {
+            return;
+        }
+        queue.add(new Candidate(productId, next.get(), price, unitLoss.divide(price, RATIO)));
+    }
+
+    private static BigDecimal nz(BigDecimal v) {
+        return v == null ? BigDecimal.ZERO : v;
+    }
+
+    private static BigDecimal scale(BigDecimal v) {
+        return v.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private record Candidate(String productId, OpenLot lot, BigDecimal price, BigDecimal lossPerPln) {
+    }
+}
@@ -0,0 +1,72 @@
+package com.mateuszcer.taxbackend.portfolio.domain.usecase;
+
+import com.mateuszcer.taxbackend.portfolio.domain.LotBook;
+import com.mateuszcer.taxbackend.portfolio.domain.SaleSimulation;
+import com.mateuszcer.taxbackend.portfolio.domain.port.MarketPriceProvider;
+import com.mateuszcer.taxbackend.portfolio.domain.port.OpenLotsProvider;
+import com.mateuszcer.taxbackend.portfolio.domain.query.SimulateSaleQuery;
+import com.mateuszcer.taxbackend.shared.exception.BusinessException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * "What if I sell X today": matches the quantity against a copy-on-write view of the cached open lots.
+ * Nothing is reloaded or replayed and the cached lots stay untouched.
+ */
+public class SimulateSale {
+
+    static final BigDecimal TAX_RATE = new BigDecimal("0.19");
+
+    private final OpenLotsProvider openLotsProvider;
+    private final MarketPriceProvider marketPriceProvider;
+
+    public SimulateSale(OpenLotsProvider openLotsProvider, MarketPriceProvider marketPriceProvider) {
+        this.openLotsProvider = openLotsProvider;
+        this.marketPriceProvider = marketPriceProvider;
+    }
+
+    public SaleSimulation execute(SimulateSaleQuery query) {
+        if (query.productId() == null || query.productId().isBlank()) {
+            throw new BusinessException("productId is required", "INVALID_PRODUCT");
+        }
+        if (query.quantity() == null || query.quantity().signum() <= 0) {
+            throw new BusinessException("quantity must be positive", "INVALID_QUANTITY");
+        }
+        if (query.unitPrice() != null && query.unitPrice().signum() < 0) {
+            throw new BusinessException("unitPrice must not be negative", "INVALID_PRICE");
+        }
+
+        LotBook book = LotBook.of(openLotsProvider.openLots(query.userId()));
+        if (book.quantity(query.productId()).compareTo(query.quantity()) < 0) {
+            throw new BusinessException(
+                    "Only " + book.quantity(query.productId()).stripTrailingZeros().toPlainString() + " of " + query.productId() + " held",
+                    "INSUFFICIENT_HOLDINGS"
+            );
+        }
+        BigDecimal unitPrice = query.unitPrice() != null
+                ? query.unitPrice()
+                : marketPriceProvider.current().price(ValuePortfolio.baseAsset(query.productId()))
+                        .orElseThrow(() -> new BusinessException("No current price for " + query.productId() + ", pass unitPrice", "PRICE_UNAVAILABLE"));
+
+        LotBook.View view = book.view();
+        LotBook.Match match = view.sell(query.productId(), query.quantity());
+        BigDecimal cost = scale(match.reportingCost());
+        BigDecimal proceeds = scale(query.quantity().multiply(unitPrice));
+        BigDecimal gain = proceeds.subtract(cost);
+        return new SaleSimulation(
+                query.productId(),
+                query.quantity(),
+                unitPrice,
+                cost,
+                proceeds,
+                gain,
+                scale(gain.multiply(TAX_RATE)),
+                view.remaining(query.productId())
+        );
+    }
+
+    private static BigDecimal scale(BigDecimal v) {
+        return v.setScale(2, RoundingMode.HALF_UP);
+    }
+}
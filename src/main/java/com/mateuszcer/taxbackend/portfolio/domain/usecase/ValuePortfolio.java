@@ -0,0 +1,92 @@
+package com.mateuszcer.taxbackend.portfolio.domain.usecase;
+
+import com.mateuszcer.taxbackend.capitalgains.domain.OpenLot;
+import com.mateuszcer.taxbackend.portfolio.domain.MarketPrices;
+import com.mateuszcer.taxbackend.portfolio.domain.Portfolio;
+import com.mateuszcer.taxbackend.portfolio.domain.PortfolioPosition;
+import com.mateuszcer.taxbackend.portfolio.domain.port.MarketPriceProvider;
+import com.mateuszcer.taxbackend.portfolio.domain.port.OpenLotsProvider;
+import com.mateuszcer.taxbackend.portfolio.domain.query.PortfolioQuery;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Values the user's open lots against current prices. The lots come from the cached FIFO state,
+ * so a request is one pass over the open lots, never a replay of the order history.
+ */
+public class ValuePortfolio {
+
+    private final OpenLotsProvider openLotsProvider;
+    private final MarketPriceProvider marketPriceProvider;
+
+    public ValuePortfolio(OpenLotsProvider openLotsProvider, MarketPriceProvider marketPriceProvider) {
+        this.openLotsProvider = openLotsProvider;
+        this.marketPriceProvider = marketPriceProvider;
+    }
+
+    public Portfolio execute(PortfolioQuery query) {
+        Map<String, BigDecimal[]> byProduct = new TreeMap<>();
+        for (OpenLot lot : openLotsProvider.openLots(query.userId())) {
+            if (lot.quantity() == null || lot.quantity().signum() <= 0) {
+                continue;
+            }
+            BigDecimal[] position = byProduct.computeIfAbsent(lot.productId(), k -> new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO});
+            position[0] = position[0].add(lot.quantity());
+            position[1] = position[1].add(lot.quantity().multiply(nz(lot.reportingUnitCost())));
+        }
+
+        MarketPrices prices = marketPriceProvider.current();
+        List<PortfolioPosition> positions = new ArrayList<>(byProduct.size());
+        List<String> warnings = new ArrayList<>();
+        BigDecimal totalCost = BigDecimal.ZERO;
+        BigDecimal totalValue = BigDecimal.ZERO;
+        BigDecimal totalGain = BigDecimal.ZERO;
+
+        for (Map.Entry<String, BigDecimal[]> entry : byProduct.entrySet()) {
+            String asset = baseAsset(entry.getKey());
+            BigDecimal quantity = entry.getValue()[0];
+            BigDecimal cost = scale(entry.getValue()[1]);
+            totalCost = totalCost.add(cost);
+
+            Optional<BigDecimal> price = prices.price(asset);
+            if (price.isEmpty()) {
+                warnings.add("No current price for " + asset + ", " + entry.getKey() + " is not valued");
+                positions.add(new PortfolioPosition(entry.getKey(), asset, quantity, cost, null, null, null));
+                continue;
+            }
+            BigDecimal value = scale(quantity.multiply(price.get()));
+            BigDecimal gain = value.subtract(cost);
+            totalValue = totalValue.add(value);
+            totalGain = totalGain.add(gain);
+            positions.add(new PortfolioPosition(entry.getKey(), asset, quantity, cost, price.get(), value, gain));
+        }
+
+        return new Portfolio(List.copyOf(positions), totalCost, totalValue, totalGain, prices.asOf(), List.copyOf(warnings));
+    }
+
+    /**
+     * "BTC-USD" -> "BTC"
+     */
+    static String baseAsset(String productId) {
+        if (productId == null || productId.isEmpty()) {
+            return "";
+        }
+        int dash = productId.indexOf('-');
+        return (dash < 0 ? productId : productId.substring(0, dash)).toUpperCase(Locale.ROOT);
+    }
+
+    private static BigDecimal nz(BigDecimal v) {
+        return v == null ? BigDecimal.ZERO : v;
+    }
+
+    private static BigDecimal scale(BigDecimal v) {
+        return v.setScale(2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,70 @@
+package com.mateuszcer.taxbackend.portfolio.infrastructure;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mateuszcer.taxbackend.capitalgains.domain.CapitalGainsFacade;
+import com.mateuszcer.taxbackend.capitalgains.domain.OpenLot;
+import com.mateuszcer.taxbackend.capitalgains.domain.query.OpenLotsQuery;
+import com.mateuszcer.taxbackend.pit.domain.port.ReferencePriceProvider;
+import com.mateuszcer.taxbackend.pit.domain.service.PlnReportingCurrencyConverter;
+import com.mateuszcer.taxbackend.portfolio.domain.port.OpenLotsProvider;
+import com.mateuszcer.taxbackend.shared.etag.OrderSetVersions;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Open lots per user, cached together with the order-set version and the reference price generation they were
+ * computed from. The FIFO pass only runs again after the user's orders or the reference prices changed; both are read
+ * before computing, so a change racing with the computation just leaves an entry that the next request replaces.
+ */
+@Component
+public class CachedOpenLotsProvider implements OpenLotsProvider {
+
+    private final CapitalGainsFacade capitalGainsFacade;
+    private final PlnReportingCurrencyConverter plnConverter;
+    private final OrderSetVersions orderSetVersions;
+    private final ReferencePriceProvider referencePriceProvider;
+    private final Cache<String, VersionedLots> lots;
+
+    public CachedOpenLotsProvider(
+            CapitalGainsFacade capitalGainsFacade,
+            PlnReportingCurrencyConverter plnConverter,
+            OrderSetVersions orderSetVersions,
+            ReferencePriceProvider referencePriceProvider,
+            @Value("${portfolio.open-lots-cache.max-users:10000}") int maxUsers,
+            @Value("${portfolio.open-lots-cache.idle-ttl:30m}") Duration idleTtl,
+            MeterRegistry meterRegistry
+    ) {
+        this.capitalGainsFacade = capitalGainsFacade;
+        this.plnConverter = plnConverter;
+        this.orderSetVersions = orderSetVersions;
+        this.referencePriceProvider = referencePriceProvider;
+        this.lots = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(idleTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, lots, "openLots");
+    }
+
+    @Override
+    public List<OpenLot> openLots(String userId) {
+        long version = orderSetVersions.current(userId);
+        long priceGeneration = referencePriceProvider.generation();
+        VersionedLots cached = lots.getIfPresent(userId);
+        if (cached != null && cached.version() == version && cached.priceGeneration() == priceGeneration) {
+            return cached.lots();
+        }
+        List<OpenLot> computed = List.copyOf(capitalGainsFacade.handle(new OpenLotsQuery(userId, plnConverter)));
+        lots.put(userId, new VersionedLots(version, priceGeneration, computed));
+        return computed;
+    }
+
+    private record VersionedLots(long version, long priceGeneration, List<OpenLot> lots) {
+    }
+}
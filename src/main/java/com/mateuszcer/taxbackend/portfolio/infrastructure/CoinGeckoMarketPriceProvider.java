@@ -0,0 +1,52 @@
+package com.mateuszcer.taxbackend.portfolio.infrastructure;
+
+import com.mateuszcer.taxbackend.marketdata.CoinGeckoService;
+import com.mateuszcer.taxbackend.marketdata.CoinMarket;
+import com.mateuszcer.taxbackend.marketdata.CoinMarkets;
+import com.mateuszcer.taxbackend.portfolio.domain.MarketPrices;
+import com.mateuszcer.taxbackend.portfolio.domain.port.MarketPriceProvider;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * PLN prices from the cached CoinGecko top-N list. The symbol map is built once per fetch; when several
+ * coins share a symbol the one with the higher market cap (earlier in the list) wins.
+ */
+@Component
+public class CoinGeckoMarketPriceProvider implements MarketPriceProvider {
+
+    private static final String VALUATION_CURRENCY = "pln";
+
+    private final CoinGeckoService coinGeckoService;
+    private volatile MarketPrices lastPrices = MarketPrices.unavailable();
+
+    public CoinGeckoMarketPriceProvider(CoinGeckoService coinGeckoService) {
+        this.coinGeckoService = coinGeckoService;
+    }
+
+    @Override
+    public MarketPrices current() {
+        Optional<CoinMarkets> markets = coinGeckoService.getMarkets(VALUATION_CURRENCY);
+        if (markets.isEmpty()) {
+            return lastPrices;
+        }
+        MarketPrices prices = lastPrices;
+        if (markets.get().fetchedAt().equals(prices.asOf())) {
+            return prices;
+        }
+        Map<String, BigDecimal> byAsset = new HashMap<>(markets.get().coins().size() * 2);
+        for (CoinMarket coin : markets.get().coins()) {
+            if (coin.symbol() != null && !Double.isNaN(coin.currentPrice()) && coin.currentPrice() > 0) {
+                byAsset.putIfAbsent(coin.symbol().toUpperCase(Locale.ROOT), BigDecimal.valueOf(coin.currentPrice()));
+            }
+        }
+        prices = new MarketPrices(markets.get().fetchedAt(), Map.copyOf(byAsset));
+        lastPrices = prices;
+        return prices;
+    }
+}
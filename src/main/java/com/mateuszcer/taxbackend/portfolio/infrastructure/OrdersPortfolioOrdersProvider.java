@@ -0,0 +1,59 @@
+package com.mateuszcer.taxbackend.portfolio.infrastructure;
+
+import com.mateuszcer.taxbackend.capitalgains.domain.OrderSnapshot;
+import com.mateuszcer.taxbackend.capitalgains.domain.port.UserOrdersProvider;
+import com.mateuszcer.taxbackend.orders.domain.Order;
+import com.mateuszcer.taxbackend.orders.domain.OrderChanges;
+import com.mateuszcer.taxbackend.orders.domain.OrderFacade;
+import com.mateuszcer.taxbackend.orders.domain.query.GetOrderChangesQuery;
+import com.mateuszcer.taxbackend.orders.domain.query.GetOrderSetVersionQuery;
+import com.mateuszcer.taxbackend.orders.domain.usecase.GetOrderChanges;
+import com.mateuszcer.taxbackend.portfolio.domain.port.PortfolioOrdersProvider;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Orders for the portfolio series: the full history through the capital gains snapshot provider,
+ * and the earliest affected day through the orders change feed.
+ */
+@Component
+public class OrdersPortfolioOrdersProvider implements PortfolioOrdersProvider {
+
+    private final OrderFacade orderFacade;
+    private final UserOrdersProvider userOrdersProvider;
+
+    public OrdersPortfolioOrdersProvider(OrderFacade orderFacade, UserOrdersProvider userOrdersProvider) {
+        this.orderFacade = orderFacade;
+        this.userOrdersProvider = userOrdersProvider;
+    }
+
+    @Override
+    public long currentVersion(String userId) {
+        return orderFacade.handle(new GetOrderSetVersionQuery(userId));
+    }
+
+    @Override
+    public List<OrderSnapshot> orders(String userId) {
+        return userOrdersProvider.getForUser(userId);
+    }
+
+    @Override
+    public Optional<Instant> earliestChangedSince(String userId, long version) {
+        Instant earliest = null;
+        long since = version;
+        OrderChanges changes;
+        do {
+            changes = orderFacade.handle(new GetOrderChangesQuery(userId, since, GetOrderChanges.MAX_LIMIT));
+            for (Order order : changes.orders()) {
+                if (order.getOccurredAt() != null && (earliest == null || order.getOccurredAt().isBefore(earliest))) {
+                    earliest = order.getOccurredAt();
+                }
+            }
+            since = changes.highWaterMark();
+        } while (changes.hasMore());
+        return Optional.ofNullable(earliest);
+    }
+}
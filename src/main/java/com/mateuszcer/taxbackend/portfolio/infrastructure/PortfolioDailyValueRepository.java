@@ -0,0 +1,23 @@
+package com.mateuszcer.taxbackend.portfolio.infrastructure;
+
+import com.mateuszcer.taxbackend.portfolio.domain.PortfolioDailyValue;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface PortfolioDailyValueRepository extends JpaRepository<PortfolioDailyValue, Long> {
+
+    List<PortfolioDailyValue> findByUserIdAndDateBetweenOrderByDateAsc(String userId, LocalDate from, LocalDate to);
+
+    @Query("select min(v.date) from PortfolioDailyValue v where v.userId = :userId and (v.unpricedAssets > 0 or v.fallbackAssets > 0)")
+    Optional<LocalDate> findEarliestIncompleteDay(@Param("userId") String userId);
+
+    @Modifying
+    @Query("delete from PortfolioDailyValue v where v.userId = :userId and v.date >= :from")
+    int deleteFrom(@Param("userId") String userId, @Param("from") LocalDate from);
+}
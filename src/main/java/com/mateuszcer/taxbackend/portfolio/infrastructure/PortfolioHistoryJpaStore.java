@@ -0,0 +1,56 @@
+package com.mateuszcer.taxbackend.portfolio.infrastructure;
+
+import com.mateuszcer.taxbackend.portfolio.domain.PortfolioDailyValue;
+import com.mateuszcer.taxbackend.portfolio.domain.PortfolioSeriesState;
+import com.mateuszcer.taxbackend.portfolio.domain.port.PortfolioHistoryStore;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Component
+public class PortfolioHistoryJpaStore implements PortfolioHistoryStore {
+
+    private final PortfolioDailyValueRepository valueRepository;
+    private final PortfolioSeriesStateRepository stateRepository;
+    private final TransactionTemplate transaction;
+
+    public PortfolioHistoryJpaStore(
+            PortfolioDailyValueRepository valueRepository,
+            PortfolioSeriesStateRepository stateRepository,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.valueRepository = valueRepository;
+        this.stateRepository = stateRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public Optional<PortfolioSeriesState> findState(String userId) {
+        return stateRepository.findById(userId);
+    }
+
+    @Override
+    public Optional<LocalDate> earliestIncompleteDay(String userId) {
+        return valueRepository.findEarliestIncompleteDay(userId);
+    }
+
+    @Override
+    public void replaceFrom(String userId, LocalDate from, List<PortfolioDailyValue> values, PortfolioSeriesState state) {
+        transaction.executeWithoutResult(status -> {
+            valueRepository.deleteFrom(userId, from);
+            // Deletes are flushed before the inserts, so re-inserting a day does not hit the unique key.
+            valueRepository.flush();
+            valueRepository.saveAll(values);
+            stateRepository.save(state);
+        });
+    }
+
+    @Override
+    public List<PortfolioDailyValue> findRange(String userId, LocalDate from, LocalDate to) {
+        return valueRepository.findByUserIdAndDateBetweenOrderByDateAsc(userId, from, to);
+    }
+}
@@ -0,0 +1,7 @@
+package com.mateuszcer.taxbackend.portfolio.infrastructure;
+
+import com.mateuszcer.taxbackend.portfolio.domain.PortfolioSeriesState;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface PortfolioSeriesStateRepository extends JpaRepository<PortfolioSeriesState, String> {
+}
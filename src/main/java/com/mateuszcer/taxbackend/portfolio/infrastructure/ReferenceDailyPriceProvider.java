@@ -0,0 +1,45 @@
+package com.mateuszcer.taxbackend.portfolio.infrastructure;
+
+import com.mateuszcer.taxbackend.pit.domain.ReferencePrice;
+import com.mateuszcer.taxbackend.pit.domain.port.ReferencePriceProvider;
+import com.mateuszcer.taxbackend.pit.domain.service.CurrencyConversionService;
+import com.mateuszcer.taxbackend.portfolio.domain.HoldingValue;
+import com.mateuszcer.taxbackend.portfolio.domain.port.DailyPriceProvider;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Historical valuation from the local daily reference prices, converted to PLN with NBP (cached) rates.
+ * The holding is valued before conversion so cheap assets do not round to zero per unit.
+ */
+@Component
+public class ReferenceDailyPriceProvider implements DailyPriceProvider {
+
+    private final ReferencePriceProvider referencePriceProvider;
+    private final CurrencyConversionService currencyConversionService;
+
+    public ReferenceDailyPriceProvider(
+            ReferencePriceProvider referencePriceProvider,
+            CurrencyConversionService currencyConversionService
+    ) {
+        this.referencePriceProvider = referencePriceProvider;
+        this.currencyConversionService = currencyConversionService;
+    }
+
+    @Override
+    public Optional<HoldingValue> valuePln(String asset, BigDecimal quantity, LocalDate date) {
+        Optional<ReferencePrice> price = referencePriceProvider.findPrice(asset, date);
+        return price.map(p -> new HoldingValue(
+                currencyConversionService.convertToPln(quantity.multiply(p.price()), p.fiatCurrency(), date),
+                p.date()
+        ));
+    }
+
+    @Override
+    public long generation() {
+        return referencePriceProvider.generation();
+    }
+}
@@ -45,6 +45,7 @@ public class SecurityConfiguration {
                 
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(PUBLIC_ENDPOINTS).permitAll()
+                        .requestMatchers("/actuator/accesslog/**").hasRole("ADMIN")
                         .anyRequest().authenticated())
                 
                 .oauth2ResourceServer(oauth2 -> oauth2
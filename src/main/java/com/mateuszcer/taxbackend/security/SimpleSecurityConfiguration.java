@@ -1,6 +1,7 @@
 package com.mateuszcer.taxbackend.security;
 
 import com.mateuszcer.taxbackend.security.infrastructure.JwtAuthenticationFilter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -41,6 +42,15 @@ public class SimpleSecurityConfiguration {
     @Value("${jwt.secret:change-this-secret-key-in-production-min-256-bits}")
     private String jwtSecret;
 
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private int verifiedCacheMaxSize;
+
+    private final MeterRegistry meterRegistry;
+
+    public SimpleSecurityConfiguration(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -74,6 +84,6 @@ public class SimpleSecurityConfiguration {
 
     @Bean
     public JwtAuthenticationFilter jwtAuthenticationFilter() {
-        return new JwtAuthenticationFilter(jwtSecret);
+        return new JwtAuthenticationFilter(jwtSecret, verifiedCacheMaxSize, meterRegistry);
     }
 }
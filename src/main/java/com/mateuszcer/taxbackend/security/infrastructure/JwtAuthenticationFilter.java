@@ -1,8 +1,15 @@
 package com.mateuszcer.taxbackend.security.infrastructure;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -17,79 +24,161 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import javax.crypto.SecretKey;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * JWT authentication filter for simple-auth profile.
  * Validates JWT tokens and sets Spring Security authentication context.
+ * Verified tokens are cached by SHA-256 until their {@code exp}, so a token presented again
+ * skips the HMAC check and claim mapping; failures are never cached.
  */
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
-    
-    private final SecretKey jwtSigningKey;
-    
-    public JwtAuthenticationFilter(String jwtSecret) {
-        String paddedSecret = jwtSecret.length() < 32 
-            ? (jwtSecret + "0".repeat(32 - jwtSecret.length())) 
+
+    private static final Map<String, Object> HEADERS = Map.of("alg", "HS256", "typ", "JWT");
+
+    private final JwtParser parser;
+    private final Cache<String, Jwt> verified;
+    private final Timer hitTimer;
+    private final Timer missTimer;
+    private final Timer rejectedTimer;
+
+    public JwtAuthenticationFilter(String jwtSecret, int cacheMaxSize, MeterRegistry meterRegistry) {
+        this(jwtSecret, cacheMaxSize, meterRegistry, Clock.systemUTC());
+    }
+
+    JwtAuthenticationFilter(String jwtSecret, int cacheMaxSize, MeterRegistry meterRegistry, Clock clock) {
+        String paddedSecret = jwtSecret.length() < 32
+            ? (jwtSecret + "0".repeat(32 - jwtSecret.length()))
             : jwtSecret;
-        this.jwtSigningKey = Keys.hmacShaKeyFor(paddedSecret.getBytes(StandardCharsets.UTF_8));
+        SecretKey jwtSigningKey = Keys.hmacShaKeyFor(paddedSecret.getBytes(StandardCharsets.UTF_8));
+        // JwtParser is immutable and thread-safe: build it once.
+        this.parser = Jwts.parser()
+            .verifyWith(jwtSigningKey)
+            .clock(() -> Date.from(clock.instant()))
+            .build();
+        // max size 0 turns the cache off (every request verifies), which is the baseline for the latency metric.
+        this.verified = Caffeine.newBuilder()
+            .maximumSize(Math.max(0, cacheMaxSize))
+            .expireAfter(new UntilTokenExpiry(clock))
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verified, "jwtVerified");
+        this.hitTimer = latencyTimer(meterRegistry, "hit");
+        this.missTimer = latencyTimer(meterRegistry, "miss");
+        this.rejectedTimer = latencyTimer(meterRegistry, "rejected");
     }
-    
+
+    private static Timer latencyTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("jwt.filter.latency")
+            .description("Time spent authenticating the bearer token in JwtAuthenticationFilter")
+            .tag("cache", result)
+            .register(meterRegistry);
+    }
+
     @Override
     protected void doFilterInternal(
             HttpServletRequest request,
             HttpServletResponse response,
             FilterChain filterChain
     ) throws ServletException, IOException {
-        
+
         String authHeader = request.getHeader("Authorization");
-        
+
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            long start = System.nanoTime();
             String token = authHeader.substring(7);
-            
-            try {
-                Claims claims = Jwts.parser()
-                    .verifyWith(jwtSigningKey)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-                
-                String userId = claims.getSubject();
-                String email = claims.get("email", String.class);
-                
-                // Create Spring Security Jwt object (compatible with AuthUserIdResolver)
-                Map<String, Object> headers = Map.of("alg", "HS256", "typ", "JWT");
-                Map<String, Object> claimsMap = Map.of(
-                    JwtClaimNames.SUB, userId,
-                    "email", email,
-                    JwtClaimNames.IAT, claims.getIssuedAt().toInstant(),
-                    JwtClaimNames.EXP, claims.getExpiration().toInstant()
-                );
-                
-                Jwt jwt = new Jwt(
-                    token,
-                    claims.getIssuedAt().toInstant(),
-                    claims.getExpiration().toInstant(),
-                    headers,
-                    claimsMap
-                );
-                
+            String key = sha256(token);
+
+            Jwt jwt = verified.getIfPresent(key);
+            Timer timer = hitTimer;
+            if (jwt == null || !jwt.getTokenValue().equals(token)) {
+                jwt = verify(token);
+                timer = jwt == null ? rejectedTimer : missTimer;
+                if (jwt != null) {
+                    verified.put(key, jwt);
+                }
+            }
+
+            if (jwt != null) {
                 // Set authentication in SecurityContext
-                UsernamePasswordAuthenticationToken authentication = 
-                    new UsernamePasswordAuthenticationToken(jwt, null, Collections.emptyList());
-                
-                SecurityContextHolder.getContext().setAuthentication(authentication);
-                
-                log.debug("JWT authenticated: userId={}, email={}", userId, email);
-                
-            } catch (Exception e) {
-                log.warn("JWT validation failed: {}", e.getMessage());
-                // Don't set authentication - request will be unauthorized
+                SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken(jwt, null, Collections.emptyList()));
             }
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         }
-        
+
         filterChain.doFilter(request, response);
     }
+
+    private Jwt verify(String token) {
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+
+            String userId = claims.getSubject();
+            String email = claims.get("email", String.class);
+
+            // Create Spring Security Jwt object (compatible with AuthUserIdResolver)
+            Map<String, Object> claimsMap = new HashMap<>();
+            claimsMap.put(JwtClaimNames.SUB, userId);
+            if (email != null) {
+                claimsMap.put("email", email);
+            }
+            claimsMap.put(JwtClaimNames.IAT, claims.getIssuedAt().toInstant());
+            claimsMap.put(JwtClaimNames.EXP, claims.getExpiration().toInstant());
+
+            log.debug("JWT authenticated: userId={}", userId);
+            return new Jwt(
+                token,
+                claims.getIssuedAt().toInstant(),
+                claims.getExpiration().toInstant(),
+                HEADERS,
+                claimsMap
+            );
+        } catch (Exception e) {
+            log.warn("JWT validation failed: {}", e.getMessage());
+            // Don't set authentication - request will be unauthorized
+            return null;
+        }
+    }
+
+    private static String sha256(String token) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record UntilTokenExpiry(Clock clock) implements Expiry<String, Jwt> {
+
+        @Override
+        public long expireAfterCreate(String key, Jwt jwt, long currentTime) {
+            Instant expiresAt = jwt.getExpiresAt();
+            if (expiresAt == null) {
+                return 0;
+            }
+            return Math.max(0, Duration.between(clock.instant(), expiresAt).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Jwt jwt, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, jwt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Jwt jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
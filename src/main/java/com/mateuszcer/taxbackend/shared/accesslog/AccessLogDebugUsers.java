@@ -0,0 +1,55 @@
+package com.mateuszcer.taxbackend.shared.accesslog;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Users whose requests are logged in full (redacted payloads) until a deadline.
+ */
+public class AccessLogDebugUsers {
+
+    private final Map<String, Instant> until = new ConcurrentHashMap<>();
+    private final Duration defaultTtl;
+    private final Clock clock;
+
+    public AccessLogDebugUsers(Duration defaultTtl, Clock clock) {
+        this.defaultTtl = defaultTtl;
+        this.clock = clock;
+    }
+
+    public boolean isEnabled(String userId) {
+        // Empty in normal operation, so the hot path is a single size check.
+        if (userId == null || until.isEmpty()) {
+            return false;
+        }
+        Instant deadline = until.get(userId);
+        if (deadline == null) {
+            return false;
+        }
+        if (deadline.isBefore(clock.instant())) {
+            until.remove(userId, deadline);
+            return false;
+        }
+        return true;
+    }
+
+    public Instant enable(String userId, Duration ttl) {
+        Instant deadline = clock.instant().plus(ttl == null || ttl.isNegative() || ttl.isZero() ? defaultTtl : ttl);
+        until.put(userId, deadline);
+        return deadline;
+    }
+
+    public void disable(String userId) {
+        until.remove(userId);
+    }
+
+    public Map<String, Instant> active() {
+        Instant now = clock.instant();
+        until.values().removeIf(deadline -> deadline.isBefore(now));
+        return new TreeMap<>(until);
+    }
+}
@@ -0,0 +1,41 @@
+package com.mateuszcer.taxbackend.shared.accesslog;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * {@code /actuator/accesslog}: switches full payload logging on and off per user at runtime.
+ */
+@Endpoint(id = "accesslog")
+public class AccessLogEndpoint {
+
+    private final AccessLogDebugUsers debugUsers;
+
+    public AccessLogEndpoint(AccessLogDebugUsers debugUsers) {
+        this.debugUsers = debugUsers;
+    }
+
+    @ReadOperation
+    public Map<String, Instant> debugUsers() {
+        return debugUsers.active();
+    }
+
+    @WriteOperation
+    public Map<String, Instant> enableDebug(@Selector String userId, @Nullable Integer minutes) {
+        Instant until = debugUsers.enable(userId, minutes == null ? null : Duration.ofMinutes(minutes));
+        return Map.of(userId, until);
+    }
+
+    @DeleteOperation
+    public void disableDebug(@Selector String userId) {
+        debugUsers.disable(userId);
+    }
+}
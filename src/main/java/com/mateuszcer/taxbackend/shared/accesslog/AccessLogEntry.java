@@ -0,0 +1,24 @@
+package com.mateuszcer.taxbackend.shared.accesslog;
+
+import java.util.Map;
+
+/**
+ * One finished request. Payload fields are only filled for users in debug mode and are already redacted.
+ */
+public record AccessLogEntry(
+        String method,
+        String route,
+        int status,
+        long durationMicros,
+        long bytesIn,
+        long bytesOut,
+        String userId,
+        String query,
+        Map<String, String> requestHeaders,
+        String requestBody,
+        String responseBody
+) {
+    public boolean debug() {
+        return requestHeaders != null;
+    }
+}
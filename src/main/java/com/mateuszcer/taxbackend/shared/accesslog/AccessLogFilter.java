@@ -0,0 +1,176 @@
+package com.mateuszcer.taxbackend.shared.accesslog;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingRequestWrapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Structured access log: method, route template, status, duration and sizes, no payloads or headers.
+ * Requests are sampled per route prefix; 5xx and slow requests are always kept. Users switched into
+ * debug mode ({@link AccessLogEndpoint}) get redacted headers, query and payloads as well.
+ * Runs after the security chain so the authenticated user is known.
+ */
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    private static final String UNMATCHED = "unmatched";
+
+    private final AccessLogWriter writer;
+    private final AccessLogDebugUsers debugUsers;
+    private final double defaultSampleRate;
+    private final List<Map.Entry<String, Double>> sampleRates;
+    private final long slowThresholdMicros;
+    private final int maxPayloadBytes;
+
+    public AccessLogFilter(AccessLogWriter writer, AccessLogDebugUsers debugUsers, AccessLogProperties properties) {
+        this.writer = writer;
+        this.debugUsers = debugUsers;
+        this.defaultSampleRate = properties.getDefaultSampleRate();
+        // Longest prefix first, so the most specific route wins.
+        this.sampleRates = properties.getSampleRates().entrySet().stream()
+                .map(e -> Map.entry(e.getKey(), e.getValue()))
+                .sorted(Comparator.comparingInt((Map.Entry<String, Double> e) -> e.getKey().length()).reversed())
+                .toList();
+        this.slowThresholdMicros = properties.getSlowThreshold().toNanos() / 1000;
+        this.maxPayloadBytes = properties.getMaxPayloadBytes();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        String userId = currentUserId();
+        boolean debug = debugUsers.isEnabled(userId);
+
+        HttpServletRequest req = debug ? new ContentCachingRequestWrapper(request, maxPayloadBytes) : request;
+        AccessLogResponseWrapper res = new AccessLogResponseWrapper(response, debug ? maxPayloadBytes : 0);
+        try {
+            chain.doFilter(req, res);
+        } finally {
+            if (req.isAsyncStarted()) {
+                req.getAsyncContext().addListener(new CompletionListener(() -> log(req, res, start, userId, debug)));
+            } else {
+                log(req, res, start, userId, debug);
+            }
+        }
+    }
+
+    private void log(HttpServletRequest req, AccessLogResponseWrapper res, long start, String userId, boolean debug) {
+        long durationMicros = (System.nanoTime() - start) / 1000;
+        int status = res.getStatus();
+        if (!debug && status < 500 && durationMicros < slowThresholdMicros && !sampled(req.getRequestURI())) {
+            return;
+        }
+
+        Object pattern = req.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String route = pattern == null ? UNMATCHED : pattern.toString();
+        long bytesIn = Math.max(0, req.getContentLengthLong());
+
+        if (!debug) {
+            writer.submit(new AccessLogEntry(req.getMethod(), route, status, durationMicros, bytesIn, res.bytesWritten(),
+                    userId, null, null, null, null));
+            return;
+        }
+
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (String name : Collections.list(req.getHeaderNames())) {
+            headers.put(name, Collections.list(req.getHeaders(name)));
+        }
+        String requestBody = req instanceof ContentCachingRequestWrapper cached
+                ? new String(cached.getContentAsByteArray(), StandardCharsets.UTF_8)
+                : null;
+        writer.submit(new AccessLogEntry(
+                req.getMethod(),
+                route,
+                status,
+                durationMicros,
+                bytesIn,
+                res.bytesWritten(),
+                userId,
+                Redactor.text(req.getQueryString()),
+                Redactor.headers(headers),
+                Redactor.text(requestBody),
+                Redactor.text(res.capturedBody())
+        ));
+    }
+
+    private boolean sampled(String uri) {
+        double rate = defaultSampleRate;
+        for (Map.Entry<String, Double> e : sampleRates) {
+            if (uri.startsWith(e.getKey())) {
+                rate = e.getValue();
+                break;
+            }
+        }
+        return rate >= 1.0 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    private static String currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof Jwt jwt) {
+            return jwt.getSubject();
+        }
+        return null;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // CORS preflights carry no work worth logging.
+        return "OPTIONS".equals(request.getMethod()) && request.getHeader(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD) != null;
+    }
+
+    private static final class CompletionListener implements AsyncListener {
+
+        private final AtomicBoolean logged = new AtomicBoolean();
+        private final Runnable log;
+
+        private CompletionListener(Runnable log) {
+            this.log = log;
+        }
+
+        private void once() {
+            if (logged.compareAndSet(false, true)) {
+                log.run();
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            once();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            once();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            once();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.mateuszcer.taxbackend.shared.accesslog;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Configuration
+@ConfigurationProperties(prefix = "access-log")
+@Getter
+@Setter
+public class AccessLogProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Fraction of requests logged when no route prefix below matches.
+     */
+    private double defaultSampleRate = 1.0;
+
+    /**
+     * Sample rate per path prefix, longest prefix wins, e.g. {@code access-log.sample-rates[/api/market]=0.05}.
+     */
+    private Map<String, Double> sampleRates = new LinkedHashMap<>();
+
+    /**
+     * Requests at least this slow are always logged, as are 5xx responses.
+     */
+    private Duration slowThreshold = Duration.ofSeconds(1);
+
+    /**
+     * Pending entries before new ones are dropped instead of blocking request threads.
+     */
+    private int queueCapacity = 10_000;
+
+    /**
+     * Payload bytes captured per direction for users in debug mode.
+     */
+    private int maxPayloadBytes = 10_000;
+
+    /**
+     * How long debug mode stays on when enabled without an explicit duration.
+     */
+    private Duration debugTtl = Duration.ofMinutes(15);
+}
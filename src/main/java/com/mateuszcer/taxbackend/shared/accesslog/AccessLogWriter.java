@@ -0,0 +1,86 @@
+package com.mateuszcer.taxbackend.shared.accesslog;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formats and writes access log entries on a dedicated thread. Request threads only enqueue;
+ * when the queue is full the entry is dropped and counted instead of slowing the request down.
+ */
+public class AccessLogWriter {
+
+    private static final Logger ACCESS = LoggerFactory.getLogger("access");
+    private static final int BATCH = 256;
+
+    private final BlockingQueue<AccessLogEntry> queue;
+    private final Counter dropped;
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    public AccessLogWriter(int queueCapacity, MeterRegistry meterRegistry) {
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.dropped = Counter.builder("access.log.dropped")
+                .description("Access log entries dropped because the writer fell behind")
+                .register(meterRegistry);
+        meterRegistry.gauge("access.log.queue.depth", queue, BlockingQueue::size);
+        this.worker = Thread.ofPlatform().name("access-log").daemon().start(this::drain);
+    }
+
+    public void submit(AccessLogEntry entry) {
+        if (!queue.offer(entry)) {
+            dropped.increment();
+        }
+    }
+
+    private void drain() {
+        List<AccessLogEntry> batch = new ArrayList<>(BATCH);
+        while (running || !queue.isEmpty()) {
+            try {
+                AccessLogEntry first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, BATCH - 1);
+                batch.forEach(AccessLogWriter::write);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                batch.clear();
+            }
+        }
+    }
+
+    private static void write(AccessLogEntry e) {
+        if (!e.debug()) {
+            ACCESS.info("method={} route={} status={} durationMs={} bytesIn={} bytesOut={} user={}",
+                    e.method(), e.route(), e.status(), e.durationMicros() / 1000.0, e.bytesIn(), e.bytesOut(), e.userId());
+            return;
+        }
+        ACCESS.info("method={} route={} status={} durationMs={} bytesIn={} bytesOut={} user={} debug=true query={} headers={} requestBody={} responseBody={}",
+                e.method(), e.route(), e.status(), e.durationMicros() / 1000.0, e.bytesIn(), e.bytesOut(), e.userId(),
+                e.query(), e.requestHeaders(), e.requestBody(), e.responseBody());
+    }
+
+    /**
+     * Stops the writer thread once the entries already queued are written.
+     */
+    public void shutdown() {
+        running = false;
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
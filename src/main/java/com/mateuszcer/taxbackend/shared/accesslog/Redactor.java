@@ -0,0 +1,63 @@
+package com.mateuszcer.taxbackend.shared.accesslog;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Masks credentials in headers, query strings and payloads before anything is logged.
+ */
+public final class Redactor {
+
+    public static final String MASK = "[REDACTED]";
+
+    private static final Set<String> SENSITIVE_HEADERS = Set.of(
+            "authorization", "proxy-authorization", "cookie", "set-cookie", "x-api-key", "cb-access-key", "cb-access-sign"
+    );
+
+    private static final String SENSITIVE_FIELDS =
+            "access_token|refresh_token|id_token|token|password|client_secret|secret|code|"
+                    + "accessToken|refreshToken|idToken|clientSecret";
+
+    private static final Pattern JSON_FIELD = Pattern.compile(
+            "(\"(?:" + SENSITIVE_FIELDS + ")\"\\s*:\\s*)(\"(?:[^\"\\\\]|\\\\.)*\"|[^,}\\s]+)");
+    private static final Pattern FORM_FIELD = Pattern.compile(
+            "((?:^|[?&])(?:" + SENSITIVE_FIELDS + ")=)[^&\\s]*");
+    private static final Pattern BEARER = Pattern.compile("(?i)(bearer\\s+)[A-Za-z0-9._~+/=-]+");
+
+    private Redactor() {
+    }
+
+    public static Map<String, String> headers(Map<String, List<String>> headers) {
+        Map<String, String> redacted = new LinkedHashMap<>();
+        headers.forEach((name, values) -> redacted.put(
+                name,
+                SENSITIVE_HEADERS.contains(name.toLowerCase(Locale.ROOT)) ? MASK : String.join(",", values)
+        ));
+        return redacted;
+    }
+
+    /**
+     * Masks sensitive query/form parameters, JSON fields and bearer tokens in free text.
+     */
+    public static String text(String value) {
+        if (value == null || value.isEmpty()) {
+            return value;
+        }
+        String masked = replace(JSON_FIELD, value, "\"" + MASK + "\"");
+        masked = replace(FORM_FIELD, masked, MASK);
+        return replace(BEARER, masked, MASK);
+    }
+
+    private static String replace(Pattern pattern, String value, String mask) {
+        Matcher matcher = pattern.matcher(value);
+        if (!matcher.find()) {
+            return value;
+        }
+        return matcher.replaceAll(m -> Matcher.quoteReplacement(m.group(1) + mask));
+    }
+}
@@ -0,0 +1,55 @@
+package com.mateuszcer.taxbackend.shared.concurrency;
+
+import java.util.Arrays;
+
+/**
+ * Sliding window of the most recent latency samples; samples older than the window do not count.
+ * Percentiles are recomputed at most once per refresh interval so hot callers do not sort on every check.
+ */
+class LatencyWindow {
+
+    private static final long REFRESH_NANOS = 250_000_000L;
+
+    private final long windowNanos;
+    private final long[] timestamps;
+    private final long[] durations;
+    private int next;
+    private int size;
+    private long cachedAt = Long.MIN_VALUE;
+    private long cachedP95;
+
+    LatencyWindow(int capacity, long windowNanos) {
+        this.windowNanos = windowNanos;
+        this.timestamps = new long[capacity];
+        this.durations = new long[capacity];
+    }
+
+    synchronized void record(long nowNanos, long durationNanos) {
+        timestamps[next] = nowNanos;
+        durations[next] = durationNanos;
+        next = (next + 1) % timestamps.length;
+        size = Math.min(size + 1, timestamps.length);
+        cachedAt = Long.MIN_VALUE;
+    }
+
+    synchronized long p95Nanos(long nowNanos) {
+        if (cachedAt != Long.MIN_VALUE && nowNanos - cachedAt < REFRESH_NANOS) {
+            return cachedP95;
+        }
+        long[] recent = new long[size];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (nowNanos - timestamps[i] <= windowNanos) {
+                recent[count++] = durations[i];
+            }
+        }
+        long p95 = 0;
+        if (count > 0) {
+            Arrays.sort(recent, 0, count);
+            p95 = recent[(int) Math.ceil(count * 0.95) - 1];
+        }
+        cachedAt = nowNanos;
+        cachedP95 = p95;
+        return p95;
+    }
+}
@@ -0,0 +1,63 @@
+package com.mateuszcer.taxbackend.shared.concurrency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-key token bucket: a burst of {@code capacity} requests, then one more per {@code replenishInterval}.
+ * Each bucket is a single {@link AtomicLong} holding the time at which it will be full again (the GCRA form
+ * of a token bucket), so a request is one read and one CAS with no locks and no allocation; only requests
+ * of the same key ever contend. Buckets of idle keys are evicted.
+ */
+public class TokenBucketRateLimiter {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final LongSupplier nanoTime;
+    private final Cache<String, AtomicLong> buckets;
+
+    public TokenBucketRateLimiter(int capacity, Duration replenishInterval, Duration idleEviction) {
+        this(capacity, replenishInterval, idleEviction, System::nanoTime);
+    }
+
+    TokenBucketRateLimiter(int capacity, Duration replenishInterval, Duration idleEviction, LongSupplier nanoTime) {
+        if (capacity < 1 || replenishInterval.isNegative() || replenishInterval.isZero()) {
+            throw new IllegalArgumentException("capacity must be >= 1 and replenishInterval > 0");
+        }
+        this.intervalNanos = replenishInterval.toNanos();
+        this.burstNanos = intervalNanos * capacity;
+        this.nanoTime = nanoTime;
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(idleEviction)
+                .build();
+    }
+
+    /**
+     * Takes one token of the key.
+     *
+     * @return {@link Duration#ZERO} when allowed, otherwise how long until the next token is available
+     */
+    public Duration tryAcquire(String key) {
+        AtomicLong fullAt = buckets.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+        while (true) {
+            long now = nanoTime.getAsLong();
+            long current = fullAt.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long debt = next - now - burstNanos;
+            if (debt > 0) {
+                return Duration.ofNanos(debt);
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return Duration.ZERO;
+            }
+        }
+    }
+
+    public long trackedKeys() {
+        return buckets.estimatedSize();
+    }
+}
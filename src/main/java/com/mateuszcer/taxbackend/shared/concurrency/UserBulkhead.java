@@ -0,0 +1,108 @@
+package com.mateuszcer.taxbackend.shared.concurrency;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Per-user concurrency limit for heavy requests. Each user gets a fair semaphore, so a user's waiting
+ * requests are served in arrival order, and one user can never hold more than {@code permitsPerUser}
+ * threads no matter how hard they retry. There is no global lock: the per-user semaphores live in a
+ * concurrent map and only requests of the same user ever contend. A user's entry is removed as soon as no request
+ * holds or waits for its permits, so idle users cost nothing and a held permit is never orphaned.
+ */
+public class UserBulkhead {
+
+    private final int permitsPerUser;
+    private final long maxWaitNanos;
+    private final ConcurrentHashMap<String, Slots> slots = new ConcurrentHashMap<>();
+
+    public UserBulkhead(int permitsPerUser, Duration maxWait) {
+        if (permitsPerUser < 1) {
+            throw new IllegalArgumentException("permitsPerUser must be >= 1");
+        }
+        this.permitsPerUser = permitsPerUser;
+        this.maxWaitNanos = maxWait.toNanos();
+    }
+
+    /**
+     * Waits up to the configured max wait for a slot of the user; empty when the user is over quota.
+     */
+    public Optional<Permit> tryAcquire(String userId) throws InterruptedException {
+        // Registering under the map lock keeps the entry alive while we wait, so a concurrent release can never
+        // drop it and let a second semaphore hand out another permitsPerUser slots.
+        Slots user = slots.compute(userId, (id, existing) -> {
+            Slots s = existing == null ? new Slots(new Semaphore(permitsPerUser, true)) : existing;
+            s.users++;
+            return s;
+        });
+        boolean acquired = false;
+        try {
+            acquired = maxWaitNanos <= 0
+                    ? user.semaphore.tryAcquire()
+                    : user.semaphore.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } finally {
+            if (!acquired) {
+                leave(userId);
+            }
+        }
+        return acquired ? Optional.of(new Permit(this, userId, user.semaphore)) : Optional.empty();
+    }
+
+    public int available(String userId) {
+        Slots user = slots.get(userId);
+        return user == null ? permitsPerUser : user.semaphore.availablePermits();
+    }
+
+    public long trackedUsers() {
+        return slots.size();
+    }
+
+    /**
+     * Drops the user's entry once nobody holds or waits for one of its permits.
+     */
+    private void leave(String userId) {
+        slots.computeIfPresent(userId, (id, s) ->
+                --s.users == 0 && s.semaphore.availablePermits() == permitsPerUser ? null : s);
+    }
+
+    /**
+     * Semaphore of one user and the number of requests holding or waiting for it; mutated only inside map compute.
+     */
+    private static final class Slots {
+
+        private final Semaphore semaphore;
+        private int users;
+
+        private Slots(Semaphore semaphore) {
+            this.semaphore = semaphore;
+        }
+    }
+
+    /**
+     * Slot held by one request; releasing twice is a no-op.
+     */
+    public static final class Permit {
+
+        private final UserBulkhead bulkhead;
+        private final String userId;
+        private final Semaphore semaphore;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(UserBulkhead bulkhead, String userId, Semaphore semaphore) {
+            this.bulkhead = bulkhead;
+            this.userId = userId;
+            this.semaphore = semaphore;
+        }
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                semaphore.release();
+                bulkhead.leave(userId);
+            }
+        }
+    }
+}
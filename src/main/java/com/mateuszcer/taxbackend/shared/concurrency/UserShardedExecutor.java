@@ -0,0 +1,120 @@
+package com.mateuszcer.taxbackend.shared.concurrency;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Executor routing every user to a fixed single-threaded shard (hash of the user id), like an actor mailbox.
+ * Work of one user is therefore serialized without locks. Shards hold no per-user state: orders are read from
+ * the database on each run, and derived results are cached by order-set version where it pays off
+ * (e.g. the portfolio's open lots), not per shard.
+ * Tasks submitted from a shard thread for a user of the same shard run inline, so synchronous event
+ * chains (ingestion -> report generation) cannot deadlock on their own mailbox.
+ */
+public class UserShardedExecutor {
+
+    private static final ThreadLocal<Shard> CURRENT_SHARD = new ThreadLocal<>();
+
+    private final Shard[] shards;
+
+    public UserShardedExecutor(int shardCount) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive: " + shardCount);
+        }
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i);
+        }
+    }
+
+    public int shardCount() {
+        return shards.length;
+    }
+
+    public int shardOf(String userId) {
+        int h = userId == null ? 0 : userId.hashCode();
+        h ^= (h >>> 16);
+        return Math.floorMod(h, shards.length);
+    }
+
+    public int queueDepth(int shard) {
+        return shards[shard].queue.size();
+    }
+
+    public <T> CompletableFuture<T> submit(String userId, Supplier<T> task) {
+        Shard shard = shards[shardOf(userId)];
+        if (CURRENT_SHARD.get() == shard) {
+            try {
+                return CompletableFuture.completedFuture(task.get());
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        return CompletableFuture.supplyAsync(task, shard.executor);
+    }
+
+    public CompletableFuture<Void> execute(String userId, Runnable task) {
+        return submit(userId, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs the task on the user's shard and waits for the result.
+     */
+    public <T> T call(String userId, Supplier<T> task) {
+        try {
+            return submit(userId, task).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    public void run(String userId, Runnable task) {
+        call(userId, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    public void shutdown() {
+        for (Shard shard : shards) {
+            shard.executor.shutdown();
+        }
+        for (Shard shard : shards) {
+            try {
+                shard.executor.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static final class Shard {
+        private final LinkedBlockingQueue<Runnable> queue = new LinkedBlockingQueue<>();
+        private final ThreadPoolExecutor executor;
+
+        private Shard(int index) {
+            this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, queue, r -> {
+                Thread t = new Thread(() -> {
+                    CURRENT_SHARD.set(this);
+                    r.run();
+                }, "user-shard-" + index);
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.mateuszcer.taxbackend.shared.concurrency;
+
+public enum WorkPriority {
+    /**
+     * User is waiting for the result (previews, summaries).
+     */
+    INTERACTIVE,
+    /**
+     * Bulk work nobody is waiting on interactively (report regeneration).
+     */
+    BACKGROUND
+}
@@ -0,0 +1,206 @@
+package com.mateuszcer.taxbackend.shared.concurrency;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs work in separate bounded pools per {@link WorkPriority}, so interactive requests never queue behind
+ * bulk regenerations. Background tasks additionally yield before starting while the interactive p95
+ * latency is above the configured budget (up to a maximum wait, so they cannot starve forever).
+ * A saturated interactive pool runs the task on the caller (the request thread), which throttles the producer.
+ * Background work never runs on the caller: when its queue is full the task is offered again with a growing delay,
+ * so shard and request threads that only enqueue it never take on a regeneration or its yield.
+ * After {@link #shutdown()} every submission fails instead of being dropped, so no future is left pending.
+ */
+@Slf4j
+public class WorkScheduler {
+
+    private static final long RETRY_DELAY_MILLIS = 50;
+    private static final long MAX_RETRY_DELAY_MILLIS = 5_000;
+
+    private final ThreadPoolExecutor interactive;
+    private final ThreadPoolExecutor background;
+    private final LatencyWindow interactiveLatency;
+    private final long p95BudgetNanos;
+    private final long maxYieldNanos;
+    private final long yieldStepMillis;
+    private final ConcurrentHashMap<String, CompletableFuture<Void>> tails = new ConcurrentHashMap<>();
+
+    public WorkScheduler(
+            int interactiveThreads,
+            int backgroundThreads,
+            int queueCapacity,
+            Duration interactiveP95Budget,
+            Duration latencyWindow,
+            Duration maxBackgroundYield
+    ) {
+        this.interactive = newPool("interactive", interactiveThreads, queueCapacity, new CallerRunsUnlessShutdown());
+        this.background = newPool("background", backgroundThreads, queueCapacity, new ThreadPoolExecutor.AbortPolicy());
+        this.interactiveLatency = new LatencyWindow(1024, latencyWindow.toNanos());
+        this.p95BudgetNanos = interactiveP95Budget.toNanos();
+        this.maxYieldNanos = maxBackgroundYield.toNanos();
+        this.yieldStepMillis = Math.max(10, Math.min(100, interactiveP95Budget.toMillis() / 5));
+    }
+
+    public <T> T call(WorkPriority priority, Supplier<T> task) {
+        try {
+            return submit(priority, task).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    public void run(WorkPriority priority, Runnable task) {
+        call(priority, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    public <T> CompletableFuture<T> submit(WorkPriority priority, Supplier<T> task) {
+        if (priority == WorkPriority.INTERACTIVE) {
+            long enqueuedAt = System.nanoTime();
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return task.get();
+                } finally {
+                    long now = System.nanoTime();
+                    interactiveLatency.record(now, now - enqueuedAt);
+                }
+            }, interactive);
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        offerBackground(task, result, 0);
+        return result;
+    }
+
+    /**
+     * Submits the task to run after every earlier task submitted under the same key (e.g. a user id), without
+     * blocking the caller. Keys only order their own tasks, different keys run in parallel up to the pool size.
+     * A failed task does not stop the ones queued after it.
+     */
+    public <T> CompletableFuture<T> submitAfter(String key, WorkPriority priority, Supplier<T> task) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        CompletableFuture<Void> previous = tails.put(key, done);
+        CompletableFuture<T> result = (previous == null ? CompletableFuture.<Void>completedFuture(null) : previous)
+                .thenCompose(ignored -> submit(priority, task));
+        result.whenComplete((value, error) -> {
+            tails.remove(key, done);
+            done.complete(null);
+        });
+        return result;
+    }
+
+    public Duration interactiveP95() {
+        return Duration.ofNanos(interactiveLatency.p95Nanos(System.nanoTime()));
+    }
+
+    public int queueDepth(WorkPriority priority) {
+        return (priority == WorkPriority.INTERACTIVE ? interactive : background).getQueue().size();
+    }
+
+    public int activeCount(WorkPriority priority) {
+        return (priority == WorkPriority.INTERACTIVE ? interactive : background).getActiveCount();
+    }
+
+    public void shutdown() {
+        interactive.shutdown();
+        background.shutdown();
+        try {
+            interactive.awaitTermination(10, TimeUnit.SECONDS);
+            background.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private <T> void offerBackground(Supplier<T> task, CompletableFuture<T> result, int attempt) {
+        try {
+            background.execute(() -> {
+                try {
+                    yieldToInteractive();
+                    result.complete(task.get());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            if (background.isShutdown()) {
+                result.completeExceptionally(e);
+                return;
+            }
+            long delay = Math.min(MAX_RETRY_DELAY_MILLIS, RETRY_DELAY_MILLIS << Math.min(attempt, 10));
+            if (attempt == 0) {
+                log.warn("Background queue full ({} queued), retrying task in {} ms", background.getQueue().size(), delay);
+            }
+            CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS)
+                    .execute(() -> offerBackground(task, result, attempt + 1));
+        }
+    }
+
+    private void yieldToInteractive() {
+        long start = System.nanoTime();
+        while (interactiveLatency.p95Nanos(System.nanoTime()) > p95BudgetNanos) {
+            if (System.nanoTime() - start >= maxYieldNanos) {
+                log.warn("Background task starts despite interactive p95 {} above budget", interactiveP95());
+                return;
+            }
+            try {
+                Thread.sleep(yieldStepMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static ThreadPoolExecutor newPool(String name, int threads, int queueCapacity, RejectedExecutionHandler rejection) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                threads,
+                threads,
+                60L,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "work-" + name + "-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                rejection
+        );
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     * Caller-runs while the pool is up; after shutdown rejects, where the JDK policy would silently drop the task.
+     */
+    private static final class CallerRunsUnlessShutdown implements RejectedExecutionHandler {
+
+        @Override
+        public void rejectedExecution(Runnable task, ThreadPoolExecutor pool) {
+            if (pool.isShutdown()) {
+                throw new RejectedExecutionException("Work scheduler is shut down");
+            }
+            task.run();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.mateuszcer.taxbackend.shared.config;
+
+import com.mateuszcer.taxbackend.shared.accesslog.AccessLogDebugUsers;
+import com.mateuszcer.taxbackend.shared.accesslog.AccessLogEndpoint;
+import com.mateuszcer.taxbackend.shared.accesslog.AccessLogFilter;
+import com.mateuszcer.taxbackend.shared.accesslog.AccessLogProperties;
+import com.mateuszcer.taxbackend.shared.accesslog.AccessLogWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+@Configuration
+@ConditionalOnProperty(prefix = "access-log", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AccessLogConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public AccessLogWriter accessLogWriter(AccessLogProperties properties, MeterRegistry meterRegistry) {
+        return new AccessLogWriter(properties.getQueueCapacity(), meterRegistry);
+    }
+
+    @Bean
+    public AccessLogDebugUsers accessLogDebugUsers(AccessLogProperties properties) {
+        return new AccessLogDebugUsers(properties.getDebugTtl(), Clock.systemUTC());
+    }
+
+    @Bean
+    public AccessLogEndpoint accessLogEndpoint(AccessLogDebugUsers accessLogDebugUsers) {
+        return new AccessLogEndpoint(accessLogDebugUsers);
+    }
+
+    @Bean
+    public FilterRegistrationBean<AccessLogFilter> accessLogFilter(
+            AccessLogWriter accessLogWriter,
+            AccessLogDebugUsers accessLogDebugUsers,
+            AccessLogProperties properties
+    ) {
+        FilterRegistrationBean<AccessLogFilter> registration =
+                new FilterRegistrationBean<>(new AccessLogFilter(accessLogWriter, accessLogDebugUsers, properties));
+        registration.addUrlPatterns("/*");
+        // Right after Spring Security, so the authenticated principal is available.
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        registration.setAsyncSupported(true);
+        return registration;
+    }
+}
@@ -0,0 +1,37 @@
+package com.mateuszcer.taxbackend.shared.config;
+
+import com.mateuszcer.taxbackend.shared.interceptors.UserBulkheadInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Per-user bulkhead in front of the endpoints that load a user's whole history or call brokers.
+ */
+@Configuration
+public class BulkheadWebConfig implements WebMvcConfigurer {
+
+    private static final String[] HEAVY_ENDPOINTS = {
+            "/api/broker/*/orders/sync",
+            "/api/brokers/orders/sync",
+            "/api/pit/*/preview",
+            "/api/pit/*/summary",
+            "/api/pit/*/generate",
+            "/api/pit/*/methods",
+            "/api/orders/export",
+            "/api/portfolio/**"
+    };
+
+    private final ObjectProvider<UserBulkheadInterceptor> userBulkheadInterceptor;
+
+    public BulkheadWebConfig(ObjectProvider<UserBulkheadInterceptor> userBulkheadInterceptor) {
+        this.userBulkheadInterceptor = userBulkheadInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Absent in MVC slice tests, which do not load ConcurrencyConfig.
+        userBulkheadInterceptor.ifAvailable(interceptor -> registry.addInterceptor(interceptor).addPathPatterns(HEAVY_ENDPOINTS));
+    }
+}
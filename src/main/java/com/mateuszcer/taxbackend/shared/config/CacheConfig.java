@@ -10,7 +10,7 @@ import org.springframework.context.annotation.Configuration;
 import java.util.concurrent.TimeUnit;
 
 /**
- * Enable Spring Boot caching for market data and exchange rates.
+ * Enable Spring Boot caching for exchange rates (market data has its own {@code MarketDataCache}).
  */
 @Configuration
 @EnableCaching
@@ -18,7 +18,7 @@ public class CacheConfig {
     
     @Bean
     public CacheManager cacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager("marketData", "exchangeRates");
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager("exchangeRates");
         cacheManager.setCaffeine(Caffeine.newBuilder()
                 .maximumSize(1000)
                 .expireAfterWrite(10, TimeUnit.MINUTES));
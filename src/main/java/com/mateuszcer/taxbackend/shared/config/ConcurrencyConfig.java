@@ -0,0 +1,129 @@
+package com.mateuszcer.taxbackend.shared.config;
+
+import com.mateuszcer.taxbackend.shared.concurrency.TokenBucketRateLimiter;
+import com.mateuszcer.taxbackend.shared.concurrency.UserBulkhead;
+import com.mateuszcer.taxbackend.shared.concurrency.UserShardedExecutor;
+import com.mateuszcer.taxbackend.shared.concurrency.WorkPriority;
+import com.mateuszcer.taxbackend.shared.concurrency.WorkScheduler;
+import com.mateuszcer.taxbackend.shared.interceptors.ClientRateLimitInterceptor;
+import com.mateuszcer.taxbackend.shared.interceptors.UserBulkheadInterceptor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Locale;
+
+@Configuration
+public class ConcurrencyConfig {
+
+    /**
+     * Per-user work (ingestion, FIFO, report writes) runs on user-affine shards.
+     * Shard count defaults to the number of available cores.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public UserShardedExecutor userShardedExecutor(
+            @Value("${app.concurrency.user-shards:0}") int configuredShards,
+            MeterRegistry meterRegistry
+    ) {
+        int shards = configuredShards > 0 ? configuredShards : Runtime.getRuntime().availableProcessors();
+        UserShardedExecutor executor = new UserShardedExecutor(shards);
+        for (int i = 0; i < shards; i++) {
+            int shard = i;
+            Gauge.builder("user.shard.queue.depth", executor, e -> e.queueDepth(shard))
+                    .description("Tasks waiting in the user shard mailbox")
+                    .tag("shard", String.valueOf(shard))
+                    .register(meterRegistry);
+        }
+        return executor;
+    }
+
+    /**
+     * Interactive previews and background regenerations get separate bounded pools;
+     * background work yields while interactive p95 is above the budget.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public WorkScheduler workScheduler(
+            @Value("${app.scheduler.interactive-threads:0}") int interactiveThreads,
+            @Value("${app.scheduler.background-threads:2}") int backgroundThreads,
+            @Value("${app.scheduler.queue-capacity:256}") int queueCapacity,
+            @Value("${app.scheduler.interactive-p95-budget:500ms}") Duration interactiveP95Budget,
+            @Value("${app.scheduler.latency-window:30s}") Duration latencyWindow,
+            @Value("${app.scheduler.background-max-yield:30s}") Duration backgroundMaxYield,
+            MeterRegistry meterRegistry
+    ) {
+        WorkScheduler scheduler = new WorkScheduler(
+                interactiveThreads > 0 ? interactiveThreads : Runtime.getRuntime().availableProcessors() * 2,
+                backgroundThreads,
+                queueCapacity,
+                interactiveP95Budget,
+                latencyWindow,
+                backgroundMaxYield
+        );
+        for (WorkPriority priority : WorkPriority.values()) {
+            String tag = priority.name().toLowerCase(Locale.ROOT);
+            Gauge.builder("work.scheduler.queue.depth", scheduler, s -> s.queueDepth(priority))
+                    .tag("priority", tag)
+                    .register(meterRegistry);
+            Gauge.builder("work.scheduler.active", scheduler, s -> s.activeCount(priority))
+                    .tag("priority", tag)
+                    .register(meterRegistry);
+        }
+        Gauge.builder("work.scheduler.interactive.p95", scheduler, s -> s.interactiveP95().toNanos() / 1_000_000.0)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        return scheduler;
+    }
+
+    /**
+     * At most {@code permits-per-user} concurrent heavy requests per user; the rest wait briefly in a fair queue
+     * and are then rejected with 429.
+     */
+    @Bean
+    public UserBulkhead userBulkhead(
+            @Value("${app.bulkhead.permits-per-user:2}") int permitsPerUser,
+            @Value("${app.bulkhead.max-wait:250ms}") Duration maxWait,
+            MeterRegistry meterRegistry
+    ) {
+        UserBulkhead bulkhead = new UserBulkhead(permitsPerUser, maxWait);
+        Gauge.builder("user.bulkhead.users", bulkhead, UserBulkhead::trackedUsers)
+                .description("Users with a live bulkhead")
+                .register(meterRegistry);
+        return bulkhead;
+    }
+
+    @Bean
+    public UserBulkheadInterceptor userBulkheadInterceptor(
+            UserBulkhead userBulkhead,
+            @Value("${app.bulkhead.retry-after:2s}") Duration retryAfter,
+            MeterRegistry meterRegistry
+    ) {
+        return new UserBulkheadInterceptor(userBulkhead, retryAfter, meterRegistry);
+    }
+
+    /**
+     * Public market data: a burst of {@code capacity} requests per client IP, then one per {@code replenish-interval}.
+     */
+    @Bean
+    public TokenBucketRateLimiter marketRateLimiter(
+            @Value("${app.rate-limit.market.capacity:30}") int capacity,
+            @Value("${app.rate-limit.market.replenish-interval:2s}") Duration replenishInterval,
+            MeterRegistry meterRegistry
+    ) {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(capacity, replenishInterval, Duration.ofMinutes(10));
+        Gauge.builder("rate.limit.clients", limiter, TokenBucketRateLimiter::trackedKeys)
+                .tag("limiter", "market")
+                .register(meterRegistry);
+        return limiter;
+    }
+
+    @Bean
+    public ClientRateLimitInterceptor marketRateLimitInterceptor(
+            TokenBucketRateLimiter marketRateLimiter,
+            MeterRegistry meterRegistry
+    ) {
+        return new ClientRateLimitInterceptor(marketRateLimiter, "market", meterRegistry);
+    }
+}
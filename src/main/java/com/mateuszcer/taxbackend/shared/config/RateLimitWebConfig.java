@@ -0,0 +1,26 @@
+package com.mateuszcer.taxbackend.shared.config;
+
+import com.mateuszcer.taxbackend.shared.interceptors.ClientRateLimitInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Per-client-IP token bucket in front of the public market endpoints, which proxy a quota-limited upstream.
+ */
+@Configuration
+public class RateLimitWebConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<ClientRateLimitInterceptor> marketRateLimitInterceptor;
+
+    public RateLimitWebConfig(ObjectProvider<ClientRateLimitInterceptor> marketRateLimitInterceptor) {
+        this.marketRateLimitInterceptor = marketRateLimitInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Absent in MVC slice tests, which do not load ConcurrencyConfig.
+        marketRateLimitInterceptor.ifAvailable(interceptor -> registry.addInterceptor(interceptor).addPathPatterns("/api/market/**"));
+    }
+}
@@ -0,0 +1,68 @@
+package com.mateuszcer.taxbackend.shared.etag;
+
+import com.mateuszcer.taxbackend.shared.response.ResponseFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+/**
+ * Strong ETags for responses that are a pure function of the user's order set (plus request parameters).
+ * Other inputs that can change under the same order set, such as the reference price generation, go in as parameters.
+ * Bump {@link #SCHEMA} whenever such a response changes shape or calculation rules, so old ETags stop matching.
+ */
+public final class ETags {
+
+    public static final String SCHEMA = "v1";
+
+    private ETags() {
+    }
+
+    public static String of(String resource, String userId, long version, Object... parameters) {
+        String raw = SCHEMA + "|" + resource + "|" + userId + "|" + version + "|" + Arrays.toString(parameters);
+        return "\"" + resource + "-" + version + "-" + digest(raw) + "\"";
+    }
+
+    /**
+     * Returns 304 when the request's If-None-Match matches, without invoking {@code response};
+     * otherwise the response tagged with the ETag and a revalidate-every-time cache policy.
+     * The negotiated encoding is part of the tag, as each encoding is a different representation.
+     */
+    public static <T> ResponseEntity<T> conditional(WebRequest request, String etag, Supplier<ResponseEntity<T>> response) {
+        ResponseFormat format = ResponseFormat.negotiate(request.getHeader(HttpHeaders.ACCEPT));
+        String tagged = format == ResponseFormat.JSON
+                ? etag
+                : etag.substring(0, etag.length() - 1) + "-" + format.extension() + "\"";
+        if (request.checkNotModified(tagged)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(tagged)
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .build();
+        }
+        ResponseEntity<T> full = response.get();
+        return ResponseEntity.status(full.getStatusCode())
+                .headers(full.getHeaders())
+                .eTag(tagged)
+                .varyBy(HttpHeaders.ACCEPT)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(full.getBody());
+    }
+
+    private static String digest(String raw) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(raw.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.mateuszcer.taxbackend.shared.etag;
+
+/**
+ * Version of a user's order set: grows whenever any of the user's orders is inserted or updated.
+ * Implementations answer from memory so conditional requests can be decided without the database.
+ */
+public interface OrderSetVersions {
+    long current(String userId);
+}
@@ -0,0 +1,4 @@
+package com.mateuszcer.taxbackend.shared.events;
+
+public record PitReportGeneratedEvent(String userId, int taxYear) {
+}
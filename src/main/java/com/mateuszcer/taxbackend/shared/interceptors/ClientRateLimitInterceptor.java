@@ -0,0 +1,45 @@
+package com.mateuszcer.taxbackend.shared.interceptors;
+
+import com.mateuszcer.taxbackend.shared.concurrency.TokenBucketRateLimiter;
+import com.mateuszcer.taxbackend.shared.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.time.Duration;
+
+/**
+ * Token bucket per client IP for public endpoints. The client address is the servlet remote address,
+ * which the forwarded-headers support rewrites only for requests coming through a trusted proxy.
+ * Async dispatches of an already admitted request are not charged again.
+ */
+public class ClientRateLimitInterceptor implements AsyncHandlerInterceptor {
+
+    private final TokenBucketRateLimiter limiter;
+    private final Counter rejected;
+
+    public ClientRateLimitInterceptor(TokenBucketRateLimiter limiter, String name, MeterRegistry meterRegistry) {
+        this.limiter = limiter;
+        this.rejected = Counter.builder("rate.limit.rejected")
+                .description("Requests rejected because the client IP ran out of tokens")
+                .tag("limiter", name)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        Duration wait = limiter.tryAcquire(request.getRemoteAddr());
+        if (!wait.isZero()) {
+            rejected.increment();
+            // Retry-After is whole seconds; never advertise 0.
+            throw new TooManyRequestsException("Rate limit exceeded, retry later", Duration.ofSeconds(Math.max(1, (wait.toMillis() + 999) / 1000)));
+        }
+        return true;
+    }
+}
@@ -1,5 +1,6 @@
 package com.mateuszcer.taxbackend.shared.interceptors;
 
+import com.mateuszcer.taxbackend.shared.accesslog.Redactor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpRequest;
@@ -10,21 +11,33 @@ import org.springframework.http.client.ClientHttpResponse;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 
+/**
+ * Outbound request logging at DEBUG only; credentials in headers, query and body are redacted.
+ */
 public class LoggingInterceptor implements ClientHttpRequestInterceptor {
 
     private static final Logger logger = LoggerFactory.getLogger(LoggingInterceptor.class);
-
+    private static final int MAX_BODY_CHARS = 2000;
 
     @Override
-    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException, IOException {
-        logRequestDetails(request, body);
-        return execution.execute(request, body);
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        if (!logger.isDebugEnabled()) {
+            return execution.execute(request, body);
+        }
+
+        long start = System.nanoTime();
+        ClientHttpResponse response = execution.execute(request, body);
+        logger.debug("Outbound {} {} status={} durationMs={} headers={} body={}",
+                request.getMethod(),
+                Redactor.text(request.getURI().toString()),
+                response.getStatusCode().value(),
+                (System.nanoTime() - start) / 1_000_000,
+                Redactor.headers(request.getHeaders()),
+                Redactor.text(truncate(new String(body, StandardCharsets.UTF_8))));
+        return response;
     }
 
-    private void logRequestDetails(HttpRequest request, byte[] body) {
-        logger.info("Request URI: {}", request.getURI());
-        logger.info("Request Method: {}", request.getMethod());
-        logger.info("Request Headers: {}", request.getHeaders());
-        logger.info("Request Body: {}", new String(body, StandardCharsets.UTF_8));
+    private static String truncate(String value) {
+        return value.length() <= MAX_BODY_CHARS ? value : value.substring(0, MAX_BODY_CHARS) + "...";
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,81 @@
+package com.mateuszcer.taxbackend.shared.interceptors;
+
+import com.mateuszcer.taxbackend.shared.concurrency.UserBulkhead;
+import com.mateuszcer.taxbackend.shared.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Holds a {@link UserBulkhead} permit for the whole lifetime of a heavy request, including the async
+ * part of streamed responses: the permit taken on the first dispatch is reused (not re-acquired) on
+ * the async dispatch and released when that one completes.
+ */
+public class UserBulkheadInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = UserBulkheadInterceptor.class.getName() + ".permit";
+
+    private final UserBulkhead bulkhead;
+    private final Duration retryAfter;
+    private final Counter rejected;
+
+    public UserBulkheadInterceptor(UserBulkhead bulkhead, Duration retryAfter, MeterRegistry meterRegistry) {
+        this.bulkhead = bulkhead;
+        this.retryAfter = retryAfter;
+        this.rejected = Counter.builder("user.bulkhead.rejected")
+                .description("Heavy requests rejected because the user was over its concurrency quota")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (request.getDispatcherType() == DispatcherType.ASYNC && request.getAttribute(PERMIT_ATTRIBUTE) != null) {
+            return true;
+        }
+        String userId = userId(request);
+        if (userId == null) {
+            return true;
+        }
+        Optional<UserBulkhead.Permit> permit = bulkhead.tryAcquire(userId);
+        if (permit.isEmpty()) {
+            rejected.increment();
+            throw new TooManyRequestsException("Too many concurrent heavy requests, retry later", retryAfter);
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, permit.get());
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Keep the permit: the async dispatch finishes the request and releases it in afterCompletion.
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.isAsyncStarted()) {
+            return;
+        }
+        if (request.getAttribute(PERMIT_ATTRIBUTE) instanceof UserBulkhead.Permit permit) {
+            permit.release();
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+        }
+    }
+
+    private static String userId(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof Jwt jwt) {
+            return jwt.getSubject();
+        }
+        String header = request.getHeader("X-User-Id");
+        return header == null || header.isBlank() ? null : header.trim();
+    }
+}
@@ -0,0 +1,73 @@
+package com.mateuszcer.taxbackend.shared.response;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Encodings offered for bulk responses. CBOR and Smile carry the same Jackson data model as JSON,
+ * but numbers, decimals and repeated field names are written in binary instead of text.
+ */
+public enum ResponseFormat {
+    JSON(MediaType.APPLICATION_JSON, "json", JsonFactory::new),
+    CBOR(MediaType.APPLICATION_CBOR, "cbor", CBORFactory::new),
+    SMILE(MediaType.parseMediaType("application/x-jackson-smile"), "smile", SmileFactory::new);
+
+    public static final String SMILE_VALUE = "application/x-jackson-smile";
+
+    private final MediaType mediaType;
+    private final String extension;
+    private final Supplier<JsonFactory> factory;
+
+    ResponseFormat(MediaType mediaType, String extension, Supplier<JsonFactory> factory) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+        this.factory = factory;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public JsonFactory newFactory() {
+        return factory.get();
+    }
+
+    /**
+     * Offered format the client prefers most, by q-value and then by header order; types with q=0 are refused.
+     * Wildcards never select a binary format, so JSON is the fallback.
+     */
+    public static ResponseFormat negotiate(String acceptHeader) {
+        if (acceptHeader == null || acceptHeader.isBlank()) {
+            return JSON;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(MediaType.parseMediaTypes(acceptHeader));
+        } catch (InvalidMediaTypeException e) {
+            return JSON;
+        }
+        MediaType.sortByQualityValue(accepted);
+        for (MediaType type : accepted) {
+            if (type.getQualityValue() == 0 || type.isWildcardType() || type.isWildcardSubtype()) {
+                continue;
+            }
+            for (ResponseFormat format : values()) {
+                if (format.mediaType.isCompatibleWith(type)) {
+                    return format;
+                }
+            }
+        }
+        return JSON;
+    }
+}
@@ -0,0 +1,125 @@
+package com.mateuszcer.taxbackend.shared.sse;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Open SSE connections per key (a user, or a topic such as a market currency). An idle connection is only an entry
+ * in this map plus an async servlet request, no thread is parked on it. Sends run on virtual threads so a slow client
+ * never blocks the publisher; emitters that fail, complete or time out are dropped.
+ */
+@Slf4j
+public class SseEmitterRegistry {
+
+    private final Map<String, Set<SseEmitter>> emitters = new ConcurrentHashMap<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final long timeoutMillis;
+
+    public SseEmitterRegistry(long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public SseEmitter register(String userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        emitters.compute(userId, (k, set) -> {
+            Set<SseEmitter> target = set == null ? ConcurrentHashMap.newKeySet() : set;
+            target.add(emitter);
+            return target;
+        });
+        emitter.onCompletion(() -> remove(userId, emitter));
+        emitter.onTimeout(() -> remove(userId, emitter));
+        emitter.onError(e -> remove(userId, emitter));
+        return emitter;
+    }
+
+    public void send(String userId, String eventName, Object data) {
+        Set<SseEmitter> userEmitters = emitters.get(userId);
+        if (userEmitters == null || userEmitters.isEmpty()) {
+            return;
+        }
+        for (SseEmitter emitter : userEmitters) {
+            senders.execute(() -> {
+                try {
+                    emitter.send(SseEmitter.event().name(eventName).data(data));
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("Dropping SSE connection of user {}: {}", userId, e.getMessage());
+                    remove(userId, emitter);
+                    emitter.completeWithError(e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Same event to every connection under the key. The event is built once from an already serialized payload
+     * and the same item set is written to each emitter, so the cost per client is only the write.
+     */
+    public void broadcast(String key, String eventName, String payload) {
+        Set<SseEmitter> keyEmitters = emitters.get(key);
+        if (keyEmitters == null || keyEmitters.isEmpty()) {
+            return;
+        }
+        Set<ResponseBodyEmitter.DataWithMediaType> event = SseEmitter.event()
+                .name(eventName)
+                .data(payload, MediaType.APPLICATION_JSON)
+                .build();
+        for (SseEmitter emitter : keyEmitters) {
+            senders.execute(() -> {
+                try {
+                    emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("Dropping SSE connection under {}: {}", key, e.getMessage());
+                    remove(key, emitter);
+                    emitter.completeWithError(e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Keys that currently have at least one open connection.
+     */
+    public Set<String> keys() {
+        return Set.copyOf(emitters.keySet());
+    }
+
+    /**
+     * Comment line to keep proxies from closing idle connections and to detect dead clients.
+     */
+    public void heartbeat() {
+        emitters.forEach((userId, userEmitters) -> userEmitters.forEach(emitter -> senders.execute(() -> {
+            try {
+                emitter.send(SseEmitter.event().comment("keep-alive"));
+            } catch (IOException | IllegalStateException e) {
+                remove(userId, emitter);
+                emitter.completeWithError(e);
+            }
+        })));
+    }
+
+    public int connectionCount() {
+        return emitters.values().stream().mapToInt(Set::size).sum();
+    }
+
+    public void shutdown() {
+        emitters.values().forEach(set -> set.forEach(SseEmitter::complete));
+        emitters.clear();
+        senders.shutdownNow();
+    }
+
+    private void remove(String userId, SseEmitter emitter) {
+        emitters.computeIfPresent(userId, (k, set) -> {
+            set.remove(emitter);
+            return set.isEmpty() ? null : set;
+        });
+    }
+}
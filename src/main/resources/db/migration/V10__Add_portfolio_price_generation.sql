@@ -0,0 +1,7 @@
+ALTER TABLE portfolio_daily_value ADD COLUMN fallback_assets INTEGER NOT NULL DEFAULT 0;
+
+ALTER TABLE portfolio_series_state ADD COLUMN price_generation BIGINT NOT NULL DEFAULT 0;
+
+-- Stored days do not know which values came from an earlier day's price, so series are rebuilt lazily from scratch.
+DELETE FROM portfolio_daily_value;
+DELETE FROM portfolio_series_state;
@@ -0,0 +1,7 @@
+-- Keyset pagination walks (user_id, [filter], occurred_at, id) backwards; id is the tie-breaker.
+DROP INDEX IF EXISTS idx_orders_user_id_occurred_at;
+
+CREATE INDEX idx_orders_user_occurred_id ON orders (user_id, occurred_at DESC, id DESC);
+CREATE INDEX idx_orders_user_product_occurred_id ON orders (user_id, product_id, occurred_at DESC, id DESC);
+CREATE INDEX idx_orders_user_side_occurred_id ON orders (user_id, side, occurred_at DESC, id DESC);
+CREATE INDEX idx_orders_user_status_occurred_id ON orders (user_id, status, occurred_at DESC, id DESC);
@@ -0,0 +1,19 @@
+ALTER TABLE orders ADD COLUMN change_seq BIGINT NOT NULL DEFAULT 0;
+
+UPDATE orders o
+SET change_seq = r.seq
+FROM (SELECT id, ROW_NUMBER() OVER (PARTITION BY user_id ORDER BY id) AS seq FROM orders) r
+WHERE o.id = r.id;
+
+CREATE INDEX idx_orders_user_change_seq ON orders (user_id, change_seq);
+
+CREATE TABLE order_change_sequence
+(
+    user_id  VARCHAR(255) PRIMARY KEY,
+    last_seq BIGINT       NOT NULL
+);
+
+INSERT INTO order_change_sequence (user_id, last_seq)
+SELECT user_id, MAX(change_seq)
+FROM orders
+GROUP BY user_id;
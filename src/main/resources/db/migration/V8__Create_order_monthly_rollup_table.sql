@@ -0,0 +1,30 @@
+CREATE TABLE order_monthly_rollup
+(
+    id            BIGSERIAL PRIMARY KEY,
+    user_id       VARCHAR(255)    NOT NULL,
+    month_start   DATE            NOT NULL,
+    product_id    VARCHAR(255)    NOT NULL,
+    side          VARCHAR(255)    NOT NULL,
+    order_count   BIGINT          NOT NULL,
+    quantity      NUMERIC(38, 18) NOT NULL,
+    volume        NUMERIC(38, 18) NOT NULL,
+    fees          NUMERIC(38, 18) NOT NULL,
+    realized_gain NUMERIC(38, 18) NOT NULL DEFAULT 0,
+    CONSTRAINT uk_order_monthly_rollup_key UNIQUE (user_id, month_start, product_id, side)
+);
+
+CREATE INDEX idx_order_monthly_rollup_user_month ON order_monthly_rollup (user_id, month_start);
+
+-- Backfill from filled orders (occurred_at holds UTC); realized gains are filled in by the next report regeneration.
+INSERT INTO order_monthly_rollup (user_id, month_start, product_id, side, order_count, quantity, volume, fees)
+SELECT user_id,
+       CAST(DATE_TRUNC('month', (occurred_at AT TIME ZONE 'UTC') AT TIME ZONE 'Europe/Warsaw') AS DATE),
+       product_id,
+       UPPER(side),
+       COUNT(*),
+       COALESCE(SUM(quantity), 0),
+       COALESCE(SUM(CASE WHEN total > 0 THEN total ELSE COALESCE(quantity, 0) * COALESCE(price, 0) END), 0),
+       COALESCE(SUM(fee), 0)
+FROM orders
+WHERE UPPER(status) = 'FILLED'
+GROUP BY user_id, CAST(DATE_TRUNC('month', (occurred_at AT TIME ZONE 'UTC') AT TIME ZONE 'Europe/Warsaw') AS DATE), product_id, UPPER(side);
@@ -0,0 +1,17 @@
+CREATE TABLE portfolio_daily_value
+(
+    id              BIGSERIAL PRIMARY KEY,
+    user_id         VARCHAR(255)    NOT NULL,
+    value_date      DATE            NOT NULL,
+    market_value    NUMERIC(38, 18) NOT NULL,
+    unpriced_assets INTEGER         NOT NULL DEFAULT 0,
+    CONSTRAINT uk_portfolio_daily_value_user_date UNIQUE (user_id, value_date)
+);
+
+-- Series are built lazily on the first chart request or order change, no backfill.
+CREATE TABLE portfolio_series_state
+(
+    user_id       VARCHAR(255) PRIMARY KEY,
+    order_version BIGINT       NOT NULL,
+    last_date     DATE
+);
@@ -0,0 +1,195 @@
+package com.mateuszcer.taxbackend.brokers.domain.usecase;
+
+import com.mateuszcer.taxbackend.brokers.domain.ActionResult;
+import com.mateuszcer.taxbackend.brokers.domain.Broker;
+import com.mateuszcer.taxbackend.brokers.domain.BrokerSyncSummary;
+import com.mateuszcer.taxbackend.brokers.domain.action.SyncAllBrokerOrdersAction;
+import com.mateuszcer.taxbackend.brokers.domain.port.BrokerAdapter;
+import com.mateuszcer.taxbackend.shared.events.NewOrdersEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SyncAllBrokerOrdersTest {
+
+    private final List<NewOrdersEvent> published = new ArrayList<>();
+
+    @Test
+    void publishesOrdersOfConnectedBrokerAsOneBatch() {
+        SyncAllBrokerOrders useCase = new SyncAllBrokerOrders(published::add, Duration.ofSeconds(2));
+
+        ActionResult<BrokerSyncSummary> result = useCase.execute(
+                new SyncAllBrokerOrdersAction("u1"),
+                List.of(new FakeAdapter(true, 0, List.of(payload("e1"), payload("e2"))))
+        );
+
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(result.getData().syncedOrders()).isEqualTo(2);
+        assertThat(result.getData().ordersByBroker()).containsEntry(Broker.COINBASE, 2);
+        assertThat(published).hasSize(1);
+        assertThat(published.getFirst().orders()).hasSize(2);
+    }
+
+    @Test
+    void skipsDisconnectedBrokers() {
+        SyncAllBrokerOrders useCase = new SyncAllBrokerOrders(published::add, Duration.ofSeconds(2));
+
+        ActionResult<BrokerSyncSummary> result = useCase.execute(
+                new SyncAllBrokerOrdersAction("u1"),
+                List.of(new FakeAdapter(false, 0, List.of(payload("e1"))))
+        );
+
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(result.getData().syncedOrders()).isZero();
+        assertThat(published).isEmpty();
+    }
+
+    @Test
+    void cancelsBrokerExceedingDeadline() {
+        SyncAllBrokerOrders useCase = new SyncAllBrokerOrders(published::add, Duration.ofMillis(100));
+
+        long start = System.nanoTime();
+        ActionResult<BrokerSyncSummary> result = useCase.execute(
+                new SyncAllBrokerOrdersAction("u1"),
+                List.of(new FakeAdapter(true, 5_000, List.of(payload("e1"))))
+        );
+        long tookMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(tookMillis).isLessThan(2_000);
+        assertThat(result.isSuccess()).isFalse();
+        assertThat(result.getMessage()).contains("deadline");
+        assertThat(published).isEmpty();
+    }
+
+    @Test
+    void fetchesAdaptersConcurrentlySoLatencyFollowsTheSlowest() {
+        SyncAllBrokerOrders useCase = new SyncAllBrokerOrders(published::add, Duration.ofSeconds(5));
+
+        long start = System.nanoTime();
+        ActionResult<BrokerSyncSummary> result = useCase.execute(
+                new SyncAllBrokerOrdersAction("u1"),
+                List.of(
+                        new FakeAdapter(true, 300, List.of(payload("slow1"))),
+                        new FakeAdapter(true, 300, List.of(payload("slow2"))),
+                        new FakeAdapter(true, 50, List.of(payload("fast")))
+                )
+        );
+        long tookMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Sequential fetching would take 650 ms.
+        assertThat(tookMillis).isBetween(300L, 600L);
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(result.getData().ordersByBroker()).containsEntry(Broker.COINBASE, 3);
+        assertThat(published).singleElement().satisfies(event -> assertThat(event.orders())
+                .extracting(NewOrdersEvent.OrderPayload::externalId)
+                .containsExactlyInAnyOrder("slow1", "slow2", "fast"));
+    }
+
+    @Test
+    void cancelsHangingAdapterAndStillPublishesTheOthersInOneBatch() throws Exception {
+        SyncAllBrokerOrders useCase = new SyncAllBrokerOrders(published::add, Duration.ofMillis(200));
+        FakeAdapter hanging = new FakeAdapter(true, 10_000, List.of(payload("late")));
+
+        long start = System.nanoTime();
+        ActionResult<BrokerSyncSummary> result = useCase.execute(
+                new SyncAllBrokerOrdersAction("u1"),
+                List.of(hanging, new FakeAdapter(true, 0, List.of(payload("e1"), payload("e2"))))
+        );
+        long tookMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(tookMillis).isLessThan(2_000);
+        assertThat(hanging.interrupted().await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(result.getData().syncedOrders()).isEqualTo(2);
+        assertThat(result.getData().failures().get(Broker.COINBASE)).contains("deadline");
+        assertThat(published).singleElement().satisfies(event -> assertThat(event.orders())
+                .extracting(NewOrdersEvent.OrderPayload::externalId)
+                .containsExactly("e1", "e2"));
+    }
+
+    @Test
+    void failingAdapterDoesNotDropTheOthersOrders() {
+        SyncAllBrokerOrders useCase = new SyncAllBrokerOrders(published::add, Duration.ofSeconds(2));
+
+        ActionResult<BrokerSyncSummary> result = useCase.execute(
+                new SyncAllBrokerOrdersAction("u1"),
+                List.of(
+                        new FakeAdapter(true, 0, List.of(), new IllegalStateException("broker API down")),
+                        new FakeAdapter(true, 20, List.of(payload("e1")))
+                )
+        );
+
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(result.getData().syncedOrders()).isEqualTo(1);
+        assertThat(result.getData().failures().get(Broker.COINBASE)).contains("broker API down");
+        assertThat(published).singleElement().satisfies(event -> assertThat(event.orders())
+                .extracting(NewOrdersEvent.OrderPayload::externalId)
+                .containsExactly("e1"));
+    }
+
+    private static NewOrdersEvent.OrderPayload payload(String externalId) {
+        return new NewOrdersEvent.OrderPayload(externalId, "BTC-USD", "BUY", "FILLED", null, null, null, null, null);
+    }
+
+    private record FakeAdapter(
+            boolean connected,
+            long delayMillis,
+            List<NewOrdersEvent.OrderPayload> orders,
+            RuntimeException error,
+            CountDownLatch interrupted
+    ) implements BrokerAdapter {
+
+        FakeAdapter(boolean connected, long delayMillis, List<NewOrdersEvent.OrderPayload> orders) {
+            this(connected, delayMillis, orders, null);
+        }
+
+        FakeAdapter(boolean connected, long delayMillis, List<NewOrdersEvent.OrderPayload> orders, RuntimeException error) {
+            this(connected, delayMillis, orders, error, new CountDownLatch(1));
+        }
+
+        @Override
+        public Broker broker() {
+            return Broker.COINBASE;
+        }
+
+        @Override
+        public String getOAuthUrl() {
+            return null;
+        }
+
+        @Override
+        public boolean saveAccessToken(String code, String userId) {
+            return false;
+        }
+
+        @Override
+        public boolean isConnected(String userId) {
+            return connected;
+        }
+
+        @Override
+        public ActionResult<?> getOrders(String userId) {
+            return getOrdersPayload(userId);
+        }
+
+        @Override
+        public ActionResult<List<NewOrdersEvent.OrderPayload>> getOrdersPayload(String userId) {
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                return ActionResult.failure("interrupted");
+            }
+            if (error != null) {
+                throw error;
+            }
+            return ActionResult.success(orders);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.mateuszcer.taxbackend.capitalgains.domain.service;
+
+import com.mateuszcer.taxbackend.capitalgains.domain.CostBasisMethod;
+import com.mateuszcer.taxbackend.capitalgains.domain.MonthlyRealizedGain;
+import com.mateuszcer.taxbackend.capitalgains.domain.OpenLot;
+import com.mateuszcer.taxbackend.capitalgains.domain.OrderSnapshot;
+import com.mateuszcer.taxbackend.capitalgains.domain.TaxYearTotals;
+import com.mateuszcer.taxbackend.capitalgains.domain.port.ReportingCurrencyConverter;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CapitalGainsLedgerTest {
+
+    private final CapitalGainsLedger ledger = new CapitalGainsLedger();
+
+    @Test
+    void calculatesAllRequestedYearsInOnePass() {
+        List<OrderSnapshot> orders = List.of(
+                new OrderSnapshot("AAA-USD", "BUY", "FILLED", Instant.parse("2023-03-01T10:00:00Z"),
+                        new BigDecimal("1"), new BigDecimal("10"), BigDecimal.ZERO, new BigDecimal("10")),
+                new OrderSnapshot("AAA-USD", "SELL", "FILLED", Instant.parse("2023-06-01T10:00:00Z"),
+                        new BigDecimal("1"), new BigDecimal("15"), BigDecimal.ZERO, new BigDecimal("15")),
+                new OrderSnapshot("AAA-USD", "SELL", "FILLED", Instant.parse("2024-02-01T10:00:00Z"),
+                        new BigDecimal("1"), new BigDecimal("30"), BigDecimal.ZERO, new BigDecimal("30")),
+                new OrderSnapshot("AAA-USD", "BUY", "FILLED", Instant.parse("2024-01-01T10:00:00Z"),
+                        new BigDecimal("2"), new BigDecimal("20"), BigDecimal.ZERO, new BigDecimal("40"))
+        );
+
+        ReportingCurrencyConverter times4 = (amount, order) -> amount.multiply(new BigDecimal("4"));
+        Map<Integer, TaxYearTotals> totals = ledger.calculate(orders, List.of(2023, 2024, 2025), times4);
+
+        assertThat(totals).containsOnlyKeys(2023, 2024, 2025);
+        assertThat(totals.get(2023).gain()).isEqualByComparingTo("5.00");
+        assertThat(totals.get(2023).reportingGain()).isEqualByComparingTo("20.00");
+        assertThat(totals.get(2024).cost()).isEqualByComparingTo("20.00");
+        assertThat(totals.get(2024).proceeds()).isEqualByComparingTo("30.00");
+        assertThat(totals.get(2024).reportingCost()).isEqualByComparingTo("80.00");
+        assertThat(totals.get(2024).reportingProceeds()).isEqualByComparingTo("120.00");
+        assertThat(totals.get(2025).gain()).isEqualByComparingTo("0.00");
+    }
+
+    @Test
+    void lotsDoNotCarryAcrossTaxYears() {
+        List<OrderSnapshot> orders = List.of(
+                new OrderSnapshot("AAA-USD", "BUY", "FILLED", Instant.parse("2023-03-01T10:00:00Z"),
+                        new BigDecimal("1"), new BigDecimal("10"), BigDecimal.ZERO, new BigDecimal("10")),
+                new OrderSnapshot("AAA-USD", "SELL", "FILLED", Instant.parse("2024-02-01T10:00:00Z"),
+                        new BigDecimal("1"), new BigDecimal("30"), BigDecimal.ZERO, new BigDecimal("30"))
+        );
+
+        TaxYearTotals totals = ledger.calculate(orders, 2024, ReportingCurrencyConverter.identity());
+
+        assertThat(totals.cost()).isEqualByComparingTo("0.00");
+        assertThat(totals.proceeds()).isEqualByComparingTo("30.00");
+        assertThat(totals.warnings()).hasSize(1);
+    }
+
+    @Test
+    void splitsRealizedGainsByMonthAndProduct() {
+        List<OrderSnapshot> orders = List.of(
+                new OrderSnapshot("AAA-USD", "BUY", "FILLED", Instant.parse("2024-01-05T10:00:00Z"),
+                        new BigDecimal("3"), new BigDecimal("10"), BigDecimal.ZERO, new BigDecimal("30")),
+                new OrderSnapshot("AAA-USD", "SELL", "FILLED", Instant.parse("2024-01-20T10:00:00Z"),
+                        new BigDecimal("1"), new BigDecimal("12"), BigDecimal.ZERO, new BigDecimal("12")),
+                // 23:30 UTC on the last day of February is already March in Warsaw.
+                new OrderSnapshot("AAA-USD", "SELL", "FILLED", Instant.parse("2024-02-29T23:30:00Z"),
+                        new BigDecimal("2"), new BigDecimal("8"), BigDecimal.ZERO, new BigDecimal("16")),
+                new OrderSnapshot("BBB-USD", "BUY", "FILLED", Instant.parse("2024-01-06T10:00:00Z"),
+                        new BigDecimal("1"), new BigDecimal("5"), BigDecimal.ZERO, new BigDecimal("5")),
+                new OrderSnapshot("BBB-USD", "SELL", "FILLED", Instant.parse("2024-01-25T10:00:00Z"),
+                        new BigDecimal("1"), new BigDecimal("9"), BigDecimal.ZERO, new BigDecimal("9"))
+        );
+
+        TaxYearTotals totals = ledger.calculate(orders, 2024, ReportingCurrencyConverter.identity());
+
+        assertThat(totals.realizedGains()).containsExactly(
+                new MonthlyRealizedGain(YearMonth.of(2024, 1), "AAA-USD", new BigDecimal("10.00"), new BigDecimal("12.00"), new BigDecimal("2.00")),
+                new MonthlyRealizedGain(YearMonth.of(2024, 1), "BBB-USD", new BigDecimal("5.00"), new BigDecimal("9.00"), new BigDecimal("4.00")),
+                new MonthlyRealizedGain(YearMonth.of(2024, 3), "AAA-USD", new BigDecimal("20.00"), new BigDecimal("16.00"), new BigDecimal("-4.00"))
+        );
+    }
+
+    @Test
+    void openLotsCarryAcrossYearsAndKeepReportingCost() {
+        List<OrderSnapshot> orders = List.of(
+                new OrderSnapshot("AAA-USD", "BUY", "FILLED", Instant.parse("2023-03-01T10:00:00Z"),
+                        new BigDecimal("2"), new BigDecimal("10"), BigDecimal.ZERO, new BigDecimal("20")),
+                new OrderSnapshot("AAA-USD", "BUY", "FILLED", Instant.parse("2024-01-01T10:00:00Z"),
+                        new BigDecimal("1"), new BigDecimal("30"), BigDecimal.ZERO, new BigDecimal("30")),
+                new OrderSnapshot("AAA-USD", "SELL", "FILLED", Instant.parse("2024-02-01T10:00:00Z"),
+                        new BigDecimal("1.5"), new BigDecimal("40"), BigDecimal.ZERO, new BigDecimal("60")),
+                new OrderSnapshot("BBB-USD", "BUY", "CANCELLED", Instant.parse("2024-02-01T10:00:00Z"),
+                        new BigDecimal("5"), new BigDecimal("1"), BigDecimal.ZERO, new BigDecimal("5"))
+        );
+
+        ReportingCurrencyConverter times4 = (amount, order) -> amount.multiply(new BigDecimal("4"));
+        List<OpenLot> lots = ledger.openLots(orders, times4);
+
+        assertThat(lots).hasSize(2);
+        assertThat(lots.get(0).acquiredAt()).isEqualTo(Instant.parse("2023-03-01T10:00:00Z"));
+        assertThat(lots.get(0).quantity()).isEqualByComparingTo("0.5");
+        assertThat(lots.get(0).reportingUnitCost()).isEqualByComparingTo("40");
+        assertThat(lots.get(1).quantity()).isEqualByComparingTo("1");
+        assertThat(lots.get(1).unitCost()).isEqualByComparingTo("30");
+    }
+
+    @Test
+    void openLotsNetSellsAcrossProductsOfTheSameAsset() {
+        List<OrderSnapshot> orders = List.of(
+                new OrderSnapshot("BTC-USD", "BUY", "FILLED", Instant.parse("2024-01-01T10:00:00Z"),
+                        new BigDecimal("1"), new BigDecimal("40000"), BigDecimal.ZERO, new BigDecimal("40000")),
+                new OrderSnapshot("BTC-EUR", "BUY", "FILLED", Instant.parse("2024-02-01T10:00:00Z"),
+                        new BigDecimal("1"), new BigDecimal("45000"), BigDecimal.ZERO, new BigDecimal("45000")),
+                new OrderSnapshot("btc-eur", "SELL", "FILLED", Instant.parse("2024-03-01T10:00:00Z"),
+                        new BigDecimal("1.5"), new BigDecimal("50000"), BigDecimal.ZERO, new BigDecimal("75000"))
+        );
+
+        List<OpenLot> lots = ledger.openLots(orders, ReportingCurrencyConverter.identity());
+
+        assertThat(lots).singleElement().satisfies(lot -> {
+            assertThat(lot.productId()).isEqualTo("BTC-EUR");
+            assertThat(lot.quantity()).isEqualByComparingTo("0.5");
+            assertThat(lot.unitCost()).isEqualByComparingTo("45000");
+        });
+    }
+
+    @Test
+    void costBasisMethodsMatchDifferentLotsInOnePass() {
+        List<OrderSnapshot> orders = List.of(
+                new OrderSnapshot("AAA-USD", "BUY", "FILLED", Instant.parse("2024-01-01T10:00:00Z"),
+                        new BigDecimal("1"), new BigDecimal("10"), BigDecimal.ZERO, new BigDecimal("10")),
+                new OrderSnapshot("AAA-USD", "BUY", "FILLED", Instant.parse("2024-02-01T10:00:00Z"),
+                        new BigDecimal("1"), new BigDecimal("30"), BigDecimal.ZERO, new BigDecimal("30")),
+                new OrderSnapshot("AAA-USD", "BUY", "FILLED", Instant.parse("2024-03-01T10:00:00Z"),
+                        new BigDecimal("1"), new BigDecimal("20"), BigDecimal.ZERO, new BigDecimal("20")),
+                new OrderSnapshot("AAA-USD", "SELL", "FILLED", Instant.parse("2024-04-01T10:00:00Z"),
+                        new BigDecimal("1"), new BigDecimal("25"), BigDecimal.ZERO, new BigDecimal("25")),
+                new OrderSnapshot("AAA-USD", "SELL", "FILLED", Instant.parse("2024-05-01T10:00:00Z"),
+                        new BigDecimal("1"), new BigDecimal("25"), BigDecimal.ZERO, new BigDecimal("25"))
+        );
+
+        Map<CostBasisMethod, TaxYearTotals> totals = ledger.calculate(
+                orders, 2024, ReportingCurrencyConverter.identity(), EnumSet.allOf(CostBasisMethod.class)
+        );
+
+        assertThat(totals.get(CostBasisMethod.FIFO).cost()).isEqualByComparingTo("40.00");
+        assertThat(totals.get(CostBasisMethod.LIFO).cost()).isEqualByComparingTo("50.00");
+        assertThat(totals.get(CostBasisMethod.HIFO).cost()).isEqualByComparingTo("50.00");
+        assertThat(totals.get(CostBasisMethod.AVERAGE).cost()).isEqualByComparingTo("40.00");
+        assertThat(totals.get(CostBasisMethod.HIFO).realizedGains().get(0).cost()).isEqualByComparingTo("30.00");
+        assertThat(totals.get(CostBasisMethod.LIFO).realizedGains().get(0).cost()).isEqualByComparingTo("20.00");
+        assertThat(totals.values()).allSatisfy(t -> assertThat(t.proceeds()).isEqualByComparingTo("50.00"));
+        assertThat(totals.get(CostBasisMethod.FIFO)).isEqualTo(ledger.calculate(orders, 2024, ReportingCurrencyConverter.identity()));
+    }
+}
@@ -4,6 +4,7 @@ import com.mateuszcer.taxbackend.capitalgains.domain.CapitalGainsPreview;
 import com.mateuszcer.taxbackend.capitalgains.domain.OrderSnapshot;
 import com.mateuszcer.taxbackend.capitalgains.domain.port.UserOrdersProvider;
 import com.mateuszcer.taxbackend.capitalgains.domain.query.CapitalGainsPreviewQuery;
+import com.mateuszcer.taxbackend.capitalgains.domain.service.CapitalGainsLedger;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
@@ -25,7 +26,9 @@ class CalculateCapitalGainsPreviewTest {
                         new BigDecimal("2.5"), new BigDecimal("15"), BigDecimal.ZERO, new BigDecimal("37.5"))
         );
 
-        CalculateCapitalGainsPreview usecase = new CalculateCapitalGainsPreview(provider);
+        CalculateCapitalGainsPreview usecase = new CalculateCapitalGainsPreview(
+                new CalculateTaxYearTotals(provider, new CapitalGainsLedger())
+        );
         CapitalGainsPreview preview = usecase.execute(new CapitalGainsPreviewQuery("u1", 2024));
 
         assertThat(preview.cost()).isEqualByComparingTo("26.00");
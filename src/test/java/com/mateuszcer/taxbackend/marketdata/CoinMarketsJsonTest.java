@@ -0,0 +1,67 @@
+package com.mateuszcer.taxbackend.marketdata;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mateuszcer.taxbackend.shared.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CoinMarketsJsonTest {
+
+    private static final String UPSTREAM = """
+            [
+              {"id":"bitcoin","symbol":"btc","name":"Bitcoin","image":"https://img/btc.png","current_price":65000.5,
+               "market_cap":1280000000000,"market_cap_rank":1,"total_volume":30000000000,"high_24h":66000,"low_24h":64000,
+               "price_change_24h":-120.4,"price_change_percentage_24h":-0.18,"price_change_percentage_24h_in_currency":-0.18,
+               "circulating_supply":19700000,"last_updated":"2024-05-01T10:00:00.000Z","ath":73000,
+               "sparkline_in_7d":{"price":[64000.1,64500.2,65000.3]}},
+              {"id":"ethereum","symbol":"eth","name":"Ethereum","image":null,"current_price":3100,"market_cap":370000000000,
+               "market_cap_rank":2,"total_volume":15000000000,"high_24h":null,"low_24h":3050,"price_change_24h":12,
+               "price_change_percentage_24h":0.4,"circulating_supply":120000000,"last_updated":"2024-05-01T10:00:00.000Z",
+               "sparkline_in_7d":{"price":[]}}
+            ]
+            """;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void parsesOnceAndSlicesPagesLocally() {
+        List<CoinMarket> coins = CoinMarketsJson.parse(objectMapper, UPSTREAM);
+        CoinMarkets markets = new CoinMarkets("usd", coins, Instant.parse("2024-05-01T10:00:00Z"));
+
+        assertThat(coins).hasSize(2);
+        assertThat(coins.get(0).sparkline7d()).hasSize(3);
+        assertThat(coins.get(1).high24h()).isNaN();
+        assertThat(markets.page(1, 1)).extracting(CoinMarket::id).containsExactly("bitcoin");
+        assertThat(markets.page(2, 1)).extracting(CoinMarket::id).containsExactly("ethereum");
+        assertThat(markets.page(2, 2)).isEmpty();
+    }
+
+    @Test
+    void compactFieldsDropSparklineAndKeepUpstreamNames() throws Exception {
+        List<CoinMarket> coins = CoinMarketsJson.parse(objectMapper, UPSTREAM);
+
+        JsonNode compact = objectMapper.readTree(CoinMarketsJson.write(objectMapper.getFactory(), coins, CoinField.parse("compact")));
+        assertThat(compact.get(0).has("sparkline_in_7d")).isFalse();
+        assertThat(compact.get(0).get("current_price").asDouble()).isEqualTo(65000.5);
+        assertThat(compact.get(1).get("high_24h").isNull()).isTrue();
+
+        JsonNode full = objectMapper.readTree(CoinMarketsJson.write(objectMapper.getFactory(), coins, CoinField.parse(null)));
+        assertThat(full.get(0).path("sparkline_in_7d").path("price")).hasSize(3);
+
+        JsonNode picked = objectMapper.readTree(CoinMarketsJson.write(objectMapper.getFactory(), coins, CoinField.parse("id, current_price")));
+        assertThat(picked.get(0).size()).isEqualTo(2);
+    }
+
+    @Test
+    void rejectsUnknownFields() {
+        assertThatThrownBy(() -> CoinField.parse("id,ath"))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("ath");
+    }
+}
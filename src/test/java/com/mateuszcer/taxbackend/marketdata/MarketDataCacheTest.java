@@ -0,0 +1,126 @@
+package com.mateuszcer.taxbackend.marketdata;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MarketDataCacheTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-05-01T10:00:00Z"));
+    private final MarketDataCache cache = new MarketDataCache(Duration.ofMinutes(10), Duration.ofSeconds(30), 10, clock);
+
+    @AfterEach
+    void tearDown() {
+        cache.shutdown();
+    }
+
+    @Test
+    void concurrentColdRequestsShareOneUpstreamCall() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<CompletableFuture<Optional<CoinMarkets>>> callers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            callers.add(CompletableFuture.supplyAsync(() -> cache.get("usd", () -> {
+                calls.incrementAndGet();
+                await(release);
+                return List.of(coin("bitcoin"));
+            })));
+        }
+        Thread.sleep(100);
+        release.countDown();
+
+        for (CompletableFuture<Optional<CoinMarkets>> caller : callers) {
+            assertThat(caller.get(2, TimeUnit.SECONDS)).isPresent();
+        }
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void servesStaleWhileRefreshingAndKeepsLastGoodPayloadOnFailure() throws Exception {
+        CoinMarkets first = cache.get("usd", () -> List.of(coin("bitcoin"))).orElseThrow();
+        clock.advance(Duration.ofMinutes(11));
+
+        CoinMarkets stale = cache.get("usd", () -> {
+            throw new IllegalStateException("429 Too Many Requests");
+        }).orElseThrow();
+        assertThat(stale).isSameAs(first);
+
+        Thread.sleep(100);
+        assertThat(cache.peek("usd")).containsSame(first);
+
+        // Backing off after the failure: no new upstream call yet.
+        AtomicInteger calls = new AtomicInteger();
+        cache.get("usd", () -> {
+            calls.incrementAndGet();
+            return List.of(coin("ethereum"));
+        });
+        assertThat(calls).hasValue(0);
+
+        clock.advance(Duration.ofSeconds(31));
+        cache.refresh("usd", () -> List.of(coin("ethereum"))).get(2, TimeUnit.SECONDS);
+        CoinMarkets refreshed = cache.peek("usd").orElseThrow();
+        assertThat(refreshed.coins()).extracting(CoinMarket::id).containsExactly("ethereum");
+        assertThat(refreshed.fetchedAt()).isAfter(first.fetchedAt());
+    }
+
+    @Test
+    void coldFailureIsNotCached() {
+        assertThat(cache.get("eur", List::of)).isEmpty();
+        assertThat(cache.peek("eur")).isEmpty();
+    }
+
+    static CoinMarket coin(String id) {
+        return new CoinMarket(id, id.substring(0, 3), id, null, 1.0, 1.0, 1, 1.0, 1.0, 1.0, 0.0, 0.0, 1.0, null, new float[0]);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private volatile Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
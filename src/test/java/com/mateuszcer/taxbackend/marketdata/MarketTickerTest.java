@@ -0,0 +1,49 @@
+package com.mateuszcer.taxbackend.marketdata;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mateuszcer.taxbackend.shared.sse.SseEmitterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class MarketTickerTest {
+
+    private final SseEmitterRegistry registry = mock(SseEmitterRegistry.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final MarketTicker ticker = new MarketTicker(mock(CoinGeckoService.class), registry, objectMapper);
+
+    @Test
+    void broadcastsOnlyChangedPricesOncePerFetch() throws Exception {
+        Instant t0 = Instant.parse("2024-05-01T10:00:00Z");
+        ticker.publish(new CoinMarkets("usd", List.of(coin("bitcoin", 65000), coin("ethereum", 3100)), t0));
+        verify(registry, never()).broadcast(anyString(), anyString(), anyString());
+
+        CoinMarkets next = new CoinMarkets("usd", List.of(coin("bitcoin", 65100), coin("ethereum", 3100)), t0.plusSeconds(600));
+        ticker.publish(next);
+        // Same fetch seen again on the next tick: nothing new to push.
+        ticker.publish(next);
+
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(registry, times(1)).broadcast(eq("usd"), eq(MarketTicker.DELTA_EVENT), payload.capture());
+        JsonNode delta = objectMapper.readTree(payload.getValue());
+        assertThat(delta).hasSize(1);
+        assertThat(delta.get(0).get("id").asText()).isEqualTo("bitcoin");
+        assertThat(delta.get(0).get("current_price").asDouble()).isEqualTo(65100);
+        assertThat(delta.get(0).has("sparkline_in_7d")).isFalse();
+    }
+
+    private static CoinMarket coin(String id, double price) {
+        return new CoinMarket(id, id.substring(0, 3), id, null, price, 1.0, 1, 1.0, 1.0, 1.0, 0.0, 0.0, 1.0, null, new float[]{1f, 2f});
+    }
+}
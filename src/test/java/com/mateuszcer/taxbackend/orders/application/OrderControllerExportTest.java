@@ -0,0 +1,81 @@
+package com.mateuszcer.taxbackend.orders.application;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mateuszcer.taxbackend.orders.domain.Order;
+import com.mateuszcer.taxbackend.orders.domain.OrderFacade;
+import com.mateuszcer.taxbackend.orders.domain.query.ExportUserOrdersQuery;
+import com.mateuszcer.taxbackend.orders.domain.query.GetOrderSetVersionQuery;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Properties;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OrderControllerExportTest {
+
+    private static final int ORDERS = 200_000;
+
+    @Test
+    void streamsLongExportAsOneCompleteArray() throws Exception {
+        OrderFacade orderFacade = mock(OrderFacade.class);
+        when(orderFacade.handle(any(GetOrderSetVersionQuery.class))).thenReturn(1L);
+        doAnswer(invocation -> {
+            Consumer<Order> sink = invocation.getArgument(1);
+            Order order = new Order();
+            order.setProductId("BTC-USD");
+            order.setSide("BUY");
+            order.setStatus("FILLED");
+            order.setOccurredAt(Instant.parse("2024-01-01T00:00:00Z"));
+            order.setQuantity(BigDecimal.ONE);
+            for (long i = 0; i < ORDERS; i++) {
+                order.setId(i);
+                sink.accept(order);
+            }
+            return (long) ORDERS;
+        }).when(orderFacade).handle(any(ExportUserOrdersQuery.class), any());
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        OrderController controller = new OrderController(orderFacade, objectMapper);
+
+        ResponseEntity<StreamingResponseBody> response = controller.exportOrders(
+                "u1", new ServletWebRequest(new MockHttpServletRequest(), new MockHttpServletResponse())
+        );
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        JsonNode exported = objectMapper.readTree(out.toByteArray());
+        assertThat(exported.isArray()).isTrue();
+        assertThat(exported.size()).isEqualTo(ORDERS);
+        assertThat(exported.get(ORDERS - 1).get("id").asLong()).isEqualTo(ORDERS - 1);
+    }
+
+    @Test
+    void asyncRequestTimeoutLeavesRoomForLongExports() throws Exception {
+        Properties properties = new Properties();
+        try (InputStream in = getClass().getResourceAsStream("/application.properties")) {
+            properties.load(in);
+        }
+        String value = properties.getProperty("spring.mvc.async.request-timeout");
+        assertThat(value).isNotNull();
+        String fallback = value.replaceAll("^\\$\\{[^:]+:(.*)}$", "$1");
+
+        assertThat(DurationStyle.detectAndParse(fallback)).isGreaterThanOrEqualTo(Duration.ofMinutes(10));
+    }
+}
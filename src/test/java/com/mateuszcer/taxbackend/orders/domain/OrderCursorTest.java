@@ -0,0 +1,33 @@
+package com.mateuszcer.taxbackend.orders.domain;
+
+import com.mateuszcer.taxbackend.shared.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderCursorTest {
+
+    @Test
+    void roundTrips() {
+        OrderCursor cursor = new OrderCursor(Instant.parse("2024-05-01T10:00:00.123456789Z"), 42);
+
+        assertThat(OrderCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"1:2", "x:0:1", "9223372036854775807:0:1", "31556889864403200:0:1"})
+    void tamperedCursorIsABusinessError(String raw) {
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> OrderCursor.decode(token))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("Invalid cursor");
+    }
+}
@@ -1,17 +1,35 @@
 package com.mateuszcer.taxbackend.orders.infrastructure;
 
 import com.mateuszcer.taxbackend.config.TestSecurityConfig;
+import com.mateuszcer.taxbackend.orders.domain.AggregationDimension;
 import com.mateuszcer.taxbackend.orders.domain.Order;
+import com.mateuszcer.taxbackend.orders.domain.OrderAggregate;
+import com.mateuszcer.taxbackend.orders.domain.OrderChanges;
+import com.mateuszcer.taxbackend.orders.domain.OrderPage;
+import com.mateuszcer.taxbackend.orders.domain.action.SaveNewOrdersAction;
+import com.mateuszcer.taxbackend.orders.domain.query.AggregateOrdersQuery;
+import com.mateuszcer.taxbackend.orders.domain.query.GetOrderChangesQuery;
+import com.mateuszcer.taxbackend.orders.domain.query.GetOrdersPageQuery;
+import com.mateuszcer.taxbackend.orders.domain.usecase.GetOrderChanges;
+import com.mateuszcer.taxbackend.orders.domain.usecase.GetOrdersPage;
+import com.mateuszcer.taxbackend.orders.domain.usecase.SaveNewOrders;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.context.annotation.Import;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.Instant;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -26,6 +44,27 @@ class OrderRepositoryTest {
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private OrderChangeSequenceRepository changeSequenceRepository;
+
+    @Autowired
+    private OrderMonthlyRollupRepository rollupRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private OrderJpaStore store() {
+        return new OrderJpaStore(
+                orderRepository,
+                changeSequenceRepository,
+                rollupRepository,
+                entityManager.getEntityManager(),
+                transactionManager,
+                2,
+                Duration.ofSeconds(30)
+        );
+    }
+
     @Test
     void findByUserIdAndExternalId_ReturnsOrder() {
         Order o = new Order();
@@ -67,6 +106,158 @@ class OrderRepositoryTest {
         assertThat(list).hasSize(2);
         assertThat(list.getFirst().getExternalId()).isEqualTo("ext1");
     }
-}
 
+    @Test
+    void keysetPagination_WalksAllRowsWithTiesAndFilters() {
+        Instant sameTime = Instant.parse("2024-05-18T07:26:14Z");
+        for (int i = 0; i < 5; i++) {
+            Order o = new Order();
+            o.setUserId("user1");
+            o.setExternalId("ext" + i);
+            o.setProductId(i % 2 == 0 ? "BTC-USD" : "ETH-USD");
+            o.setSide("BUY");
+            o.setStatus("FILLED");
+            o.setOccurredAt(i < 3 ? sameTime : sameTime.plusSeconds(i));
+            entityManager.persist(o);
+        }
+        entityManager.flush();
+
+        GetOrdersPage getOrdersPage = new GetOrdersPage(store());
+
+        List<String> seen = new ArrayList<>();
+        OrderPage page = getOrdersPage.execute(new GetOrdersPageQuery("user1", null, 2, null, null, null, null, null));
+        seen.addAll(page.orders().stream().map(Order::getExternalId).toList());
+        while (page.nextCursor() != null) {
+            page = getOrdersPage.execute(new GetOrdersPageQuery("user1", page.nextCursor(), 2, null, null, null, null, null));
+            seen.addAll(page.orders().stream().map(Order::getExternalId).toList());
+        }
+        assertThat(seen).hasSize(5).doesNotHaveDuplicates();
+        assertThat(seen.subList(0, 2)).containsExactly("ext4", "ext3");
+
+        OrderPage btc = getOrdersPage.execute(new GetOrdersPageQuery("user1", null, 10, "BTC-USD", null, null, null, null));
+        assertThat(btc.orders()).extracting(Order::getProductId).containsOnly("BTC-USD").hasSize(3);
+        assertThat(btc.nextCursor()).isNull();
+    }
+
+    @Test
+    void forEachByUserId_StreamsNewestFirstOnlyForUser() {
+        for (int i = 0; i < 5; i++) {
+            Order o = new Order();
+            o.setUserId(i < 4 ? "user1" : "user2");
+            o.setExternalId("ext" + i);
+            o.setProductId("BTC-USD");
+            o.setSide("BUY");
+            o.setStatus("FILLED");
+            o.setOccurredAt(Instant.parse("2024-05-18T07:26:14Z").plusSeconds(i));
+            entityManager.persist(o);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        List<String> streamed = new ArrayList<>();
+        store().forEachByUserId("user1", o -> streamed.add(o.getExternalId()));
+
+        assertThat(streamed).containsExactly("ext3", "ext2", "ext1", "ext0");
+    }
+
+    @Test
+    void changeFeed_ReturnsOnlyInsertedOrUpdatedRowsAfterVersion() {
+        OrderJpaStore store = store();
+        SaveNewOrders saveNewOrders = new SaveNewOrders(store);
+        GetOrderChanges getOrderChanges = new GetOrderChanges(store);
+
+        saveNewOrders.execute(new SaveNewOrdersAction("user1", List.of(input("ext1", "FILLED"), input("ext2", "OPEN"))));
+        OrderChanges initial = getOrderChanges.execute(new GetOrderChangesQuery("user1", 0, 100));
+        assertThat(initial.orders()).extracting(Order::getExternalId).containsExactly("ext1", "ext2");
+        assertThat(initial.highWaterMark()).isEqualTo(2);
 
+        saveNewOrders.execute(new SaveNewOrdersAction("user1", List.of(input("ext1", "FILLED"), input("ext2", "FILLED"))));
+        OrderChanges delta = getOrderChanges.execute(new GetOrderChangesQuery("user1", initial.highWaterMark(), 100));
+        assertThat(delta.orders()).extracting(Order::getExternalId).containsExactly("ext2");
+        assertThat(delta.orders().getFirst().getStatus()).isEqualTo("FILLED");
+        assertThat(delta.highWaterMark()).isEqualTo(3);
+
+        OrderChanges none = getOrderChanges.execute(new GetOrderChangesQuery("user1", delta.highWaterMark(), 100));
+        assertThat(none.orders()).isEmpty();
+        assertThat(none.highWaterMark()).isEqualTo(3);
+    }
+
+    @Test
+    void monthlyRollup_FollowsInsertsAndStatusChangesAndGroupsByDimension() {
+        OrderJpaStore store = store();
+        SaveNewOrders saveNewOrders = new SaveNewOrders(store);
+
+        saveNewOrders.execute(new SaveNewOrdersAction("user1", List.of(
+                input("ext1", "FILLED"),
+                input("ext2", "OPEN"),
+                new SaveNewOrdersAction.OrderInput("ext3", "ETH-USD", "sell", "FILLED", Instant.parse("2024-06-02T10:00:00Z"),
+                        new BigDecimal("2"), new BigDecimal("50"), new BigDecimal("1"), BigDecimal.ZERO)
+        )));
+        // ext2 fills later: it must be counted once, ext1 re-sync must not double count.
+        saveNewOrders.execute(new SaveNewOrdersAction("user1", List.of(input("ext1", "FILLED"), input("ext2", "FILLED"))));
+
+        List<OrderAggregate> byMonth = store.aggregate(new AggregateOrdersQuery("user1", EnumSet.of(AggregationDimension.MONTH), null, null));
+        assertThat(byMonth).extracting(OrderAggregate::month).containsExactly(YearMonth.of(2024, 5), YearMonth.of(2024, 6));
+        assertThat(byMonth.getFirst().orders()).isEqualTo(2);
+        assertThat(byMonth.getFirst().volume()).isEqualByComparingTo("300");
+        assertThat(byMonth.get(1).volume()).isEqualByComparingTo("100");
+        assertThat(byMonth.get(1).fees()).isEqualByComparingTo("1");
+
+        List<OrderAggregate> bySide = store.aggregate(new AggregateOrdersQuery("user1", EnumSet.of(AggregationDimension.SIDE), null, null));
+        assertThat(bySide).extracting(OrderAggregate::side).containsExactly("BUY", "SELL");
+        assertThat(bySide).allSatisfy(a -> assertThat(a.month()).isNull());
+
+        List<OrderAggregate> total = store.aggregate(new AggregateOrdersQuery("user1", Set.of(), YearMonth.of(2024, 6), YearMonth.of(2024, 12)));
+        assertThat(total).singleElement().satisfies(a -> {
+            assertThat(a.orders()).isEqualTo(1);
+            assertThat(a.productId()).isNull();
+            assertThat(a.quoteCurrency()).isEqualTo("USD");
+        });
+    }
+
+    @Test
+    void monthlyRollup_NeverSumsAmountsAcrossQuoteCurrencies() {
+        OrderJpaStore store = store();
+        SaveNewOrders saveNewOrders = new SaveNewOrders(store);
+
+        saveNewOrders.execute(new SaveNewOrdersAction("user1", List.of(
+                input("ext1", "FILLED"),
+                new SaveNewOrdersAction.OrderInput("ext2", "ETH-USDC", "buy", "FILLED", Instant.parse("2024-05-20T10:00:00Z"),
+                        new BigDecimal("2"), new BigDecimal("50"), new BigDecimal("1"), BigDecimal.ZERO)
+        )));
+
+        List<OrderAggregate> total = store.aggregate(new AggregateOrdersQuery("user1", Set.of(), null, null));
+        assertThat(total).extracting(OrderAggregate::quoteCurrency).containsExactly("USD", "USDC");
+        assertThat(total).extracting(OrderAggregate::volume).usingComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+                .containsExactly(new BigDecimal("150"), new BigDecimal("100"));
+    }
+
+    @Test
+    void monthlyRollup_ProductWithoutQuoteGetsEmptyQuoteCurrency() {
+        OrderJpaStore store = store();
+        SaveNewOrders saveNewOrders = new SaveNewOrders(store);
+
+        saveNewOrders.execute(new SaveNewOrdersAction("user1", List.of(
+                input("ext1", "FILLED"),
+                new SaveNewOrdersAction.OrderInput("ext2", "ETHUSD", "buy", "FILLED", Instant.parse("2024-05-20T10:00:00Z"),
+                        new BigDecimal("2"), new BigDecimal("50"), new BigDecimal("1"), BigDecimal.ZERO)
+        )));
+
+        List<OrderAggregate> total = store.aggregate(new AggregateOrdersQuery("user1", Set.of(), null, null));
+        assertThat(total).extracting(OrderAggregate::quoteCurrency).containsExactly("", "USD");
+    }
+
+    private static SaveNewOrdersAction.OrderInput input(String externalId, String status) {
+        return new SaveNewOrdersAction.OrderInput(
+                externalId,
+                "BTC-USD",
+                "BUY",
+                status,
+                Instant.parse("2024-05-18T07:26:14Z"),
+                new BigDecimal("1.5"),
+                new BigDecimal("100"),
+                BigDecimal.ZERO,
+                new BigDecimal("150")
+        );
+    }
+}
@@ -3,20 +3,34 @@ package com.mateuszcer.taxbackend.pit.application;
 import com.mateuszcer.taxbackend.pit.domain.PitFacade;
 import com.mateuszcer.taxbackend.pit.domain.PitPreview;
 import com.mateuszcer.taxbackend.pit.domain.PitReport;
+import com.mateuszcer.taxbackend.pit.domain.ReferencePrice;
 import com.mateuszcer.taxbackend.pit.domain.action.GeneratePitReportAction;
+import com.mateuszcer.taxbackend.pit.domain.port.ReferencePriceProvider;
 import com.mateuszcer.taxbackend.pit.domain.query.PitPreviewQuery;
+import com.mateuszcer.taxbackend.shared.concurrency.WorkScheduler;
+import com.mateuszcer.taxbackend.shared.etag.OrderSetVersions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -25,14 +39,79 @@ class PitControllerTest {
     @Mock
     private PitFacade pitFacade;
 
-    @InjectMocks
+    private final AtomicLong priceGeneration = new AtomicLong(1);
+    private WorkScheduler workScheduler;
     private PitController pitController;
 
+    @BeforeEach
+    void setUp() {
+        workScheduler = new WorkScheduler(1, 1, 16, Duration.ofMillis(500), Duration.ofSeconds(30), Duration.ofSeconds(1));
+        OrderSetVersions versions = userId -> 7L;
+        ReferencePriceProvider prices = new ReferencePriceProvider() {
+            @Override
+            public Optional<ReferencePrice> findPrice(String asset, LocalDate date) {
+                return Optional.empty();
+            }
+
+            @Override
+            public long generation() {
+                return priceGeneration.get();
+            }
+        };
+        pitController = new PitController(pitFacade, workScheduler, versions, prices);
+    }
+
+    @AfterEach
+    void tearDown() {
+        workScheduler.shutdown();
+    }
+
     @Test
     void previewReturns200() {
         when(pitFacade.handle(any(PitPreviewQuery.class))).thenReturn(new PitPreview(2024, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, List.of()));
-        ResponseEntity response = pitController.preview("u1", 2024);
+        ResponseEntity response = pitController.preview("u1", 2024, webRequest(null));
         assertThat(response.getStatusCode().value()).isEqualTo(200);
+        assertThat(response.getHeaders().getETag()).isNotNull();
+    }
+
+    @Test
+    void previewReturns304ForMatchingETagWithoutCalculating() {
+        when(pitFacade.handle(any(PitPreviewQuery.class))).thenReturn(new PitPreview(2024, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, List.of()));
+        String etag = pitController.preview("u1", 2024, webRequest(null)).getHeaders().getETag();
+
+        ResponseEntity response = pitController.preview("u1", 2024, webRequest(etag));
+
+        assertThat(response.getStatusCode().value()).isEqualTo(304);
+        verify(pitFacade, times(1)).handle(any(PitPreviewQuery.class));
+    }
+
+    @Test
+    void previewETagDiffersPerTaxYear() {
+        when(pitFacade.handle(any(PitPreviewQuery.class))).thenReturn(new PitPreview(2024, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, List.of()));
+        String etag2024 = pitController.preview("u1", 2024, webRequest(null)).getHeaders().getETag();
+        String etag2023 = pitController.preview("u1", 2023, webRequest(null)).getHeaders().getETag();
+
+        assertThat(etag2024).isNotEqualTo(etag2023);
+    }
+
+    @Test
+    void previewETagChangesWhenReferencePricesReload() {
+        when(pitFacade.handle(any(PitPreviewQuery.class))).thenReturn(new PitPreview(2024, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, List.of()));
+        String before = pitController.preview("u1", 2024, webRequest(null)).getHeaders().getETag();
+
+        priceGeneration.incrementAndGet();
+        ResponseEntity response = pitController.preview("u1", 2024, webRequest(before));
+
+        assertThat(response.getStatusCode().value()).isEqualTo(200);
+        assertThat(response.getHeaders().getETag()).isNotEqualTo(before);
+    }
+
+    private static ServletWebRequest webRequest(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/pit/2024/preview");
+        if (ifNoneMatch != null) {
+            request.addHeader("If-None-Match", ifNoneMatch);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
     }
 
     @Test
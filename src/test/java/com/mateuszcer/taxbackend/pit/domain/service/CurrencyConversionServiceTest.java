@@ -0,0 +1,48 @@
+package com.mateuszcer.taxbackend.pit.domain.service;
+
+import com.mateuszcer.taxbackend.pit.domain.ReferencePrice;
+import com.mateuszcer.taxbackend.pit.domain.port.ExchangeRateProvider;
+import com.mateuszcer.taxbackend.pit.domain.port.ReferencePriceProvider;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CurrencyConversionServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 1, 2);
+
+    private final ExchangeRateProvider nbp = new ExchangeRateProvider() {
+        @Override
+        public Optional<BigDecimal> getRate(String currencyCode, LocalDate date) {
+            return currencyCode.equals("USD") ? Optional.of(new BigDecimal("4.0")) : Optional.empty();
+        }
+
+        @Override
+        public boolean supports(String currencyCode) {
+            return Set.of("USD", "EUR").contains(currencyCode);
+        }
+    };
+
+    private final ReferencePriceProvider prices = (asset, date) -> asset.equals("BTC")
+            ? Optional.of(new ReferencePrice("BTC", "USD", date, new BigDecimal("40000")))
+            : Optional.empty();
+
+    private final CurrencyConversionService service = new CurrencyConversionService(nbp, prices);
+
+    @Test
+    void chainsCryptoQuoteThroughReferencePriceAndNbp() {
+        // 0.05 BTC -> 2000 USD -> 8000 PLN
+        assertThat(service.convertToPln(new BigDecimal("0.05"), "BTC", DAY)).isEqualByComparingTo("8000.00");
+    }
+
+    @Test
+    void fiatStillGoesStraightToNbpAndUnknownAssetsStayUnconverted() {
+        assertThat(service.convertToPln(new BigDecimal("10"), "USD", DAY)).isEqualByComparingTo("40.00");
+        assertThat(service.convertToPln(new BigDecimal("3"), "DOGE", DAY)).isEqualByComparingTo("3");
+    }
+}
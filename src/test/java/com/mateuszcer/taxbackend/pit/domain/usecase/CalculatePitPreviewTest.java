@@ -1,8 +1,9 @@
 package com.mateuszcer.taxbackend.pit.domain.usecase;
 
-import com.mateuszcer.taxbackend.capitalgains.domain.CapitalGainsPreview;
 import com.mateuszcer.taxbackend.capitalgains.domain.CapitalGainsFacade;
-import com.mateuszcer.taxbackend.capitalgains.domain.query.CapitalGainsPreviewQuery;
+import com.mateuszcer.taxbackend.capitalgains.domain.TaxYearTotals;
+import com.mateuszcer.taxbackend.capitalgains.domain.port.ReportingCurrencyConverter;
+import com.mateuszcer.taxbackend.capitalgains.domain.query.TaxYearTotalsQuery;
 import com.mateuszcer.taxbackend.pit.domain.PitPreview;
 import com.mateuszcer.taxbackend.pit.domain.query.PitPreviewQuery;
 import org.junit.jupiter.api.Test;
@@ -14,21 +15,27 @@ import static org.assertj.core.api.Assertions.assertThat;
 class CalculatePitPreviewTest {
 
     @Test
-    void mapsCapitalGainsPreviewToPitPreview() {
-        CapitalGainsFacade capitalGains = new CapitalGainsFacade(null, null) {
+    void mapsReportingTotalsToPitPreview() {
+        ReportingCurrencyConverter pln = ReportingCurrencyConverter.identity();
+        CapitalGainsFacade capitalGains = new CapitalGainsFacade(null, null, null, null, null) {
             @Override
-            public CapitalGainsPreview handle(CapitalGainsPreviewQuery query) {
-                return new CapitalGainsPreview(
+            public TaxYearTotals handle(TaxYearTotalsQuery query) {
+                assertThat(query.converter()).isSameAs(pln);
+                return new TaxYearTotals(
                         query.taxYear(),
+                        new BigDecimal("6.50"),
+                        new BigDecimal("9.38"),
+                        new BigDecimal("2.88"),
                         new BigDecimal("26.00"),
                         new BigDecimal("37.50"),
                         new BigDecimal("11.50"),
+                        java.util.List.of(),
                         java.util.List.of()
                 );
             }
         };
 
-        CalculatePitPreview usecase = new CalculatePitPreview(capitalGains);
+        CalculatePitPreview usecase = new CalculatePitPreview(capitalGains, pln);
         PitPreview preview = usecase.execute(new PitPreviewQuery("u1", 2024));
 
         assertThat(preview.cost()).isEqualByComparingTo("26.00");
@@ -36,5 +43,3 @@ class CalculatePitPreviewTest {
         assertThat(preview.gain()).isEqualByComparingTo("11.50");
     }
 }
-
-
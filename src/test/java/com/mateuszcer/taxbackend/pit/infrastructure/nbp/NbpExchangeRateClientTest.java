@@ -0,0 +1,66 @@
+package com.mateuszcer.taxbackend.pit.infrastructure.nbp;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestClient;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class NbpExchangeRateClientTest {
+
+    private MockRestServiceServer server;
+    private NbpExchangeRateClient client;
+
+    @BeforeEach
+    void setUp() {
+        RestClient.Builder builder = RestClient.builder();
+        server = MockRestServiceServer.bindTo(builder).build();
+        client = new NbpExchangeRateClient(builder, new ObjectMapper(), Clock.fixed(Instant.parse("2024-03-10T12:00:00Z"), ZoneOffset.UTC));
+    }
+
+    @Test
+    void fetchesA93DayWindowOnceAndServesEveryDayOfItWithWeekendFallback() {
+        server.expect(requestTo("https://api.nbp.pl/api/exchangerates/rates/a/usd/2023-12-25/2024-03-10/?format=json"))
+                .andRespond(withSuccess(rates("2024-01-05", "3.9432", "2024-01-08", "3.9750"), MediaType.APPLICATION_JSON));
+
+        assertThat(client.getRate("USD", LocalDate.of(2024, 1, 6))).hasValueSatisfying(r -> assertThat(r).isEqualByComparingTo("3.9432"));
+        assertThat(client.getRate("USD", LocalDate.of(2024, 1, 8))).hasValueSatisfying(r -> assertThat(r).isEqualByComparingTo("3.9750"));
+        assertThat(client.getRate("usd", LocalDate.of(2024, 1, 9))).hasValueSatisfying(r -> assertThat(r).isEqualByComparingTo("3.9750"));
+
+        server.verify();
+    }
+
+    @Test
+    void fallbackReachesIntoThePreviousWindow() {
+        server.expect(requestTo("https://api.nbp.pl/api/exchangerates/rates/a/eur/2023-12-25/2024-03-10/?format=json"))
+                .andRespond(withSuccess(rates("2024-01-02", "4.3434"), MediaType.APPLICATION_JSON));
+        server.expect(requestTo("https://api.nbp.pl/api/exchangerates/rates/a/eur/2023-09-23/2023-12-24/?format=json"))
+                .andRespond(withSuccess(rates("2023-12-22", "4.3395"), MediaType.APPLICATION_JSON));
+
+        assertThat(client.getRate("EUR", LocalDate.of(2023, 12, 26))).hasValueSatisfying(r -> assertThat(r).isEqualByComparingTo("4.3395"));
+
+        server.verify();
+    }
+
+    private static String rates(String... dateAndMid) {
+        StringBuilder json = new StringBuilder("{\"table\":\"A\",\"rates\":[");
+        for (int i = 0; i < dateAndMid.length; i += 2) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"no\":\"1/A/NBP\",\"effectiveDate\":\"").append(dateAndMid[i])
+                    .append("\",\"mid\":").append(dateAndMid[i + 1]).append('}');
+        }
+        return json.append("]}").toString();
+    }
+}
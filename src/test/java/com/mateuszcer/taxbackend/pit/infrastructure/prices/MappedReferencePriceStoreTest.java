@@ -0,0 +1,82 @@
+package com.mateuszcer.taxbackend.pit.infrastructure.prices;
+
+import com.mateuszcer.taxbackend.pit.domain.ReferencePrice;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MappedReferencePriceStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void importsCsvAndLooksUpDailyPricesWithWeekFallback() throws Exception {
+        Files.writeString(dir.resolve("btc-usd.csv"), """
+                snapped_at,price,market_cap,total_volume
+                2024-01-01 00:00:00 UTC,42280.23,828000000000,9000000000
+                2024-01-02 00:00:00 UTC,44187.14,866000000000,24000000000
+                2024-01-05 00:00:00 UTC,44151.10,865000000000,31000000000
+                """);
+
+        MappedReferencePriceStore store = new MappedReferencePriceStore(dir.toString());
+
+        assertThat(Files.exists(dir.resolve("BTC-USD.px"))).isTrue();
+        ReferencePrice jan2 = store.findPrice("BTC", LocalDate.of(2024, 1, 2)).orElseThrow();
+        assertThat(jan2.fiatCurrency()).isEqualTo("USD");
+        assertThat(jan2.price()).isEqualByComparingTo("44187.14");
+
+        ReferencePrice gap = store.findPrice("btc", LocalDate.of(2024, 1, 4)).orElseThrow();
+        assertThat(gap.date()).isEqualTo(LocalDate.of(2024, 1, 2));
+
+        assertThat(store.findPrice("BTC", LocalDate.of(2023, 12, 31))).isEmpty();
+        assertThat(store.findPrice("BTC", LocalDate.of(2024, 1, 20))).isEmpty();
+        assertThat(store.findPrice("ETH", LocalDate.of(2024, 1, 2))).isEmpty();
+    }
+
+    @Test
+    void prefersPlnSeriesAndPicksUpNewFilesOnReload() throws Exception {
+        Files.writeString(dir.resolve("ETH-USD.csv"), "2024-03-01,3400.5\n");
+        MappedReferencePriceStore store = new MappedReferencePriceStore(dir.toString());
+        assertThat(store.findPrice("ETH", LocalDate.of(2024, 3, 1)).orElseThrow().fiatCurrency()).isEqualTo("USD");
+
+        Files.writeString(dir.resolve("ETH-PLN.csv"), "2024-03-01,13500.25\n");
+        store.reload();
+
+        ReferencePrice price = store.findPrice("ETH", LocalDate.of(2024, 3, 1)).orElseThrow();
+        assertThat(price.fiatCurrency()).isEqualTo("PLN");
+        assertThat(price.price()).isEqualByComparingTo("13500.25");
+    }
+
+    @Test
+    void generationChangesOnlyWhenMappedFilesChangeAndRepeatsAcrossRestarts() throws Exception {
+        Files.writeString(dir.resolve("ETH-USD.csv"), "2024-03-01,3400.5\n");
+        MappedReferencePriceStore store = new MappedReferencePriceStore(dir.toString());
+        long initial = store.generation();
+
+        store.reload();
+        assertThat(store.generation()).isEqualTo(initial);
+        assertThat(new MappedReferencePriceStore(dir.toString()).generation()).isEqualTo(initial);
+
+        Files.writeString(dir.resolve("BTC-USD.csv"), "2024-03-01,61000\n");
+        store.reload();
+        long withBtc = store.generation();
+        assertThat(withBtc).isNotEqualTo(initial);
+
+        Files.delete(dir.resolve("BTC-USD.csv"));
+        Files.delete(dir.resolve("BTC-USD.px"));
+        store.reload();
+        assertThat(store.generation()).isEqualTo(initial);
+    }
+
+    @Test
+    void missingDirectoryMeansNoPrices() {
+        MappedReferencePriceStore store = new MappedReferencePriceStore(dir.resolve("absent").toString());
+        assertThat(store.findPrice("BTC", LocalDate.of(2024, 1, 2))).isEmpty();
+    }
+}
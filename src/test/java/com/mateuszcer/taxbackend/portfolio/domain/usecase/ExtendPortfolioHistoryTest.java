@@ -0,0 +1,251 @@
+package com.mateuszcer.taxbackend.portfolio.domain.usecase;
+
+import com.mateuszcer.taxbackend.capitalgains.domain.OrderSnapshot;
+import com.mateuszcer.taxbackend.portfolio.domain.HoldingValue;
+import com.mateuszcer.taxbackend.portfolio.domain.PortfolioDailyValue;
+import com.mateuszcer.taxbackend.portfolio.domain.PortfolioSeriesState;
+import com.mateuszcer.taxbackend.portfolio.domain.action.ExtendPortfolioHistoryAction;
+import com.mateuszcer.taxbackend.portfolio.domain.port.DailyPriceProvider;
+import com.mateuszcer.taxbackend.portfolio.domain.port.PortfolioHistoryStore;
+import com.mateuszcer.taxbackend.portfolio.domain.port.PortfolioOrdersProvider;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExtendPortfolioHistoryTest {
+
+    private static final Instant NOW = Instant.parse("2024-03-06T12:00:00Z");
+
+    @Test
+    void buildsSeriesOnceAndThenPricesOnlyNewDays() {
+        FakeOrders orders = new FakeOrders();
+        orders.orders.add(order("BTC-USD", "BUY", "2024-03-01T10:00:00Z", "1"));
+        orders.orders.add(order("BTC-USD", "SELL", "2024-03-03T10:00:00Z", "0.5"));
+        FakeStore store = new FakeStore();
+        List<LocalDate> priced = new ArrayList<>();
+
+        ExtendPortfolioHistory extend = extend(orders, store, priced, NOW);
+        extend.execute(new ExtendPortfolioHistoryAction("u1"));
+
+        // 1st..5th of March, valued at 100 PLN per unit
+        assertThat(store.values.keySet()).containsExactly(
+                LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 2), LocalDate.of(2024, 3, 3),
+                LocalDate.of(2024, 3, 4), LocalDate.of(2024, 3, 5)
+        );
+        assertThat(store.values.get(LocalDate.of(2024, 3, 2)).getMarketValue()).isEqualByComparingTo("100.00");
+        assertThat(store.values.get(LocalDate.of(2024, 3, 5)).getMarketValue()).isEqualByComparingTo("50.00");
+        assertThat(priced).hasSize(5);
+
+        priced.clear();
+        extend.execute(new ExtendPortfolioHistoryAction("u1"));
+        assertThat(priced).isEmpty();
+
+        extend(orders, store, priced, NOW.plusSeconds(2 * 86_400)).execute(new ExtendPortfolioHistoryAction("u1"));
+        assertThat(priced).containsExactly(LocalDate.of(2024, 3, 6), LocalDate.of(2024, 3, 7));
+        assertThat(store.values).hasSize(7);
+    }
+
+    @Test
+    void changedOrderRewritesFromItsDay() {
+        FakeOrders orders = new FakeOrders();
+        orders.orders.add(order("BTC-USD", "BUY", "2024-03-01T10:00:00Z", "1"));
+        FakeStore store = new FakeStore();
+        List<LocalDate> priced = new ArrayList<>();
+        ExtendPortfolioHistory extend = extend(orders, store, priced, NOW);
+        extend.execute(new ExtendPortfolioHistoryAction("u1"));
+
+        orders.orders.add(order("BTC-USD", "BUY", "2024-03-04T10:00:00Z", "1"));
+        orders.version = 2;
+        orders.changedSince = Instant.parse("2024-03-04T10:00:00Z");
+        priced.clear();
+        extend.execute(new ExtendPortfolioHistoryAction("u1"));
+
+        assertThat(priced).containsExactly(LocalDate.of(2024, 3, 4), LocalDate.of(2024, 3, 5));
+        assertThat(store.values.get(LocalDate.of(2024, 3, 3)).getMarketValue()).isEqualByComparingTo("100.00");
+        assertThat(store.values.get(LocalDate.of(2024, 3, 5)).getMarketValue()).isEqualByComparingTo("200.00");
+        assertThat(store.state.getOrderVersion()).isEqualTo(2);
+    }
+
+    @Test
+    void priceReloadRewritesFromFirstDayWithoutSameDayPrice() {
+        FakeOrders orders = new FakeOrders();
+        orders.orders.add(order("BTC-USD", "BUY", "2024-03-01T10:00:00Z", "1"));
+        orders.orders.add(order("ETH-USD", "BUY", "2024-03-03T10:00:00Z", "1"));
+        FakeStore store = new FakeStore();
+        List<LocalDate> priced = new ArrayList<>();
+        FakePrices prices = new FakePrices(priced);
+        prices.missing.put("ETH", LocalDate.of(2024, 3, 4));
+        ExtendPortfolioHistory extend = extend(orders, store, prices, NOW);
+        extend.execute(new ExtendPortfolioHistoryAction("u1"));
+
+        assertThat(store.values.get(LocalDate.of(2024, 3, 3)).getUnpricedAssets()).isEqualTo(1);
+        assertThat(store.values.get(LocalDate.of(2024, 3, 4)).getFallbackAssets()).isZero();
+        assertThat(store.values.get(LocalDate.of(2024, 3, 2)).getMarketValue()).isEqualByComparingTo("100.00");
+
+        // Same generation: nothing to do.
+        priced.clear();
+        extend.execute(new ExtendPortfolioHistoryAction("u1"));
+        assertThat(priced).isEmpty();
+
+        prices.missing.clear();
+        prices.generation = 2;
+        extend.execute(new ExtendPortfolioHistoryAction("u1"));
+
+        assertThat(priced).containsExactly(
+                LocalDate.of(2024, 3, 3), LocalDate.of(2024, 3, 3),
+                LocalDate.of(2024, 3, 4), LocalDate.of(2024, 3, 4),
+                LocalDate.of(2024, 3, 5), LocalDate.of(2024, 3, 5)
+        );
+        assertThat(store.values.get(LocalDate.of(2024, 3, 3)).getUnpricedAssets()).isZero();
+        assertThat(store.values.get(LocalDate.of(2024, 3, 3)).getMarketValue()).isEqualByComparingTo("200.00");
+        assertThat(store.values).hasSize(5);
+        assertThat(store.state.getPriceGeneration()).isEqualTo(2);
+    }
+
+    @Test
+    void priceReloadAlsoRevisitsDaysValuedAtAnEarlierPrice() {
+        FakeOrders orders = new FakeOrders();
+        orders.orders.add(order("BTC-USD", "BUY", "2024-03-01T10:00:00Z", "1"));
+        FakeStore store = new FakeStore();
+        List<LocalDate> priced = new ArrayList<>();
+        FakePrices prices = new FakePrices(priced);
+        prices.quotedBefore.add(LocalDate.of(2024, 3, 4));
+        ExtendPortfolioHistory extend = extend(orders, store, prices, NOW);
+        extend.execute(new ExtendPortfolioHistoryAction("u1"));
+        assertThat(store.values.get(LocalDate.of(2024, 3, 4)).getFallbackAssets()).isEqualTo(1);
+
+        prices.quotedBefore.clear();
+        prices.generation = 2;
+        priced.clear();
+        extend.execute(new ExtendPortfolioHistoryAction("u1"));
+
+        assertThat(priced).containsExactly(LocalDate.of(2024, 3, 4), LocalDate.of(2024, 3, 5));
+        assertThat(store.values.get(LocalDate.of(2024, 3, 4)).getFallbackAssets()).isZero();
+    }
+
+    @Test
+    void cryptoQuotedTradeMovesTheQuoteAssetToo() {
+        FakeOrders orders = new FakeOrders();
+        orders.orders.add(order("BTC-USD", "BUY", "2024-03-01T10:00:00Z", "1"));
+        // 2 ETH for 0.1 BTC on the 3rd, 1 ETH back for 0.06 BTC on the 4th.
+        orders.orders.add(new OrderSnapshot("ETH-BTC", "BUY", "FILLED", Instant.parse("2024-03-03T10:00:00Z"),
+                new BigDecimal("2"), new BigDecimal("0.05"), null, new BigDecimal("0.1")));
+        orders.orders.add(new OrderSnapshot("ETH-BTC", "SELL", "FILLED", Instant.parse("2024-03-04T10:00:00Z"),
+                new BigDecimal("1"), new BigDecimal("0.06"), null, null));
+        FakeStore store = new FakeStore();
+
+        extend(orders, store, new ArrayList<>(), NOW).execute(new ExtendPortfolioHistoryAction("u1"));
+
+        // 100 PLN per unit of anything: BTC 1 -> 0.9 -> 0.96, ETH 0 -> 2 -> 1.
+        assertThat(store.values.get(LocalDate.of(2024, 3, 2)).getMarketValue()).isEqualByComparingTo("100.00");
+        assertThat(store.values.get(LocalDate.of(2024, 3, 3)).getMarketValue()).isEqualByComparingTo("290.00");
+        assertThat(store.values.get(LocalDate.of(2024, 3, 4)).getMarketValue()).isEqualByComparingTo("196.00");
+    }
+
+    private static ExtendPortfolioHistory extend(FakeOrders orders, FakeStore store, List<LocalDate> priced, Instant now) {
+        return extend(orders, store, new FakePrices(priced), now);
+    }
+
+    private static ExtendPortfolioHistory extend(FakeOrders orders, FakeStore store, FakePrices prices, Instant now) {
+        return new ExtendPortfolioHistory(orders, prices, store, Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    private static OrderSnapshot order(String productId, String side, String at, String quantity) {
+        return new OrderSnapshot(productId, side, "FILLED", Instant.parse(at), new BigDecimal(quantity), null, null, null);
+    }
+
+    private static final class FakeOrders implements PortfolioOrdersProvider {
+        private final List<OrderSnapshot> orders = new ArrayList<>();
+        private long version = 1;
+        private Instant changedSince;
+
+        @Override
+        public long currentVersion(String userId) {
+            return version;
+        }
+
+        @Override
+        public List<OrderSnapshot> orders(String userId) {
+            return orders;
+        }
+
+        @Override
+        public Optional<Instant> earliestChangedSince(String userId, long version) {
+            return Optional.ofNullable(changedSince);
+        }
+    }
+
+    /**
+     * 100 PLN per unit of anything, except assets missing up to (excluding) a day and days quoted one day earlier.
+     */
+    private static final class FakePrices implements DailyPriceProvider {
+        private final List<LocalDate> priced;
+        private final Map<String, LocalDate> missing = new HashMap<>();
+        private final Set<LocalDate> quotedBefore = new HashSet<>();
+        private long generation = 1;
+
+        private FakePrices(List<LocalDate> priced) {
+            this.priced = priced;
+        }
+
+        @Override
+        public Optional<HoldingValue> valuePln(String asset, BigDecimal quantity, LocalDate date) {
+            priced.add(date);
+            LocalDate availableFrom = missing.get(asset);
+            if (availableFrom != null && date.isBefore(availableFrom)) {
+                return Optional.empty();
+            }
+            LocalDate priceDate = quotedBefore.contains(date) ? date.minusDays(1) : date;
+            return Optional.of(new HoldingValue(quantity.multiply(new BigDecimal("100")), priceDate));
+        }
+
+        @Override
+        public long generation() {
+            return generation;
+        }
+    }
+
+    private static final class FakeStore implements PortfolioHistoryStore {
+        private final TreeMap<LocalDate, PortfolioDailyValue> values = new TreeMap<>();
+        private PortfolioSeriesState state;
+
+        @Override
+        public Optional<PortfolioSeriesState> findState(String userId) {
+            return Optional.ofNullable(state);
+        }
+
+        @Override
+        public Optional<LocalDate> earliestIncompleteDay(String userId) {
+            return values.values().stream()
+                    .filter(v -> v.getUnpricedAssets() > 0 || v.getFallbackAssets() > 0)
+                    .map(PortfolioDailyValue::getDate)
+                    .findFirst();
+        }
+
+        @Override
+        public void replaceFrom(String userId, LocalDate from, List<PortfolioDailyValue> values, PortfolioSeriesState state) {
+            this.values.tailMap(from, true).clear();
+            values.forEach(v -> this.values.put(v.getDate(), v));
+            this.state = state;
+        }
+
+        @Override
+        public List<PortfolioDailyValue> findRange(String userId, LocalDate from, LocalDate to) {
+            return List.copyOf(this.values.subMap(from, true, to, true).values());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.mateuszcer.taxbackend.portfolio.domain.usecase;
+
+import com.mateuszcer.taxbackend.capitalgains.domain.OpenLot;
+import com.mateuszcer.taxbackend.portfolio.domain.HarvestPlan;
+import com.mateuszcer.taxbackend.portfolio.domain.MarketPrices;
+import com.mateuszcer.taxbackend.portfolio.domain.query.TaxLossHarvestQuery;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScanTaxLossHarvestTest {
+
+    private final List<OpenLot> lots = List.of(
+            // ETH: the loss lot sits behind a lot at a gain, FIFO would sell the gain first
+            new OpenLot("ETH-USD", Instant.parse("2023-01-01T00:00:00Z"), new BigDecimal("1"), BigDecimal.ONE, new BigDecimal("5000")),
+            new OpenLot("ETH-USD", Instant.parse("2024-01-01T00:00:00Z"), new BigDecimal("1"), BigDecimal.ONE, new BigDecimal("15000")),
+            // SOL: 100% loss per PLN of proceeds, then 50%
+            new OpenLot("SOL-USD", Instant.parse("2023-06-01T00:00:00Z"), new BigDecimal("10"), BigDecimal.ONE, new BigDecimal("1000")),
+            new OpenLot("SOL-USD", Instant.parse("2024-02-01T00:00:00Z"), new BigDecimal("10"), BigDecimal.ONE, new BigDecimal("750")),
+            // ADA: 25% loss per PLN of proceeds
+            new OpenLot("ADA-USD", Instant.parse("2024-03-01T00:00:00Z"), new BigDecimal("1000"), BigDecimal.ONE, new BigDecimal("5"))
+    );
+    private final ScanTaxLossHarvest scan = new ScanTaxLossHarvest(
+            userId -> lots,
+            () -> new MarketPrices(Instant.parse("2024-12-01T10:00:00Z"), Map.of(
+                    "ETH", new BigDecimal("10000"),
+                    "SOL", new BigDecimal("500"),
+                    "ADA", new BigDecimal("4")
+            ))
+    );
+
+    @Test
+    void takesBestLossPerPlnFirstAndStopsAtTarget() {
+        HarvestPlan plan = scan.execute(new TaxLossHarvestQuery("u1", new BigDecimal("6000")));
+
+        // SOL lot 1: 10 * 500 loss, then SOL lot 2 (250/unit): 4 units
+        assertThat(plan.sales()).singleElement().satisfies(sale -> {
+            assertThat(sale.productId()).isEqualTo("SOL-USD");
+            assertThat(sale.quantity()).isEqualByComparingTo("14");
+            assertThat(sale.loss()).isEqualByComparingTo("6000.00");
+        });
+        assertThat(plan.targetReached()).isTrue();
+        assertThat(plan.taxSaving()).isEqualByComparingTo("1140.00");
+    }
+
+    @Test
+    void listsEveryReachableLossWithoutTarget() {
+        HarvestPlan plan = scan.execute(new TaxLossHarvestQuery("u1", null));
+
+        assertThat(plan.sales()).extracting(s -> s.productId()).containsExactly("SOL-USD", "ADA-USD");
+        // SOL 5000 + 2500, ADA 1000; ETH's first lot is a gain, so its loss lot is not reachable
+        assertThat(plan.loss()).isEqualByComparingTo("8500.00");
+    }
+
+    @Test
+    void reportsTargetNotReached() {
+        HarvestPlan plan = scan.execute(new TaxLossHarvestQuery("u1", new BigDecimal("100000")));
+
+        assertThat(plan.targetReached()).isFalse();
+        assertThat(plan.loss()).isEqualByComparingTo("8500.00");
+    }
+}
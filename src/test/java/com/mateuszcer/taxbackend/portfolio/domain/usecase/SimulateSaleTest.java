@@ -0,0 +1,56 @@
+package com.mateuszcer.taxbackend.portfolio.domain.usecase;
+
+import com.mateuszcer.taxbackend.capitalgains.domain.OpenLot;
+import com.mateuszcer.taxbackend.portfolio.domain.MarketPrices;
+import com.mateuszcer.taxbackend.portfolio.domain.SaleSimulation;
+import com.mateuszcer.taxbackend.portfolio.domain.query.SimulateSaleQuery;
+import com.mateuszcer.taxbackend.shared.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SimulateSaleTest {
+
+    private final List<OpenLot> lots = List.of(
+            new OpenLot("BTC-USD", Instant.parse("2023-01-01T00:00:00Z"), new BigDecimal("0.3"), new BigDecimal("20000"), new BigDecimal("80000")),
+            new OpenLot("BTC-USD", Instant.parse("2024-01-01T00:00:00Z"), new BigDecimal("0.7"), new BigDecimal("40000"), new BigDecimal("160000"))
+    );
+    private final SimulateSale simulateSale = new SimulateSale(
+            userId -> lots,
+            () -> new MarketPrices(Instant.parse("2024-05-01T10:00:00Z"), Map.of("BTC", new BigDecimal("250000")))
+    );
+
+    @Test
+    void matchesOldestLotsFirstAtCurrentPrice() {
+        SaleSimulation simulation = simulateSale.execute(new SimulateSaleQuery("u1", "BTC-USD", new BigDecimal("0.5"), null));
+
+        // 0.3 * 80000 + 0.2 * 160000
+        assertThat(simulation.costBasis()).isEqualByComparingTo("56000.00");
+        assertThat(simulation.proceeds()).isEqualByComparingTo("125000.00");
+        assertThat(simulation.gain()).isEqualByComparingTo("69000.00");
+        assertThat(simulation.taxDelta()).isEqualByComparingTo("13110.00");
+        assertThat(simulation.remainingQuantity()).isEqualByComparingTo("0.5");
+    }
+
+    @Test
+    void lossGivesNegativeTaxDeltaAndLeavesCachedLotsUntouched() {
+        SaleSimulation simulation = simulateSale.execute(new SimulateSaleQuery("u1", "BTC-USD", new BigDecimal("1"), new BigDecimal("100000")));
+
+        assertThat(simulation.gain()).isEqualByComparingTo("-36000.00");
+        assertThat(simulation.taxDelta()).isEqualByComparingTo("-6840.00");
+        assertThat(lots.get(0).quantity()).isEqualByComparingTo("0.3");
+    }
+
+    @Test
+    void rejectsSellingMoreThanHeld() {
+        assertThatThrownBy(() -> simulateSale.execute(new SimulateSaleQuery("u1", "BTC-USD", new BigDecimal("1.5"), null)))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("Only 1 of BTC-USD");
+    }
+}
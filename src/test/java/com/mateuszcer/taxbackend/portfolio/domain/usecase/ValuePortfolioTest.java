@@ -0,0 +1,52 @@
+package com.mateuszcer.taxbackend.portfolio.domain.usecase;
+
+import com.mateuszcer.taxbackend.capitalgains.domain.OpenLot;
+import com.mateuszcer.taxbackend.portfolio.domain.MarketPrices;
+import com.mateuszcer.taxbackend.portfolio.domain.Portfolio;
+import com.mateuszcer.taxbackend.portfolio.domain.query.PortfolioQuery;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ValuePortfolioTest {
+
+    private static final Instant AS_OF = Instant.parse("2024-05-01T10:00:00Z");
+
+    @Test
+    void valuesOpenLotsPerProductAgainstCurrentPrices() {
+        List<OpenLot> lots = List.of(
+                new OpenLot("BTC-USD", Instant.parse("2023-01-01T00:00:00Z"), new BigDecimal("0.5"), new BigDecimal("20000"), new BigDecimal("80000")),
+                new OpenLot("BTC-USD", Instant.parse("2024-01-01T00:00:00Z"), new BigDecimal("0.25"), new BigDecimal("40000"), new BigDecimal("160000")),
+                new OpenLot("XYZ-EUR", Instant.parse("2024-01-01T00:00:00Z"), new BigDecimal("10"), new BigDecimal("1"), new BigDecimal("4.3"))
+        );
+        ValuePortfolio valuePortfolio = new ValuePortfolio(
+                userId -> lots,
+                () -> new MarketPrices(AS_OF, Map.of("BTC", new BigDecimal("250000")))
+        );
+
+        Portfolio portfolio = valuePortfolio.execute(new PortfolioQuery("u1"));
+
+        assertThat(portfolio.positions()).hasSize(2);
+        var btc = portfolio.positions().get(0);
+        assertThat(btc.asset()).isEqualTo("BTC");
+        assertThat(btc.quantity()).isEqualByComparingTo("0.75");
+        assertThat(btc.costBasis()).isEqualByComparingTo("80000.00");
+        assertThat(btc.marketValue()).isEqualByComparingTo("187500.00");
+        assertThat(btc.unrealizedGain()).isEqualByComparingTo("107500.00");
+
+        var xyz = portfolio.positions().get(1);
+        assertThat(xyz.costBasis()).isEqualByComparingTo("43.00");
+        assertThat(xyz.marketValue()).isNull();
+
+        assertThat(portfolio.costBasis()).isEqualByComparingTo("80043.00");
+        assertThat(portfolio.marketValue()).isEqualByComparingTo("187500.00");
+        assertThat(portfolio.unrealizedGain()).isEqualByComparingTo("107500.00");
+        assertThat(portfolio.pricesAsOf()).isEqualTo(AS_OF);
+        assertThat(portfolio.warnings()).singleElement().asString().contains("XYZ");
+    }
+}
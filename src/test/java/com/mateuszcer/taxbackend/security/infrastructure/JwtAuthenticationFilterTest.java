@@ -0,0 +1,76 @@
+package com.mateuszcer.taxbackend.security.infrastructure;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = "test-secret-key-with-at-least-32-bytes!";
+    private static final Instant NOW = Instant.parse("2024-05-01T10:00:00Z");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final JwtAuthenticationFilter filter =
+            new JwtAuthenticationFilter(SECRET, 100, meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void verifiesOnceAndServesRepeatedTokenFromCache() throws Exception {
+        String token = token("user-1", NOW.plusSeconds(3600));
+
+        Authentication first = authenticate(token);
+        Authentication second = authenticate(token);
+
+        assertThat(((Jwt) first.getPrincipal()).getSubject()).isEqualTo("user-1");
+        assertThat(second.getPrincipal()).isSameAs(first.getPrincipal());
+        assertThat(meterRegistry.get("jwt.filter.latency").tag("cache", "miss").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("jwt.filter.latency").tag("cache", "hit").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void doesNotAuthenticateOrCacheInvalidTokens() throws Exception {
+        String tampered = token("user-1", NOW.plusSeconds(3600)) + "x";
+
+        assertThat(authenticate(tampered)).isNull();
+        assertThat(authenticate(tampered)).isNull();
+        assertThat(meterRegistry.get("jwt.filter.latency").tag("cache", "rejected").timer().count()).isEqualTo(2);
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/orders");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private static String token(String userId, Instant expiresAt) {
+        return Jwts.builder()
+                .subject(userId)
+                .claim("email", userId + "@example.com")
+                .issuedAt(Date.from(NOW.minusSeconds(60)))
+                .expiration(Date.from(expiresAt))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+}
@@ -0,0 +1,34 @@
+package com.mateuszcer.taxbackend.shared.accesslog;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RedactorTest {
+
+    @Test
+    void masksCredentialHeadersOnly() {
+        Map<String, String> headers = Redactor.headers(Map.of(
+                "Authorization", List.of("Bearer eyJhbGciOi.abc.def"),
+                "Accept", List.of("application/json")
+        ));
+
+        assertThat(headers).containsEntry("Authorization", Redactor.MASK).containsEntry("Accept", "application/json");
+    }
+
+    @Test
+    void masksJsonFieldsQueryParamsAndBearerTokens() {
+        String body = "{\"email\":\"a@b.c\",\"password\":\"hunter2\",\"refresh_token\":\"r-1\",\"expires_in\":3600}";
+        assertThat(Redactor.text(body))
+                .isEqualTo("{\"email\":\"a@b.c\",\"password\":\"[REDACTED]\",\"refresh_token\":\"[REDACTED]\",\"expires_in\":3600}");
+
+        assertThat(Redactor.text("https://api.example.com/callback?code=abc123&state=xyz"))
+                .isEqualTo("https://api.example.com/callback?code=[REDACTED]&state=xyz");
+        assertThat(Redactor.text("grant_type=refresh_token&refresh_token=r-1&client_secret=s"))
+                .isEqualTo("grant_type=refresh_token&refresh_token=[REDACTED]&client_secret=[REDACTED]");
+        assertThat(Redactor.text("sent Bearer abc.def-ghi")).isEqualTo("sent Bearer [REDACTED]");
+    }
+}
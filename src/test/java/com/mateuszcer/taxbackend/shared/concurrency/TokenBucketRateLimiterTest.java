@@ -0,0 +1,45 @@
+package com.mateuszcer.taxbackend.shared.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+    private final TokenBucketRateLimiter limiter =
+            new TokenBucketRateLimiter(3, Duration.ofSeconds(1), Duration.ofMinutes(10), now::get);
+
+    @Test
+    void allowsBurstThenOneTokenPerInterval() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("10.0.0.1")).isZero();
+        }
+        Duration wait = limiter.tryAcquire("10.0.0.1");
+        assertThat(wait).isEqualTo(Duration.ofSeconds(1));
+
+        now.addAndGet(Duration.ofMillis(999).toNanos());
+        assertThat(limiter.tryAcquire("10.0.0.1")).isPositive();
+
+        now.addAndGet(Duration.ofMillis(1).toNanos());
+        assertThat(limiter.tryAcquire("10.0.0.1")).isZero();
+        assertThat(limiter.tryAcquire("10.0.0.1")).isPositive();
+    }
+
+    @Test
+    void bucketsAreIndependentPerKeyAndRefillToCapacityOnly() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("10.0.0.1");
+        }
+        assertThat(limiter.tryAcquire("10.0.0.2")).isZero();
+
+        now.addAndGet(Duration.ofHours(1).toNanos());
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("10.0.0.1")).isZero();
+        }
+        assertThat(limiter.tryAcquire("10.0.0.1")).isPositive();
+    }
+}
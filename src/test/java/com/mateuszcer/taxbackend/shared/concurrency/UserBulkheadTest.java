@@ -0,0 +1,93 @@
+package com.mateuszcer.taxbackend.shared.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserBulkheadTest {
+
+    private final UserBulkhead bulkhead = new UserBulkhead(2, Duration.ZERO);
+
+    @Test
+    void limitsEachUserIndependently() throws InterruptedException {
+        Optional<UserBulkhead.Permit> first = bulkhead.tryAcquire("u1");
+        Optional<UserBulkhead.Permit> second = bulkhead.tryAcquire("u1");
+
+        assertThat(first).isPresent();
+        assertThat(second).isPresent();
+        assertThat(bulkhead.tryAcquire("u1")).isEmpty();
+        assertThat(bulkhead.tryAcquire("u2")).isPresent();
+
+        first.get().release();
+        first.get().release();
+        assertThat(bulkhead.available("u1")).isEqualTo(1);
+        assertThat(bulkhead.tryAcquire("u1")).isPresent();
+    }
+
+    @Test
+    void waitingRequestGetsTheReleasedSlot() throws Exception {
+        UserBulkhead waiting = new UserBulkhead(1, Duration.ofSeconds(2));
+        UserBulkhead.Permit held = waiting.tryAcquire("u1").orElseThrow();
+
+        Thread.ofVirtual().start(() -> {
+            sleep(100);
+            held.release();
+        });
+
+        assertThat(waiting.tryAcquire("u1")).isPresent();
+    }
+
+    @Test
+    void dropsUserOnlyWhenAllPermitsAreBack() throws InterruptedException {
+        UserBulkhead.Permit first = bulkhead.tryAcquire("u1").orElseThrow();
+        UserBulkhead.Permit second = bulkhead.tryAcquire("u1").orElseThrow();
+        assertThat(bulkhead.tryAcquire("u1")).isEmpty();
+        assertThat(bulkhead.trackedUsers()).isEqualTo(1);
+
+        first.release();
+        assertThat(bulkhead.trackedUsers()).isEqualTo(1);
+        assertThat(bulkhead.available("u1")).isEqualTo(1);
+
+        second.release();
+        assertThat(bulkhead.trackedUsers()).isZero();
+        assertThat(bulkhead.available("u1")).isEqualTo(2);
+    }
+
+    @Test
+    void neverExceedsPermitsWhileEntriesComeAndGo() throws Exception {
+        UserBulkhead single = new UserBulkhead(1, Duration.ofMillis(50));
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger maxInside = new AtomicInteger();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 2_000; i++) {
+                executor.submit(() -> {
+                    Optional<UserBulkhead.Permit> permit = single.tryAcquire("u1");
+                    if (permit.isPresent()) {
+                        maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+                        inside.decrementAndGet();
+                        permit.get().release();
+                    }
+                    return null;
+                });
+            }
+        }
+
+        assertThat(maxInside.get()).isEqualTo(1);
+        assertThat(single.trackedUsers()).isZero();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
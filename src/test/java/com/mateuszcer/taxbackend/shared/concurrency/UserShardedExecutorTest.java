@@ -0,0 +1,53 @@
+package com.mateuszcer.taxbackend.shared.concurrency;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserShardedExecutorTest {
+
+    private final UserShardedExecutor executor = new UserShardedExecutor(4);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void runsWorkOfOneUserOnTheSameThreadInSubmissionOrder() {
+        List<Integer> seen = new ArrayList<>();
+        List<String> threads = new ArrayList<>();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            int n = i;
+            futures.add(executor.execute("user1", () -> {
+                seen.add(n);
+                threads.add(Thread.currentThread().getName());
+            }));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+        assertThat(seen).isSorted().hasSize(100);
+        assertThat(threads).containsOnly("user-shard-" + executor.shardOf("user1"));
+    }
+
+    @Test
+    void nestedCallForTheSameUserRunsInline() {
+        String result = executor.call("user1", () -> executor.call("user1", () -> Thread.currentThread().getName()));
+
+        assertThat(result).isEqualTo("user-shard-" + executor.shardOf("user1"));
+    }
+
+    @Test
+    void rethrowsTaskFailureUnwrapped() {
+        assertThatThrownBy(() -> executor.run("user1", () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("boom");
+    }
+}
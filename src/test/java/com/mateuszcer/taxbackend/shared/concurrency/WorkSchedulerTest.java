@@ -0,0 +1,138 @@
+package com.mateuszcer.taxbackend.shared.concurrency;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WorkSchedulerTest {
+
+    private final WorkScheduler scheduler = new WorkScheduler(
+            2, 1, 16, Duration.ofMillis(50), Duration.ofSeconds(30), Duration.ofMillis(400)
+    );
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void runsPrioritiesOnSeparatePools() {
+        String interactive = scheduler.call(WorkPriority.INTERACTIVE, () -> Thread.currentThread().getName());
+        String background = scheduler.call(WorkPriority.BACKGROUND, () -> Thread.currentThread().getName());
+
+        assertThat(interactive).startsWith("work-interactive-");
+        assertThat(background).startsWith("work-background-");
+    }
+
+    @Test
+    void backgroundYieldsWhileInteractiveP95IsOverBudget() {
+        scheduler.run(WorkPriority.INTERACTIVE, () -> sleep(120));
+        assertThat(scheduler.interactiveP95()).isGreaterThan(Duration.ofMillis(50));
+
+        long start = System.nanoTime();
+        scheduler.run(WorkPriority.BACKGROUND, () -> { });
+        long waitedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(waitedMillis).isGreaterThanOrEqualTo(350);
+    }
+
+    @Test
+    void backgroundRunsImmediatelyWithinBudget() {
+        scheduler.run(WorkPriority.INTERACTIVE, () -> { });
+
+        long start = System.nanoTime();
+        scheduler.run(WorkPriority.BACKGROUND, () -> { });
+        long waitedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(waitedMillis).isLessThan(300);
+    }
+
+    @Test
+    void submitAfterKeepsOrderPerKeyWithoutBlockingTheCaller() {
+        List<String> ran = new CopyOnWriteArrayList<>();
+
+        long start = System.nanoTime();
+        CompletableFuture<Void> first = scheduler.submitAfter("u1", WorkPriority.BACKGROUND, () -> {
+            sleep(150);
+            ran.add("first");
+            throw new IllegalStateException("boom");
+        });
+        CompletableFuture<Void> second = scheduler.submitAfter("u1", WorkPriority.BACKGROUND, () -> {
+            ran.add("second");
+            return null;
+        });
+        long submitMillis = (System.nanoTime() - start) / 1_000_000;
+
+        second.join();
+        assertThat(submitMillis).isLessThan(100);
+        assertThat(first).isCompletedExceptionally();
+        assertThat(ran).containsExactly("first", "second");
+    }
+
+    @Test
+    void fullBackgroundQueueNeverRunsTaskOnCaller() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        scheduler.submit(WorkPriority.BACKGROUND, () -> {
+            await(release);
+            return null;
+        });
+
+        String caller = Thread.currentThread().getName();
+        List<String> threads = new CopyOnWriteArrayList<>();
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        long start = System.nanoTime();
+        // 1 running + 16 queued fill the pool; the rest are rejected and must be retried, not run here.
+        for (int i = 0; i < 40; i++) {
+            tasks.add(scheduler.submitAfter("u" + i, WorkPriority.BACKGROUND, () -> {
+                threads.add(Thread.currentThread().getName());
+                return null;
+            }));
+        }
+        long submitMillis = (System.nanoTime() - start) / 1_000_000;
+        assertThat(threads).isEmpty();
+
+        release.countDown();
+        CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+
+        assertThat(submitMillis).isLessThan(100);
+        assertThat(threads).hasSize(40).allSatisfy(name -> assertThat(name).isNotEqualTo(caller).startsWith("work-background-"));
+    }
+
+    @Test
+    void submissionsAfterShutdownFailInsteadOfHanging() {
+        scheduler.shutdown();
+
+        CompletableFuture<String> background = scheduler.submitAfter("u1", WorkPriority.BACKGROUND, () -> "never");
+
+        assertThat(background).isCompletedExceptionally();
+        assertThatThrownBy(() -> scheduler.call(WorkPriority.INTERACTIVE, () -> "never"))
+                .isInstanceOf(RejectedExecutionException.class);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
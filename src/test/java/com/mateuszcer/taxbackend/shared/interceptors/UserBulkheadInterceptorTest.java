@@ -0,0 +1,55 @@
+package com.mateuszcer.taxbackend.shared.interceptors;
+
+import com.mateuszcer.taxbackend.shared.concurrency.UserBulkhead;
+import com.mateuszcer.taxbackend.shared.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserBulkheadInterceptorTest {
+
+    private final UserBulkhead bulkhead = new UserBulkhead(1, Duration.ZERO);
+    private final UserBulkheadInterceptor interceptor =
+            new UserBulkheadInterceptor(bulkhead, Duration.ofSeconds(3), new SimpleMeterRegistry());
+
+    @Test
+    void rejectsSecondConcurrentRequestWithRetryAfter() throws Exception {
+        MockHttpServletRequest first = request();
+        interceptor.preHandle(first, new MockHttpServletResponse(), new Object());
+
+        assertThatThrownBy(() -> interceptor.preHandle(request(), new MockHttpServletResponse(), new Object()))
+                .isInstanceOf(TooManyRequestsException.class)
+                .satisfies(e -> assertThat(((TooManyRequestsException) e).getRetryAfter()).isEqualTo(Duration.ofSeconds(3)));
+
+        interceptor.afterCompletion(first, new MockHttpServletResponse(), new Object(), null);
+        assertThat(bulkhead.available("u1")).isEqualTo(1);
+    }
+
+    @Test
+    void asyncDispatchReusesThePermitAndReleasesItOnce() throws Exception {
+        MockHttpServletRequest request = request();
+        request.setAsyncSupported(true);
+        interceptor.preHandle(request, new MockHttpServletResponse(), new Object());
+        interceptor.afterConcurrentHandlingStarted(request, new MockHttpServletResponse(), new Object());
+        assertThat(bulkhead.available("u1")).isZero();
+
+        request.setDispatcherType(DispatcherType.ASYNC);
+        assertThat(interceptor.preHandle(request, new MockHttpServletResponse(), new Object())).isTrue();
+        interceptor.afterCompletion(request, new MockHttpServletResponse(), new Object(), null);
+
+        assertThat(bulkhead.available("u1")).isEqualTo(1);
+    }
+
+    private static MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/pit/2024/preview");
+        request.addHeader("X-User-Id", "u1");
+        return request;
+    }
+}
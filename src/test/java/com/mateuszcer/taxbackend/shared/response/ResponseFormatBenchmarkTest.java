@@ -0,0 +1,78 @@
+package com.mateuszcer.taxbackend.shared.response;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.mateuszcer.taxbackend.orders.application.OrderController;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Encodes a large order history envelope in every offered format and compares size and encode time.
+ * Sizes are asserted; timings are only reported, as they depend on the machine. Tagged {@code benchmark}, so it is
+ * left out of {@code gradle test} and runs with {@code gradle benchmark}.
+ */
+@Tag("benchmark")
+class ResponseFormatBenchmarkTest {
+
+    private static final int ORDERS = 10_000;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+
+    private final ObjectMapper json = JsonMapper.builder().findAndAddModules().build();
+
+    @Test
+    void binaryFormatsAreSmallerThanJson() throws Exception {
+        ApiResponse<List<OrderController.OrderResponse>> payload = ApiResponse.success(orders(), "Orders retrieved successfully");
+
+        Map<ResponseFormat, Integer> sizes = new EnumMap<>(ResponseFormat.class);
+        for (ResponseFormat format : ResponseFormat.values()) {
+            ObjectMapper mapper = format == ResponseFormat.JSON ? json : json.copyWith(format.newFactory());
+
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                mapper.writeValueAsBytes(payload);
+            }
+            long start = System.nanoTime();
+            byte[] bytes = null;
+            for (int i = 0; i < MEASURED_ROUNDS; i++) {
+                bytes = mapper.writeValueAsBytes(payload);
+            }
+            double avgMillis = (System.nanoTime() - start) / 1_000_000.0 / MEASURED_ROUNDS;
+
+            sizes.put(format, bytes.length);
+            System.out.printf("%-5s %,10d bytes  %8.2f ms/encode%n", format, bytes.length, avgMillis);
+        }
+
+        assertThat(sizes.get(ResponseFormat.CBOR)).isLessThan(sizes.get(ResponseFormat.JSON));
+        assertThat(sizes.get(ResponseFormat.SMILE)).isLessThan(sizes.get(ResponseFormat.JSON));
+    }
+
+    private static List<OrderController.OrderResponse> orders() {
+        List<OrderController.OrderResponse> orders = new ArrayList<>(ORDERS);
+        Instant start = Instant.parse("2024-01-01T00:00:00Z");
+        for (int i = 0; i < ORDERS; i++) {
+            orders.add(new OrderController.OrderResponse(
+                    (long) i,
+                    "b2953b47-ed65-425b-810d-" + String.format("%012d", i),
+                    i % 3 == 0 ? "BTC-USD" : "ETH-USDC",
+                    i % 2 == 0 ? "BUY" : "SELL",
+                    "FILLED",
+                    start.plusSeconds(i * 3_600L),
+                    new BigDecimal("0.123456780000000000").add(BigDecimal.valueOf(i, 6)),
+                    new BigDecimal("64123.450000000000000000"),
+                    new BigDecimal("1.230000000000000000"),
+                    new BigDecimal("7916.420000000000000000"),
+                    i
+            ));
+        }
+        return orders;
+    }
+}
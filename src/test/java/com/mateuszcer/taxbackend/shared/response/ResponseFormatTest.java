@@ -0,0 +1,29 @@
+package com.mateuszcer.taxbackend.shared.response;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseFormatTest {
+
+    @Test
+    void negotiatesFirstAcceptedBinaryFormat() {
+        assertThat(ResponseFormat.negotiate(null)).isEqualTo(ResponseFormat.JSON);
+        assertThat(ResponseFormat.negotiate("*/*")).isEqualTo(ResponseFormat.JSON);
+        assertThat(ResponseFormat.negotiate("not a media type")).isEqualTo(ResponseFormat.JSON);
+        assertThat(ResponseFormat.negotiate("application/cbor, application/json;q=0.5")).isEqualTo(ResponseFormat.CBOR);
+        assertThat(ResponseFormat.negotiate("application/x-jackson-smile")).isEqualTo(ResponseFormat.SMILE);
+    }
+
+    @Test
+    void prefersHigherQualityOverHeaderOrder() {
+        assertThat(ResponseFormat.negotiate("application/cbor;q=0.5, application/json")).isEqualTo(ResponseFormat.JSON);
+        assertThat(ResponseFormat.negotiate("application/cbor;q=0.2, application/x-jackson-smile;q=0.8")).isEqualTo(ResponseFormat.SMILE);
+    }
+
+    @Test
+    void neverPicksFormatRefusedWithZeroQuality() {
+        assertThat(ResponseFormat.negotiate("application/cbor;q=0")).isEqualTo(ResponseFormat.JSON);
+        assertThat(ResponseFormat.negotiate("application/cbor;q=0, application/x-jackson-smile;q=0.1")).isEqualTo(ResponseFormat.SMILE);
+    }
+}